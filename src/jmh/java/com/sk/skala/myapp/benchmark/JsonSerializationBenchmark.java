@@ -0,0 +1,77 @@
+// JsonSerializationBenchmark.java
+package com.sk.skala.myapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerStock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/players, GET /api/players/{id}/stocks 응답 직렬화.
+ * Spring MVC와 같은 설정의 ObjectMapper(Jackson2ObjectMapperBuilder)를 사용한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "1000"})
+    private int size;
+
+    private ObjectWriter playersWriter;
+    private ObjectWriter playerStocksWriter;
+    private List<Player> players;
+    private List<PlayerStock> playerStocks;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        playersWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, Player.class));
+        playerStocksWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, PlayerStock.class));
+
+        players = new ArrayList<>(size);
+        playerStocks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Player player = new Player("player-" + i);
+            player.setPlayerMoney(10_000 + i);
+            players.add(player);
+
+            PlayerStock playerStock = new PlayerStock("Stock" + i, String.valueOf(100 + i), String.valueOf(i % 50 + 1));
+            playerStock.setId((long) i);
+            playerStock.setPlayer(player);
+            playerStocks.add(playerStock);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePlayers() throws JsonProcessingException {
+        return playersWriter.writeValueAsBytes(players);
+    }
+
+    @Benchmark
+    public byte[] serializePlayerStocks() throws JsonProcessingException {
+        return playerStocksWriter.writeValueAsBytes(playerStocks);
+    }
+}
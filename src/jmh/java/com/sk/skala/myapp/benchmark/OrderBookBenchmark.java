@@ -0,0 +1,72 @@
+package com.sk.skala.myapp.benchmark;
+
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.service.OrderBook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 종목 하나의 호가창 체결 지연 (OrderBookService 가 종목 lock 안에서 하는 부분, DB 정산 제외)
+ * SampleTime 으로 p50/p99/p99.9 를 본다.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderBookBenchmark {
+
+    // 기준가 주변에 미리 깔아 둔 가격 단계 수 (한쪽)
+    @Param({"10", "1000"})
+    private int depth;
+
+    private static final int MID = 100_000;
+
+    private OrderBook book;
+    private SplittableRandom random;
+    private long nextId;
+
+    @Setup
+    public void setUp() {
+        book = new OrderBook("TechCorp");
+        random = new SplittableRandom(42);
+        nextId = 1;
+        OrderBook.FillListener ignore = (makerId, makerPlayer, takerId, takerPlayer, side, price, quantity) -> { };
+        for (int i = 1; i <= depth; i++) {
+            book.submit(nextId++, "maker", TradeOrder.Side.BUY, MID - i, 1_000_000, ignore);
+            book.submit(nextId++, "maker", TradeOrder.Side.SELL, MID + i, 1_000_000, ignore);
+        }
+    }
+
+    // 기준가 주변 무작위 지정가 주문. 절반 정도는 바로 체결되고 나머지는 호가창에 쌓였다가 다음 주문과 체결된다
+    @Benchmark
+    public int submit(Blackhole blackhole) {
+        TradeOrder.Side side = random.nextBoolean() ? TradeOrder.Side.BUY : TradeOrder.Side.SELL;
+        int price = MID + random.nextInt(-depth, depth + 1);
+        return book.submit(nextId++, "taker", side, price, random.nextInt(1, 100),
+                (makerId, makerPlayer, takerId, takerPlayer, takerSide, fillPrice, quantity) -> blackhole.consume(quantity));
+    }
+
+    // 호가창에 올렸다가 바로 취소
+    @Benchmark
+    public int submitAndCancel(Blackhole blackhole) {
+        long orderId = nextId++;
+        book.submit(orderId, "taker", TradeOrder.Side.BUY, MID - depth - 1 - random.nextInt(100), 10,
+                (makerId, makerPlayer, takerId, takerPlayer, takerSide, fillPrice, quantity) -> blackhole.consume(quantity));
+        return book.cancel(orderId);
+    }
+}
@@ -0,0 +1,103 @@
+// PlayerServiceBenchmark.java
+package com.sk.skala.myapp.benchmark;
+
+import com.sk.skala.myapp.MyappApplication;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.TradeResult;
+import com.sk.skala.myapp.service.PlayerService;
+import com.sk.skala.myapp.service.StockService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PlayerService / StockService 를 in-memory H2 위에서 실행한다 (test 프로파일, 웹 서버 없이).
+ * 거래 benchmark 는 매수 후 같은 수량을 매도해 반복 중에도 데이터 크기가 변하지 않게 한다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlayerServiceBenchmark {
+    private static final String PLAYER_ID = "jmh-player";
+    private static final String STOCK_NAME = "TechCorp";
+
+    private ConfigurableApplicationContext context;
+    private PlayerService playerService;
+    private StockService stockService;
+    private PlayerStock addStock;
+    private PlayerStock setStock;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 명령행 인자로 넘겨야 application.yaml 의 기본 프로파일(local, show-sql)을 대신하고
+        // application-test.yaml 보다 우선한다 (.profiles()/.properties() 는 둘 다 되지 않음)
+        context = new SpringApplicationBuilder(MyappApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.profiles.active=test",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                        "--logging.level.root=WARN");
+        playerService = context.getBean(PlayerService.class);
+        stockService = context.getBean(StockService.class);
+
+        Player player = new Player(PLAYER_ID);
+        player.setPlayerMoney(Integer.MAX_VALUE / 2);
+        playerService.createPlayer(player);
+
+        // 메뉴 문자열 benchmark 용 보유 종목
+        for (String name : new String[]{"TechCorp", "GreenEnergy", "HealthPlus"}) {
+            playerService.buyStock(PLAYER_ID, name, 10);
+        }
+
+        addStock = new PlayerStock(STOCK_NAME, "100", "1");
+        setStock = new PlayerStock(STOCK_NAME, "100", "10");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TradeResult buyThenSell() {
+        playerService.buyStock(PLAYER_ID, STOCK_NAME, 1);
+        return playerService.sellStock(PLAYER_ID, STOCK_NAME, 1);
+    }
+
+    @Benchmark
+    public Player addStockToPlayer() {
+        return playerService.addStockToPlayer(PLAYER_ID, addStock);
+    }
+
+    @Benchmark
+    public Player updatePlayerStock() {
+        return playerService.updatePlayerStock(PLAYER_ID, setStock);
+    }
+
+    @Benchmark
+    public String getPlayerStocksForMenu() {
+        return playerService.getPlayerStocksForMenu(PLAYER_ID);
+    }
+
+    @Benchmark
+    public String getStockListForMenu() {
+        return stockService.getStockListForMenu();
+    }
+}
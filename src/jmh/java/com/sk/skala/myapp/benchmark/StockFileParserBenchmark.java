@@ -0,0 +1,81 @@
+// StockFileParserBenchmark.java
+package com.sk.skala.myapp.benchmark;
+
+import com.sk.skala.myapp.service.StockFileParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * stocks.txt / players.txt 한 줄 파싱 (BulkLoadService 적재 경로)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StockFileParserBenchmark {
+
+    private final String stockLine = "TechCorp," + new SplittableRandom(42).nextInt(1, 100_000);
+
+    @State(Scope.Benchmark)
+    public static class PlayerLine {
+        // 플레이어 한 줄에 포함된 보유 종목 수
+        @Param({"0", "3", "20"})
+        private int holdings;
+
+        private String line;
+
+        @Setup
+        public void setUp() {
+            SplittableRandom random = new SplittableRandom(42);
+            StringBuilder sb = new StringBuilder("player-12345,").append(random.nextInt(1, 10_000_000));
+            for (int i = 0; i < holdings; i++) {
+                sb.append(i == 0 ? ',' : '|')
+                        .append("Stock").append(i).append(':')
+                        .append(random.nextInt(1, 100_000)).append(':')
+                        .append(random.nextInt(1, 1_000));
+            }
+            line = sb.toString();
+        }
+    }
+
+    @Benchmark
+    public boolean parseStockLine(Blackhole blackhole) {
+        return StockFileParser.parseStockLine(stockLine, (name, price) -> {
+            blackhole.consume(name);
+            blackhole.consume(price);
+        });
+    }
+
+    @Benchmark
+    public boolean parsePlayerLine(PlayerLine playerLine, Blackhole blackhole) {
+        return StockFileParser.parsePlayerLine(playerLine.line, new StockFileParser.PlayerHandler() {
+            @Override
+            public void onPlayer(String playerId, int playerMoney) {
+                blackhole.consume(playerId);
+                blackhole.consume(playerMoney);
+            }
+
+            @Override
+            public void onPlayerStock(String playerId, String stockName, int stockPrice, int stockQuantity) {
+                blackhole.consume(stockName);
+                blackhole.consume(stockPrice);
+                blackhole.consume(stockQuantity);
+            }
+        });
+    }
+}
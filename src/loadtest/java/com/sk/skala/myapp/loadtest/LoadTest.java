@@ -0,0 +1,458 @@
+package com.sk.skala.myapp.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sk.skala.myapp.MyappApplication;
+import com.sk.skala.myapp.loadtest.LoadTestOptions.Operation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * closed-loop 부하 발생기.
+ *
+ * 가상 사용자(스레드)마다 자기 플레이어로 요청 -> 응답 대기 -> (think time) -> 다음 요청을 반복한다.
+ * 사용자 수를 단계별로 늘려 가며 단계마다 엔드포인트별 처리량과 p50/p99/p999 지연(HdrHistogram)을 측정하고,
+ * 앱을 직접 기동한 경우 DB 커넥션 풀 대기, Tomcat/JVM 스레드 수, JVM 메모리 사용량의 최댓값도 함께 기록한다.
+ * 결과는 표로 출력하고 JSON 파일(--output)로 저장해 실행 간 비교(--compare)에 사용한다.
+ *
+ * mvn -Ploadtest verify -Dloadtest.args="--users=50,200,1000 --duration=30s"
+ */
+public class LoadTest {
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final long HIGHEST_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int STARTING_MONEY = 1_000_000_000;
+
+    private final LoadTestOptions options;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final MeterRegistry serverMetrics;
+    private final List<String> stockNames = new ArrayList<>();
+
+    private LoadTest(LoadTestOptions options, String baseUrl, MeterRegistry serverMetrics) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.serverMetrics = serverMetrics;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        if (!options.compare.isEmpty()) {
+            printComparison(options.compare);
+            return;
+        }
+        if (options.virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("--virtual-threads=true requires Java 21 (mvn -Pjava21,loadtest verify)");
+        }
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = options.baseUrl;
+        MeterRegistry serverMetrics = null;
+        if (baseUrl.isEmpty()) {
+            context = startApplication(options.virtualThreads);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            baseUrl = "http://localhost:" + port;
+            serverMetrics = context.getBean(MeterRegistry.class);
+        }
+
+        try {
+            LoadTest loadTest = new LoadTest(options, baseUrl, serverMetrics);
+            loadTest.prepare();
+
+            ObjectNode result = JSON.createObjectNode();
+            result.put("label", options.label);
+            result.put("timestamp", Instant.now().toString());
+            result.put("target", options.baseUrl.isEmpty() ? "in-process (H2 in-memory)" : options.baseUrl);
+            result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+            result.put("javaVersion", Runtime.version().toString());
+            result.put("threadMode", options.virtualThreads ? "virtual" : "platform");
+            ObjectNode config = result.putObject("config");
+            config.put("durationSeconds", options.duration.toSeconds());
+            config.put("warmupSeconds", options.warmup.toSeconds());
+            config.put("thinkTimeMillis", options.thinkTime.toMillis());
+            config.put("players", options.players);
+            ObjectNode mix = config.putObject("mix");
+            options.mix.forEach((operation, weight) -> mix.put(operation.name().toLowerCase(), weight));
+
+            ArrayNode steps = result.putArray("steps");
+            for (int users : options.users) {
+                steps.add(loadTest.runStep(users));
+            }
+
+            Path output = Paths.get(options.output);
+            if (output.getParent() != null) {
+                Files.createDirectories(output.getParent());
+            }
+            JSON.writeValue(output.toFile(), result);
+            printSummary(steps);
+            System.out.println("Result saved to " + output.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(boolean virtualThreads) {
+        // devtools 재시작은 main 을 인자 없이 다시 호출하므로 끈다
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(MyappApplication.class).run(
+                "--spring.profiles.active=test",
+                // 가상 스레드 모드에서는 connection-gate 도 함께 켜진다 (application.yaml)
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.port=0",
+                "--management.server.port=0",
+                "--server.tomcat.mbeanregistry.enabled=true",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=30000",
+                // 운영과 같은 풀 크기로 측정 (test 프로파일은 16)
+                "--spring.datasource.hikari.maximum-pool-size=10",
+                "--logging.level.root=WARN");
+    }
+
+    /**
+     * 종목 목록을 읽고 플레이어를 만든다 (이미 있으면 잔액만 다시 설정된다).
+     */
+    private void prepare() throws IOException, InterruptedException {
+        HttpResponse<String> stocks = send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/stocks")).GET().build());
+        for (JsonNode stock : JSON.readTree(stocks.body())) {
+            stockNames.add(stock.get("stockName").asText());
+        }
+        if (stockNames.isEmpty()) {
+            throw new IllegalStateException("No stocks available at " + baseUrl);
+        }
+
+        for (int i = 0; i < options.players; i++) {
+            String body = "{\"playerId\":\"" + playerId(i) + "\",\"playerMoney\":" + STARTING_MONEY + "}";
+            send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/players"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build());
+        }
+        System.out.printf("Prepared %d players, %d stocks at %s%n", options.players, stockNames.size(), baseUrl);
+    }
+
+    private ObjectNode runStep(int users) throws InterruptedException {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+        ServerSampler sampler = new ServerSampler(serverMetrics);
+
+        long warmupEnd = System.nanoTime() + options.warmup.toNanos();
+        long end = warmupEnd + options.duration.toNanos();
+        List<Thread> threads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            VirtualUser user = new VirtualUser(i, stats, end);
+            Thread thread = new Thread(user, "vu-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        System.out.printf("Step users=%d: warmup %ds, measure %ds%n",
+                users, options.warmup.toSeconds(), options.duration.toSeconds());
+        sleepUntil(warmupEnd);
+        stats.values().forEach(EndpointStats::reset);
+        sampler.reset();
+
+        long measureStart = System.nanoTime();
+        while (System.nanoTime() < end) {
+            sampler.sample();
+            Thread.sleep(100);
+        }
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        stats.forEach((operation, endpoint) -> histograms.put(operation, endpoint.recorder.getIntervalHistogram()));
+
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        ObjectNode step = JSON.createObjectNode();
+        step.put("users", users);
+        long total = 0;
+        ObjectNode endpoints = step.putObject("endpoints");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            EndpointStats endpoint = stats.get(operation);
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total += histogram.getTotalCount();
+            ObjectNode node = endpoints.putObject(operation.endpoint);
+            node.put("requests", histogram.getTotalCount());
+            node.put("throughput", round(histogram.getTotalCount() / seconds));
+            node.put("rejected", endpoint.rejected.sum());
+            node.put("shed", endpoint.shed.sum());
+            node.put("errors", endpoint.errors.sum());
+            node.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            node.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+            node.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            node.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+            node.put("maxMs", millis(histogram.getMaxValue()));
+        }
+        step.put("throughput", round(total / seconds));
+        if (serverMetrics != null) {
+            step.set("server", sampler.toJson());
+        }
+        return step;
+    }
+
+    /**
+     * 가상 사용자 한 명. 응답을 받은 뒤에만 다음 요청을 보낸다 (closed loop).
+     */
+    private final class VirtualUser implements Runnable {
+        private final String playerId;
+        private final Map<Operation, EndpointStats> stats;
+        private final long end;
+        private final SplittableRandom random;
+        private final Operation[] wheel;
+
+        VirtualUser(int index, Map<Operation, EndpointStats> stats, long end) {
+            this.playerId = playerId(index % options.players);
+            this.stats = stats;
+            this.end = end;
+            this.random = new SplittableRandom(index);
+
+            List<Operation> slots = new ArrayList<>();
+            options.mix.forEach((operation, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    slots.add(operation);
+                }
+            });
+            this.wheel = slots.toArray(new Operation[0]);
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < end) {
+                Operation operation = wheel[random.nextInt(wheel.length)];
+                HttpRequest request = request(operation);
+                EndpointStats endpoint = stats.get(operation);
+
+                long start = System.nanoTime();
+                int status;
+                try {
+                    status = send(request).statusCode();
+                } catch (IOException e) {
+                    status = -1;
+                } catch (InterruptedException e) {
+                    return;
+                }
+                endpoint.recorder.recordValue(Math.min(System.nanoTime() - start, HIGHEST_LATENCY_NANOS));
+                if (status == 409) {
+                    // 잔액/보유 수량 부족 - 정상 응답이지만 따로 센다
+                    endpoint.rejected.increment();
+                } else if (status == 429) {
+                    // admission-control 에 의해 거절 (과부하 시 빠른 실패)
+                    endpoint.shed.increment();
+                } else if (status < 200 || status >= 300) {
+                    endpoint.errors.increment();
+                }
+
+                if (!options.thinkTime.isZero()) {
+                    try {
+                        Thread.sleep(options.thinkTime.toMillis());
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private HttpRequest request(Operation operation) {
+            String stockName = stockNames.get(random.nextInt(stockNames.size()));
+            return switch (operation) {
+                case STOCKS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/stocks")).GET().build();
+                case HOLDINGS -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/players/" + playerId + "/stocks"))
+                        .GET().build();
+                case BUY -> trade("POST", stockName, 1 + random.nextInt(5));
+                case SELL -> trade("PUT", stockName, 1);
+            };
+        }
+
+        private HttpRequest trade(String method, String stockName, int quantity) {
+            String body = "{\"stockName\":\"" + stockName + "\",\"quantity\":" + quantity + "}";
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/players/" + playerId + "/stocks"))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+
+    private static final class EndpointStats {
+        private final Recorder recorder = new Recorder(HIGHEST_LATENCY_NANOS, 3);
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        void reset() {
+            recorder.reset();
+            rejected.reset();
+            shed.reset();
+            errors.reset();
+        }
+    }
+
+    /**
+     * 앱을 직접 기동한 경우 포화 지표(커넥션 풀/게이트 대기, 스레드 수, 메모리)를 주기적으로 읽어 최댓값을 남긴다.
+     * 같은 JVM 에서 측정하므로 스레드 수와 메모리에는 부하 발생기(사용자당 스레드 하나)도 포함된다 (두 모드에 같은 크기).
+     */
+    private static final class ServerSampler {
+        private static final String[] GAUGES = {
+                "hikaricp.connections.active",
+                "hikaricp.connections.pending",
+                "hikaricp.connections.max",
+                "connection.gate.waiting",
+                "tomcat.threads.busy",
+                "tomcat.threads.config.max",
+                "jvm.threads.live",
+                // heap + non-heap (area 태그 합계)
+                "jvm.memory.used"
+        };
+
+        private final MeterRegistry registry;
+        private final double[] max = new double[GAUGES.length];
+
+        ServerSampler(MeterRegistry registry) {
+            this.registry = registry;
+        }
+
+        void reset() {
+            Arrays.fill(max, 0);
+        }
+
+        void sample() {
+            if (registry == null) {
+                return;
+            }
+            for (int i = 0; i < GAUGES.length; i++) {
+                double value = 0;
+                for (Gauge gauge : registry.find(GAUGES[i]).gauges()) {
+                    value += gauge.value();
+                }
+                max[i] = Math.max(max[i], value);
+            }
+        }
+
+        ObjectNode toJson() {
+            ObjectNode node = JSON.createObjectNode();
+            for (int i = 0; i < GAUGES.length; i++) {
+                node.put(GAUGES[i] + ".peak", round(max[i]));
+            }
+            return node;
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void printSummary(ArrayNode steps) {
+        System.out.println();
+        System.out.printf("%-6s %-32s %10s %8s %8s %8s %9s %9s %9s %9s%n",
+                "users", "endpoint", "req/s", "errors", "409", "429", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (JsonNode step : steps) {
+            step.get("endpoints").fields().forEachRemaining(entry -> {
+                JsonNode node = entry.getValue();
+                System.out.printf("%-6d %-32s %10.1f %8d %8d %8d %9.2f %9.2f %9.2f %9.2f%n",
+                        step.get("users").asInt(), entry.getKey(), node.get("throughput").asDouble(),
+                        node.get("errors").asLong(), node.get("rejected").asLong(), node.get("shed").asLong(),
+                        node.get("p50Ms").asDouble(), node.get("p99Ms").asDouble(),
+                        node.get("p999Ms").asDouble(), node.get("maxMs").asDouble());
+            });
+            System.out.printf("%-6d %-32s %10.1f%s%n", step.get("users").asInt(), "TOTAL",
+                    step.get("throughput").asDouble(), step.has("server") ? "  server " + step.get("server") : "");
+        }
+    }
+
+    /**
+     * 두 결과 파일(예: 플랫폼 스레드 / 가상 스레드 모드)을 같은 사용자 수 단계끼리 나란히 출력한다.
+     */
+    private static void printComparison(List<String> files) throws IOException {
+        if (files.size() != 2) {
+            throw new IllegalArgumentException("--compare needs two result files: " + files);
+        }
+        JsonNode a = JSON.readTree(Paths.get(files.get(0)).toFile());
+        JsonNode b = JSON.readTree(Paths.get(files.get(1)).toFile());
+        String labelA = a.path("label").asText() + "/" + a.path("threadMode").asText("platform");
+        String labelB = b.path("label").asText() + "/" + b.path("threadMode").asText("platform");
+        System.out.printf("A = %s (%s), B = %s (%s)%n%n", labelA, files.get(0), labelB, files.get(1));
+        System.out.printf("%-6s %-32s %11s %11s %10s %10s%n", "users", "endpoint", "A req/s", "B req/s", "A p99", "B p99");
+
+        for (JsonNode stepA : a.get("steps")) {
+            int users = stepA.get("users").asInt();
+            JsonNode stepB = null;
+            for (JsonNode candidate : b.get("steps")) {
+                if (candidate.get("users").asInt() == users) {
+                    stepB = candidate;
+                }
+            }
+            if (stepB == null) {
+                continue;
+            }
+            JsonNode endpointsB = stepB.get("endpoints");
+            stepA.get("endpoints").fields().forEachRemaining(entry -> {
+                JsonNode nodeB = endpointsB.path(entry.getKey());
+                System.out.printf("%-6d %-32s %11.1f %11.1f %10.2f %10.2f%n", users, entry.getKey(),
+                        entry.getValue().get("throughput").asDouble(), nodeB.path("throughput").asDouble(),
+                        entry.getValue().get("p99Ms").asDouble(), nodeB.path("p99Ms").asDouble());
+            });
+            System.out.printf("%-6d %-32s %11.1f %11.1f%n", users, "TOTAL",
+                    stepA.get("throughput").asDouble(), stepB.get("throughput").asDouble());
+            JsonNode serverA = stepA.path("server");
+            JsonNode serverB = stepB.path("server");
+            serverA.fieldNames().forEachRemaining(name -> System.out.printf("%-6d %-32s %11.1f %11.1f%n",
+                    users, name, serverA.get(name).asDouble(), serverB.path(name).asDouble()));
+        }
+    }
+
+    private static String playerId(int index) {
+        return "lt-" + index;
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(100)));
+        }
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
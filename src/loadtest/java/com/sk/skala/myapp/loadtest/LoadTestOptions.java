@@ -0,0 +1,104 @@
+package com.sk.skala.myapp.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 테스트 옵션 (--key=value)
+ *
+ * --users=50,200,1000    단계별 가상 사용자 수 (단계마다 따로 측정)
+ * --duration=30s         단계별 측정 시간
+ * --warmup=10s           단계별 워밍업 시간 (측정에서 제외)
+ * --mix=stocks:40,holdings:30,buy:15,sell:15  요청 비율
+ * --think-time=0ms       요청 사이 대기 시간 (0 = 응답 즉시 다음 요청)
+ * --players=0            플레이어 수 (0 = 최대 사용자 수, 사용자마다 한 명)
+ * --base-url=            지정하면 실행 중인 서버를 대상으로 한다 (기본: in-memory H2로 앱을 직접 기동)
+ * --label=local          결과 파일에 기록할 실행 이름
+ * --output=target/loadtest-result.json
+ * --virtual-threads=false 직접 기동하는 앱을 가상 스레드 모드로 실행 (Java 21 필요, mvn -Pjava21,loadtest)
+ * --compare=a.json,b.json 부하를 걸지 않고 두 결과 파일을 단계별로 나란히 출력
+ */
+public class LoadTestOptions {
+    List<Integer> users = List.of(50, 200, 1000);
+    Duration duration = Duration.ofSeconds(30);
+    Duration warmup = Duration.ofSeconds(10);
+    Map<Operation, Integer> mix = new LinkedHashMap<>(Map.of(
+            Operation.STOCKS, 40, Operation.HOLDINGS, 30, Operation.BUY, 15, Operation.SELL, 15));
+    Duration thinkTime = Duration.ZERO;
+    int players;
+    String baseUrl = "";
+    String label = "local";
+    String output = "target/loadtest-result.json";
+    boolean virtualThreads;
+    List<String> compare = List.of();
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1).trim();
+            switch (key) {
+                case "users" -> {
+                    List<Integer> users = new ArrayList<>();
+                    for (String step : value.split(",")) {
+                        users.add(Integer.parseInt(step.trim()));
+                    }
+                    options.users = users;
+                }
+                case "duration" -> options.duration = parseDuration(value);
+                case "warmup" -> options.warmup = parseDuration(value);
+                case "mix" -> {
+                    options.mix.clear();
+                    for (String entry : value.split(",")) {
+                        String[] pair = entry.split(":");
+                        options.mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+                    }
+                }
+                case "think-time" -> options.thinkTime = parseDuration(value);
+                case "players" -> options.players = Integer.parseInt(value);
+                case "base-url" -> options.baseUrl = value;
+                case "label" -> options.label = value;
+                case "output" -> options.output = value;
+                case "virtual-threads" -> options.virtualThreads = Boolean.parseBoolean(value);
+                case "compare" -> options.compare = List.of(value.split(","));
+                default -> throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+        if (options.players <= 0) {
+            options.players = options.users.stream().mapToInt(Integer::intValue).max().orElse(1);
+        }
+        return options;
+    }
+
+    // 30s, 500ms, 2m
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Unknown duration: " + value);
+        };
+    }
+
+    enum Operation {
+        STOCKS("GET /api/stocks"),
+        HOLDINGS("GET /api/players/{id}/stocks"),
+        BUY("POST /api/players/{id}/stocks"),
+        SELL("PUT /api/players/{id}/stocks");
+
+        final String endpoint;
+
+        Operation(String endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
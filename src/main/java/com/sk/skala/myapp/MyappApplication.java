@@ -3,11 +3,13 @@ package com.sk.skala.myapp;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 //import com.sk.skala.myapp.service.SkalaStockMarket;
 import org.springframework.context.annotation.Bean;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class MyappApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,189 @@
+// AdmissionControl.java
+package com.sk.skala.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 요청 수락 제어.
+ * - 플레이어별 token bucket: 한 플레이어(봇)가 보내는 요청 속도를 제한한다
+ * - 전체 동시 처리 한도: 커넥션 풀 크기만큼만 동시에 처리하고, 나머지는 maxWait 안에 자리가 나지 않으면 바로 거절한다
+ * 거절된 요청은 큐에 쌓이지 않으므로 과부하에서도 수락된 요청의 지연이 풀 대기만큼 늘어나지 않는다.
+ * maxConcurrent 가 0 이하이면 동시 처리 한도 없이 플레이어별 속도만 제한한다.
+ *
+ * bucket 이 PURGE_THRESHOLD 개를 넘으면 요청마다 PURGE_STEP 개씩만 이어서 훑어 가득 찬(한동안 요청이 없던) bucket 을 지운다.
+ * 요청 하나가 bucket 을 최대 하나 늘리므로 정리가 증가를 따라잡고, 요청 경로에서 전체를 훑지 않는다.
+ */
+public class AdmissionControl {
+    private static final int PURGE_THRESHOLD = 10_000;
+    private static final int PURGE_STEP = 4;
+
+    private final double ratePerNano;
+    private final int burst;
+    private final int maxConcurrent;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    // 정리 위치 (purgeLock 보호, 다른 스레드가 정리 중이면 건너뛴다)
+    private final ReentrantLock purgeLock = new ReentrantLock();
+    private Iterator<Map.Entry<String, TokenBucket>> purgeCursor;
+
+    private final Counter admitted;
+    private final Counter shedPlayerRate;
+    private final Counter shedConcurrency;
+
+    public AdmissionControl(AdmissionControlProperties properties, int maxConcurrent, MeterRegistry meterRegistry) {
+        this.ratePerNano = properties.getPlayerRate() / 1e9;
+        this.burst = properties.getPlayerBurst();
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.permits = new Semaphore(Math.max(0, maxConcurrent));
+
+        this.admitted = Counter.builder("admission.requests").tag("result", "admitted").tag("reason", "none")
+                .register(meterRegistry);
+        this.shedPlayerRate = Counter.builder("admission.requests").tag("result", "shed").tag("reason", "player_rate")
+                .register(meterRegistry);
+        this.shedConcurrency = Counter.builder("admission.requests").tag("result", "shed").tag("reason", "concurrency")
+                .register(meterRegistry);
+        Gauge.builder("admission.inflight", this, control -> control.maxConcurrent - control.permits.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("admission.limit", this, control -> control.maxConcurrent).register(meterRegistry);
+        Gauge.builder("admission.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * 수락하면 0, 거절하면 다시 시도할 때까지의 대기 시간(초, 1 이상)을 반환한다.
+     * 0 을 반환한 경우 처리가 끝나면 반드시 release() 를 호출해야 한다.
+     */
+    public long tryAdmit(String playerId) {
+        if (playerId != null) {
+            long waitNanos = takeToken(playerId);
+            if (waitNanos > 0) {
+                shedPlayerRate.increment();
+                return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            }
+        }
+
+        if (maxConcurrent <= 0) {
+            admitted.increment();
+            return 0;
+        }
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            shedConcurrency.increment();
+            return 1;
+        }
+        admitted.increment();
+        return 0;
+    }
+
+    public void release() {
+        if (maxConcurrent > 0) {
+            permits.release();
+        }
+    }
+
+    // 토큰이 있으면 꺼내고 0, 없으면 다음 토큰까지 남은 시간(ns)
+    private long takeToken(String playerId) {
+        long now = System.nanoTime();
+        while (true) {
+            TokenBucket bucket = buckets.computeIfAbsent(playerId, id -> new TokenBucket(burst, now));
+            long waitNanos = bucket.take(now, ratePerNano, burst);
+            if (waitNanos >= 0) {
+                if (buckets.size() > PURGE_THRESHOLD) {
+                    purgeSome(now);
+                }
+                return waitNanos;
+            }
+            // 꺼낸 직후 정리된 bucket - 지워졌는지 확인하고 새 bucket 으로 다시 시도
+            buckets.remove(playerId, bucket);
+        }
+    }
+
+    // 가득 찬 bucket 은 새로 만든 것과 같으므로 지운다
+    private void purgeSome(long now) {
+        if (!purgeLock.tryLock()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < PURGE_STEP; i++) {
+                if (purgeCursor == null || !purgeCursor.hasNext()) {
+                    purgeCursor = buckets.entrySet().iterator();
+                    if (!purgeCursor.hasNext()) {
+                        return;
+                    }
+                }
+                Map.Entry<String, TokenBucket> entry = purgeCursor.next();
+                if (entry.getValue().retireIfFull(now, ratePerNano, burst)) {
+                    buckets.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            purgeLock.unlock();
+        }
+    }
+
+    // 모든 요청이 거치므로 synchronized 대신 lock 사용 (가상 스레드가 경합 중에 carrier 를 잡고 있지 않도록)
+    private static final class TokenBucket {
+        private final ReentrantLock lock = new ReentrantLock();
+        private double tokens;
+        private long updatedNanos;
+        // 정리되어 map 에서 빠지는 중 - 이 bucket 으로는 토큰을 꺼내지 않는다
+        private boolean retired;
+
+        private TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.updatedNanos = now;
+        }
+
+        // 토큰을 꺼냈으면 0, 부족하면 다음 토큰까지 남은 시간(ns), 정리된 bucket 이면 -1
+        long take(long now, double ratePerNano, int burst) {
+            lock.lock();
+            try {
+                if (retired) {
+                    return -1;
+                }
+                refill(now, ratePerNano, burst);
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return 0;
+                }
+                return (long) Math.ceil((1 - tokens) / ratePerNano);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean retireIfFull(long now, double ratePerNano, int burst) {
+            lock.lock();
+            try {
+                refill(now, ratePerNano, burst);
+                retired = tokens >= burst;
+                return retired;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void refill(long now, double ratePerNano, int burst) {
+            if (now > updatedNanos) {
+                tokens = Math.min(burst, tokens + (now - updatedNanos) * ratePerNano);
+                updatedNanos = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+// AdmissionControlConfig.java
+package com.sk.skala.myapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+/**
+ * PlayerController / StockController 앞단의 요청 수락 제어 (admission-control.enabled=true 일 때만).
+ * 종목 조회(GET /api/stocks/**)는 메모리(StockCatalog, 가격 이력)에서 응답하고 가격 스트림(SSE)은 연결이 오래 유지되므로 대상에서 제외한다.
+ * 저널 모드(trade-journal.enabled=true)의 플레이어 요청은 커넥션을 쓰지 않으므로 동시 처리 한도 없이 플레이어별 속도만 제한한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "admission-control", name = "enabled", havingValue = "true")
+public class AdmissionControlConfig {
+    // HikariCP 기본 maximum-pool-size
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public AdmissionControl admissionControl(
+            AdmissionControlProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry
+    ) {
+        int maxConcurrent;
+        if (environment.getProperty("trade-journal.enabled", Boolean.class, false)) {
+            maxConcurrent = 0;
+        } else if (properties.getMaxConcurrent() > 0) {
+            maxConcurrent = properties.getMaxConcurrent();
+        } else {
+            maxConcurrent = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class,
+                    DEFAULT_POOL_SIZE);
+        }
+        return new AdmissionControl(properties, maxConcurrent, meterRegistry);
+    }
+
+    @Bean
+    public WebMvcConfigurer admissionControlInterceptor(AdmissionControl admissionControl) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new AdmissionInterceptor(admissionControl, false))
+                        .addPathPatterns("/api/players", "/api/players/**");
+                registry.addInterceptor(new AdmissionInterceptor(admissionControl, true))
+                        .addPathPatterns("/api/stocks", "/api/stocks/**");
+            }
+        };
+    }
+
+    static class AdmissionInterceptor implements AsyncHandlerInterceptor {
+        private static final String ADMITTED = AdmissionInterceptor.class.getName() + ".ADMITTED";
+
+        private final AdmissionControl admissionControl;
+        // true 이면 GET/HEAD 는 제한하지 않는다 (DB 를 거치지 않는 조회)
+        private final boolean exemptReads;
+
+        AdmissionInterceptor(AdmissionControl admissionControl, boolean exemptReads) {
+            this.admissionControl = admissionControl;
+            this.exemptReads = exemptReads;
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            // 비동기 응답(CompletableFuture)의 두 번째 dispatch 는 이미 수락된 요청
+            if (request.getDispatcherType() == DispatcherType.ASYNC) {
+                return true;
+            }
+            if (exemptReads && (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+                return true;
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, String> variables = (Map<String, String>)
+                    request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            // /api/players/{id}/** 만 플레이어 단위로 제한 (종목 API 는 {name})
+            String playerId = variables != null ? variables.get("id") : null;
+
+            long retryAfterSeconds = admissionControl.tryAdmit(playerId);
+            if (retryAfterSeconds > 0) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+                return false;
+            }
+            request.setAttribute(ADMITTED, Boolean.TRUE);
+            return true;
+        }
+
+        // 비동기 응답을 기다리는 동안은 커넥션을 쓰지 않으므로 동시 처리 자리를 바로 돌려준다
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                   Object handler) {
+            afterCompletion(request, response, handler, null);
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                    Object handler, Exception ex) {
+            if (request.getAttribute(ADMITTED) != null) {
+                request.removeAttribute(ADMITTED);
+                admissionControl.release();
+            }
+        }
+    }
+}
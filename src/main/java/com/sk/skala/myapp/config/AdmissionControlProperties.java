@@ -0,0 +1,29 @@
+// AdmissionControlProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * /api/players, /api/stocks 요청 수락 제어 설정 (admission-control.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "admission-control")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    // 플레이어({id})별 초당 허용 요청 수 (token bucket 충전 속도)
+    private double playerRate = 20;
+
+    // 플레이어별 순간 최대 요청 수 (token bucket 크기)
+    private int playerBurst = 40;
+
+    // 동시에 처리하는 요청 수 상한. 0 이면 커넥션 풀 크기(spring.datasource.hikari.maximum-pool-size)
+    private int maxConcurrent = 0;
+
+    // 동시 처리 한도에 걸렸을 때 자리가 나기를 기다리는 최대 시간 (넘으면 429)
+    private Duration maxWait = Duration.ofMillis(20);
+}
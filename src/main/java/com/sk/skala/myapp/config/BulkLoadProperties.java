@@ -0,0 +1,31 @@
+// BulkLoadProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * stocks.txt / players.txt 대량 적재 설정 (bulk-load.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "bulk-load")
+public class BulkLoadProperties {
+
+    public enum StartupMode {
+        // 테이블이 비어 있을 때만 적재 (기본값)
+        IF_EMPTY,
+        // 기존 데이터가 있어도 적재 (신규 플레이어 추가용, 이미 있는 id 는 건너뜀)
+        ALWAYS,
+        // 기동 시 적재하지 않음
+        NEVER
+    }
+
+    private StartupMode startupMode = StartupMode.IF_EMPTY;
+
+    // chunk 크기 (플레이어 수). chunk 마다 JDBC batch 로 보내고 트랜잭션을 커밋한다.
+    private int chunkSize = 1000;
+
+    private String stocksFile = "classpath:data/stocks.txt";
+
+    private String playersFile = "classpath:data/players.txt";
+}
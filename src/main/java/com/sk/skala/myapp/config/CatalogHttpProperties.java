@@ -0,0 +1,20 @@
+// CatalogHttpProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * GET /api/stocks 응답 캐시 설정 (catalog-http.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "catalog-http")
+public class CatalogHttpProperties {
+
+    // Accept-Encoding: gzip 요청에 미리 압축해 둔 본문을 보낼지 여부
+    private boolean gzip = true;
+
+    // 이 크기 이상인 목록만 압축본을 만든다 (작은 본문은 압축 이득보다 헤더/CPU 비용이 크다)
+    private DataSize gzipMinSize = DataSize.ofKilobytes(1);
+}
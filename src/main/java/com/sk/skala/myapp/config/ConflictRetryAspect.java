@@ -0,0 +1,115 @@
+// ConflictRetryAspect.java
+package com.sk.skala.myapp.config;
+
+import com.sk.skala.myapp.service.RetryOnConflict;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @RetryOnConflict 메서드를 충돌 시 다시 실행한다.
+ * 트랜잭션 advice 보다 바깥에서 동작해야 재시도마다 새 트랜잭션(새 버전 조회)으로 실행된다.
+ * DuplicateKeyException 을 대상으로 지정하면 다른 제약 조건 위반(not null, 외래 키 등)은 재시도하지 않는다.
+ *
+ * 메트릭 (class, method 태그)
+ * - service.conflicts          : 충돌 발생 수
+ * - service.retries            : 재시도 수
+ * - service.retries.exhausted  : 재시도 후에도 실패한 호출 수
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+    private static final int MYSQL_DUPLICATE_ENTRY = 1062;
+
+    private final ConflictRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ConflictRetryAspect(ConflictRetryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        // 바깥 트랜잭션에 참여한 호출은 여기서 재시도해도 같은 (rollback-only) 트랜잭션이므로 호출한 쪽에 맡긴다
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        String className = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String methodName = joinPoint.getSignature().getName();
+        int maxAttempts = Math.max(1, properties.getMaxAttempts());
+        long backoffNanos = properties.getBackoff().toNanos();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                if (!isRetryable(e, retryOnConflict.value())) {
+                    throw e;
+                }
+                counter("service.conflicts", className, methodName).increment();
+                if (attempt >= maxAttempts) {
+                    counter("service.retries.exhausted", className, methodName).increment();
+                    log.debug("{}.{} failed after {} attempts: {}", className, methodName, attempt, e.toString());
+                    throw e;
+                }
+                counter("service.retries", className, methodName).increment();
+                if (backoffNanos > 0) {
+                    long bound = backoffNanos << Math.min(attempt - 1, 10);
+                    TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(bound));
+                }
+            }
+        }
+    }
+
+    private static boolean isRetryable(Throwable e, Class<? extends Throwable>[] retryFor) {
+        for (Class<? extends Throwable> type : retryFor) {
+            if (type.isInstance(e)) {
+                return true;
+            }
+            // JPA 는 unique key 충돌도 DataIntegrityViolationException 으로 번역하므로 원인(SQLException)으로 구분한다
+            if (type == DuplicateKeyException.class && e instanceof DataIntegrityViolationException
+                    && isDuplicateKey(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // unique key 충돌 (SQLState 23505: H2/PostgreSQL, 오류 코드 1062: MariaDB/MySQL)
+    private static boolean isDuplicateKey(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException) {
+                return UNIQUE_VIOLATION_STATE.equals(sqlException.getSQLState())
+                        || sqlException.getErrorCode() == MYSQL_DUPLICATE_ENTRY;
+            }
+        }
+        return false;
+    }
+
+    private Counter counter(String name, String className, String methodName) {
+        return Counter.builder(name)
+                .tag("class", className)
+                .tag("method", methodName)
+                .register(meterRegistry);
+    }
+}
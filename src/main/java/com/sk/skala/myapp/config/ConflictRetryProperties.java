@@ -0,0 +1,21 @@
+// ConflictRetryProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * @RetryOnConflict 재시도 정책 (conflict-retry.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "conflict-retry")
+public class ConflictRetryProperties {
+
+    // 첫 시도를 포함한 최대 실행 횟수
+    private int maxAttempts = 3;
+
+    // 재시도 전 대기 시간 (시도마다 2배, 0 ~ 값 사이 무작위로 분산)
+    private Duration backoff = Duration.ofMillis(5);
+}
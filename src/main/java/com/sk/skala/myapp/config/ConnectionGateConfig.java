@@ -0,0 +1,91 @@
+// ConnectionGateConfig.java
+package com.sk.skala.myapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * DataSource 빈 앞에 공정 세마포어(ConnectionGateDataSource)를 둔다 (connection-gate.enabled=true 일 때만).
+ * 기본값은 spring.threads.virtual.enabled 를 따른다 (application.yaml).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "connection-gate", name = "enabled", havingValue = "true")
+public class ConnectionGateConfig {
+    // HikariCP 기본 maximum-pool-size
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    // connectionWaitRecorder(MetricsConfig) 보다 먼저 감싸서 세마포어 대기도 요청별 커넥션 대기에 포함되게 한다
+    @Bean
+    public static BeanPostProcessor connectionGate(Environment environment) {
+        ConnectionGateProperties properties = Binder.get(environment)
+                .bind("connection-gate", ConnectionGateProperties.class)
+                .orElseGet(ConnectionGateProperties::new);
+        return new GatingPostProcessor(properties);
+    }
+
+    @Bean
+    public MeterBinder connectionGateMetrics(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(ConnectionGateDataSource.class)) {
+            return registry -> { };
+        }
+        ConnectionGateDataSource gate = dataSource.unwrap(ConnectionGateDataSource.class);
+        return registry -> {
+            Gauge.builder("connection.gate.waiting", gate, ConnectionGateDataSource::getWaiting)
+                    .description("커넥션 자리를 기다리는 스레드 수")
+                    .register(registry);
+            Gauge.builder("connection.gate.available", gate, ConnectionGateDataSource::getAvailable)
+                    .register(registry);
+            Gauge.builder("connection.gate.limit", gate, ConnectionGateDataSource::getLimit)
+                    .register(registry);
+        };
+    }
+
+    static final class GatingPostProcessor implements BeanPostProcessor, PriorityOrdered {
+        private final ConnectionGateProperties properties;
+
+        GatingPostProcessor(ConnectionGateProperties properties) {
+            this.properties = properties;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionGateDataSource)) {
+                return new ConnectionGateDataSource(dataSource, permits(dataSource),
+                        properties.getTimeout().toNanos());
+            }
+            return bean;
+        }
+
+        private int permits(DataSource dataSource) {
+            if (properties.getPermits() > 0) {
+                return properties.getPermits();
+            }
+            try {
+                // 설정하지 않았으면 풀이 시작되기 전까지 -1
+                if (dataSource.isWrapperFor(HikariDataSource.class)
+                        && dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() > 0) {
+                    return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                }
+            } catch (SQLException e) {
+                // 풀 크기를 알 수 없으면 기본값
+            }
+            return DEFAULT_POOL_SIZE;
+        }
+
+        @Override
+        public int getOrder() {
+            return 0;
+        }
+    }
+}
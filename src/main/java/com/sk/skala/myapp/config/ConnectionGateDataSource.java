@@ -0,0 +1,144 @@
+// ConnectionGateDataSource.java
+package com.sk.skala.myapp.config;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * 커넥션 수만큼의 공정 세마포어를 먼저 얻은 뒤에 풀에서 커넥션을 꺼낸다. 커넥션을 close 하면 자리를 돌려준다.
+ *
+ * 가상 스레드 모드에서는 요청마다 스레드가 있으므로 풀 앞에서 수천 개가 동시에 커넥션을 기다릴 수 있다.
+ * 대기는 세마포어 큐(도착 순서, 가상 스레드는 carrier 를 놓고 대기)에서만 하고 풀에는 자리를 얻은 요청만 들어간다.
+ * MetricsConfig.ConnectionWaitDataSource 가 이 바깥을 감싸므로 요청별 커넥션 대기 시간에는 세마포어 대기도 포함된다.
+ */
+final class ConnectionGateDataSource implements DataSource {
+    private final DataSource target;
+    private final Semaphore permits;
+    private final int limit;
+    private final long timeoutNanos;
+
+    ConnectionGateDataSource(DataSource target, int limit, long timeoutNanos) {
+        this.target = target;
+        this.permits = new Semaphore(limit, true);
+        this.limit = limit;
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return releasing(target.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return releasing(target.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    int getAvailable() {
+        return permits.availablePermits();
+    }
+
+    int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    private void acquire() throws SQLException {
+        try {
+            if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SQLTransientConnectionException("Connection gate timed out after "
+                        + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms (waiting=" + permits.getQueueLength() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for connection gate", e);
+        }
+    }
+
+    // close() 가 여러 번 호출되어도 자리는 한 번만 돌려준다
+    private Connection releasing(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        try {
+                            connection.close();
+                        } finally {
+                            if (released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return target.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || target.isWrapperFor(iface);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return target.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        target.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        target.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return target.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return target.getParentLogger();
+    }
+}
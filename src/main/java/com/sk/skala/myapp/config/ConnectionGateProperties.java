@@ -0,0 +1,24 @@
+// ConnectionGateProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * DB 커넥션 획득 앞단의 공정(FIFO) 세마포어 설정 (connection-gate.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "connection-gate")
+public class ConnectionGateProperties {
+
+    // 가상 스레드 모드에서 수천 개의 요청이 커넥션 풀에 동시에 몰리지 않도록 도착 순서대로 줄을 세운다
+    private boolean enabled = false;
+
+    // 동시에 커넥션을 가질 수 있는 수 (0 = 커넥션 풀 maximum-pool-size)
+    private int permits = 0;
+
+    // 자리를 기다리는 최대 시간. 넘으면 풀 타임아웃과 같은 SQLTransientConnectionException
+    private Duration timeout = Duration.ofSeconds(30);
+}
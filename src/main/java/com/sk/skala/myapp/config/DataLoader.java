@@ -1,120 +1,62 @@
 // DataLoader.java
 package com.sk.skala.myapp.config;
 
-import com.sk.skala.myapp.model.Player;
-import com.sk.skala.myapp.model.PlayerStock;
-import com.sk.skala.myapp.model.Stock;
-import com.sk.skala.myapp.model.StockConstants;
 import com.sk.skala.myapp.repository.PlayerRepository;
-import com.sk.skala.myapp.repository.PlayerStockRepository;
 import com.sk.skala.myapp.repository.StockRepository;
-import org.springframework.beans.factory.annotation.Value;
+import com.sk.skala.myapp.service.BulkLoadService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.Resource;
-
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Configuration
 public class DataLoader {
-
-    @Value("classpath:data/stocks.txt")
-    private Resource stocksFile;
-
-    @Value("classpath:data/players.txt")
-    private Resource playersFile;
-
+    /**
+     * 기동 시 stocks.txt / players.txt 적재 (bulk-load.startup-mode). 초기 데이터는 여기서만 적재한다.
+     * - IF_EMPTY : 테이블이 비어 있을 때만 적재
+     * - ALWAYS   : 플레이어는 기존 데이터가 있어도 추가 적재 (종목은 비어 있을 때만)
+     * - NEVER    : 적재하지 않음
+     *
+     * 데이터가 있으면 트랜잭션 한 번에 테이블마다 PK 인덱스 1건 조회로 끝난다 (count(*) 없음).
+     * 적재는 chunk 단위로 커밋되고 이미 있는 id 는 건너뛰므로, ALWAYS 로 같은 파일을 다시 기동해도
+     * 새 id 만 추가되고, 여러 pod 가 동시에 빈 DB 로 기동해도 겹친 chunk 는 재시도되어 한 번씩만 적재된다.
+     * IF_EMPTY 에서 첫 적재가 중간에 끊기면 테이블이 비어 있지 않으므로, ALWAYS 로 한 번 기동하거나
+     * POST /api/admin/bulk-load 로 나머지를 이어서 적재한다.
+     */
     @Bean
     public CommandLineRunner loadData(
             StockRepository stockRepository,
             PlayerRepository playerRepository,
-            PlayerStockRepository playerStockRepository
+            BulkLoadService bulkLoadService,
+            BulkLoadProperties properties,
+            PlatformTransactionManager transactionManager
     ) {
         return args -> {
-            // Only load from files if repositories are empty
-            if (stockRepository.count() == 0) {
-                loadStocks(stockRepository);
+            BulkLoadProperties.StartupMode mode = properties.getStartupMode();
+            if (mode == BulkLoadProperties.StartupMode.NEVER) {
+                return;
             }
 
-            if (playerRepository.count() == 0) {
-                loadPlayers(playerRepository, playerStockRepository);
+            // 적재 여부는 쓰기 트랜잭션 안에서 판단 (replica 라우팅 시에도 primary 기준)
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            boolean[] empty = probe(transactionTemplate, stockRepository, playerRepository);
+            boolean loadStocks = empty[0];
+            boolean loadPlayers = mode == BulkLoadProperties.StartupMode.ALWAYS || empty[1];
+            if (!loadStocks && !loadPlayers) {
+                return;
             }
+            bulkLoadService.load(loadStocks, loadPlayers, properties.getChunkSize());
         };
     }
 
-    private void loadStocks(StockRepository stockRepository) {
-        List<Stock> stocks = new ArrayList<>();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stocksFile.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] fields = line.split(StockConstants.DELIMITER);
-                if (fields.length > 1) {
-                    stocks.add(new Stock(fields[0], Integer.parseInt(fields[1])));
-                }
-            }
-        } catch (Exception e) {
-            // If file not found or error, load default stocks
-            stocks.add(new Stock("TechCorp", 100));
-            stocks.add(new Stock("GreenEnergy", 80));
-            stocks.add(new Stock("HealthPlus", 120));
-            stocks.add(new Stock("samsung", 300));
-        }
-
-        stockRepository.saveAll(stocks);
-    }
-
-    private void loadPlayers(PlayerRepository playerRepository, PlayerStockRepository playerStockRepository) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(playersFile.getInputStream()))) {
-            String line;
-            int playerCount = 0;
-            while ((line = reader.readLine()) != null) {
-                String[] fields = line.split(StockConstants.DELIMITER);
-                if (fields.length > 1) {
-                    Player player = new Player();
-                    player.setPlayerId(fields[0]);
-                    player.setPlayerMoney(Integer.parseInt(fields[1]));
-
-                    // 먼저 Player 저장
-                    player = playerRepository.save(player);
-                    playerCount++;
-
-                    if (fields.length > 2 && fields[2].indexOf(StockConstants.STOCK_PROPS_DELIMITER) > 0) {
-                        List<PlayerStock> playerStocks = parseFieldToStockList(fields[2], player);
-
-                        // PlayerStock 저장
-                        for (PlayerStock playerStock : playerStocks) {
-                            playerStock.setPlayer(player);
-                            playerStockRepository.save(playerStock);
-                            System.out.println("INFO: 플레이어 " + player.getPlayerId() + "의 주식 저장됨 - " + playerStock.getStockName());
-                        }
-                    }
-                }
-            }
-            System.out.println("INFO: 총 " + playerCount + "명의 플레이어 데이터를 로드했습니다.");
-        } catch (Exception e) {
-            System.out.println("ERROR: 플레이어 데이터 로드 중 오류 발생");
-            e.printStackTrace();
-        }
-    }
-
-    private List<PlayerStock> parseFieldToStockList(String field, Player player) {
-        List<PlayerStock> list = new ArrayList<>();
-
-        String[] stocks = field.split(StockConstants.STOCK_DELIMITER);
-        for (String stockData : stocks) {
-            String[] props = stockData.split(StockConstants.STOCK_PROPS_DELIMITER);
-            if (props.length > 2) {
-                PlayerStock playerStock = new PlayerStock(props[0], props[1], props[2]);
-                playerStock.setPlayer(player);
-                list.add(playerStock);
-            }
-        }
-
-        return list;
+    // {종목 테이블이 비어 있음, 플레이어 테이블이 비어 있음}
+    private static boolean[] probe(TransactionTemplate transactionTemplate,
+                                   StockRepository stockRepository, PlayerRepository playerRepository) {
+        return transactionTemplate.execute(status -> new boolean[]{
+                stockRepository.findFirstByOrderByStockNameAsc().isEmpty(),
+                playerRepository.findByPlayerIdGreaterThanOrderByPlayerIdAsc("", Limit.of(1)).isEmpty()
+        });
     }
 }
@@ -0,0 +1,132 @@
+// DataSourceRoutingConfig.java
+package com.sk.skala.myapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * primary / replica 라우팅 DataSource 구성 (datasource-routing.enabled=true 일 때만).
+ * spring.datasource.* 로 primary 풀을, datasource-routing.replicas 로 replica 풀을 만들고
+ * LazyConnectionDataSourceProxy(ReplicaRoutingDataSource) 하나만 DataSource 빈으로 노출한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(DataSourceRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.getMaxReplicaLag());
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties primaryProperties, DataSourceRoutingProperties properties,
+                                 ReadYourWritesTracker tracker, MeterRegistry meterRegistry, Environment environment) {
+        // primary: DataSourceAutoConfiguration 과 같은 방식 (spring.datasource.hikari.* 적용)
+        // 풀 메트릭(hikaricp.*)은 pool 태그(primary 풀 이름 / replica-N)로 구분된다
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(primary);
+
+        List<DataSource> replicas = new ArrayList<>();
+        List<DataSourceRoutingProperties.Replica> replicaProperties = properties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = replicaProperties.get(i);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(StringUtils.hasText(replica.getUsername())
+                            ? replica.getUsername() : primaryProperties.determineUsername())
+                    .password(replica.getPassword() != null
+                            ? replica.getPassword() : primaryProperties.determinePassword())
+                    .driverClassName(StringUtils.hasText(replica.getDriverClassName())
+                            ? replica.getDriverClassName() : primaryProperties.determineDriverClassName())
+                    .build();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            pools.add(pool);
+            replicas.add(new MetricsConfig.ConnectionWaitDataSource(pool));
+        }
+
+        // 풀마다 커넥션 대기 시간을 요청 메트릭에 합산 (라우팅 프록시는 MetricsConfig 에서 감싸지 않음)
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                new MetricsConfig.ConnectionWaitDataSource(primary), replicas, tracker, meterRegistry));
+    }
+
+    // OSIV 로 세션이 요청 끝까지 열려 있어도 트랜잭션마다 커넥션을 반납해 다음 트랜잭션이 다시 라우팅되게 한다
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesInterceptor(ReadYourWritesTracker tracker) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new AsyncHandlerInterceptor() {
+                    @Override
+                    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, String> variables = (Map<String, String>)
+                                request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+                        if (variables != null && variables.get("id") != null) {
+                            tracker.setReader(variables.get("id"));
+                        }
+                        return true;
+                    }
+
+                    // 비동기 응답은 다른 스레드에서 끝나므로 요청 스레드를 반환할 때 지운다 (스레드 재사용 시 남지 않게)
+                    @Override
+                    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                                               Object handler) {
+                        tracker.clearReader();
+                    }
+
+                    @Override
+                    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                                Object handler, Exception ex) {
+                        tracker.clearReader();
+                    }
+                }).addPathPatterns("/api/players/**");
+            }
+        };
+    }
+
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,37 @@
+// DataSourceRoutingProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 트랜잭션 replica 라우팅 설정 (datasource-routing.*)
+ * primary 는 기존 spring.datasource.* 를 그대로 사용한다.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource-routing")
+public class DataSourceRoutingProperties {
+
+    // true 이면 @Transactional(readOnly = true) 를 replica 로 보낸다
+    private boolean enabled = false;
+
+    // 허용하는 복제 지연. 플레이어 데이터를 변경한 뒤 이 시간 동안은 그 플레이어의 읽기를 primary 에서 처리한다.
+    private Duration maxReplicaLag = Duration.ofSeconds(2);
+
+    // replica 목록 (여러 개면 round-robin)
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        // 비우면 primary 설정을 사용
+        private String username;
+        private String password;
+        private String driverClassName;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,16 @@
+// ExportProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 보유 내역 내보내기 설정 (export.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "export")
+public class ExportProperties {
+
+    // JDBC cursor 가 한 번에 가져오는 행 수 (메모리 사용량 상한)
+    private int fetchSize = 1000;
+}
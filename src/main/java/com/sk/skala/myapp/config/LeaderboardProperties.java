@@ -0,0 +1,27 @@
+// LeaderboardProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 순자산 순위표 설정 (leaderboard.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "leaderboard")
+public class LeaderboardProperties {
+
+    // 거래/가격 변경을 순위표에 반영하는 주기
+    private Duration refreshInterval = Duration.ofMillis(100);
+
+    // DB 기준 전체 재구성 주기 (다른 pod에서 발생한 거래 반영, 0이면 기동 시에만)
+    private Duration rebuildInterval = Duration.ofMinutes(10);
+
+    // 재구성 쿼리 fetch size
+    private int fetchSize = 1000;
+
+    // GET /api/leaderboard?top= 최대값
+    private int maxTop = 1000;
+}
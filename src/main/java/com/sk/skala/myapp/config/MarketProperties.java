@@ -0,0 +1,32 @@
+// MarketProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 시세 시뮬레이션 설정 (market.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "market")
+public class MarketProperties {
+
+    private boolean enabled = false;
+
+    // 틱 주기. 주기마다 모든 종목의 가격이 한 번씩 움직인다 (종목 수 / 주기 = 초당 틱 수)
+    private Duration tickInterval = Duration.ofMillis(10);
+
+    // 변경된 가격을 stocks 테이블에 모아서 저장하는 주기
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    // 초당 기대 수익률 (기하 브라운 운동의 drift)
+    private double drift = 0.0;
+
+    // 초당 변동성 (기하 브라운 운동의 volatility)
+    private double volatility = 0.02;
+
+    // 최소 가격
+    private int minPrice = 1;
+}
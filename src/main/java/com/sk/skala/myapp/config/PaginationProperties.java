@@ -0,0 +1,19 @@
+// PaginationProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 목록 API keyset 페이지 크기 설정 (pagination.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "pagination")
+public class PaginationProperties {
+
+    // limit 를 지정하지 않았을 때 페이지 크기
+    private int defaultLimit = 1000;
+
+    // limit 최대값
+    private int maxLimit = 10_000;
+}
@@ -0,0 +1,23 @@
+// PriceHistoryProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 종목별 가격 이력 저장소 설정 (price-history.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "price-history")
+public class PriceHistoryProperties {
+
+    // 종목당 보관하는 가격 변경 건수 (건당 12 byte, 초과하면 오래된 것부터 덮어씀, 최대 178,956,969 - 종목당 2GB)
+    private int capacityPerSymbol = 100_000;
+
+    // 지정하면 종목별 memory-mapped 파일로 저장해 재기동 후에도 이력이 유지된다.
+    // 비어 있으면 direct buffer(off-heap)에만 보관한다.
+    private String directory = "";
+
+    // 원본(raw) 조회 시 최대 반환 건수
+    private int maxRawPoints = 10_000;
+}
@@ -0,0 +1,27 @@
+// PriceStreamProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * GET /api/stocks/stream (SSE) 설정 (price-stream.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "price-stream")
+public class PriceStreamProperties {
+
+    // 변경된 가격을 모아서 전송하는 주기 (이 주기 안의 변경은 종목별 최신 값 하나로 합쳐진다)
+    private Duration interval = Duration.ofMillis(100);
+
+    // 전송 스레드 수 (접속 수와 무관하게 고정)
+    private int senderThreads = 4;
+
+    // SSE 연결 유지 시간. 만료되면 클라이언트가 재접속한다.
+    private Duration timeout = Duration.ofMinutes(30);
+
+    // 한 번의 전송이 이보다 오래 걸리면 느린 구독자로 보고 연결을 끊는다 (0 이면 끊지 않음)
+    private Duration sendTimeout = Duration.ofSeconds(5);
+}
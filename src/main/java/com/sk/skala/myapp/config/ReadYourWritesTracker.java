@@ -0,0 +1,68 @@
+// ReadYourWritesTracker.java
+package com.sk.skala.myapp.config;
+
+import com.sk.skala.myapp.model.PlayerChangedEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 플레이어별 마지막 변경 시각을 기록해, 복제 지연(max-replica-lag) 안에서는
+ * 그 플레이어를 읽는 요청을 primary 로 보내도록 한다.
+ *
+ * 변경은 PlayerChangedEvent(거래, 생성/수정/삭제, 저널 반영) 커밋 이후 기록되고,
+ * 현재 요청이 읽는 플레이어는 ReadYourWritesInterceptor 가 경로 변수({id})에서 설정한다.
+ * 플레이어를 특정할 수 없는 읽기(전체 목록 등)는 지연 허용치만큼 오래된 값을 볼 수 있다.
+ */
+public class ReadYourWritesTracker {
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final ThreadLocal<String> currentReader = new ThreadLocal<>();
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long maxLagNanos;
+
+    public ReadYourWritesTracker(Duration maxReplicaLag) {
+        this.maxLagNanos = maxReplicaLag.toNanos();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        markWritten(event.getPlayerId());
+    }
+
+    public void markWritten(String playerId) {
+        long now = System.nanoTime();
+        lastWriteNanos.put(playerId, now);
+        if (lastWriteNanos.size() > PURGE_THRESHOLD) {
+            lastWriteNanos.values().removeIf(written -> now - written > maxLagNanos);
+        }
+    }
+
+    public boolean isRecentlyWritten(String playerId) {
+        Long written = lastWriteNanos.get(playerId);
+        if (written == null) {
+            return false;
+        }
+        if (System.nanoTime() - written > maxLagNanos) {
+            lastWriteNanos.remove(playerId, written);
+            return false;
+        }
+        return true;
+    }
+
+    boolean isCurrentReaderRecentlyWritten() {
+        String playerId = currentReader.get();
+        return playerId != null && isRecentlyWritten(playerId);
+    }
+
+    // 현재 스레드(요청)가 읽는 플레이어 설정. 요청이 끝나면 clearReader() 로 해제한다.
+    public void setReader(String playerId) {
+        currentReader.set(playerId);
+    }
+
+    public void clearReader() {
+        currentReader.remove();
+    }
+}
@@ -0,0 +1,75 @@
+// ReplicaRoutingDataSource.java
+package com.sk.skala.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 트랜잭션 속성으로 primary / replica 를 고르는 DataSource.
+ * - 읽기 전용 트랜잭션 -> replica (round-robin)
+ * - 그 외(쓰기 트랜잭션, 트랜잭션 밖) -> primary
+ * - 읽기 전용이라도 방금 변경한 플레이어를 읽는 요청 -> primary (ReadYourWritesTracker)
+ *
+ * 트랜잭션 시작 시점에는 readOnly 여부가 아직 바인딩되지 않으므로
+ * 반드시 LazyConnectionDataSourceProxy 로 감싸 첫 SQL 실행 시점에 커넥션을 고르게 한다.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final ReadYourWritesTracker tracker;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter primaryWrites;
+    private final Counter primaryRecentWrite;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReadYourWritesTracker tracker, MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        String[] keys = new String[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            keys[i] = "replica-" + (i + 1);
+            targets.put(keys[i], replicas.get(i));
+        }
+        this.replicaKeys = List.of(keys);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.primaryWrites = route(meterRegistry, PRIMARY, "write");
+        this.primaryRecentWrite = route(meterRegistry, PRIMARY, "recent-write");
+        this.replicaReads = route(meterRegistry, "replica", "read-only");
+    }
+
+    private static Counter route(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routing.connections")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || replicaKeys.isEmpty()) {
+            primaryWrites.increment();
+            return PRIMARY;
+        }
+        if (tracker.isCurrentReaderRecentlyWritten()) {
+            primaryRecentWrite.increment();
+            return PRIMARY;
+        }
+        replicaReads.increment();
+        return replicaKeys.get(Math.floorMod(next.getAndIncrement(), replicaKeys.size()));
+    }
+}
@@ -0,0 +1,60 @@
+// RequestMetrics.java
+package com.sk.skala.myapp.config;
+
+/**
+ * 요청 처리 스레드에 묶인 측정값 (SQL 문장 수, 커넥션 획득 대기 시간).
+ * RequestMetricsFilter가 요청 시작 시 열고 끝날 때 닫는다. 요청 밖(스케줄러 등)에서는 기록하지 않는다.
+ */
+public final class RequestMetrics {
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int connections;
+    private long connectionWaitNanos;
+
+    private RequestMetrics() {
+    }
+
+    static RequestMetrics open() {
+        RequestMetrics metrics = new RequestMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    // 비동기 요청의 ASYNC dispatch 에서 처음 dispatch 의 측정값에 이어서 기록
+    static RequestMetrics resume(RequestMetrics metrics) {
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static void countStatement() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.statements++;
+        }
+    }
+
+    static void recordConnectionWait(long nanos) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.connections++;
+            metrics.connectionWaitNanos += nanos;
+        }
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    int getConnections() {
+        return connections;
+    }
+
+    long getConnectionWaitNanos() {
+        return connectionWaitNanos;
+    }
+}
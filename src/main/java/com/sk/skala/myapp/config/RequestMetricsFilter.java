@@ -0,0 +1,107 @@
+// RequestMetricsFilter.java
+package com.sk.skala.myapp.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청마다 SQL 문장 수와 커넥션 획득 대기 시간을 모아 엔드포인트(method, uri 템플릿)와 응답 status 태그로 기록한다.
+ * - http.server.requests.sql.statements : 요청당 Hibernate SQL 문장 수
+ * - http.server.requests.db.wait        : 요청당 커넥션 풀 대기 시간 합계
+ * 느린 요청(request-metrics.slow-threshold 초과)은 샘플링해서 로그로 남긴다.
+ * 비동기 응답(CompletableFuture)은 처음 dispatch 와 응답을 쓰는 ASYNC dispatch 의 측정값을 합쳐 마지막 dispatch 에서 기록한다.
+ * SSE 스트림은 제외한다.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+    // ASYNC dispatch 로 넘겨줄 측정값과 시작 시각
+    private static final String METRICS_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".METRICS";
+    private static final String START_ATTRIBUTE = RequestMetricsFilter.class.getName() + ".START";
+
+    private final MeterRegistry meterRegistry;
+    private final RequestMetricsProperties properties;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, RequestMetricsProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestMetrics metrics;
+        long start;
+        if (isAsyncDispatch(request) && request.getAttribute(METRICS_ATTRIBUTE) instanceof RequestMetrics previous) {
+            metrics = RequestMetrics.resume(previous);
+            start = (Long) request.getAttribute(START_ATTRIBUTE);
+        } else {
+            metrics = RequestMetrics.open();
+            start = System.nanoTime();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestMetrics.close();
+            if (request.isAsyncStarted()) {
+                request.setAttribute(METRICS_ATTRIBUTE, metrics);
+                request.setAttribute(START_ATTRIBUTE, start);
+            } else {
+                request.removeAttribute(METRICS_ATTRIBUTE);
+                request.removeAttribute(START_ATTRIBUTE);
+                if (!isEventStream(response)) {
+                    record(request, response, metrics, System.nanoTime() - start);
+                }
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, RequestMetrics metrics, long elapsedNanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Tags tags = Tags.of("method", request.getMethod(), "uri", uri, "status", String.valueOf(response.getStatus()));
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(metrics.getStatements());
+        Timer.builder("http.server.requests.db.wait")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(metrics.getConnectionWaitNanos(), TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos > properties.getSlowThreshold().toNanos()
+                && ThreadLocalRandom.current().nextDouble() < properties.getSlowSampleRate()) {
+            log.warn("Slow request: {} {} status={} elapsed={}ms sql={} connections={} dbWait={}ms",
+                    request.getMethod(), uri, response.getStatus(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), metrics.getStatements(),
+                    metrics.getConnections(), TimeUnit.NANOSECONDS.toMillis(metrics.getConnectionWaitNanos()));
+        }
+    }
+}
@@ -0,0 +1,21 @@
+// RequestMetricsProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 요청별 SQL 수 / 커넥션 대기 시간 측정과 느린 요청 로그 설정 (request-metrics.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "request-metrics")
+public class RequestMetricsProperties {
+
+    // 이 시간보다 오래 걸린 요청은 느린 요청 로그 대상
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    // 느린 요청 중 로그로 남길 비율 (0 ~ 1). 부하가 몰릴 때 로그가 병목이 되지 않도록 샘플링한다.
+    private double slowSampleRate = 0.1;
+}
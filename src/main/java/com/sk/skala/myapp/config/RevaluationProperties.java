@@ -0,0 +1,27 @@
+// RevaluationProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 가격 변경 시 보유 내역(player_stocks.stock_price) 재평가 작업 설정 (holdings-revaluation.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "holdings-revaluation")
+public class RevaluationProperties {
+
+    // false 이면 PUT /api/stocks/{name} 의 즉시 반영만 하고 백그라운드 재평가는 하지 않는다
+    private boolean enabled = true;
+
+    // 가격 변경을 모아서 반영하는 주기 (주기 내 변경은 종목별 최신 가격 하나로 합쳐짐)
+    private Duration interval = Duration.ofSeconds(1);
+
+    // 트랜잭션 하나가 다루는 player_stocks id 범위 (row lock 유지 시간 상한)
+    private int chunkSize = 5000;
+
+    // chunk 사이 대기 시간 (거래 트랜잭션에 양보)
+    private Duration chunkPause = Duration.ZERO;
+}
@@ -0,0 +1,46 @@
+// TradeJournalProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 거래 저널(write-ahead log) 설정 (trade-journal.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "trade-journal")
+public class TradeJournalProperties {
+
+    public enum SyncMode {
+        // group commit(fsync) 이후 응답 - 응답한 거래는 장애 후에도 유지된다
+        GROUP_COMMIT,
+        // memory-mapped 파일 기록 직후 응답 (수 us), fsync는 백그라운드에서 commit-interval 마다
+        ASYNC
+    }
+
+    private boolean enabled = false;
+
+    private String directory = "./data/journal";
+
+    // segment 파일 크기. 가득 차면 새 segment 파일을 만든다.
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    private SyncMode syncMode = SyncMode.GROUP_COMMIT;
+
+    // group commit 시 fsync 전에 추가 기록을 기다리는 최대 시간
+    private Duration commitInterval = Duration.ofMillis(1);
+
+    // 저널 -> DB 반영 주기와 한 번에 반영하는 최대 레코드 수
+    private Duration applyInterval = Duration.ofMillis(100);
+    private int applyBatchSize = 1000;
+
+    // 원장 스냅샷 주기. 재생은 마지막 스냅샷부터 하고, 그 이전이면서 DB 반영이 끝난 segment 는 지운다 (0 이면 사용 안 함)
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    // 시세 변경도 저널에 기록할지 여부 (감사 이력용, DB 반영/재생 대상 아님).
+    // 틱마다 종목 수만큼 기록되어 저널이 빠르게 커지므로 기본은 끈다.
+    private boolean recordPrices = false;
+}
@@ -0,0 +1,30 @@
+// TradePipelineProperties.java
+package com.sk.skala.myapp.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 비동기 group commit 거래 처리 설정 (trade-pipeline.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "trade-pipeline")
+public class TradePipelineProperties {
+
+    // true 이면 매수/매도 요청을 큐에 넣고 partition 별 writer 가 모아서 한 트랜잭션으로 반영한다
+    private boolean enabled = false;
+
+    // writer 스레드 수. 플레이어는 playerId 해시로 한 partition 에만 속한다 (커넥션 풀 크기보다 작게)
+    private int partitions = 4;
+
+    // partition 당 대기 가능한 거래 수. 가득 차면 429 로 거절한다
+    private int queueCapacity = 10_000;
+
+    // 첫 거래가 들어온 뒤 다른 거래를 모으는 최대 시간
+    private Duration commitInterval = Duration.ofMillis(2);
+
+    // 트랜잭션 하나로 반영하는 최대 거래 수
+    private int maxBatchSize = 500;
+}
@@ -0,0 +1,47 @@
+// AdminController.java
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.model.BulkLoadReport;
+import com.sk.skala.myapp.service.BulkLoadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final BulkLoadService bulkLoadService;
+
+    @Autowired
+    public AdminController(BulkLoadService bulkLoadService) {
+        this.bulkLoadService = bulkLoadService;
+    }
+
+    // bulk-load.stocks-file / players-file에 설정된 파일을 적재한다
+    @PostMapping("/bulk-load")
+    public ResponseEntity<BulkLoadReport> bulkLoad(
+            @RequestParam(defaultValue = "false") boolean stocks,
+            @RequestParam(defaultValue = "true") boolean players,
+            @RequestParam(defaultValue = "0") int chunkSize
+    ) {
+        return ResponseEntity.ok(bulkLoadService.load(stocks, players, chunkSize));
+    }
+
+    // 이미 있는 id 는 건너뛰므로 동시 적재와 재시도 후에도 계속 겹칠 때만 409 (커밋된 chunk 는 남고, 다시 요청하면 이어서 적재)
+    @ExceptionHandler(DuplicateKeyException.class)
+    public ResponseEntity<String> handleDuplicate(DuplicateKeyException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMostSpecificCause().getMessage());
+    }
+
+    // 파일 형식 오류 / 파일 안의 중복 id (쓰기 전에 검증하므로 아무것도 적재되지 않음)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleMalformed(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+}
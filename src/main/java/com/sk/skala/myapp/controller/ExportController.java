@@ -0,0 +1,47 @@
+// ExportController.java
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.service.HoldingsExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+    private final HoldingsExportService holdingsExportService;
+
+    @Autowired
+    public ExportController(HoldingsExportService holdingsExportService) {
+        this.holdingsExportService = holdingsExportService;
+    }
+
+    // 전체 플레이어 보유 내역을 DB cursor 에서 바로 응답으로 스트리밍한다 (format=csv | ndjson)
+    @GetMapping("/holdings")
+    public void exportHoldings(
+            @RequestParam(defaultValue = "csv") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        HoldingsExportService.Format exportFormat;
+        try {
+            exportFormat = HoldingsExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "format must be csv or ndjson");
+            return;
+        }
+
+        boolean csv = exportFormat == HoldingsExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + (csv ? "players.txt" : "holdings.ndjson") + "\"");
+        // 응답은 첫 플레이어를 쓴 뒤에 커밋된다 (쿼리가 처음부터 실패하면 200 대신 오류 응답).
+        // 일부를 보낸 뒤 실패하면 예외가 컨테이너까지 전달되어 연결이 끊기므로 클라이언트는 불완전한 응답임을 알 수 있다
+        holdingsExportService.export(exportFormat, response.getOutputStream());
+    }
+}
@@ -0,0 +1,66 @@
+// KeysetPaging.java
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.config.PaginationProperties;
+import com.sk.skala.myapp.model.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 목록 API 의 keyset 페이지 파라미터(after, limit, fields) 처리와 응답 헤더 생성.
+ * 응답 본문은 기존과 같은 JSON 배열이고, 다음 페이지 커서는 헤더로 알려준다.
+ * - Link: <...?after={커서}&limit={limit}>; rel="next"
+ * - X-Next-Cursor: {커서}
+ */
+final class KeysetPaging {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPaging() {
+    }
+
+    // 1 ~ max-limit 범위가 아니면 -1
+    static int limit(Integer requested, PaginationProperties properties) {
+        if (requested == null) {
+            return properties.getDefaultLimit();
+        }
+        return requested > 0 && requested <= properties.getMaxLimit() ? requested : -1;
+    }
+
+    // "a,b" -> {a, b}. 허용되지 않는 필드가 있으면 null, 지정하지 않았으면 빈 집합
+    static Set<String> fields(String requested, Set<String> allowed) {
+        if (requested == null || requested.isBlank()) {
+            return Set.of();
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        for (String field : Arrays.stream(requested.split(",")).map(String::trim).toList()) {
+            if (!allowed.contains(field)) {
+                return null;
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page, int limit) {
+        return ok(page, limit, ResponseEntity.ok());
+    }
+
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page, int limit, ResponseEntity.BodyBuilder response) {
+        if (page.getNextCursor() != null) {
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .replaceQueryParam("limit", limit)
+                    .encode()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
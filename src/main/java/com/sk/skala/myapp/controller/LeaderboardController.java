@@ -0,0 +1,41 @@
+// LeaderboardController.java
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.model.LeaderboardEntry;
+import com.sk.skala.myapp.service.Leaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+    private final Leaderboard leaderboard;
+
+    @Autowired
+    public LeaderboardController(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+
+    // 순자산 상위 N명
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntry>> getTop(@RequestParam(defaultValue = "100") int top) {
+        return ResponseEntity.ok(leaderboard.getTop(top));
+    }
+
+    // 특정 플레이어의 순위
+    @GetMapping("/{playerId}")
+    public ResponseEntity<LeaderboardEntry> getRank(@PathVariable String playerId) {
+        LeaderboardEntry entry = leaderboard.getEntry(playerId);
+        if (entry != null) {
+            return ResponseEntity.ok(entry);
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
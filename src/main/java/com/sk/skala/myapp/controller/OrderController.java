@@ -0,0 +1,92 @@
+// OrderController.java
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.model.BookDepth;
+import com.sk.skala.myapp.model.LimitOrder;
+import com.sk.skala.myapp.model.OrderRequest;
+import com.sk.skala.myapp.model.OrderResult;
+import com.sk.skala.myapp.service.OrderBookService;
+import com.sk.skala.myapp.service.StockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 플레이어 간 지정가 주문 API (저널 모드에서는 비활성)
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(prefix = "trade-journal", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class OrderController {
+    private static final int MAX_DEPTH_LEVELS = 1000;
+
+    private final OrderBookService orderBookService;
+    private final StockService stockService;
+
+    @Autowired
+    public OrderController(OrderBookService orderBookService, StockService stockService) {
+        this.orderBookService = orderBookService;
+        this.stockService = stockService;
+    }
+
+    // 지정가 주문: 즉시 체결 가능한 수량은 체결하고 나머지는 호가창에 남긴다
+    @PostMapping("/players/{id}/orders")
+    public ResponseEntity<OrderResult> submitOrder(@PathVariable String id, @RequestBody OrderRequest request) {
+        OrderResult result = orderBookService.submit(id, request);
+        if (result.isAccepted()) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        }
+        switch (result.getStatus()) {
+            case PLAYER_NOT_FOUND:
+            case STOCK_NOT_FOUND:
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+            case INVALID_ORDER:
+                return ResponseEntity.badRequest().body(result);
+            case SETTLEMENT_FAILED:
+                // 주문은 취소되고 예약 대금/주식은 돌려줌
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+            default:
+                // 잔액 또는 보유 수량 부족
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(result);
+        }
+    }
+
+    @GetMapping("/players/{id}/orders")
+    public ResponseEntity<List<LimitOrder>> getOpenOrders(@PathVariable String id) {
+        return ResponseEntity.ok(orderBookService.getOpenOrders(id));
+    }
+
+    @DeleteMapping("/players/{id}/orders/{orderId}")
+    public ResponseEntity<Void> cancelOrder(@PathVariable String id, @PathVariable long orderId) {
+        if (orderBookService.cancel(id, orderId)) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // 호가창 (가격 단계별 잔량)
+    @GetMapping("/stocks/{name}/book")
+    public ResponseEntity<BookDepth> getBook(
+            @PathVariable String name,
+            @RequestParam(defaultValue = "10") int levels
+    ) {
+        if (levels <= 0 || levels > MAX_DEPTH_LEVELS) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (stockService.getStockByName(name) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(orderBookService.getDepth(name, levels));
+    }
+
+    // 동시 변경 충돌이 재시도(conflict-retry.max-attempts) 후에도 해소되지 않은 경우
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Void> handleConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
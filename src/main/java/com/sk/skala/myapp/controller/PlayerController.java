@@ -1,41 +1,84 @@
 // PlayerController.java
 package com.sk.skala.myapp.controller;
 
+import com.sk.skala.myapp.config.PaginationProperties;
+import com.sk.skala.myapp.model.DeleteResult;
+import com.sk.skala.myapp.model.KeysetPage;
 import com.sk.skala.myapp.model.Player;
 import com.sk.skala.myapp.model.PlayerStock;
-import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.model.PlayerSummary;
 import com.sk.skala.myapp.model.StockRequest;
-import com.sk.skala.myapp.repository.StockRepository;
+import com.sk.skala.myapp.model.TradeResult;
 import com.sk.skala.myapp.service.PlayerService;
+import com.sk.skala.myapp.service.TradeLedger;
+import com.sk.skala.myapp.service.TradePipeline;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/players")
 public class PlayerController {
     private final PlayerService playerService;
-    private final StockRepository stockRepository;
+    // trade-journal.enabled=true 이면 저널 원장이 기준 데이터 (DB는 비동기 사본)
+    private final TradeLedger tradeLedger;
+    // trade-pipeline.enabled=true 이면 매수/매도를 모아서 group commit (저널 모드가 우선)
+    private final TradePipeline tradePipeline;
+    private final PaginationProperties paginationProperties;
 
     @Autowired
-    public PlayerController(PlayerService playerService, StockRepository stockRepository) {
+    public PlayerController(
+            PlayerService playerService,
+            Optional<TradeLedger> tradeLedger,
+            Optional<TradePipeline> tradePipeline,
+            PaginationProperties paginationProperties
+    ) {
         this.playerService = playerService;
-        this.stockRepository = stockRepository;
+        this.tradeLedger = tradeLedger.orElse(null);
+        this.tradePipeline = tradePipeline.orElse(null);
+        this.paginationProperties = paginationProperties;
     }
 
+    /**
+     * 플레이어 목록 (playerId 순 keyset 페이지).
+     * after: 이전 페이지의 마지막 playerId, fields: 응답에 포함할 필드 (예: fields=playerId)
+     */
     @GetMapping
-    public ResponseEntity<List<Player>> getAllPlayers() {
-        return ResponseEntity.ok(playerService.getAllPlayers());
+    public ResponseEntity<? extends List<?>> getAllPlayers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields
+    ) {
+        int pageLimit = KeysetPaging.limit(limit, paginationProperties);
+        Set<String> selected = KeysetPaging.fields(fields, PlayerSummary.FIELDS);
+        if (pageLimit < 0 || selected == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        if (selected.isEmpty()) {
+            KeysetPage<Player> page = tradeLedger != null
+                    ? tradeLedger.getPlayers(after, pageLimit)
+                    : playerService.getPlayers(after, pageLimit);
+            return KeysetPaging.ok(page, pageLimit);
+        }
+        KeysetPage<PlayerSummary> page = tradeLedger != null
+                ? tradeLedger.getPlayers(after, pageLimit).map(player -> PlayerSummary.of(player, selected))
+                : playerService.getPlayerSummaries(after, pageLimit, selected);
+        return KeysetPaging.ok(page, pageLimit);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Player> getPlayerById(@PathVariable String id) {
-        Player player = playerService.getPlayerById(id);
+        Player player = tradeLedger != null ? tradeLedger.getPlayer(id) : playerService.getPlayerById(id);
         if (player != null) {
             return ResponseEntity.ok(player);
         }
@@ -44,12 +87,15 @@ public class PlayerController {
 
     @PostMapping
     public ResponseEntity<Player> createPlayer(@RequestBody Player player) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(playerService.createPlayer(player));
+        Player created = tradeLedger != null ? tradeLedger.createPlayer(player) : playerService.createPlayer(player);
+        return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Player> updatePlayer(@PathVariable String id, @RequestBody Player player) {
-        Player updatedPlayer = playerService.updatePlayer(id, player);
+        Player updatedPlayer = tradeLedger != null
+                ? tradeLedger.updatePlayer(id, player)
+                : playerService.updatePlayer(id, player);
         if (updatedPlayer != null) {
             return ResponseEntity.ok(updatedPlayer);
         }
@@ -58,51 +104,91 @@ public class PlayerController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePlayer(@PathVariable String id) {
-        boolean deleted = playerService.deletePlayer(id);
-        if (deleted) {
-            return ResponseEntity.noContent().build();
+        DeleteResult result = tradeLedger != null
+                ? (tradeLedger.deletePlayer(id) ? DeleteResult.DELETED : DeleteResult.NOT_FOUND)
+                : playerService.deletePlayer(id);
+        switch (result) {
+            case DELETED:
+                return ResponseEntity.noContent().build();
+            case HAS_OPEN_ORDERS:
+                // 미체결 지정가 주문을 먼저 취소해야 한다
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            default:
+                return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.notFound().build();
     }
 
     @GetMapping("/{id}/stocks")
     public ResponseEntity<List<PlayerStock>> getPlayerStocks(@PathVariable String id) {
-        List<PlayerStock> playerStocks = playerService.getPlayerStocks(id);
+        List<PlayerStock> playerStocks = tradeLedger != null
+                ? tradeLedger.getPlayerStocks(id)
+                : playerService.getPlayerStocks(id);
         return ResponseEntity.ok(playerStocks);
     }
 
+    /**
+     * 주식 매수: 잔액 차감 + 보유 수량 증가.
+     * 반환 타입이 Object 인 이유: Spring MVC 는 실제 반환값으로 처리 방식을 고른다.
+     * 파이프라인 모드에서만 CompletableFuture(비동기 응답)를 반환하고, 그 외에는 ResponseEntity 를 요청 스레드에서 바로 응답한다.
+     */
     @PostMapping("/{id}/stocks")
-    public ResponseEntity<Player> addStockToPlayer(
+    public Object addStockToPlayer(
             @PathVariable String id,
             @RequestBody StockRequest stockRequest
     ) {
         String stockName = stockRequest.getStockName();
         int quantity = stockRequest.getQuantity();
-
-        Player player = playerService.addStockToPlayer(id, stockName, quantity);
-        if (player != null) {
-            return ResponseEntity.ok(player);
+        if (tradeLedger != null) {
+            return toResponse(tradeLedger.buy(id, stockName, quantity));
         }
-        return ResponseEntity.notFound().build();
+        if (tradePipeline != null) {
+            // 요청 스레드를 반환하고 group commit 이후 응답
+            return tradePipeline.buy(id, stockName, quantity).thenApply(this::toResponse);
+        }
+        return toResponse(playerService.buyStock(id, stockName, quantity));
     }
 
-
+    // 주식 매도: 보유 수량 감소 + 잔액 증가 (0주가 되면 보유 내역 삭제). 반환 타입은 매수와 같다
     @PutMapping("/{id}/stocks")
-    public ResponseEntity<Player> updatePlayerStock(
+    public Object updatePlayerStock(
             @PathVariable String id,
             @RequestBody StockRequest stockRequest
     ) {
-
-        Stock stock = stockRepository.findById(stockRequest.getStockName()).orElse(null);
-
-        if (stock == null) {
-            return ResponseEntity.notFound().build();
+        String stockName = stockRequest.getStockName();
+        int quantity = stockRequest.getQuantity();
+        if (tradeLedger != null) {
+            return toResponse(tradeLedger.sell(id, stockName, quantity));
         }
+        if (tradePipeline != null) {
+            return tradePipeline.sell(id, stockName, quantity).thenApply(this::toResponse);
+        }
+        return toResponse(playerService.sellStock(id, stockName, quantity));
+    }
 
-        Player player = playerService.updatePlayerStock(id, stockRequest.getStockName(), stockRequest.getQuantity(), stock.getStockPrice());
-        if (player != null) {
-            return ResponseEntity.ok(player);
+    private ResponseEntity<Player> toResponse(TradeResult result) {
+        switch (result.getStatus()) {
+            case OK:
+                return ResponseEntity.ok(result.getPlayer());
+            case PLAYER_NOT_FOUND:
+            case STOCK_NOT_FOUND:
+                return ResponseEntity.notFound().build();
+            case INVALID_QUANTITY:
+                return ResponseEntity.badRequest().build();
+            default:
+                // 잔액 또는 보유 수량 부족
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
         }
-        return ResponseEntity.notFound().build();
+    }
+
+    // 동시 변경 충돌이 재시도(conflict-retry.max-attempts) 후에도 해소되지 않았거나, 재시도하지 않는 제약 조건 위반
+    @ExceptionHandler({ConcurrencyFailureException.class, DataIntegrityViolationException.class})
+    public ResponseEntity<Void> handleConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+
+    // trade-pipeline 큐가 가득 찬 경우 (요청 수락 제어와 같은 방식으로 응답)
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Void> handleRejected() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
     }
 }
@@ -1,39 +1,173 @@
 // StockController.java
 package com.sk.skala.myapp.controller;
 
+import com.sk.skala.myapp.config.PaginationProperties;
+import com.sk.skala.myapp.model.KeysetPage;
 import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.model.StockSummary;
+import com.sk.skala.myapp.service.CatalogResponseCache;
+import com.sk.skala.myapp.service.PriceBroadcaster;
+import com.sk.skala.myapp.service.PriceHistoryStore;
+import com.sk.skala.myapp.service.StockCatalog;
 import com.sk.skala.myapp.service.StockService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/stocks")
 public class StockController {
     private final StockService stockService;
+    private final PriceBroadcaster priceBroadcaster;
+    private final PriceHistoryStore priceHistoryStore;
+    private final PaginationProperties paginationProperties;
+    private final CatalogResponseCache catalogResponseCache;
 
     @Autowired
-    public StockController(StockService stockService) {
+    public StockController(
+            StockService stockService,
+            PriceBroadcaster priceBroadcaster,
+            PriceHistoryStore priceHistoryStore,
+            PaginationProperties paginationProperties,
+            CatalogResponseCache catalogResponseCache
+    ) {
         this.stockService = stockService;
+        this.priceBroadcaster = priceBroadcaster;
+        this.priceHistoryStore = priceHistoryStore;
+        this.paginationProperties = paginationProperties;
+        this.catalogResponseCache = catalogResponseCache;
     }
 
+    /**
+     * 종목 목록 (stockName 순 keyset 페이지).
+     * after: 이전 페이지의 마지막 stockName, fields: 응답에 포함할 필드 (예: fields=stockName)
+     */
     @GetMapping
-    public ResponseEntity<List<Stock>> getAllStocks() {
-        return ResponseEntity.ok(stockService.getAllStocks());
+    public ResponseEntity<?> getAllStocks(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        int pageLimit = KeysetPaging.limit(limit, paginationProperties);
+        Set<String> selected = KeysetPaging.fields(fields, StockSummary.FIELDS);
+        if (pageLimit < 0 || selected == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        // 같은 카탈로그 fingerprint 면 본문도 같으므로 strong ETag 로 쓴다 (If-None-Match 가 맞으면 304, 직렬화 없음)
+        StockCatalog.Snapshot catalog = stockService.getCatalog();
+        if (after == null && selected.isEmpty() && catalog.getStocks().size() <= pageLimit) {
+            return fullList(catalog, acceptEncoding);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag("\"" + catalog.getFingerprint() + "\"");
+        KeysetPage<Stock> page = stockService.getStocks(catalog, after, pageLimit);
+        if (selected.isEmpty()) {
+            return KeysetPaging.ok(page, pageLimit, response);
+        }
+        return KeysetPaging.ok(page.map(stock -> StockSummary.of(stock, selected)), pageLimit, response);
+    }
+
+    // 전체 목록은 버전별로 미리 직렬화(+gzip)해 둔 본문을 그대로 보낸다
+    private ResponseEntity<byte[]> fullList(StockCatalog.Snapshot catalog, String acceptEncoding) {
+        CatalogResponseCache.Entry entry = catalogResponseCache.get(catalog);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        // 인코딩이 다르면 본문 byte 가 다르므로 ETag 도 구분한다
+        if (entry.getGzip() != null && acceptsGzip(acceptEncoding)) {
+            return response.eTag("\"" + entry.getFingerprint() + "-gzip\"")
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(entry.getGzip());
+        }
+        return response.eTag("\"" + entry.getFingerprint() + "\"").body(entry.getJson());
+    }
+
+    // "gzip", "gzip;q=0.8", "*" 를 허용으로 본다 (q=0 은 거부)
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(param.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 가격 변경 스트림 (SSE). 첫 이벤트는 전체 가격, 이후에는 바뀐 종목만 {"종목명": 가격} 형태로 전송
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices() {
+        return priceBroadcaster.subscribe();
     }
 
     @GetMapping("/{name}")
     public ResponseEntity<Stock> getStockByName(@PathVariable String name) {
-        Stock stock = stockService.getStockByName(name);
+        StockCatalog.Snapshot catalog = stockService.getCatalog();
+        Stock stock = catalog.get(name);
         if (stock != null) {
-            return ResponseEntity.ok(stock);
+            return ResponseEntity.ok().eTag("\"" + catalog.getFingerprint() + "\"").body(stock);
         }
         return ResponseEntity.notFound().build();
     }
 
+    /**
+     * 가격 이력 조회. from/to는 epoch millis (기본: 최근 1시간)
+     * resolution: raw(변경 원본, 최근 limit 건) | 1s | 1m | 1h (OHLC 캔들)
+     */
+    @GetMapping("/{name}/history")
+    public ResponseEntity<List<?>> getPriceHistory(
+            @PathVariable String name,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to,
+            @RequestParam(defaultValue = "1m") String resolution,
+            @RequestParam(defaultValue = "10000") int limit
+    ) {
+        if (!priceHistoryStore.hasHistory(name) && stockService.getStockByName(name) == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        long end = to != null ? to : System.currentTimeMillis() + 1;
+        long start = from != null ? from : end - 3_600_000L;
+        switch (resolution) {
+            case "raw":
+                return ResponseEntity.ok(priceHistoryStore.getPoints(name, start, end, limit));
+            case "1s":
+                return ResponseEntity.ok(priceHistoryStore.getCandles(name, start, end, 1_000L));
+            case "1m":
+                return ResponseEntity.ok(priceHistoryStore.getCandles(name, start, end, 60_000L));
+            case "1h":
+                return ResponseEntity.ok(priceHistoryStore.getCandles(name, start, end, 3_600_000L));
+            default:
+                return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PostMapping
     public ResponseEntity<Stock> createStock(@RequestBody Stock stock) {
         return ResponseEntity.status(HttpStatus.CREATED).body(stockService.createStock(stock));
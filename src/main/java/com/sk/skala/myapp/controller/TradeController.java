@@ -0,0 +1,48 @@
+// TradeController.java
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.model.TradeOrderResult;
+import com.sk.skala.myapp.service.BatchTradeService;
+import com.sk.skala.myapp.service.TradeLedger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/trades")
+public class TradeController {
+    private final BatchTradeService batchTradeService;
+    private final TradeLedger tradeLedger;
+    private final int maxOrders;
+
+    @Autowired
+    public TradeController(
+            BatchTradeService batchTradeService,
+            Optional<TradeLedger> tradeLedger,
+            @Value("${batch-trade.max-orders:1000}") int maxOrders
+    ) {
+        this.batchTradeService = batchTradeService;
+        this.tradeLedger = tradeLedger.orElse(null);
+        this.maxOrders = maxOrders;
+    }
+
+    // 여러 주문을 하나의 트랜잭션으로 처리하고 주문별 결과를 반환 (일부 주문이 실패해도 나머지는 반영)
+    @PostMapping("/batch")
+    public ResponseEntity<List<TradeOrderResult>> executeBatch(@RequestBody List<TradeOrder> orders) {
+        if (orders.size() > maxOrders) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+        return ResponseEntity.ok(tradeLedger != null
+                ? tradeLedger.execute(orders)
+                : batchTradeService.execute(orders));
+    }
+}
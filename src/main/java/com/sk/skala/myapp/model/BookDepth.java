@@ -0,0 +1,29 @@
+package com.sk.skala.myapp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 호가창 스냅샷 (GET /api/stocks/{name}/book). bids 는 높은 가격부터, asks 는 낮은 가격부터.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookDepth {
+    private final String stockName;
+    private final List<Level> bids;
+    private final List<Level> asks;
+    // 마지막 체결 가격 (체결이 없었으면 null)
+    private final Integer lastPrice;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Level {
+        private final int price;
+        private final long quantity;
+        private final int orders;
+    }
+}
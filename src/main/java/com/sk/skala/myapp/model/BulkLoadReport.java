@@ -0,0 +1,31 @@
+package com.sk.skala.myapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 대량 적재 결과 (적재 건수와 처리 속도). skipped 는 이미 있어서 건너뛴 종목/플레이어 수.
+ */
+@Getter
+@AllArgsConstructor
+public class BulkLoadReport {
+    private final long stocks;
+    private final long players;
+    private final long holdings;
+    private final long skipped;
+    private final long elapsedMillis;
+
+    public long getRows() {
+        return stocks + players + holdings;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis > 0 ? getRows() * 1000 / elapsedMillis : getRows();
+    }
+
+    @Override
+    public String toString() {
+        return "stocks=" + stocks + ", players=" + players + ", holdings=" + holdings + ", skipped=" + skipped
+                + ", elapsed=" + elapsedMillis + "ms, " + getRowsPerSecond() + " rows/s";
+    }
+}
@@ -0,0 +1,12 @@
+// DeleteResult.java
+package com.sk.skala.myapp.model;
+
+/**
+ * 플레이어 삭제 결과
+ */
+public enum DeleteResult {
+    DELETED,
+    NOT_FOUND,
+    // 호가창에 미체결 지정가 주문이 남아 있음 (취소 후 삭제)
+    HAS_OPEN_ORDERS
+}
@@ -0,0 +1,26 @@
+// JournalCheckpoint.java
+package com.sk.skala.myapp.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 거래 저널에서 DB에 반영 완료된 마지막 seq.
+ * DB 반영과 같은 트랜잭션에서 갱신되므로 재기동 시 중복/누락 없이 이어서 반영할 수 있다.
+ */
+@Entity
+@Table(name = "trade_journal_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+public class JournalCheckpoint {
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private int id = SINGLETON_ID;
+    private long appliedSeq;
+}
@@ -0,0 +1,72 @@
+package com.sk.skala.myapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 거래 저널 레코드. type에 따라 사용하는 필드가 다르다.
+ * - TRADE         : playerId, stockName, quantity(증감), money(증감), price
+ * - PRICE         : stockName, price
+ * - PLAYER_SET    : playerId, money(설정값)
+ * - HOLDING_SET   : playerId, stockName, quantity(설정값), price
+ * - PLAYER_DELETE : playerId
+ * - ACCOUNT_SNAPSHOT / HOLDING_SNAPSHOT : 원장 스냅샷 (PLAYER_SET / HOLDING_SET 과 같은 필드, DB 반영 대상 아님)
+ */
+@Getter
+@AllArgsConstructor
+public class JournalRecord {
+
+    public enum Type {
+        TRADE,
+        PRICE,
+        PLAYER_SET,
+        HOLDING_SET,
+        PLAYER_DELETE,
+        // 새 타입은 뒤에 추가한다 (ordinal 이 저널에 기록됨)
+        ACCOUNT_SNAPSHOT,
+        HOLDING_SNAPSHOT
+    }
+
+    private final Type type;
+    private final long seq;
+    private final long timestamp;
+    private final String playerId;
+    private final String stockName;
+    private final int quantity;
+    private final long money;
+    private final int price;
+
+    public static JournalRecord trade(String playerId, String stockName, int quantityDelta, long moneyDelta, int price) {
+        return new JournalRecord(Type.TRADE, 0, 0, playerId, stockName, quantityDelta, moneyDelta, price);
+    }
+
+    public static JournalRecord price(String stockName, int price) {
+        return new JournalRecord(Type.PRICE, 0, 0, null, stockName, 0, 0, price);
+    }
+
+    public static JournalRecord playerSet(String playerId, long money) {
+        return new JournalRecord(Type.PLAYER_SET, 0, 0, playerId, null, 0, money, 0);
+    }
+
+    public static JournalRecord holdingSet(String playerId, String stockName, int quantity, int price) {
+        return new JournalRecord(Type.HOLDING_SET, 0, 0, playerId, stockName, quantity, 0, price);
+    }
+
+    public static JournalRecord playerDelete(String playerId) {
+        return new JournalRecord(Type.PLAYER_DELETE, 0, 0, playerId, null, 0, 0, 0);
+    }
+
+    // 플레이어 한 명의 스냅샷 시작 - 재생 시 보유 내역을 비우고 잔액을 설정한다
+    public static JournalRecord accountSnapshot(String playerId, long money) {
+        return new JournalRecord(Type.ACCOUNT_SNAPSHOT, 0, 0, playerId, null, 0, money, 0);
+    }
+
+    public static JournalRecord holdingSnapshot(String playerId, String stockName, int quantity, int price) {
+        return new JournalRecord(Type.HOLDING_SNAPSHOT, 0, 0, playerId, stockName, quantity, 0, price);
+    }
+
+    // 저널에 기록된 seq/timestamp를 붙인 복사본
+    public JournalRecord withPosition(long seq, long timestamp) {
+        return new JournalRecord(type, seq, timestamp, playerId, stockName, quantity, money, price);
+    }
+}
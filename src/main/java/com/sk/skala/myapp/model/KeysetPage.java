@@ -0,0 +1,34 @@
+// KeysetPage.java
+package com.sk.skala.myapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * keyset(cursor) 페이지.
+ * nextCursor 는 마지막 항목의 키(playerId / stockName)이고, 다음 페이지가 없으면 null 이다.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * limit + 1 건을 조회한 결과로 페이지를 만든다. 초과분이 있으면 다음 페이지가 있다.
+     */
+    public static <T> KeysetPage<T> of(List<T> fetched, int limit, Function<T, String> key) {
+        if (fetched.size() <= limit) {
+            return new KeysetPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, limit);
+        return new KeysetPage<>(items, key.apply(items.get(limit - 1)));
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
@@ -0,0 +1,16 @@
+package com.sk.skala.myapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 순위표 한 줄 (netWorth = 보유 금액 + 보유 주식 평가액)
+ */
+@Getter
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private final int rank;
+    private final String playerId;
+    private final long playerMoney;
+    private final long netWorth;
+}
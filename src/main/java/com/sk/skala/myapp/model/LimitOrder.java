@@ -0,0 +1,45 @@
+// LimitOrder.java
+package com.sk.skala.myapp.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 호가창에 남아 있는 지정가 주문 (체결되지 않은 수량).
+ * 주문 시 매수 대금/매도 주식을 미리 차감해 두므로, 재기동 시 이 테이블로 호가창을 복원한다.
+ */
+@Entity
+@Table(name = "limit_orders", indexes = @Index(columnList = "player_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class LimitOrder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "player_id", nullable = false)
+    private String playerId;
+
+    @Column(nullable = false)
+    private String stockName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TradeOrder.Side side;
+
+    private int price;
+
+    // 남은(체결되지 않은) 수량
+    private int quantity;
+
+    public LimitOrder(String playerId, OrderRequest request) {
+        this.playerId = playerId;
+        this.stockName = request.getStockName();
+        this.side = request.getSide();
+        this.price = request.getPrice();
+        this.quantity = request.getQuantity();
+    }
+}
@@ -0,0 +1,27 @@
+package com.sk.skala.myapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 체결 한 건. maker 는 호가창에서 기다리던 주문이고 체결 가격은 maker 주문 가격이다.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderFill {
+    private final long makerOrderId;
+    private final String makerPlayerId;
+    private final long takerOrderId;
+    private final String takerPlayerId;
+    private final TradeOrder.Side takerSide;
+    private final int price;
+    private final int quantity;
+
+    public String getBuyerId() {
+        return takerSide == TradeOrder.Side.BUY ? takerPlayerId : makerPlayerId;
+    }
+
+    public String getSellerId() {
+        return takerSide == TradeOrder.Side.BUY ? makerPlayerId : takerPlayerId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.sk.skala.myapp.model;
+
+import lombok.Data;
+
+/**
+ * 지정가 주문 요청 (POST /api/players/{id}/orders)
+ */
+@Data
+public class OrderRequest {
+    private String stockName;
+    private TradeOrder.Side side = TradeOrder.Side.BUY;
+    private int price;
+    private int quantity;
+}
@@ -0,0 +1,63 @@
+package com.sk.skala.myapp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 지정가 주문 처리 결과.
+ * 접수되면 주문 id 와 즉시 체결된 수량/금액, 호가창에 남은 수량을 담고, 거부되면 사유(Status)만 담는다.
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderResult {
+
+    public enum Status {
+        ACCEPTED,
+        PARTIALLY_FILLED,
+        FILLED,
+        INVALID_ORDER,
+        PLAYER_NOT_FOUND,
+        STOCK_NOT_FOUND,
+        INSUFFICIENT_MONEY,
+        INSUFFICIENT_QUANTITY,
+        // 체결 정산이 실패해 주문을 취소하고 예약 대금/주식을 돌려줌
+        SETTLEMENT_FAILED
+    }
+
+    private final Status status;
+    private final Long orderId;
+    private final int filledQuantity;
+    private final long filledAmount;
+    private final int remainingQuantity;
+
+    private OrderResult(Status status, Long orderId, int filledQuantity, long filledAmount, int remainingQuantity) {
+        this.status = status;
+        this.orderId = orderId;
+        this.filledQuantity = filledQuantity;
+        this.filledAmount = filledAmount;
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    public static OrderResult of(long orderId, int remainingQuantity, List<OrderFill> fills) {
+        int filled = 0;
+        long amount = 0;
+        for (OrderFill fill : fills) {
+            filled += fill.getQuantity();
+            amount += (long) fill.getPrice() * fill.getQuantity();
+        }
+        Status status = filled == 0 ? Status.ACCEPTED
+                : remainingQuantity == 0 ? Status.FILLED
+                : Status.PARTIALLY_FILLED;
+        return new OrderResult(status, orderId, filled, amount, remainingQuantity);
+    }
+
+    public static OrderResult fail(Status status) {
+        return new OrderResult(status, null, 0, 0, 0);
+    }
+
+    public boolean isAccepted() {
+        return orderId != null;
+    }
+}
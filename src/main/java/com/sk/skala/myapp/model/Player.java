@@ -1,6 +1,7 @@
 // Player.java
 package com.sk.skala.myapp.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +15,14 @@ public class Player {
     private String playerId;
     private int playerMoney;
 
+    // 낙관적 잠금 버전. 조건부 bulk update 도 'update versioned' 로 함께 증가시킨다.
+    // null 이면 새 엔티티로 보고 save() 가 merge 대신 persist 한다 (JSON 으로는 받지 않음).
+    // 기존 테이블에 컬럼이 추가될 때와 native insert 를 위해 DB 기본값 0을 둔다.
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     // @OneToMany 관계 제거 - PlayerStock에서만 Player를 참조함
 
     public Player(String id) {
@@ -0,0 +1,33 @@
+package com.sk.skala.myapp.model;
+
+import lombok.Getter;
+
+/**
+ * 플레이어 잔액/보유 주식 변경 이벤트 (커밋 이후 순위표 등에 반영)
+ * - trade  : 거래로 인한 변화량 (보유 수량 증감, 잔액 증감)
+ * - resync : 변화량을 알 수 없는 변경 (생성/수정/삭제) - 수신 측에서 다시 조회한다
+ */
+@Getter
+public class PlayerChangedEvent {
+    private final String playerId;
+    private final String stockName;
+    private final int quantityDelta;
+    private final long moneyDelta;
+    private final boolean resync;
+
+    private PlayerChangedEvent(String playerId, String stockName, int quantityDelta, long moneyDelta, boolean resync) {
+        this.playerId = playerId;
+        this.stockName = stockName;
+        this.quantityDelta = quantityDelta;
+        this.moneyDelta = moneyDelta;
+        this.resync = resync;
+    }
+
+    public static PlayerChangedEvent trade(String playerId, String stockName, int quantityDelta, long moneyDelta) {
+        return new PlayerChangedEvent(playerId, stockName, quantityDelta, moneyDelta, false);
+    }
+
+    public static PlayerChangedEvent resync(String playerId) {
+        return new PlayerChangedEvent(playerId, null, 0, 0, true);
+    }
+}
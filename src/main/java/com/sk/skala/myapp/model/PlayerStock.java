@@ -2,13 +2,15 @@
 package com.sk.skala.myapp.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "player_stocks")
+@Table(name = "player_stocks",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"player_id", "stock_name"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,6 +23,12 @@ public class PlayerStock {
     private int stockPrice;
     private int stockQuantity;
 
+    // 낙관적 잠금 버전 (Player.version 과 같은 방식)
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @JsonIgnore
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "player_id")
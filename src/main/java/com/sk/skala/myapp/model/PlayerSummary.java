@@ -0,0 +1,40 @@
+// PlayerSummary.java
+package com.sk.skala.myapp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 플레이어 목록용 DTO projection (fields 로 선택한 필드만 응답에 포함)
+ */
+@Getter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PlayerSummary {
+    public static final Set<String> FIELDS = Set.of("playerId", "playerMoney");
+
+    private final String playerId;
+    private final Integer playerMoney;
+
+    // JPQL constructor expression 용
+    public PlayerSummary(String playerId, int playerMoney) {
+        this.playerId = playerId;
+        this.playerMoney = playerMoney;
+    }
+
+    private PlayerSummary(String playerId, Integer playerMoney) {
+        this.playerId = playerId;
+        this.playerMoney = playerMoney;
+    }
+
+    public static PlayerSummary of(Player player, Set<String> fields) {
+        return new PlayerSummary(player.getPlayerId(), player.getPlayerMoney()).select(fields);
+    }
+
+    public PlayerSummary select(Set<String> fields) {
+        return new PlayerSummary(
+                fields.contains("playerId") ? playerId : null,
+                fields.contains("playerMoney") ? playerMoney : null);
+    }
+}
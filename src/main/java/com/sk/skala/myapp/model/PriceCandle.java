@@ -0,0 +1,18 @@
+package com.sk.skala.myapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 구간별 시가/고가/저가/종가 (timestamp: 구간 시작 epoch millis, count: 구간 내 가격 변경 건수)
+ */
+@Getter
+@AllArgsConstructor
+public class PriceCandle {
+    private final long timestamp;
+    private final int open;
+    private final int high;
+    private final int low;
+    private final int close;
+    private final int count;
+}
@@ -0,0 +1,14 @@
+package com.sk.skala.myapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 가격 이력 한 건 (timestamp: epoch millis)
+ */
+@Getter
+@AllArgsConstructor
+public class PricePoint {
+    private final long timestamp;
+    private final int price;
+}
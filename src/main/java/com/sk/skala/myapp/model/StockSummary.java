@@ -0,0 +1,27 @@
+// StockSummary.java
+package com.sk.skala.myapp.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 종목 목록용 DTO (fields 로 선택한 필드만 응답에 포함)
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StockSummary {
+    public static final Set<String> FIELDS = Set.of("stockName", "stockPrice");
+
+    private final String stockName;
+    private final Integer stockPrice;
+
+    public static StockSummary of(Stock stock, Set<String> fields) {
+        return new StockSummary(
+                fields.contains("stockName") ? stock.getStockName() : null,
+                fields.contains("stockPrice") ? stock.getStockPrice() : null);
+    }
+}
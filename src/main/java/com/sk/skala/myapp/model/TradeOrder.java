@@ -0,0 +1,20 @@
+package com.sk.skala.myapp.model;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * 배치 거래 주문 한 건 (StockRequest + 플레이어/매수·매도 구분)
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TradeOrder extends StockRequest {
+
+    public enum Side {
+        BUY,
+        SELL
+    }
+
+    private String playerId;
+    private Side side = Side.BUY;
+}
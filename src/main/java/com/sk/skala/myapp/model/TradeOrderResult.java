@@ -0,0 +1,18 @@
+package com.sk.skala.myapp.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 배치 거래 주문별 결과 (playerMoney/stockQuantity는 해당 주문 처리 직후 값, 실패 시 0)
+ */
+@Getter
+@AllArgsConstructor
+public class TradeOrderResult {
+    private final int index;
+    private final String playerId;
+    private final String stockName;
+    private final TradeResult.Status status;
+    private final int playerMoney;
+    private final int stockQuantity;
+}
@@ -0,0 +1,40 @@
+package com.sk.skala.myapp.model;
+
+import lombok.Getter;
+
+/**
+ * 매수/매도 처리 결과.
+ * 성공 시 거래 후의 Player를, 실패 시 실패 사유(Status)를 담는다.
+ */
+@Getter
+public class TradeResult {
+
+    public enum Status {
+        OK,
+        INVALID_QUANTITY,
+        PLAYER_NOT_FOUND,
+        STOCK_NOT_FOUND,
+        INSUFFICIENT_MONEY,
+        INSUFFICIENT_QUANTITY
+    }
+
+    private final Status status;
+    private final Player player;
+
+    private TradeResult(Status status, Player player) {
+        this.status = status;
+        this.player = player;
+    }
+
+    public static TradeResult ok(Player player) {
+        return new TradeResult(Status.OK, player);
+    }
+
+    public static TradeResult fail(Status status) {
+        return new TradeResult(status, null);
+    }
+
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+}
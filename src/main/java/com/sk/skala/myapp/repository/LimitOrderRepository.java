@@ -0,0 +1,40 @@
+// LimitOrderRepository.java
+package com.sk.skala.myapp.repository;
+
+import com.sk.skala.myapp.model.LimitOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LimitOrderRepository extends JpaRepository<LimitOrder, Long> {
+
+    // 재기동 시 호가창 복원 (id 순 = 접수 순)
+    List<LimitOrder> findAllByOrderByIdAsc();
+
+    List<LimitOrder> findByPlayerIdOrderByIdAsc(String playerId);
+
+    // 정산 실패 시 종목 호가창을 DB 기준으로 다시 만든다
+    List<LimitOrder> findByStockNameOrderByIdAsc(String stockName);
+
+    // 플레이어 삭제 전 미체결 주문 확인
+    boolean existsByPlayerId(String playerId);
+
+    // 체결된 수량만큼 감소 (엔티티를 읽지 않음)
+    @Modifying
+    @Query("update LimitOrder o set o.quantity = o.quantity - :filled where o.id = :id")
+    int reduceQuantity(@Param("id") long id, @Param("filled") int filled);
+
+    // 전량 체결된 주문 정리
+    @Modifying
+    @Query("delete from LimitOrder o where o.id = :id and o.quantity <= 0")
+    int deleteIfFilled(@Param("id") long id);
+
+    @Modifying
+    @Query("delete from LimitOrder o where o.id = :id")
+    int deleteOrder(@Param("id") long id);
+}
@@ -2,10 +2,49 @@
 package com.sk.skala.myapp.repository;
 
 import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PlayerRepository extends JpaRepository<Player, String> {
     // Spring Data JPA automatically provides methods like findAll(), findById(), save(), etc.
+
+    // playerId keyset 페이지 (첫 페이지는 after = "")
+    List<Player> findByPlayerIdGreaterThanOrderByPlayerIdAsc(String after, Limit limit);
+
+    // 목록용 projection: 영속성 컨텍스트에 엔티티를 올리지 않고 필요한 컬럼만 조회
+    @Query("select new com.sk.skala.myapp.model.PlayerSummary(p.playerId, p.playerMoney) from Player p " +
+            "where p.playerId > :after order by p.playerId")
+    List<PlayerSummary> findSummariesAfter(@Param("after") String after, Limit limit);
+
+    // 여러 플레이어를 한 번에 잠금 조회 (SELECT ... FOR UPDATE, id 순서로 잠가 교착 상태 방지)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Player> findByPlayerIdInOrderByPlayerIdAsc(Collection<String> playerIds);
+
+    // 잔액이 충분할 때만 차감한다 (조건부 UPDATE, 1 = 성공 / 0 = 플레이어 없음 또는 잔액 부족)
+    @Modifying
+    @Query("update versioned Player p set p.playerMoney = p.playerMoney - :amount " +
+            "where p.playerId = :playerId and p.playerMoney >= :amount")
+    int withdrawMoney(@Param("playerId") String playerId, @Param("amount") int amount);
+
+    // 잔액을 증가시킨다 (1 = 성공 / 0 = 플레이어 없음)
+    // amount 0으로 호출하면 플레이어 row lock 획득 + 존재 확인을 한 번에 처리할 수 있다.
+    @Modifying
+    @Query("update versioned Player p set p.playerMoney = p.playerMoney + :amount where p.playerId = :playerId")
+    int depositMoney(@Param("playerId") String playerId, @Param("amount") int amount);
+
+    // 조회 없이 삭제 (1 = 삭제 / 0 = 플레이어 없음)
+    @Modifying
+    @Query("delete from Player p where p.playerId = :playerId")
+    int deleteByPlayerId(@Param("playerId") String playerId);
 }
@@ -3,8 +3,13 @@ package com.sk.skala.myapp.repository;
 
 import com.sk.skala.myapp.model.Player;
 import com.sk.skala.myapp.model.PlayerStock;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +19,55 @@ public interface PlayerStockRepository extends JpaRepository<PlayerStock, Long>
     List<PlayerStock> findByPlayerPlayerId(String playerId);
     Optional<PlayerStock> findByPlayerAndStockName(Player player, String stockName);
     Optional<PlayerStock> findByPlayerPlayerIdAndStockName(String playerId, String stockName);
+    List<PlayerStock> findByPlayerPlayerIdIn(Collection<String> playerIds);
+
+    // 메뉴 번호(인덱스)와 순서가 맞도록 id 순으로 조회. Pageable 로 n번째 한 건만 가져올 수 있다 (count 쿼리 없음).
+    List<PlayerStock> findByPlayerPlayerIdOrderByIdAsc(String playerId);
+    List<PlayerStock> findByPlayerPlayerIdOrderByIdAsc(String playerId, Pageable pageable);
+
+    // 플레이어의 보유 내역 일괄 삭제 (엔티티를 읽지 않고 delete 한 번)
+    @Modifying
+    @Query("delete from PlayerStock ps where ps.player.playerId = :playerId")
+    int deleteByPlayerId(@Param("playerId") String playerId);
+
+    // 보유 수량 증가 (1 = 성공 / 0 = 보유 내역 없음)
+    @Modifying
+    @Query("update versioned PlayerStock ps set ps.stockQuantity = ps.stockQuantity + :quantity, ps.stockPrice = :price " +
+            "where ps.player.playerId = :playerId and ps.stockName = :stockName")
+    int addQuantity(@Param("playerId") String playerId, @Param("stockName") String stockName,
+                    @Param("quantity") int quantity, @Param("price") int price);
+
+    // 보유 수량이 충분할 때만 감소 (1 = 성공 / 0 = 보유 내역 없음 또는 수량 부족)
+    @Modifying
+    @Query("update versioned PlayerStock ps set ps.stockQuantity = ps.stockQuantity - :quantity, ps.stockPrice = :price " +
+            "where ps.player.playerId = :playerId and ps.stockName = :stockName and ps.stockQuantity >= :quantity")
+    int subtractQuantity(@Param("playerId") String playerId, @Param("stockName") String stockName,
+                         @Param("quantity") int quantity, @Param("price") int price);
+
+    // 보유 수량 직접 설정 (1 = 성공 / 0 = 보유 내역 없음)
+    @Modifying
+    @Query("update versioned PlayerStock ps set ps.stockQuantity = :quantity, ps.stockPrice = :price " +
+            "where ps.player.playerId = :playerId and ps.stockName = :stockName")
+    int setQuantity(@Param("playerId") String playerId, @Param("stockName") String stockName,
+                    @Param("quantity") int quantity, @Param("price") int price);
+
+    // 신규 보유 내역 추가. (player_id, stock_name) unique key 때문에 중복 row는 생기지 않는다.
+    @Modifying
+    @Query(value = "insert into player_stocks (player_id, stock_name, stock_price, stock_quantity) " +
+            "values (:playerId, :stockName, :price, :quantity)", nativeQuery = true)
+    int insertHolding(@Param("playerId") String playerId, @Param("stockName") String stockName,
+                      @Param("quantity") int quantity, @Param("price") int price);
+
+    // 종목의 모든 보유 내역 평가 가격을 갱신 (엔티티를 읽지 않고 update 한 번).
+    // 수량과 무관한 값이므로 version 은 올리지 않는다 (동시 수량 변경과 충돌로 보지 않음)
+    @Modifying
+    @Query("update PlayerStock ps set ps.stockPrice = :price " +
+            "where ps.stockName = :stockName and ps.stockPrice <> :price")
+    int revalue(@Param("stockName") String stockName, @Param("price") int price);
+
+    // 수량이 0 이하가 된 보유 내역 정리
+    @Modifying
+    @Query("delete from PlayerStock ps " +
+            "where ps.player.playerId = :playerId and ps.stockName = :stockName and ps.stockQuantity <= 0")
+    int deleteEmptyHolding(@Param("playerId") String playerId, @Param("stockName") String stockName);
 }
@@ -5,6 +5,7 @@ import com.sk.skala.myapp.model.Stock;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StockRepository extends JpaRepository<Stock, String> {
@@ -12,4 +13,7 @@ public interface StockRepository extends JpaRepository<Stock, String> {
 
     // Custom methods if needed (Spring Data JPA will create the implementation)
     List<Stock> findAllByOrderByStockNameAsc();
+
+    // 기동 시 데이터 유무 확인용 (count(*) 대신 PK 인덱스에서 1건만 읽는다)
+    Optional<Stock> findFirstByOrderByStockNameAsc();
 }
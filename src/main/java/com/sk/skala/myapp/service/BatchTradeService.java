@@ -0,0 +1,179 @@
+// BatchTradeService.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerChangedEvent;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.model.TradeOrderResult;
+import com.sk.skala.myapp.model.TradeResult;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import com.sk.skala.myapp.repository.PlayerStockRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 여러 플레이어의 주문을 하나의 트랜잭션으로 처리한다.
+ *
+ * 1. 주문에 등장하는 플레이어를 id 순으로 한 번에 잠금 조회 (SELECT ... FOR UPDATE)
+ * 2. 해당 플레이어들의 보유 주식을 한 번에 조회
+ * 3. 주문 순서대로 메모리에서 적용 (주문별 성공/실패 판정), 0주가 된 보유 내역은 마지막에 삭제
+ * 4. 새 보유 내역은 JdbcTemplate batch insert 한 번으로 추가 (IDENTITY id 라 Hibernate 는 insert 를 batch 로 묶지 못함)
+ * 5. 커밋 시 변경된 엔티티를 Hibernate JDBC batch로 flush
+ *
+ * 플레이어 row를 먼저 잠그는 순서는 단건 거래(PlayerService)와 같으므로 서로 섞여 실행되어도 갱신 유실이 없다.
+ */
+@Timed(value = "service.method", histogram = true)
+@Service
+public class BatchTradeService {
+    private static final String INSERT_PLAYER_STOCK =
+            "insert into player_stocks (player_id, stock_name, stock_price, stock_quantity) values (?, ?, ?, ?)";
+
+    private final PlayerRepository playerRepository;
+    private final PlayerStockRepository playerStockRepository;
+    private final StockCatalog stockCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public BatchTradeService(
+            PlayerRepository playerRepository,
+            PlayerStockRepository playerStockRepository,
+            StockCatalog stockCatalog,
+            ApplicationEventPublisher eventPublisher,
+            JdbcTemplate jdbcTemplate
+    ) {
+        this.playerRepository = playerRepository;
+        this.playerStockRepository = playerStockRepository;
+        this.stockCatalog = stockCatalog;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public List<TradeOrderResult> execute(List<? extends TradeOrder> orders) {
+        TreeSet<String> playerIds = new TreeSet<>();
+        for (TradeOrder order : orders) {
+            if (order.getPlayerId() != null) {
+                playerIds.add(order.getPlayerId());
+            }
+        }
+
+        Map<String, Player> players = new HashMap<>();
+        Map<String, Map<String, PlayerStock>> holdings = new HashMap<>();
+        if (!playerIds.isEmpty()) {
+            for (Player player : playerRepository.findByPlayerIdInOrderByPlayerIdAsc(playerIds)) {
+                players.put(player.getPlayerId(), player);
+                holdings.put(player.getPlayerId(), new HashMap<>());
+            }
+            for (PlayerStock playerStock : playerStockRepository.findByPlayerPlayerIdIn(players.keySet())) {
+                holdings.get(playerStock.getPlayer().getPlayerId()).put(playerStock.getStockName(), playerStock);
+            }
+        }
+
+        List<TradeOrderResult> results = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            results.add(apply(i, orders.get(i), players, holdings));
+        }
+
+        // 0주가 된 보유 내역은 마지막에 삭제 (배치 안에서 다시 매수하면 같은 row를 재사용)
+        // 아직 저장하지 않은(id 없는) 새 보유 내역은 남은 수량이 있는 것만 한 번에 insert
+        List<PlayerStock> created = new ArrayList<>();
+        for (Map<String, PlayerStock> playerHoldings : holdings.values()) {
+            for (PlayerStock holding : playerHoldings.values()) {
+                if (holding.getId() == null) {
+                    if (holding.getStockQuantity() > 0) {
+                        created.add(holding);
+                    }
+                } else if (holding.getStockQuantity() <= 0) {
+                    playerStockRepository.delete(holding);
+                }
+            }
+        }
+        if (!created.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PLAYER_STOCK, created, created.size(), (ps, holding) -> {
+                ps.setString(1, holding.getPlayer().getPlayerId());
+                ps.setString(2, holding.getStockName());
+                ps.setInt(3, holding.getStockPrice());
+                ps.setInt(4, holding.getStockQuantity());
+            });
+        }
+        return results;
+    }
+
+    private TradeOrderResult apply(int index, TradeOrder order,
+                                   Map<String, Player> players, Map<String, Map<String, PlayerStock>> holdings) {
+        String playerId = order.getPlayerId();
+        String stockName = order.getStockName();
+        int quantity = order.getQuantity();
+
+        if (quantity <= 0 || order.getSide() == null) {
+            return failure(index, order, TradeResult.Status.INVALID_QUANTITY);
+        }
+        Player player = players.get(playerId);
+        if (player == null) {
+            return failure(index, order, TradeResult.Status.PLAYER_NOT_FOUND);
+        }
+        Stock stock = stockCatalog.get(stockName);
+        if (stock == null) {
+            return failure(index, order, TradeResult.Status.STOCK_NOT_FOUND);
+        }
+
+        int amount;
+        try {
+            amount = Math.multiplyExact(stock.getStockPrice(), quantity);
+        } catch (ArithmeticException e) {
+            return failure(index, order, TradeResult.Status.INVALID_QUANTITY);
+        }
+
+        Map<String, PlayerStock> playerHoldings = holdings.get(playerId);
+        PlayerStock holding = playerHoldings.get(stockName);
+
+        if (order.getSide() == TradeOrder.Side.BUY) {
+            if (player.getPlayerMoney() < amount) {
+                return failure(index, order, TradeResult.Status.INSUFFICIENT_MONEY);
+            }
+            player.setPlayerMoney(player.getPlayerMoney() - amount);
+            if (holding == null) {
+                // insert 는 execute 마지막에 모아서 한다
+                holding = new PlayerStock(stock, quantity);
+                holding.setPlayer(player);
+                playerHoldings.put(stockName, holding);
+            } else {
+                holding.setStockQuantity(holding.getStockQuantity() + quantity);
+                holding.setStockPrice(stock.getStockPrice());
+            }
+            eventPublisher.publishEvent(PlayerChangedEvent.trade(playerId, stockName, quantity, -amount));
+            return success(index, order, player, holding.getStockQuantity());
+        }
+
+        if (holding == null || holding.getStockQuantity() < quantity) {
+            return failure(index, order, TradeResult.Status.INSUFFICIENT_QUANTITY);
+        }
+        player.setPlayerMoney(player.getPlayerMoney() + amount);
+        holding.setStockQuantity(holding.getStockQuantity() - quantity);
+        holding.setStockPrice(stock.getStockPrice());
+        eventPublisher.publishEvent(PlayerChangedEvent.trade(playerId, stockName, -quantity, amount));
+        return success(index, order, player, holding.getStockQuantity());
+    }
+
+    private static TradeOrderResult success(int index, TradeOrder order, Player player, int stockQuantity) {
+        return new TradeOrderResult(index, order.getPlayerId(), order.getStockName(),
+                TradeResult.Status.OK, player.getPlayerMoney(), stockQuantity);
+    }
+
+    private static TradeOrderResult failure(int index, TradeOrder order, TradeResult.Status status) {
+        return new TradeOrderResult(index, order.getPlayerId(), order.getStockName(), status, 0, 0);
+    }
+}
@@ -0,0 +1,432 @@
+// BulkLoadService.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.BulkLoadProperties;
+import com.sk.skala.myapp.model.BulkLoadReport;
+import com.sk.skala.myapp.model.Stock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * stocks.txt / players.txt를 한 줄씩 읽어 JDBC batch insert로 적재한다.
+ * 파일 전체를 메모리에 올리지 않고 chunkSize 명 단위로 JDBC batch 와 트랜잭션을 나눠 처리한다.
+ * (PlayerStock은 IDENTITY id라 Hibernate batch insert가 동작하지 않으므로 JDBC로 직접 적재)
+ *
+ * - 쓰기 전에 파일 전체를 한 번 읽어 검증한다 (형식 오류, 파일 안의 중복 id -> IllegalArgumentException, 아무것도 쓰지 않음)
+ * - chunk 마다 커밋하고, 이미 있는 id(이전 적재 또는 중단된 적재의 앞부분)는 보유 주식까지 건너뛴다.
+ *   중간에 실패해도 같은 파일로 다시 실행하면 남은 부분만 이어서 적재한다.
+ * - 같은 파일을 동시에 적재하는 다른 인스턴스와 겹쳐 중복 키가 나면 그 chunk 만 다시 시도한다.
+ */
+@Service
+public class BulkLoadService {
+    private static final Logger log = LoggerFactory.getLogger(BulkLoadService.class);
+
+    private static final String INSERT_STOCK =
+            "insert into stocks (stock_name, stock_price) values (?, ?)";
+    private static final String INSERT_PLAYER =
+            "insert into players (player_id, player_money) values (?, ?)";
+    private static final String INSERT_PLAYER_STOCK =
+            "insert into player_stocks (player_id, stock_name, stock_price, stock_quantity) values (?, ?, ?, ?)";
+    private static final String SELECT_EXISTING_STOCKS = "select stock_name from stocks where stock_name in (%s)";
+    private static final String SELECT_EXISTING_PLAYERS = "select player_id from players where player_id in (%s)";
+
+    // 다른 인스턴스의 동시 적재와 겹쳐 중복 키가 났을 때 chunk 하나를 시도하는 최대 횟수
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    // 진행 상황 로그 출력 간격 (플레이어 수)
+    private static final long PROGRESS_INTERVAL = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ResourceLoader resourceLoader;
+    private final BulkLoadProperties properties;
+    private final StockCatalog stockCatalog;
+
+    @Autowired
+    public BulkLoadService(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ResourceLoader resourceLoader,
+            BulkLoadProperties properties,
+            StockCatalog stockCatalog
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.resourceLoader = resourceLoader;
+        this.properties = properties;
+        this.stockCatalog = stockCatalog;
+    }
+
+    /**
+     * 설정된 파일(bulk-load.stocks-file / players-file)을 적재한다.
+     *
+     * @param loadStocks  stocks.txt 적재 여부
+     * @param loadPlayers players.txt 적재 여부
+     * @param chunkSize   0 이하이면 bulk-load.chunk-size 사용
+     */
+    public BulkLoadReport load(boolean loadStocks, boolean loadPlayers, int chunkSize) {
+        int size = chunkSize > 0 ? chunkSize : properties.getChunkSize();
+        long startedAt = System.nanoTime();
+
+        Resource stocksResource = resourceLoader.getResource(properties.getStocksFile());
+        Resource playersResource = resourceLoader.getResource(properties.getPlayersFile());
+        List<Stock> stockList = loadStocks ? readStocks(stocksResource) : List.of();
+        if (loadPlayers) {
+            validatePlayers(playersResource);
+        }
+
+        long[] stocks = writeStocks(stockList, size);
+        long[] players = loadPlayers ? writePlayers(playersResource, size) : new long[]{0, 0, 0};
+
+        BulkLoadReport report = new BulkLoadReport(stocks[0], players[0], players[1], stocks[1] + players[2],
+                (System.nanoTime() - startedAt) / 1_000_000);
+        log.info("Bulk load completed: {}", report);
+        return report;
+    }
+
+    /**
+     * @return 적재한 종목 수 (이미 있는 종목 제외)
+     */
+    public long loadStocks(Resource resource, int chunkSize) {
+        return writeStocks(readStocks(resource), chunkSize)[0];
+    }
+
+    /**
+     * @return {적재한 플레이어 수, 적재한 보유 주식 수, 이미 있어서 건너뛴 플레이어 수}
+     */
+    public long[] loadPlayers(Resource resource, int chunkSize) {
+        validatePlayers(resource);
+        return writePlayers(resource, chunkSize);
+    }
+
+    // 종목 파일은 작으므로 한 번에 읽으면서 검증한다
+    private List<Stock> readStocks(Resource resource) {
+        List<Stock> stocks = new ArrayList<>();
+        if (resource.exists()) {
+            Set<String> names = new HashSet<>();
+            readLines(resource, (lineNumber, line) -> {
+                boolean valid = parse(resource, lineNumber, line, () -> StockFileParser.parseStockLine(line,
+                        (name, price) -> stocks.add(new Stock(name, price))));
+                if (!valid) {
+                    throw malformed(resource, lineNumber, "missing fields");
+                }
+                if (!names.add(stocks.get(stocks.size() - 1).getStockName())) {
+                    throw malformed(resource, lineNumber, "duplicate stock name");
+                }
+            });
+        } else {
+            // 파일이 없으면 기본 종목 적재
+            log.warn("Stock file {} not found, loading default stocks", resource.getDescription());
+            stocks.add(new Stock("TechCorp", 100));
+            stocks.add(new Stock("GreenEnergy", 80));
+            stocks.add(new Stock("HealthPlus", 120));
+            stocks.add(new Stock("samsung", 300));
+        }
+        return stocks;
+    }
+
+    // 적재 전에 파일 전체를 읽어 형식과 파일 안의 중복 id를 확인한다 (id 집합만 메모리에 둔다)
+    private void validatePlayers(Resource resource) {
+        if (!resource.exists()) {
+            return;
+        }
+        Set<String> playerIds = new HashSet<>();
+        String[] duplicate = new String[1];
+        StockFileParser.PlayerHandler checker = new StockFileParser.PlayerHandler() {
+            @Override
+            public void onPlayer(String playerId, int playerMoney) {
+                if (!playerIds.add(playerId)) {
+                    duplicate[0] = playerId;
+                }
+            }
+
+            @Override
+            public void onPlayerStock(String playerId, String stockName, int stockPrice, int stockQuantity) {
+            }
+        };
+        readLines(resource, (lineNumber, line) -> {
+            if (!parse(resource, lineNumber, line, () -> StockFileParser.parsePlayerLine(line, checker))) {
+                throw malformed(resource, lineNumber, "missing fields");
+            }
+            if (duplicate[0] != null) {
+                throw malformed(resource, lineNumber, "duplicate player id " + duplicate[0]);
+            }
+        });
+    }
+
+    // @return {적재한 종목 수, 이미 있어서 건너뛴 종목 수}
+    private long[] writeStocks(List<Stock> stocks, int chunkSize) {
+        long inserted = 0;
+        for (int from = 0; from < stocks.size(); from += chunkSize) {
+            List<Stock> chunk = stocks.subList(from, Math.min(from + chunkSize, stocks.size()));
+            inserted += inChunkTransaction(() -> {
+                Set<String> existing = existing(SELECT_EXISTING_STOCKS,
+                        chunk.stream().map(Stock::getStockName).toArray(String[]::new), chunk.size());
+                List<Stock> added = chunk.stream().filter(stock -> !existing.contains(stock.getStockName())).toList();
+                jdbcTemplate.batchUpdate(INSERT_STOCK, added, added.size(), (ps, stock) -> {
+                    ps.setString(1, stock.getStockName());
+                    ps.setInt(2, stock.getStockPrice());
+                });
+                return added.size();
+            });
+        }
+        if (inserted > 0) {
+            stockCatalog.invalidate();
+        }
+        return new long[]{inserted, stocks.size() - inserted};
+    }
+
+    // chunk 하나를 트랜잭션 하나로 쓴다. 동시 적재와 겹친 중복 키는 다시 조회해서 건너뛰도록 재시도한다.
+    private int inChunkTransaction(ChunkWrite write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> write.write());
+            } catch (DuplicateKeyException e) {
+                if (attempt >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("Bulk load chunk collided with a concurrent load, retrying: {}",
+                        e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    // ids[0..count) 중 이미 있는 id (PK 인덱스 조회 한 번)
+    private Set<String> existing(String sql, String[] ids, int count) {
+        String placeholders = String.join(",", Collections.nCopies(count, "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(sql.formatted(placeholders), String.class,
+                (Object[]) Arrays.copyOf(ids, count)));
+    }
+
+    // @return {적재한 플레이어 수, 적재한 보유 주식 수, 이미 있어서 건너뛴 플레이어 수}
+    private long[] writePlayers(Resource resource, int chunkSize) {
+        if (!resource.exists()) {
+            log.warn("Player file {} not found, skipping", resource.getDescription());
+            return new long[]{0, 0, 0};
+        }
+
+        ChunkWriter writer = new ChunkWriter(chunkSize);
+        readLines(resource, (lineNumber, line) -> {
+            StockFileParser.parsePlayerLine(line, writer);
+            if (writer.playerCount >= chunkSize) {
+                writer.flush();
+            }
+        });
+        writer.flush();
+        return new long[]{writer.totalPlayers, writer.totalHoldings, writer.totalSkipped};
+    }
+
+    // 숫자 형식 오류는 줄 번호와 함께 알린다
+    private static boolean parse(Resource resource, long lineNumber, String line, LineParser parser) {
+        try {
+            return parser.parse();
+        } catch (NumberFormatException e) {
+            throw malformed(resource, lineNumber, e.getMessage());
+        }
+    }
+
+    private static IllegalArgumentException malformed(Resource resource, long lineNumber, String reason) {
+        return new IllegalArgumentException(
+                "Malformed line " + lineNumber + " in " + resource.getDescription() + ": " + reason);
+    }
+
+    private void readLines(Resource resource, LineHandler handler) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.isEmpty()) {
+                    handler.onLine(lineNumber, line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resource.getDescription(), e);
+        }
+    }
+
+    private interface LineHandler {
+        void onLine(long lineNumber, String line);
+    }
+
+    private interface LineParser {
+        boolean parse();
+    }
+
+    private interface ChunkWrite {
+        int write();
+    }
+
+    /**
+     * 파싱 결과를 배열 버퍼에 모았다가 chunk 단위로 batch insert 한다.
+     */
+    private final class ChunkWriter implements StockFileParser.PlayerHandler {
+        private final String[] playerIds;
+        private final int[] playerMoney;
+        private int playerCount;
+
+        private String[] holdingPlayerIds;
+        private String[] holdingNames;
+        private int[] holdingPrices;
+        private int[] holdingQuantities;
+        private int holdingCount;
+        // 현재 줄(플레이어)의 첫 보유 주식 위치 - 같은 줄 안의 중복 종목 병합용
+        private int currentPlayerHoldingStart;
+
+        private long totalPlayers;
+        private long totalHoldings;
+        private long totalSkipped;
+        private final long startedAt = System.nanoTime();
+
+        ChunkWriter(int chunkSize) {
+            playerIds = new String[chunkSize];
+            playerMoney = new int[chunkSize];
+            int holdingCapacity = chunkSize * 4;
+            holdingPlayerIds = new String[holdingCapacity];
+            holdingNames = new String[holdingCapacity];
+            holdingPrices = new int[holdingCapacity];
+            holdingQuantities = new int[holdingCapacity];
+        }
+
+        @Override
+        public void onPlayer(String playerId, int money) {
+            playerIds[playerCount] = playerId;
+            playerMoney[playerCount] = money;
+            playerCount++;
+            currentPlayerHoldingStart = holdingCount;
+        }
+
+        @Override
+        public void onPlayerStock(String playerId, String stockName, int stockPrice, int stockQuantity) {
+            for (int i = currentPlayerHoldingStart; i < holdingCount; i++) {
+                if (holdingNames[i].equals(stockName)) {
+                    holdingPrices[i] = stockPrice;
+                    holdingQuantities[i] += stockQuantity;
+                    return;
+                }
+            }
+            if (holdingCount == holdingNames.length) {
+                grow();
+            }
+            holdingPlayerIds[holdingCount] = playerId;
+            holdingNames[holdingCount] = stockName;
+            holdingPrices[holdingCount] = stockPrice;
+            holdingQuantities[holdingCount] = stockQuantity;
+            holdingCount++;
+        }
+
+        private void grow() {
+            int capacity = holdingNames.length * 2;
+            holdingPlayerIds = Arrays.copyOf(holdingPlayerIds, capacity);
+            holdingNames = Arrays.copyOf(holdingNames, capacity);
+            holdingPrices = Arrays.copyOf(holdingPrices, capacity);
+            holdingQuantities = Arrays.copyOf(holdingQuantities, capacity);
+        }
+
+        void flush() {
+            if (playerCount == 0) {
+                return;
+            }
+            int players = playerCount;
+            int[] holdings = new int[1];
+            // chunk 마다 커밋. 플레이어와 보유 주식이 같은 트랜잭션이므로 있는 플레이어는 보유 주식까지 적재된 것이다
+            int inserted = inChunkTransaction(() -> {
+                Set<String> existing = existing(SELECT_EXISTING_PLAYERS, playerIds, players);
+                int[] newPlayers = new int[players];
+                int newPlayerCount = 0;
+                for (int i = 0; i < players; i++) {
+                    if (!existing.contains(playerIds[i])) {
+                        newPlayers[newPlayerCount++] = i;
+                    }
+                }
+                int[] newHoldings = new int[holdingCount];
+                int newHoldingCount = 0;
+                for (int i = 0; i < holdingCount; i++) {
+                    if (!existing.contains(holdingPlayerIds[i])) {
+                        newHoldings[newHoldingCount++] = i;
+                    }
+                }
+                insertPlayers(newPlayers, newPlayerCount);
+                insertHoldings(newHoldings, newHoldingCount);
+                holdings[0] = newHoldingCount;
+                return newPlayerCount;
+            });
+
+            long before = totalPlayers + totalSkipped;
+            totalPlayers += inserted;
+            totalHoldings += holdings[0];
+            totalSkipped += players - inserted;
+            playerCount = 0;
+            holdingCount = 0;
+            currentPlayerHoldingStart = 0;
+
+            if ((totalPlayers + totalSkipped) / PROGRESS_INTERVAL != before / PROGRESS_INTERVAL) {
+                long elapsedMillis = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+                log.info("Bulk load progress: players={}, holdings={}, skipped={}, {} rows/s",
+                        totalPlayers, totalHoldings, totalSkipped, (totalPlayers + totalHoldings) * 1000 / elapsedMillis);
+            }
+        }
+
+        // rows 에 담긴 위치의 플레이어만 insert
+        private void insertPlayers(int[] rows, int count) {
+            if (count == 0) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_PLAYER, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setString(1, playerIds[rows[i]]);
+                    ps.setInt(2, playerMoney[rows[i]]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+
+        private void insertHoldings(int[] rows, int count) {
+            if (count == 0) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(INSERT_PLAYER_STOCK, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    ps.setString(1, holdingPlayerIds[rows[i]]);
+                    ps.setString(2, holdingNames[rows[i]]);
+                    ps.setInt(3, holdingPrices[rows[i]]);
+                    ps.setInt(4, holdingQuantities[rows[i]]);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return count;
+                }
+            });
+        }
+    }
+}
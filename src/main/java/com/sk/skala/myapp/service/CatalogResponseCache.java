@@ -0,0 +1,99 @@
+// CatalogResponseCache.java
+package com.sk.skala.myapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sk.skala.myapp.config.CatalogHttpProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 전체 종목 목록(GET /api/stocks) 응답 본문을 카탈로그 버전별로 한 번만 직렬화/압축해 둔다.
+ * 폴링 요청은 같은 byte[] 를 그대로 쓰므로 요청마다 JSON 직렬화나 gzip 을 하지 않는다.
+ */
+@Component
+public class CatalogResponseCache {
+    private final ObjectMapper objectMapper;
+    private final CatalogHttpProperties properties;
+    private final Counter builds;
+
+    // 최신 버전 하나만 보관 (이전 버전은 다시 요청될 일이 없다)
+    private volatile Entry entry;
+
+    @Autowired
+    public CatalogResponseCache(
+            ObjectMapper objectMapper,
+            CatalogHttpProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.builds = Counter.builder("stock.catalog.serializations").register(meterRegistry);
+    }
+
+    public Entry get(StockCatalog.Snapshot catalog) {
+        Entry current = entry;
+        if (current != null && current.fingerprint.equals(catalog.getFingerprint())) {
+            return current;
+        }
+        // 동시에 여러 요청이 만들어도 결과는 같으므로 잠그지 않는다
+        Entry built = build(catalog);
+        entry = built;
+        return built;
+    }
+
+    private Entry build(StockCatalog.Snapshot catalog) {
+        builds.increment();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(catalog.getStocks());
+            byte[] gzip = properties.isGzip() && json.length >= properties.getGzipMinSize().toBytes()
+                    ? gzip(json)
+                    : null;
+            return new Entry(catalog.getFingerprint(), json, gzip);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static final class Entry {
+        private final String fingerprint;
+        private final byte[] json;
+        // 압축하지 않는 크기면 null
+        private final byte[] gzip;
+
+        private Entry(String fingerprint, byte[] json, byte[] gzip) {
+            this.fingerprint = fingerprint;
+            this.json = json;
+            this.gzip = gzip;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public byte[] getGzip() {
+            return gzip;
+        }
+    }
+}
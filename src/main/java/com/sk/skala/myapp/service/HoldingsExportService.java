@@ -0,0 +1,288 @@
+// HoldingsExportService.java
+package com.sk.skala.myapp.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sk.skala.myapp.config.ExportProperties;
+import com.sk.skala.myapp.model.StockConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 전체 플레이어 보유 내역 내보내기.
+ * players ⟕ player_stocks 를 player_id 순으로 forward-only cursor(fetch size 고정)로 읽으면서
+ * 플레이어가 바뀔 때마다 한 줄씩 바로 출력한다. 테이블 크기와 관계없이 메모리에는 현재 플레이어 한 명만 둔다.
+ *
+ * - CSV    : players.txt 와 같은 형식 (playerId,money,종목명:가격:수량|...) - 그대로 bulk-load 에 사용할 수 있다
+ * - NDJSON : 한 줄에 플레이어 하나 {"playerId":..,"playerMoney":..,"stocks":[{..}]}
+ */
+@Service
+public class HoldingsExportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final String SELECT_HOLDINGS =
+            "select p.player_id, p.player_money, ps.stock_name, ps.stock_price, ps.stock_quantity " +
+            "from players p left join player_stocks ps on ps.player_id = p.player_id " +
+            "order by p.player_id, ps.id";
+
+    private static final char STOCK_DELIMITER = '|';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public HoldingsExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            ExportProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        // 하나의 읽기 전용 트랜잭션(같은 스냅샷)에서 끝까지 읽는다 - replica 라우팅 시 replica 에서 처리
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * out 으로 전체 보유 내역을 쓴다. 첫 플레이어를 쓰면 바로 flush 해서 응답이 곧바로 시작되게 한다.
+     * 일부를 쓴 뒤 실패하면 NDJSON 은 마지막 줄에 {"error":...} 를 남기고 예외를 그대로 던진다
+     * (CSV 는 표시할 방법이 없으므로 호출한 쪽이 연결을 끊어 불완전한 응답임을 알린다).
+     *
+     * @return 내보낸 플레이어 수
+     */
+    public long export(Format format, OutputStream out) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        RowWriter writer = format == Format.NDJSON ? new NdjsonWriter(out) : new CsvWriter(out);
+        Long players;
+        try {
+            players = readOnlyTransaction.execute(status -> {
+                jdbcTemplate.query(SELECT_HOLDINGS, writer::row);
+                writer.finish();
+                return writer.players;
+            });
+        } catch (RuntimeException e) {
+            writer.fail();
+            throw e;
+        }
+        sample.stop(Timer.builder("export.holdings").tag("format", format.name().toLowerCase())
+                .register(meterRegistry));
+        Counter.builder("export.holdings.players").tag("format", format.name().toLowerCase())
+                .register(meterRegistry).increment(writer.players);
+        return players != null ? players : 0;
+    }
+
+    /**
+     * 결과 행(플레이어 x 보유 종목)을 플레이어 단위로 묶어 출력한다.
+     */
+    private abstract static class RowWriter {
+        private String currentPlayerId;
+        // 첫 플레이어를 보냈는지 (응답이 시작됨)
+        private boolean flushed;
+        long players;
+
+        void row(ResultSet rs) throws SQLException {
+            String playerId = rs.getString(1);
+            try {
+                if (!playerId.equals(currentPlayerId)) {
+                    if (currentPlayerId != null) {
+                        endPlayer();
+                        if (players == 1) {
+                            flush();
+                            flushed = true;
+                        }
+                    }
+                    currentPlayerId = playerId;
+                    players++;
+                    beginPlayer(playerId, rs.getInt(2));
+                }
+                String stockName = rs.getString(3);
+                if (stockName != null) {
+                    stock(stockName, rs.getInt(4), rs.getInt(5));
+                }
+            } catch (IOException e) {
+                // 클라이언트 연결 종료 등 - cursor 를 닫고 중단
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() {
+            try {
+                if (currentPlayerId != null) {
+                    endPlayer();
+                }
+                close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // 응답이 이미 시작되었으면 오류 표시를 남긴다 (클라이언트 연결이 끊긴 경우 등 쓰기 실패는 무시).
+        // 시작 전이면 버퍼에 남은 내용은 버리고 호출한 쪽이 오류로 응답한다
+        void fail() {
+            if (!flushed) {
+                return;
+            }
+            try {
+                error();
+                flush();
+            } catch (IOException | RuntimeException ignored) {
+                // 원래 예외를 전달한다
+            }
+        }
+
+        abstract void beginPlayer(String playerId, int money) throws IOException;
+
+        abstract void stock(String stockName, int price, int quantity) throws IOException;
+
+        abstract void endPlayer() throws IOException;
+
+        abstract void error() throws IOException;
+
+        abstract void flush() throws IOException;
+
+        abstract void close() throws IOException;
+    }
+
+    private static final class CsvWriter extends RowWriter {
+        private final Writer out;
+        private boolean firstStock;
+
+        CsvWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        }
+
+        @Override
+        void beginPlayer(String playerId, int money) throws IOException {
+            out.write(playerId);
+            out.write(StockConstants.DELIMITER);
+            out.write(Integer.toString(money));
+            firstStock = true;
+        }
+
+        @Override
+        void stock(String stockName, int price, int quantity) throws IOException {
+            if (firstStock) {
+                out.write(StockConstants.DELIMITER);
+                firstStock = false;
+            } else {
+                out.write(STOCK_DELIMITER);
+            }
+            out.write(stockName);
+            out.write(StockConstants.STOCK_PROPS_DELIMITER);
+            out.write(Integer.toString(price));
+            out.write(StockConstants.STOCK_PROPS_DELIMITER);
+            out.write(Integer.toString(quantity));
+        }
+
+        @Override
+        void endPlayer() throws IOException {
+            out.write('\n');
+        }
+
+        // players.txt 형식에는 오류 줄이 없다 (bulk-load 가 잘못된 줄로 거부하지 않도록 쓰지 않음)
+        @Override
+        void error() {
+        }
+
+        @Override
+        void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    private final class NdjsonWriter extends RowWriter {
+        private static final String ERROR_LINE = "{\"error\":\"export failed\"}\n";
+
+        private final JsonGenerator json;
+        // 플레이어 객체를 쓰는 중 (줄이 끝나지 않음)
+        private boolean lineOpen;
+
+        NdjsonWriter(OutputStream out) {
+            try {
+                this.json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // 응답 스트림은 호출한 쪽(서블릿 컨테이너)이 닫는다
+            this.json.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            // 최상위 값 사이 기본 구분자(공백) 대신 endPlayer() 에서 줄바꿈을 쓴다
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        void beginPlayer(String playerId, int money) throws IOException {
+            lineOpen = true;
+            json.writeStartObject();
+            json.writeStringField("playerId", playerId);
+            json.writeNumberField("playerMoney", money);
+            json.writeArrayFieldStart("stocks");
+        }
+
+        @Override
+        void stock(String stockName, int price, int quantity) throws IOException {
+            json.writeStartObject();
+            json.writeStringField("stockName", stockName);
+            json.writeNumberField("stockPrice", price);
+            json.writeNumberField("stockQuantity", quantity);
+            json.writeEndObject();
+        }
+
+        @Override
+        void endPlayer() throws IOException {
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+            lineOpen = false;
+        }
+
+        // 쓰던 줄(불완전한 객체)을 끝내고 오류 줄을 쓴다. 객체 중간일 수 있으므로 raw 로 쓴다
+        @Override
+        void error() throws IOException {
+            json.writeRaw(lineOpen ? "\n" + ERROR_LINE : ERROR_LINE);
+            lineOpen = false;
+        }
+
+        @Override
+        void flush() throws IOException {
+            json.flush();
+        }
+
+        @Override
+        void close() throws IOException {
+            json.close();
+        }
+    }
+}
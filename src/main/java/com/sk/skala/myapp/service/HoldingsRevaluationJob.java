@@ -0,0 +1,189 @@
+// HoldingsRevaluationJob.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.RevaluationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 가격 변경(PriceFeed)을 보유 내역 평가 가격(player_stocks.stock_price)에 반영하는 백그라운드 작업.
+ *
+ * 시세 시뮬레이션처럼 많은 종목 가격이 한꺼번에 움직이면 종목별 UPDATE 한 번이 테이블 대부분을 잠글 수 있으므로,
+ * id 범위(chunkSize) 단위로 나눠 chunk 마다 별도 트랜잭션에서 변경된 종목을 batch UPDATE 한다.
+ * 가격이 이미 같은 row 는 건너뛰므로(stock_price <> ?) 같은 변경을 여러 번 반영해도 결과는 같다.
+ *
+ * 저널 모드(trade-journal.enabled=true)에서는 player_stocks 가 저널의 비동기 사본이고 JournalApplier 만 써야 하므로 동작하지 않는다
+ * (보유 내역 조회가 조회 시점의 종목 가격으로 채움).
+ */
+@Component
+@ConditionalOnExpression("${holdings-revaluation.enabled:true} and !${trade-journal.enabled:false}")
+public class HoldingsRevaluationJob implements PriceListener {
+    private static final Logger log = LoggerFactory.getLogger(HoldingsRevaluationJob.class);
+
+    private static final String SELECT_ID_RANGE = "select min(id), max(id) from player_stocks";
+    private static final String REVALUE_CHUNK =
+            "update player_stocks set stock_price = ? " +
+            "where id > ? and id <= ? and stock_name = ? and stock_price <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RevaluationProperties properties;
+
+    private final Counter revaluedRows;
+    private final Timer chunkTimer;
+    private final Timer runTimer;
+
+    private volatile ConcurrentHashMap<String, Integer> pendingPrices = new ConcurrentHashMap<>();
+    // 마지막 실행의 처리량 (rows/s)
+    private volatile double lastRowsPerSecond;
+
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "holdings-revaluation");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Autowired
+    public HoldingsRevaluationJob(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            PriceFeed priceFeed,
+            RevaluationProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+
+        // rate(holdings_revaluation_rows_total[1m]) = 초당 재평가 row 수
+        this.revaluedRows = Counter.builder("holdings.revaluation.rows").register(meterRegistry);
+        this.chunkTimer = Timer.builder("holdings.revaluation.chunk").register(meterRegistry);
+        this.runTimer = Timer.builder("holdings.revaluation.run").register(meterRegistry);
+        Gauge.builder("holdings.revaluation.throughput", this, job -> job.lastRowsPerSecond)
+                .description("마지막 재평가 실행의 초당 변경 row 수")
+                .register(meterRegistry);
+        Gauge.builder("holdings.revaluation.pending", this, job -> job.pendingPrices.size())
+                .register(meterRegistry);
+        priceFeed.addListener(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long intervalNanos = properties.getInterval().toNanos();
+        executor.scheduleWithFixedDelay(this::runSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void onPrice(String stockName, int stockPrice, long timestampMillis) {
+        pendingPrices.put(stockName, stockPrice);
+    }
+
+    private void runSafely() {
+        ConcurrentHashMap<String, Integer> swapped = pendingPrices;
+        if (swapped.isEmpty()) {
+            return;
+        }
+        pendingPrices = new ConcurrentHashMap<>();
+        // 교체 직전에 이전 맵을 읽은 onPrice 가 늦게 넣을 수 있으므로, 모든 chunk 가 같은 가격을 쓰도록 복사본으로 반영한다
+        Map<String, Integer> prices = Map.copyOf(swapped);
+        try {
+            revalue(prices);
+        } catch (RuntimeException e) {
+            // 반영하지 못한 가격은 다음 주기에 다시 시도 (그 사이 들어온 더 최신 가격은 유지)
+            prices.forEach(pendingPrices::putIfAbsent);
+            log.warn("Holdings revaluation failed, retrying next interval", e);
+        }
+        // 복사 뒤 이전 맵에 늦게 들어온 가격은 다음 주기에 반영
+        swapped.forEach((stockName, stockPrice) -> {
+            if (!stockPrice.equals(prices.get(stockName))) {
+                pendingPrices.putIfAbsent(stockName, stockPrice);
+            }
+        });
+    }
+
+    /**
+     * 종목별 가격을 모든 보유 내역에 반영하고 변경된 row 수를 반환한다.
+     */
+    public long revalue(Map<String, Integer> prices) {
+        long started = System.nanoTime();
+        Long[] range = jdbcTemplate.queryForObject(SELECT_ID_RANGE,
+                (rs, rowNum) -> new Long[]{rs.getObject(1, Long.class), rs.getObject(2, Long.class)});
+        if (range == null || range[0] == null) {
+            return 0;
+        }
+
+        List<Object[]> updates = new ArrayList<>(prices.size());
+        long total = 0;
+        for (long from = range[0] - 1; from < range[1]; from += properties.getChunkSize()) {
+            long to = Math.min(from + properties.getChunkSize(), range[1]);
+            updates.clear();
+            for (Map.Entry<String, Integer> price : prices.entrySet()) {
+                updates.add(new Object[]{price.getValue(), from, to, price.getKey(), price.getValue()});
+            }
+            total += revalueChunk(updates);
+            if (!pause()) {
+                // 종료 중
+                break;
+            }
+        }
+
+        long elapsed = System.nanoTime() - started;
+        runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        lastRowsPerSecond = total * 1e9 / Math.max(1, elapsed);
+        log.debug("Revalued {} holdings for {} symbols in {} ms", total, prices.size(), elapsed / 1_000_000);
+        return total;
+    }
+
+    private long revalueChunk(List<Object[]> updates) {
+        long started = System.nanoTime();
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(REVALUE_CHUNK, updates));
+        chunkTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        long rows = 0;
+        for (int count : counts) {
+            // 드라이버가 건수를 알려주지 않으면(SUCCESS_NO_INFO) 집계하지 않는다
+            rows += Math.max(0, count);
+        }
+        revaluedRows.increment(rows);
+        return rows;
+    }
+
+    // 인터럽트되면 false
+    private boolean pause() {
+        long pauseMillis = properties.getChunkPause().toMillis();
+        try {
+            if (pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+}
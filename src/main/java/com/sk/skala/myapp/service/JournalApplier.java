@@ -0,0 +1,281 @@
+// JournalApplier.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.TradeJournalProperties;
+import com.sk.skala.myapp.model.JournalCheckpoint;
+import com.sk.skala.myapp.model.JournalRecord;
+import com.sk.skala.myapp.model.PlayerChangedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 저널을 players/player_stocks 테이블에 비동기로 반영한다 (trade-journal.enabled=true 일 때만 동작).
+ *
+ * applyInterval 마다 fsync 된 레코드를 최대 applyBatchSize 건 읽어 한 트랜잭션으로 반영하고,
+ * 같은 트랜잭션에서 trade_journal_checkpoint 의 반영 seq 를 갱신한다(재기동 시 중복/누락 없음).
+ * 연속된 TRADE 레코드는 플레이어/종목 단위로 증감을 합쳐 JDBC batch UPDATE 로 보낸다.
+ * PRICE 레코드는 이력 전용이라 반영하지 않는다 (stocks 테이블은 StockService/MarketEngine이 관리).
+ * 스냅샷 레코드는 이미 반영된 상태를 다시 적은 것이라 건너뛴다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "trade-journal", name = "enabled", havingValue = "true")
+public class JournalApplier {
+    private static final Logger log = LoggerFactory.getLogger(JournalApplier.class);
+
+    private static final String SELECT_CHECKPOINT =
+            "select applied_seq from trade_journal_checkpoint where id = " + JournalCheckpoint.SINGLETON_ID;
+    private static final String UPDATE_CHECKPOINT =
+            "update trade_journal_checkpoint set applied_seq = ? where id = " + JournalCheckpoint.SINGLETON_ID;
+    private static final String INSERT_CHECKPOINT =
+            "insert into trade_journal_checkpoint (id, applied_seq) values (" + JournalCheckpoint.SINGLETON_ID + ", ?)";
+
+    // JPA 엔티티의 낙관적 잠금 버전(version)도 함께 증가시킨다
+    private static final String ADD_MONEY =
+            "update players set player_money = player_money + ?, version = version + 1 where player_id = ?";
+    private static final String SET_MONEY =
+            "update players set player_money = ?, version = version + 1 where player_id = ?";
+    private static final String INSERT_PLAYER = "insert into players (player_id, player_money) values (?, ?)";
+    private static final String DELETE_PLAYER = "delete from players where player_id = ?";
+    private static final String ADD_QUANTITY =
+            "update player_stocks set stock_quantity = stock_quantity + ?, stock_price = ?, version = version + 1 " +
+            "where player_id = ? and stock_name = ?";
+    private static final String SET_QUANTITY =
+            "update player_stocks set stock_quantity = ?, stock_price = ?, version = version + 1 " +
+            "where player_id = ? and stock_name = ?";
+    private static final String INSERT_HOLDING =
+            "insert into player_stocks (stock_quantity, stock_price, player_id, stock_name) values (?, ?, ?, ?)";
+    // 앞선 UPDATE 로 반영되지 않은(보유 내역이 없던) 경우에만 insert - batch 결과 건수에 의존하지 않는다
+    private static final String INSERT_MISSING_HOLDING =
+            "insert into player_stocks (stock_quantity, stock_price, player_id, stock_name) " +
+            "select ?, ?, ?, ? from dual " +
+            "where not exists (select 1 from player_stocks where player_id = ? and stock_name = ?)";
+    private static final String DELETE_EMPTY_HOLDING =
+            "delete from player_stocks where player_id = ? and stock_name = ? and stock_quantity <= 0";
+    private static final String DELETE_HOLDINGS = "delete from player_stocks where player_id = ?";
+
+    private final TradeJournal journal;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TradeJournalProperties properties;
+
+    private final Timer applyTimer;
+    private final DistributionSummary applyRecords;
+
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "trade-journal-apply");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    // applier 스레드 전용
+    private TradeJournal.Cursor cursor;
+    private volatile long appliedSeq;
+
+    @Autowired
+    public JournalApplier(
+            TradeJournal journal,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            TradeJournalProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.journal = journal;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+
+        this.applyTimer = Timer.builder("trade.journal.apply").register(meterRegistry);
+        this.applyRecords = DistributionSummary.builder("trade.journal.apply.records").register(meterRegistry);
+        Gauge.builder("trade.journal.apply.lag", this, applier -> applier.journal.getDurableSeq() - applier.appliedSeq)
+                .description("fsync 되었지만 DB에 반영되지 않은 레코드 수")
+                .register(meterRegistry);
+    }
+
+    // 저널 스냅샷 직후: DB가 이미 seq 까지의 상태와 같다
+    public void resetCheckpoint(long seq) {
+        transactionTemplate.executeWithoutResult(status -> saveCheckpoint(seq));
+    }
+
+    public void start() {
+        List<Long> checkpoint = jdbcTemplate.queryForList(SELECT_CHECKPOINT, Long.class);
+        appliedSeq = checkpoint.isEmpty() ? 0 : checkpoint.get(0);
+        if (appliedSeq > journal.getLastSeq()) {
+            // 저널 끝부분이 유실된 경우 - DB가 저널보다 앞서 있으므로 이후 기록부터 이어서 반영한다
+            log.warn("Journal checkpoint {} is ahead of the journal end {}", appliedSeq, journal.getLastSeq());
+            appliedSeq = journal.getLastSeq();
+            resetCheckpoint(appliedSeq);
+        }
+        cursor = journal.cursorAfter(appliedSeq);
+
+        long intervalNanos = properties.getApplyInterval().toNanos();
+        executor.scheduleWithFixedDelay(this::applySafely, 0, intervalNanos, TimeUnit.NANOSECONDS);
+        log.info("Journal applier started: appliedSeq={}, durableSeq={}", appliedSeq, journal.getDurableSeq());
+    }
+
+    public long getAppliedSeq() {
+        return appliedSeq;
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void applySafely() {
+        try {
+            // 밀려 있으면 쉬지 않고 이어서 반영
+            while (applyBatch() == properties.getApplyBatchSize()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            // 커서를 반영 완료 위치로 되돌리고 다음 주기에 다시 시도
+            log.warn("Journal apply failed at seq {}", appliedSeq + 1, e);
+            cursor = journal.cursorAfter(appliedSeq);
+        }
+    }
+
+    private int applyBatch() {
+        List<JournalRecord> records = new ArrayList<>();
+        int read = journal.read(cursor, properties.getApplyBatchSize(), records::add);
+        if (read == 0) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        long lastSeq = records.get(records.size() - 1).getSeq();
+        Set<String> resyncPlayers = new LinkedHashSet<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            Batch batch = new Batch();
+            for (JournalRecord record : records) {
+                switch (record.getType()) {
+                    case TRADE -> batch.add(record);
+                    case PLAYER_SET -> {
+                        batch.flush();
+                        if (jdbcTemplate.update(SET_MONEY, record.getMoney(), record.getPlayerId()) == 0) {
+                            jdbcTemplate.update(INSERT_PLAYER, record.getPlayerId(), record.getMoney());
+                        }
+                        resyncPlayers.add(record.getPlayerId());
+                    }
+                    case HOLDING_SET -> {
+                        batch.flush();
+                        Object[] args = {record.getQuantity(), record.getPrice(), record.getPlayerId(), record.getStockName()};
+                        if (jdbcTemplate.update(SET_QUANTITY, args) == 0 && record.getQuantity() > 0) {
+                            jdbcTemplate.update(INSERT_HOLDING, args);
+                        }
+                        jdbcTemplate.update(DELETE_EMPTY_HOLDING, record.getPlayerId(), record.getStockName());
+                        resyncPlayers.add(record.getPlayerId());
+                    }
+                    case PLAYER_DELETE -> {
+                        batch.flush();
+                        jdbcTemplate.update(DELETE_HOLDINGS, record.getPlayerId());
+                        jdbcTemplate.update(DELETE_PLAYER, record.getPlayerId());
+                        resyncPlayers.add(record.getPlayerId());
+                    }
+                    default -> {
+                        // PRICE: 이력 전용, ACCOUNT_SNAPSHOT/HOLDING_SNAPSHOT: 재생 시작점 (DB에는 이미 반영됨)
+                    }
+                }
+            }
+            batch.flush();
+            saveCheckpoint(lastSeq);
+        });
+        appliedSeq = lastSeq;
+
+        // 변화량을 모르는 변경은 DB 반영 이후에 순위표 등이 다시 조회하도록 알린다
+        resyncPlayers.forEach(playerId -> eventPublisher.publishEvent(PlayerChangedEvent.resync(playerId)));
+        applyTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        applyRecords.record(read);
+        return read;
+    }
+
+    private void saveCheckpoint(long seq) {
+        if (jdbcTemplate.update(UPDATE_CHECKPOINT, seq) == 0) {
+            jdbcTemplate.update(INSERT_CHECKPOINT, seq);
+        }
+    }
+
+    /**
+     * 연속된 TRADE 레코드를 플레이어/종목 단위로 합쳐 batch 로 반영한다.
+     */
+    private final class Batch {
+        private final Map<String, Long> moneyDeltas = new LinkedHashMap<>();
+        private final Map<List<String>, int[]> holdingDeltas = new LinkedHashMap<>();
+
+        void add(JournalRecord record) {
+            moneyDeltas.merge(record.getPlayerId(), record.getMoney(), Long::sum);
+            int[] delta = holdingDeltas.computeIfAbsent(
+                    List.of(record.getPlayerId(), record.getStockName()), key -> new int[2]);
+            delta[0] += record.getQuantity();
+            delta[1] = record.getPrice();
+        }
+
+        void flush() {
+            if (moneyDeltas.isEmpty()) {
+                return;
+            }
+            List<Object[]> money = new ArrayList<>(moneyDeltas.size());
+            moneyDeltas.forEach((playerId, delta) -> money.add(new Object[]{delta, playerId}));
+            jdbcTemplate.batchUpdate(ADD_MONEY, money);
+
+            List<Object[]> holdings = new ArrayList<>(holdingDeltas.size());
+            holdingDeltas.forEach((key, delta) -> holdings.add(new Object[]{delta[0], delta[1], key.get(0), key.get(1)}));
+            jdbcTemplate.batchUpdate(ADD_QUANTITY, holdings);
+
+            // 합친 수량이 0 이하인 신규 종목은 배치 안에서 매수 후 전량 매도한 것이므로 insert 하지 않는다
+            List<Object[]> inserts = new ArrayList<>();
+            holdingDeltas.forEach((key, delta) -> {
+                if (delta[0] > 0) {
+                    inserts.add(new Object[]{delta[0], delta[1], key.get(0), key.get(1), key.get(0), key.get(1)});
+                }
+            });
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_MISSING_HOLDING, inserts);
+            }
+
+            List<Object[]> deletes = new ArrayList<>();
+            holdingDeltas.forEach((key, delta) -> {
+                if (delta[0] < 0) {
+                    deletes.add(new Object[]{key.get(0), key.get(1)});
+                }
+            });
+            if (!deletes.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_EMPTY_HOLDING, deletes);
+            }
+
+            moneyDeltas.clear();
+            holdingDeltas.clear();
+        }
+    }
+}
@@ -0,0 +1,643 @@
+// Leaderboard.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.LeaderboardProperties;
+import com.sk.skala.myapp.model.LeaderboardEntry;
+import com.sk.skala.myapp.model.PlayerChangedEvent;
+import com.sk.skala.myapp.model.Stock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 순자산(보유 금액 + 보유 주식 평가액) 순위표.
+ *
+ * 기동 시 players/player_stocks 조인 쿼리 한 번으로 전체를 적재하고, 이후에는
+ * 거래(PlayerChangedEvent)와 가격 변경(PriceFeed)을 변화량만큼 반영한다.
+ * 순위는 (순자산 내림차순, playerId) 기준의 order-statistic treap으로 유지하므로
+ * 상위 N명 조회는 O(log n + N), 특정 플레이어 순위 조회는 O(log n)이다.
+ *
+ * 변경 반영과 재구성은 전용 스레드 하나가 refreshInterval 마다 모아서 처리한다.
+ * 다른 pod에서 발생한 거래는 rebuildInterval 마다의 재구성으로 반영된다.
+ *
+ * 거래 이벤트에는 접수 순번을 붙인다. 재구성 쿼리 시작 전에 접수된 이벤트는 쿼리 결과에 포함되므로 버리고,
+ * 쿼리 도중 접수된 이벤트는 포함 여부를 알 수 없으므로 해당 플레이어를 DB에서 다시 읽는다 (변화량을 두 번 더하지 않음).
+ */
+@Component
+public class Leaderboard implements PriceListener {
+    private static final Logger log = LoggerFactory.getLogger(Leaderboard.class);
+    // 가격 변경 한 건을 반영할 때 lock 을 한 번에 잡고 처리하는 보유자 수 (사이사이 조회 요청이 끼어들 수 있게)
+    private static final int PRICE_CHUNK_SIZE = 256;
+
+    private static final String SELECT_ALL =
+            "select p.player_id, p.player_money, ps.stock_name, ps.stock_quantity " +
+            "from players p left join player_stocks ps on ps.player_id = p.player_id " +
+            "order by p.player_id";
+    private static final String SELECT_PLAYER =
+            "select p.player_id, p.player_money, ps.stock_name, ps.stock_quantity " +
+            "from players p left join player_stocks ps on ps.player_id = p.player_id " +
+            "where p.player_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockCatalog stockCatalog;
+    private final LeaderboardProperties properties;
+    private final Timer rebuildTimer;
+
+    // 아래 상태는 applier 스레드만 변경한다. 조회 요청이 읽는 players, ranking(과 Holder 의 순위 키)은 lock 안에서 변경한다
+    private final ReentrantLock lock = new ReentrantLock();
+    private Map<String, Holder> players = new HashMap<>();
+    private Map<String, Set<Holder>> holdersByStock = new HashMap<>();
+    private Map<String, Integer> prices = new HashMap<>();
+    private RankTree ranking = new RankTree();
+
+    // 반영 대기 중인 변경 (접수 순번 포함)
+    private final ConcurrentLinkedQueue<PendingEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicLong eventSeq = new AtomicLong();
+    // 마지막 재구성 쿼리 직전/직후의 접수 순번 (applier 스레드 전용)
+    private long rebuildStartSeq;
+    private long rebuildEndSeq;
+    // 지난 주기에 DB에서 다시 읽은 플레이어와 조회 직후의 접수 순번 (applier 스레드 전용)
+    private Map<String, Long> reloadedSeq = new HashMap<>();
+    private volatile ConcurrentHashMap<String, Integer> pendingPrices = new ConcurrentHashMap<>();
+    private volatile boolean rebuildRequested = true;
+    private volatile boolean ready;
+    private long lastRebuildNanos;
+
+    private final ScheduledExecutorService applier =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "leaderboard");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    @Autowired
+    public Leaderboard(
+            DataSource dataSource,
+            StockCatalog stockCatalog,
+            PriceFeed priceFeed,
+            LeaderboardProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+        this.stockCatalog = stockCatalog;
+        this.properties = properties;
+
+        this.rebuildTimer = Timer.builder("leaderboard.rebuild").register(meterRegistry);
+        Gauge.builder("leaderboard.players", this, Leaderboard::size).register(meterRegistry);
+        Gauge.builder("leaderboard.pending.events", pendingEvents, ConcurrentLinkedQueue::size)
+                .register(meterRegistry);
+        priceFeed.addListener(this);
+    }
+
+    // 초기 데이터 적재(DataLoader)가 끝난 뒤 시작
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long intervalNanos = properties.getRefreshInterval().toNanos();
+        applier.scheduleWithFixedDelay(this::applySafely, 0, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        applier.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlayerChanged(PlayerChangedEvent event) {
+        pendingEvents.add(new PendingEvent(eventSeq.incrementAndGet(), event));
+    }
+
+    @Override
+    public void onPrice(String stockName, int stockPrice, long timestampMillis) {
+        pendingPrices.put(stockName, stockPrice);
+    }
+
+    public void requestRebuild() {
+        rebuildRequested = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<LeaderboardEntry> getTop(int top) {
+        int n = Math.max(0, Math.min(top, properties.getMaxTop()));
+        List<Holder> holders = new ArrayList<>(n);
+        List<LeaderboardEntry> entries = new ArrayList<>(n);
+        lock.lock();
+        try {
+            ranking.top(n, holders);
+            for (int i = 0; i < holders.size(); i++) {
+                Holder holder = holders.get(i);
+                entries.add(new LeaderboardEntry(i + 1, holder.playerId, holder.money, holder.worth));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return entries;
+    }
+
+    // 순위 (1부터 시작), 순위표에 없으면 null
+    public LeaderboardEntry getEntry(String playerId) {
+        lock.lock();
+        try {
+            Holder holder = players.get(playerId);
+            if (holder == null) {
+                return null;
+            }
+            return new LeaderboardEntry(ranking.rank(holder) + 1, holder.playerId, holder.money, holder.worth);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applySafely() {
+        try {
+            apply();
+        } catch (RuntimeException e) {
+            // 다음 주기에 재구성
+            log.warn("Leaderboard update failed, scheduling rebuild", e);
+            rebuildRequested = true;
+        }
+    }
+
+    private void apply() {
+        long rebuildNanos = properties.getRebuildInterval().toNanos();
+        if (rebuildRequested || (rebuildNanos > 0 && System.nanoTime() - lastRebuildNanos > rebuildNanos)) {
+            rebuild();
+        }
+
+        Map<String, Integer> priceChanges = pendingPrices.isEmpty() ? Collections.emptyMap() : swapPendingPrices();
+        // 지난 주기에 다시 읽은 플레이어: 조회 도중 접수된 이벤트는 반영 여부를 알 수 없다
+        Map<String, Long> reloadedUntil = reloadedSeq;
+        reloadedSeq = new HashMap<>();
+        List<PlayerChangedEvent> events = new ArrayList<>();
+        PendingEvent pending;
+        while ((pending = pendingEvents.poll()) != null) {
+            if (pending.seq <= rebuildStartSeq) {
+                // 재구성 쿼리에 이미 반영됨
+                continue;
+            }
+            String playerId = pending.event.getPlayerId();
+            boolean ambiguous = pending.seq <= rebuildEndSeq
+                    || pending.seq <= reloadedUntil.getOrDefault(playerId, 0L);
+            events.add(ambiguous ? PlayerChangedEvent.resync(playerId) : pending.event);
+        }
+        if (priceChanges.isEmpty() && events.isEmpty()) {
+            return;
+        }
+
+        // 가격 반영은 보유자 수만큼 순위를 옮기므로 나눠서 lock 을 잡는다
+        for (Map.Entry<String, Integer> price : priceChanges.entrySet()) {
+            applyPrice(price.getKey(), price.getValue());
+        }
+
+        // resync 대상은 lock 밖에서 미리 조회. 이번에 꺼낸 이벤트는 모두 커밋 후 접수되었으므로 조회 결과에 포함된다
+        Map<String, Holder> reloaded = new HashMap<>();
+        for (PlayerChangedEvent changed : events) {
+            if (changed.isResync() && !reloaded.containsKey(changed.getPlayerId())) {
+                reloaded.put(changed.getPlayerId(), loadPlayer(changed.getPlayerId()));
+            }
+        }
+        long reloadEndSeq = eventSeq.get();
+        for (String playerId : reloaded.keySet()) {
+            reloadedSeq.put(playerId, reloadEndSeq);
+        }
+
+        lock.lock();
+        try {
+            for (Map.Entry<String, Holder> reload : reloaded.entrySet()) {
+                replace(reload.getKey(), reload.getValue());
+            }
+            for (PlayerChangedEvent changed : events) {
+                if (!reloaded.containsKey(changed.getPlayerId())) {
+                    applyTrade(changed);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map<String, Integer> swapPendingPrices() {
+        Map<String, Integer> changes = pendingPrices;
+        pendingPrices = new ConcurrentHashMap<>();
+        return changes;
+    }
+
+    // prices, holdersByStock 은 applier 스레드만 읽고 쓰므로 lock 밖에서 접근한다
+    private void applyPrice(String stockName, int price) {
+        Integer previous = prices.put(stockName, price);
+        long delta = price - (previous != null ? previous : 0);
+        Set<Holder> holders = holdersByStock.get(stockName);
+        if (delta == 0 || holders == null) {
+            return;
+        }
+        List<Holder> targets = new ArrayList<>(holders);
+        for (int from = 0; from < targets.size(); from += PRICE_CHUNK_SIZE) {
+            int to = Math.min(targets.size(), from + PRICE_CHUNK_SIZE);
+            lock.lock();
+            try {
+                for (Holder holder : targets.subList(from, to)) {
+                    ranking.remove(holder);
+                    holder.worth += delta * holder.quantityOf(stockName);
+                    ranking.insert(holder);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void applyTrade(PlayerChangedEvent event) {
+        Holder holder = players.get(event.getPlayerId());
+        if (holder == null) {
+            // 아직 순위표에 없는 플레이어 - 다음 주기에 DB에서 조회
+            onPlayerChanged(PlayerChangedEvent.resync(event.getPlayerId()));
+            return;
+        }
+        String stockName = event.getStockName();
+        ranking.remove(holder);
+        holder.money += event.getMoneyDelta();
+        holder.worth += event.getMoneyDelta();
+        if (stockName != null && event.getQuantityDelta() != 0) {
+            int before = holder.quantityOf(stockName);
+            int after = holder.addQuantity(stockName, event.getQuantityDelta());
+            holder.worth += (long) (after - before) * prices.getOrDefault(stockName, 0);
+            if (before <= 0 && after > 0) {
+                holdersByStock.computeIfAbsent(stockName, k -> new HashSet<>()).add(holder);
+            } else if (before > 0 && after <= 0) {
+                removeHolderFromStock(stockName, holder);
+            }
+        }
+        ranking.insert(holder);
+    }
+
+    private void replace(String playerId, Holder holder) {
+        Holder existing = players.remove(playerId);
+        if (existing != null) {
+            ranking.remove(existing);
+            for (int i = 0; i < existing.holdingCount; i++) {
+                removeHolderFromStock(existing.stockNames[i], existing);
+            }
+        }
+        if (holder != null) {
+            install(holder, players, holdersByStock, prices);
+            ranking.insert(holder);
+        }
+    }
+
+    private void removeHolderFromStock(String stockName, Holder holder) {
+        Set<Holder> holders = holdersByStock.get(stockName);
+        if (holders != null) {
+            holders.remove(holder);
+            if (holders.isEmpty()) {
+                holdersByStock.remove(stockName);
+            }
+        }
+    }
+
+    private static void install(Holder holder, Map<String, Holder> players,
+                                Map<String, Set<Holder>> holdersByStock, Map<String, Integer> prices) {
+        long worth = holder.money;
+        for (int i = 0; i < holder.holdingCount; i++) {
+            worth += (long) holder.quantities[i] * prices.getOrDefault(holder.stockNames[i], 0);
+            holdersByStock.computeIfAbsent(holder.stockNames[i], k -> new HashSet<>()).add(holder);
+        }
+        holder.worth = worth;
+        players.put(holder.playerId, holder);
+    }
+
+    /**
+     * DB 기준 전체 재구성. 조회는 lock 밖에서 하고 완성된 구조로 교체한다.
+     */
+    private void rebuild() {
+        rebuildRequested = false;
+        lastRebuildNanos = System.nanoTime();
+        // 이 순번까지의 거래는 커밋 후 접수되었으므로 재구성 쿼리에 포함된다
+        long startSeq = eventSeq.get();
+
+        rebuildTimer.record(() -> {
+            Map<String, Integer> newPrices = new HashMap<>();
+            for (Stock stock : stockCatalog.getAll()) {
+                newPrices.put(stock.getStockName(), stock.getStockPrice());
+            }
+            Map<String, Holder> newPlayers = new HashMap<>();
+            Map<String, Set<Holder>> newHoldersByStock = new HashMap<>();
+            RankTree newRanking = new RankTree();
+
+            HolderReader reader = new HolderReader(holder -> {
+                install(holder, newPlayers, newHoldersByStock, newPrices);
+                newRanking.insert(holder);
+            });
+            jdbcTemplate.query(SELECT_ALL, reader::read);
+            reader.finish();
+            rebuildStartSeq = startSeq;
+            rebuildEndSeq = eventSeq.get();
+
+            lock.lock();
+            try {
+                players = newPlayers;
+                holdersByStock = newHoldersByStock;
+                prices = newPrices;
+                ranking = newRanking;
+            } finally {
+                lock.unlock();
+            }
+            log.info("Leaderboard rebuilt: players={}", newPlayers.size());
+        });
+        ready = true;
+    }
+
+    private Holder loadPlayer(String playerId) {
+        List<Holder> loaded = new ArrayList<>(1);
+        HolderReader reader = new HolderReader(loaded::add);
+        jdbcTemplate.query(SELECT_PLAYER, reader::read, playerId);
+        reader.finish();
+        return loaded.isEmpty() ? null : loaded.get(0);
+    }
+
+    private record PendingEvent(long seq, PlayerChangedEvent event) {
+    }
+
+    private interface HolderConsumer {
+        void accept(Holder holder);
+    }
+
+    /**
+     * player_id 순으로 정렬된 조인 결과를 플레이어 단위로 묶는다
+     */
+    private static final class HolderReader {
+        private final HolderConsumer consumer;
+        private Holder current;
+
+        private HolderReader(HolderConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        private void read(ResultSet rs) throws SQLException {
+            String playerId = rs.getString(1);
+            if (current == null || !current.playerId.equals(playerId)) {
+                finish();
+                current = new Holder(playerId, rs.getLong(2));
+            }
+            String stockName = rs.getString(3);
+            if (stockName != null) {
+                current.addQuantity(stockName, rs.getInt(4));
+            }
+        }
+
+        private void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+
+    /**
+     * 플레이어 한 명의 상태 + treap 노드.
+     * 보유 종목은 보통 몇 개뿐이므로 Map 대신 작은 배열로 보관한다.
+     */
+    private static final class Holder {
+        private final String playerId;
+        private long money;
+        private long worth;
+        private String[] stockNames = new String[2];
+        private int[] quantities = new int[2];
+        private int holdingCount;
+
+        // treap
+        private Holder left;
+        private Holder right;
+        private int priority;
+        private int size;
+
+        private Holder(String playerId, long money) {
+            this.playerId = playerId;
+            this.money = money;
+        }
+
+        private int indexOf(String stockName) {
+            for (int i = 0; i < holdingCount; i++) {
+                if (stockNames[i].equals(stockName)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int quantityOf(String stockName) {
+            int index = indexOf(stockName);
+            return index >= 0 ? quantities[index] : 0;
+        }
+
+        // 변경 후 수량 반환 (0 이하가 되면 보유 목록에서 제거)
+        private int addQuantity(String stockName, int delta) {
+            int index = indexOf(stockName);
+            if (index < 0) {
+                if (delta <= 0) {
+                    return 0;
+                }
+                if (holdingCount == stockNames.length) {
+                    stockNames = Arrays.copyOf(stockNames, holdingCount * 2);
+                    quantities = Arrays.copyOf(quantities, holdingCount * 2);
+                }
+                stockNames[holdingCount] = stockName;
+                quantities[holdingCount] = delta;
+                holdingCount++;
+                return delta;
+            }
+            int after = quantities[index] + delta;
+            if (after > 0) {
+                quantities[index] = after;
+                return after;
+            }
+            holdingCount--;
+            stockNames[index] = stockNames[holdingCount];
+            quantities[index] = quantities[holdingCount];
+            stockNames[holdingCount] = null;
+            return 0;
+        }
+    }
+
+    /**
+     * (순자산 내림차순, playerId 오름차순) 정렬 treap. 노드마다 subtree 크기를 유지해 순위를 O(log n)에 구한다.
+     * 노드의 키(worth)를 바꿀 때는 반드시 remove -> 변경 -> insert 순서로 호출해야 한다.
+     */
+    private static final class RankTree {
+        private final SplittableRandom random = new SplittableRandom();
+        private Holder root;
+
+        private int size() {
+            return size(root);
+        }
+
+        private void insert(Holder holder) {
+            holder.left = null;
+            holder.right = null;
+            holder.size = 1;
+            holder.priority = random.nextInt();
+            root = insert(root, holder);
+        }
+
+        private void remove(Holder holder) {
+            root = remove(root, holder);
+        }
+
+        // 0부터 시작하는 순위
+        private int rank(Holder holder) {
+            int rank = 0;
+            Holder node = root;
+            while (node != null) {
+                int c = compare(holder, node);
+                if (c < 0) {
+                    node = node.left;
+                } else if (c > 0) {
+                    rank += size(node.left) + 1;
+                    node = node.right;
+                } else {
+                    return rank + size(node.left);
+                }
+            }
+            return -1;
+        }
+
+        private void top(int n, List<Holder> out) {
+            Deque<Holder> stack = new ArrayDeque<>();
+            Holder node = root;
+            while ((node != null || !stack.isEmpty()) && out.size() < n) {
+                while (node != null) {
+                    stack.push(node);
+                    node = node.left;
+                }
+                node = stack.pop();
+                out.add(node);
+                node = node.right;
+            }
+        }
+
+        private static Holder insert(Holder node, Holder holder) {
+            if (node == null) {
+                return holder;
+            }
+            if (compare(holder, node) < 0) {
+                node.left = insert(node.left, holder);
+                if (node.left.priority > node.priority) {
+                    node = rotateRight(node);
+                }
+            } else {
+                node.right = insert(node.right, holder);
+                if (node.right.priority > node.priority) {
+                    node = rotateLeft(node);
+                }
+            }
+            update(node);
+            return node;
+        }
+
+        private static Holder remove(Holder node, Holder holder) {
+            if (node == null) {
+                return null;
+            }
+            int c = compare(holder, node);
+            if (c < 0) {
+                node.left = remove(node.left, holder);
+            } else if (c > 0) {
+                node.right = remove(node.right, holder);
+            } else {
+                return merge(node.left, node.right);
+            }
+            update(node);
+            return node;
+        }
+
+        private static Holder merge(Holder a, Holder b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            if (a.priority > b.priority) {
+                a.right = merge(a.right, b);
+                update(a);
+                return a;
+            }
+            b.left = merge(a, b.left);
+            update(b);
+            return b;
+        }
+
+        private static Holder rotateRight(Holder node) {
+            Holder left = node.left;
+            node.left = left.right;
+            left.right = node;
+            update(node);
+            update(left);
+            return left;
+        }
+
+        private static Holder rotateLeft(Holder node) {
+            Holder right = node.right;
+            node.right = right.left;
+            right.left = node;
+            update(node);
+            update(right);
+            return right;
+        }
+
+        private static void update(Holder node) {
+            node.size = 1 + size(node.left) + size(node.right);
+        }
+
+        private static int size(Holder node) {
+            return node != null ? node.size : 0;
+        }
+
+        private static int compare(Holder a, Holder b) {
+            int c = Long.compare(b.worth, a.worth);
+            return c != 0 ? c : a.playerId.compareTo(b.playerId);
+        }
+    }
+}
@@ -0,0 +1,402 @@
+// MarketEngine.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.MarketProperties;
+import com.sk.skala.myapp.model.Stock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 시세 시뮬레이션 엔진 (market.enabled=true 일 때만 동작).
+ *
+ * 틱 스레드 하나가 모든 종목의 가격을 기하 브라운 운동(drift/volatility)으로 움직여 메모리에 유지하고,
+ * 저장 스레드가 flushInterval 마다 변경된 종목만 모아 JDBC batch UPDATE 한 번으로 stocks 테이블에 반영한다.
+ * 거래 API는 StockCatalog를 통해 저장된 가격을 읽으므로 틱 처리와 경합하지 않는다.
+ * 정수 가격이 바뀐 틱은 PriceFeed로 즉시 전달한다.
+ *
+ * 외부(PUT /api/stocks/{name}, 다른 pod)에서 바꾼 가격은 덮어쓰지 않는다.
+ * - 저장은 마지막으로 저장한 가격이 그대로일 때만 바꾸는 조건부 UPDATE 이다
+ * - 이 pod 의 종목 수정은 커밋 후 setPrice() 로 틱 스레드에 전달되고, 다른 pod 의 수정은 저장 후 다시 읽은 목록으로 확인한다
+ * - 가격판은 종목 구성이 바뀔 때만 새로 만든다 (자기 저장으로 캐시가 바뀐 것은 무시)
+ * - 가격판 교체는 tickLock 을 잡고 하므로, 교체하는 동안 틱이 이전 가격판을 바꿔 변경분이 사라지지 않는다
+ */
+@Component
+@ConditionalOnProperty(prefix = "market", name = "enabled", havingValue = "true")
+public class MarketEngine implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(MarketEngine.class);
+
+    private static final String UPDATE_PRICE =
+            "update stocks set stock_price = ? where stock_name = ? and stock_price = ?";
+
+    private final MarketProperties properties;
+    private final StockCatalog stockCatalog;
+    private final PriceFeed priceFeed;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter ticks;
+    private final Timer flushTimer;
+    private final DistributionSummary flushRows;
+
+    // 저장되지 않은 가장 오래된 변경 시각 (0 = 저장 대기 없음)
+    private final AtomicLong oldestUnflushedNanos = new AtomicLong();
+    // 외부에서 바뀐 가격 (틱 스레드가 다음 틱에 가격판에 반영)
+    private final Map<String, Integer> externalPrices = new ConcurrentHashMap<>();
+
+    private volatile Board board = new Board(new String[0], new double[0], new int[0]);
+    // 틱 한 번과 가격판 교체를 직렬화 (틱은 tickInterval 마다 잠깐만 잡는다)
+    private final ReentrantLock tickLock = new ReentrantLock();
+    private ScheduledExecutorService tickExecutor;
+    private ScheduledExecutorService flushExecutor;
+    private volatile boolean running;
+
+    @Autowired
+    public MarketEngine(
+            MarketProperties properties,
+            StockCatalog stockCatalog,
+            PriceFeed priceFeed,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.stockCatalog = stockCatalog;
+        this.priceFeed = priceFeed;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        this.ticks = Counter.builder("market.ticks").register(meterRegistry);
+        this.flushTimer = Timer.builder("market.flush").register(meterRegistry);
+        this.flushRows = DistributionSummary.builder("market.flush.rows").register(meterRegistry);
+        Gauge.builder("market.persistence.lag", this, MarketEngine::persistenceLagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("market.symbols", this, engine -> engine.board.names.length).register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        syncBoard();
+
+        tickExecutor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "market-tick"));
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "market-flush"));
+
+        long tickNanos = properties.getTickInterval().toNanos();
+        long flushNanos = properties.getFlushInterval().toNanos();
+        tickExecutor.scheduleAtFixedRate(new TickTask(tickNanos), tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        flushExecutor.scheduleWithFixedDelay(this::flushSafely, flushNanos, flushNanos, TimeUnit.NANOSECONDS);
+
+        running = true;
+        log.info("Market engine started: symbols={}, tickInterval={}, flushInterval={}",
+                board.names.length, properties.getTickInterval(), properties.getFlushInterval());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        tickExecutor.shutdownNow();
+        flushExecutor.shutdownNow();
+        try {
+            tickExecutor.awaitTermination(5, TimeUnit.SECONDS);
+            flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 전에 남은 변경분 저장
+        flushSafely();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 현재 메모리상의 가격 (저장 전 가격 포함)
+    public Map<String, Integer> getPrices() {
+        Board current = board;
+        Map<String, Integer> prices = new HashMap<>();
+        for (int i = 0; i < current.names.length; i++) {
+            prices.put(current.names[i], current.published.get(i));
+        }
+        return prices;
+    }
+
+    /**
+     * 외부에서 저장한 가격을 시뮬레이션 가격으로 삼는다. 트랜잭션 안이면 커밋 후에 반영한다.
+     */
+    public void setPrice(String stockName, int stockPrice) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            externalPrices.put(stockName, stockPrice);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                externalPrices.put(stockName, stockPrice);
+            }
+        });
+    }
+
+    private double persistenceLagSeconds() {
+        long oldest = oldestUnflushedNanos.get();
+        return oldest == 0 ? 0 : (System.nanoTime() - oldest) / 1e9;
+    }
+
+    /**
+     * 틱 스레드 전용. 가격 계산용 double 배열은 이 스레드만 접근한다.
+     */
+    private final class TickTask implements Runnable {
+        private final SplittableRandom random = new SplittableRandom();
+        private final double drift;
+        private final double diffusion;
+
+        TickTask(long tickNanos) {
+            double dt = tickNanos / 1e9;
+            double sigma = properties.getVolatility();
+            this.drift = (properties.getDrift() - sigma * sigma / 2) * dt;
+            this.diffusion = sigma * Math.sqrt(dt);
+        }
+
+        @Override
+        public void run() {
+            tickLock.lock();
+            try {
+                tick(board);
+            } finally {
+                tickLock.unlock();
+            }
+        }
+
+        private void tick(Board current) {
+            applyExternalPrices(current);
+            int minPrice = properties.getMinPrice();
+            int changed = 0;
+            for (int i = 0; i < current.names.length; i++) {
+                double next = current.prices[i] * Math.exp(drift + diffusion * nextGaussian());
+                current.prices[i] = Math.max(next, minPrice);
+                int rounded = (int) Math.round(current.prices[i]);
+                if (rounded != current.published.get(i)) {
+                    current.published.set(i, rounded);
+                    current.dirty.set(i, 1);
+                    priceFeed.publish(current.names[i], rounded);
+                    changed++;
+                }
+            }
+            ticks.increment(current.names.length);
+            if (changed > 0) {
+                oldestUnflushedNanos.compareAndSet(0, System.nanoTime());
+            }
+        }
+
+        // 이미 저장되어 있는 가격이므로 저장 대상으로 표시하지 않는다
+        private void applyExternalPrices(Board current) {
+            if (externalPrices.isEmpty()) {
+                return;
+            }
+            for (String name : List.copyOf(externalPrices.keySet())) {
+                Integer price = externalPrices.remove(name);
+                int index = current.indexOf(name);
+                if (price == null || index < 0) {
+                    continue;
+                }
+                current.prices[index] = price;
+                current.published.set(index, price);
+                current.persisted.set(index, price);
+                current.dirty.set(index, 0);
+            }
+        }
+
+        // Box-Muller (SplittableRandom에는 nextGaussian이 없음)
+        private double nextGaussian() {
+            double u1 = random.nextDouble();
+            double u2 = random.nextDouble();
+            return Math.sqrt(-2 * Math.log(1 - u1)) * Math.cos(2 * Math.PI * u2);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+            syncBoard();
+        } catch (Exception e) {
+            // 다음 주기에 다시 시도
+            log.warn("Market price flush failed", e);
+        }
+    }
+
+    /**
+     * 변경된 종목의 최신 가격만 모아 한 번의 batch UPDATE로 저장한다.
+     * 마지막으로 저장한 가격이 DB에 그대로 있을 때만 바꾸므로, 그 사이 외부에서 바꾼 가격은 유지된다 (syncBoard 에서 반영).
+     */
+    private void flush() {
+        Board current = board;
+        long pendingSince = oldestUnflushedNanos.getAndSet(0);
+        List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < current.names.length; i++) {
+            if (current.dirty.getAndSet(i, 0) == 1) {
+                updates.add(new Object[]{current.published.get(i), current.names[i], current.persisted.get(i)});
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        int[] counts;
+        try {
+            counts = flushTimer.record(() -> transactionTemplate.execute(
+                    status -> jdbcTemplate.batchUpdate(UPDATE_PRICE, updates)));
+        } catch (RuntimeException e) {
+            // 실패한 종목은 다시 저장 대상으로 표시
+            for (Object[] update : updates) {
+                int index = current.indexOf((String) update[1]);
+                if (index >= 0) {
+                    current.dirty.set(index, 1);
+                }
+            }
+            oldestUnflushedNanos.compareAndSet(0, pendingSince);
+            throw e;
+        }
+        for (int u = 0; u < updates.size(); u++) {
+            // 0건 = 외부에서 바뀜. 드라이버가 건수를 주지 않는 경우(SUCCESS_NO_INFO)는 syncBoard 에서 DB 값과 비교한다
+            if (counts[u] != 0) {
+                Object[] update = updates.get(u);
+                int index = current.indexOf((String) update[1]);
+                // 그 사이 setPrice() 로 바뀌었으면 그 가격을 유지
+                current.persisted.compareAndSet(index, (Integer) update[2], (Integer) update[0]);
+            }
+        }
+        flushRows.record(updates.size());
+        // 거래 API 가 새 가격을 읽도록 캐시 무효화 (가격판은 syncBoard 에서 종목 구성이 바뀔 때만 교체)
+        stockCatalog.invalidate();
+    }
+
+    /**
+     * 종목 추가/삭제, 외부(다른 pod 등)에서 바뀐 가격을 메모리 가격판에 반영한다.
+     * 저장 스레드에서만 호출된다. 저장된 가격이 마지막으로 저장한 가격과 다르면 외부에서 바뀐 것이다.
+     * 종목 목록은 lock 밖에서 읽고, 새 가격판은 tickLock 을 잡은 채 이전 가격판의 최신 틱 가격으로 만든다.
+     */
+    private void syncBoard() {
+        List<Stock> stocks = stockCatalog.getAll();
+        Board current = board;
+        if (current.hasSymbols(stocks)) {
+            for (Stock stock : stocks) {
+                int index = current.indexOf(stock.getStockName());
+                if (current.persisted.get(index) != stock.getStockPrice()) {
+                    externalPrices.put(stock.getStockName(), stock.getStockPrice());
+                }
+            }
+            return;
+        }
+
+        tickLock.lock();
+        try {
+            swapBoard(stocks, board);
+        } finally {
+            tickLock.unlock();
+        }
+    }
+
+    // tickLock 을 잡은 채 호출 (current 를 바꾸는 틱이 없음)
+    private void swapBoard(List<Stock> stocks, Board current) {
+        String[] names = new String[stocks.size()];
+        double[] prices = new double[stocks.size()];
+        int[] persisted = new int[stocks.size()];
+        for (int i = 0; i < names.length; i++) {
+            Stock stock = stocks.get(i);
+            names[i] = stock.getStockName();
+            persisted[i] = stock.getStockPrice();
+            int index = current.indexOf(names[i]);
+            // 기존 종목은 저장 전 가격까지 이어받는다 (외부에서 바뀌었으면 저장된 가격)
+            prices[i] = index >= 0 && current.persisted.get(index) == stock.getStockPrice()
+                    ? current.prices[index]
+                    : stock.getStockPrice();
+        }
+        Board next = new Board(names, prices, persisted);
+        board = next;
+        if (next.hasDirty()) {
+            oldestUnflushedNanos.compareAndSet(0, System.nanoTime());
+        }
+    }
+
+    /**
+     * 종목별 가격판. 종목 구성이 바뀌면 새 Board로 통째로 교체한다.
+     */
+    private static final class Board {
+        private final String[] names;
+        private final Map<String, Integer> indexByName = new HashMap<>();
+        // 틱 스레드 전용 (정밀 가격, 가격판 교체 때는 tickLock 을 잡고 읽는다)
+        private final double[] prices;
+        // 외부 공개용 정수 가격과 저장 대기 표시
+        private final AtomicIntegerArray published;
+        private final AtomicIntegerArray dirty;
+        // 마지막으로 DB 에 저장된 것으로 아는 가격 (조건부 UPDATE 의 기대값)
+        private final AtomicIntegerArray persisted;
+
+        private Board(String[] names, double[] prices, int[] persisted) {
+            this.names = names;
+            this.prices = prices;
+            this.published = new AtomicIntegerArray(names.length);
+            this.dirty = new AtomicIntegerArray(names.length);
+            this.persisted = new AtomicIntegerArray(persisted);
+            for (int i = 0; i < names.length; i++) {
+                indexByName.put(names[i], i);
+                published.set(i, (int) Math.round(prices[i]));
+                if (published.get(i) != persisted[i]) {
+                    dirty.set(i, 1);
+                }
+            }
+        }
+
+        private int indexOf(String name) {
+            Integer index = indexByName.get(name);
+            return index != null ? index : -1;
+        }
+
+        private boolean hasDirty() {
+            for (int i = 0; i < names.length; i++) {
+                if (dirty.get(i) == 1) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean hasSymbols(List<Stock> stocks) {
+            if (stocks.size() != names.length) {
+                return false;
+            }
+            for (Stock stock : stocks) {
+                if (indexOf(stock.getStockName()) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+// OrderBook.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.BookDepth;
+import com.sk.skala.myapp.model.TradeOrder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 종목의 지정가 호가창과 체결 엔진 (가격 우선, 같은 가격이면 시간 우선).
+ *
+ * 스레드 안전하지 않다. 종목마다 한 번에 한 스레드만 호출해야 한다 (OrderBookService 가 종목별 lock 으로 보장).
+ * 가격 단계는 int 가격 배열 + 단계 배열로 유지하고 최우선 호가를 배열 끝에 두므로
+ * 최우선 호가 조회/삭제는 O(1), 새 가격 단계 추가는 이진 탐색 + 최우선 호가 쪽 일부 이동이다.
+ * 같은 가격의 주문은 이중 연결 리스트(FIFO)라 취소도 O(1) 이다.
+ */
+public final class OrderBook {
+
+    /**
+     * 체결 통지. 체결 가격은 호가창에서 기다리던 주문(maker)의 가격이다.
+     */
+    public interface FillListener {
+        void onFill(long makerOrderId, String makerPlayerId, long takerOrderId, String takerPlayerId,
+                    TradeOrder.Side takerSide, int price, int quantity);
+    }
+
+    private final String stockName;
+    // 매수: 높은 가격이 우선 -> 오름차순으로 두어 최우선 호가가 배열 끝
+    private final Ladder bids = new Ladder(true);
+    // 매도: 낮은 가격이 우선 -> 내림차순으로 두어 최우선 호가가 배열 끝
+    private final Ladder asks = new Ladder(false);
+    private final Map<Long, Order> orders = new HashMap<>();
+    private int lastPrice;
+
+    public OrderBook(String stockName) {
+        this.stockName = stockName;
+    }
+
+    /**
+     * 주문을 반대편 호가와 체결하고, 남은 수량은 호가창에 올린다.
+     * @return 호가창에 남은 수량 (0 = 전량 체결)
+     */
+    public int submit(long orderId, String playerId, TradeOrder.Side side, int price, int quantity,
+                      FillListener listener) {
+        boolean buy = side == TradeOrder.Side.BUY;
+        Ladder opposite = buy ? asks : bids;
+        int remaining = quantity;
+
+        while (remaining > 0 && opposite.size > 0) {
+            Level level = opposite.best();
+            if (buy ? level.price > price : level.price < price) {
+                break;
+            }
+            Order maker = level.head;
+            while (remaining > 0 && maker != null) {
+                int filled = Math.min(remaining, maker.remaining);
+                maker.remaining -= filled;
+                level.quantity -= filled;
+                remaining -= filled;
+                lastPrice = level.price;
+
+                Order next = maker.next;
+                if (maker.remaining == 0) {
+                    level.unlink(maker);
+                    orders.remove(maker.id);
+                }
+                listener.onFill(maker.id, maker.playerId, orderId, playerId, side, level.price, filled);
+                maker = next;
+            }
+            if (level.head == null) {
+                opposite.removeBest();
+            }
+        }
+
+        if (remaining > 0) {
+            Order order = new Order(orderId, playerId, side, remaining);
+            (buy ? bids : asks).levelFor(price).append(order);
+            orders.put(orderId, order);
+        }
+        return remaining;
+    }
+
+    /**
+     * 체결하지 않고 호가창에 그대로 올린다 (DB 에 남은 주문으로 호가창을 다시 만들 때 사용).
+     */
+    public void restore(long orderId, String playerId, TradeOrder.Side side, int price, int quantity) {
+        Order order = new Order(orderId, playerId, side, quantity);
+        (side == TradeOrder.Side.BUY ? bids : asks).levelFor(price).append(order);
+        orders.put(orderId, order);
+    }
+
+    /**
+     * 호가창에서 주문을 내린다.
+     * @return 취소된(남아 있던) 수량, 이미 전량 체결되었거나 없는 주문이면 0
+     */
+    public int cancel(long orderId) {
+        Order order = orders.remove(orderId);
+        if (order == null) {
+            return 0;
+        }
+        Level level = order.level;
+        level.quantity -= order.remaining;
+        level.unlink(order);
+        if (level.head == null) {
+            (order.side == TradeOrder.Side.BUY ? bids : asks).remove(level.price);
+        }
+        return order.remaining;
+    }
+
+    public BookDepth depth(int levels) {
+        return new BookDepth(stockName, bids.top(levels), asks.top(levels), lastPrice > 0 ? lastPrice : null);
+    }
+
+    public int getOpenOrders() {
+        return orders.size();
+    }
+
+    private static final class Order {
+        private final long id;
+        private final String playerId;
+        private final TradeOrder.Side side;
+        private int remaining;
+        private Level level;
+        private Order prev;
+        private Order next;
+
+        private Order(long id, String playerId, TradeOrder.Side side, int remaining) {
+            this.id = id;
+            this.playerId = playerId;
+            this.side = side;
+            this.remaining = remaining;
+        }
+    }
+
+    // 한 가격의 주문 대기열 (접수 순)
+    private static final class Level {
+        private final int price;
+        private long quantity;
+        private int count;
+        private Order head;
+        private Order tail;
+
+        private Level(int price) {
+            this.price = price;
+        }
+
+        void append(Order order) {
+            order.level = this;
+            order.prev = tail;
+            if (tail == null) {
+                head = order;
+            } else {
+                tail.next = order;
+            }
+            tail = order;
+            quantity += order.remaining;
+            count++;
+        }
+
+        // quantity 는 호출하는 쪽에서 조정한다
+        void unlink(Order order) {
+            if (order.prev == null) {
+                head = order.next;
+            } else {
+                order.prev.next = order.next;
+            }
+            if (order.next == null) {
+                tail = order.prev;
+            } else {
+                order.next.prev = order.prev;
+            }
+            order.prev = null;
+            order.next = null;
+            count--;
+        }
+    }
+
+    // 한쪽(매수/매도) 가격 단계 목록. prices[i] 와 levels[i] 가 짝이고, 최우선 호가가 size - 1 번째
+    private static final class Ladder {
+        private final boolean ascending;
+        private int[] prices = new int[16];
+        private Level[] levels = new Level[16];
+        private int size;
+
+        private Ladder(boolean ascending) {
+            this.ascending = ascending;
+        }
+
+        Level best() {
+            return levels[size - 1];
+        }
+
+        void removeBest() {
+            levels[--size] = null;
+        }
+
+        Level levelFor(int price) {
+            int index = indexOf(price);
+            if (index >= 0) {
+                return levels[index];
+            }
+            int insertAt = -index - 1;
+            if (size == prices.length) {
+                prices = Arrays.copyOf(prices, size * 2);
+                levels = Arrays.copyOf(levels, size * 2);
+            }
+            System.arraycopy(prices, insertAt, prices, insertAt + 1, size - insertAt);
+            System.arraycopy(levels, insertAt, levels, insertAt + 1, size - insertAt);
+            Level level = new Level(price);
+            prices[insertAt] = price;
+            levels[insertAt] = level;
+            size++;
+            return level;
+        }
+
+        void remove(int price) {
+            int index = indexOf(price);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(prices, index + 1, prices, index, size - index - 1);
+            System.arraycopy(levels, index + 1, levels, index, size - index - 1);
+            levels[--size] = null;
+        }
+
+        List<BookDepth.Level> top(int count) {
+            List<BookDepth.Level> result = new ArrayList<>(Math.min(count, size));
+            for (int i = size - 1; i >= 0 && result.size() < count; i--) {
+                Level level = levels[i];
+                result.add(new BookDepth.Level(level.price, level.quantity, level.count));
+            }
+            return result;
+        }
+
+        // 있으면 index, 없으면 -(삽입 위치) - 1
+        private int indexOf(int price) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = ascending ? Integer.compare(prices[mid], price) : Integer.compare(price, prices[mid]);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
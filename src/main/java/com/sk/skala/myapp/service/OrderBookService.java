@@ -0,0 +1,219 @@
+// OrderBookService.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.BookDepth;
+import com.sk.skala.myapp.model.LimitOrder;
+import com.sk.skala.myapp.model.OrderFill;
+import com.sk.skala.myapp.model.OrderRequest;
+import com.sk.skala.myapp.model.OrderResult;
+import com.sk.skala.myapp.repository.LimitOrderRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 플레이어 간 지정가 주문 체결.
+ *
+ * 주문 접수 시 대금/주식을 먼저 차감(OrderSettlement.reserve)하므로 체결은 항상 정산 가능하다.
+ * 체결(메모리 호가창 OrderBook)과 정산(DB 트랜잭션)은 같은 종목 lock 안에서 하므로, 정산이 커밋된 뒤에야
+ * 다른 주문/취소가 바뀐 호가창을 본다. 정산이 실패하면 호가창을 DB(limit_orders) 기준으로 되돌리고 새 주문은 취소(환불)한다.
+ * 정산 전에 프로세스가 죽어도 limit_orders 에 체결 전 수량이 남아 있으므로 재기동 시 다시 체결/정산된다.
+ *
+ * 호가창은 pod 마다 따로 있으므로 여러 pod 로 운영할 때는 종목(또는 주문 API)을 한 pod 로 보내야 한다.
+ * 저널 모드(trade-journal.enabled=true)에서는 DB 가 기준 데이터가 아니므로 사용하지 않는다.
+ */
+@Timed(value = "service.method", histogram = true)
+@Service
+@ConditionalOnProperty(prefix = "trade-journal", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class OrderBookService {
+    private static final Logger log = LoggerFactory.getLogger(OrderBookService.class);
+
+    private final StockCatalog stockCatalog;
+    private final OrderSettlement settlement;
+    private final LimitOrderRepository limitOrderRepository;
+
+    private final ConcurrentHashMap<String, Book> books = new ConcurrentHashMap<>();
+
+    private final Timer matchTimer;
+    private final Counter fillCounter;
+
+    @Autowired
+    public OrderBookService(
+            StockCatalog stockCatalog,
+            OrderSettlement settlement,
+            LimitOrderRepository limitOrderRepository,
+            MeterRegistry meterRegistry
+    ) {
+        this.stockCatalog = stockCatalog;
+        this.settlement = settlement;
+        this.limitOrderRepository = limitOrderRepository;
+
+        // 종목 lock 을 잡고 체결하는 시간 (DB 정산 제외)
+        this.matchTimer = Timer.builder("order.book.match").publishPercentileHistogram().register(meterRegistry);
+        this.fillCounter = Counter.builder("order.book.fills").register(meterRegistry);
+        Gauge.builder("order.book.open", this, OrderBookService::openOrders).register(meterRegistry);
+    }
+
+    // 저장된 미체결 주문으로 호가창 복원 (정산되지 않은 체결이 있었다면 여기서 다시 체결된다)
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        List<LimitOrder> orders = limitOrderRepository.findAllByOrderByIdAsc();
+        for (LimitOrder order : orders) {
+            try {
+                match(order);
+            } catch (RuntimeException e) {
+                // 환불까지 실패한 주문은 DB 에 남기고 나머지 주문으로 계속 복원한다
+                log.error("Order {} could not be recovered", order.getId(), e);
+            }
+        }
+        if (!orders.isEmpty()) {
+            log.info("Order books recovered: orders={}, symbols={}", orders.size(), books.size());
+        }
+    }
+
+    public OrderResult submit(String playerId, OrderRequest request) {
+        if (request.getSide() == null || request.getPrice() <= 0 || request.getQuantity() <= 0) {
+            return OrderResult.fail(OrderResult.Status.INVALID_ORDER);
+        }
+        try {
+            Math.multiplyExact(request.getPrice(), request.getQuantity());
+        } catch (ArithmeticException e) {
+            return OrderResult.fail(OrderResult.Status.INVALID_ORDER);
+        }
+        if (stockCatalog.get(request.getStockName()) == null) {
+            return OrderResult.fail(OrderResult.Status.STOCK_NOT_FOUND);
+        }
+
+        LimitOrder order = new LimitOrder(playerId, request);
+        OrderResult.Status reserved = settlement.reserve(order);
+        if (reserved != OrderResult.Status.ACCEPTED) {
+            return OrderResult.fail(reserved);
+        }
+        return match(order);
+    }
+
+    /**
+     * 주문 취소. 본인 주문이고 호가창에 남은 수량이 있으면 그만큼 돌려준다.
+     */
+    public boolean cancel(String playerId, long orderId) {
+        LimitOrder order = limitOrderRepository.findById(orderId).orElse(null);
+        if (order == null || !order.getPlayerId().equals(playerId)) {
+            return false;
+        }
+        Book book = books.get(order.getStockName());
+        if (book == null) {
+            return false;
+        }
+
+        int remaining;
+        book.lock.lock();
+        try {
+            remaining = book.orders.cancel(orderId);
+        } finally {
+            book.lock.unlock();
+        }
+        if (remaining == 0) {
+            // 이미 전량 체결됨
+            return false;
+        }
+        settlement.release(order, remaining);
+        return true;
+    }
+
+    // 미체결 주문 (정산이 진행 중이면 수량이 호가창보다 잠시 클 수 있다)
+    public List<LimitOrder> getOpenOrders(String playerId) {
+        return limitOrderRepository.findByPlayerIdOrderByIdAsc(playerId);
+    }
+
+    public BookDepth getDepth(String stockName, int levels) {
+        Book book = books.get(stockName);
+        if (book == null) {
+            return new BookDepth(stockName, List.of(), List.of(), null);
+        }
+        book.lock.lock();
+        try {
+            return book.orders.depth(levels);
+        } finally {
+            book.lock.unlock();
+        }
+    }
+
+    private OrderResult match(LimitOrder order) {
+        List<OrderFill> fills = new ArrayList<>();
+        Book book = books.computeIfAbsent(order.getStockName(), Book::new);
+
+        int remaining;
+        book.lock.lock();
+        try {
+            long started = System.nanoTime();
+            remaining = book.orders.submit(order.getId(), order.getPlayerId(), order.getSide(),
+                    order.getPrice(), order.getQuantity(),
+                    (makerId, makerPlayer, takerId, takerPlayer, takerSide, price, quantity) ->
+                            fills.add(new OrderFill(makerId, makerPlayer, takerId, takerPlayer, takerSide, price, quantity)));
+            matchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+            if (!fills.isEmpty()) {
+                fillCounter.increment(fills.size());
+                try {
+                    settlement.settle(order.getStockName(), order.getPrice(), fills);
+                } catch (RuntimeException e) {
+                    log.error("Settlement failed for order {} ({} fills), cancelling it", order.getId(), fills.size(), e);
+                    rollback(book, order);
+                    return OrderResult.fail(OrderResult.Status.SETTLEMENT_FAILED);
+                }
+            }
+        } finally {
+            book.lock.unlock();
+        }
+        return OrderResult.of(order.getId(), remaining, fills);
+    }
+
+    /**
+     * 정산이 롤백되었으므로 limit_orders 는 체결 전 상태다. 호가창을 그 상태로 다시 만들고
+     * (새 주문은 빼고) 새 주문의 예약 대금/주식을 돌려준다. 종목 lock 을 잡은 상태에서 호출한다.
+     */
+    private void rollback(Book book, LimitOrder order) {
+        OrderBook restored = new OrderBook(order.getStockName());
+        for (LimitOrder resting : limitOrderRepository.findByStockNameOrderByIdAsc(order.getStockName())) {
+            if (!resting.getId().equals(order.getId())) {
+                restored.restore(resting.getId(), resting.getPlayerId(), resting.getSide(),
+                        resting.getPrice(), resting.getQuantity());
+            }
+        }
+        book.orders = restored;
+        settlement.release(order, order.getQuantity());
+    }
+
+    private int openOrders() {
+        int open = 0;
+        for (Book book : books.values()) {
+            open += book.orders.getOpenOrders();
+        }
+        return open;
+    }
+
+    private static final class Book {
+        private final ReentrantLock lock = new ReentrantLock();
+        // lock 을 잡고 읽고 바꾼다 (정산 실패 시 교체, 미체결 수 gauge 는 lock 없이 읽음)
+        private volatile OrderBook orders;
+
+        private Book(String stockName) {
+            this.orders = new OrderBook(stockName);
+        }
+    }
+}
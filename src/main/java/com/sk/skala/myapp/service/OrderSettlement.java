@@ -0,0 +1,157 @@
+// OrderSettlement.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.LimitOrder;
+import com.sk.skala.myapp.model.OrderFill;
+import com.sk.skala.myapp.model.OrderResult;
+import com.sk.skala.myapp.model.PlayerChangedEvent;
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.repository.LimitOrderRepository;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import com.sk.skala.myapp.repository.PlayerStockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 지정가 주문의 DB 반영 (호가창 밖에서 실행).
+ * - reserve : 주문 접수 시 매수 대금 / 매도 주식을 미리 차감하고 주문을 저장
+ * - settle  : 체결된 주문의 대금과 주식을 상대방에게 넘기고 남은 수량을 갱신
+ * - release : 취소된 주문의 남은 대금 / 주식을 돌려준다
+ * 플레이어 row 는 playerId 순서로 갱신해 서로 다른 종목의 동시 정산끼리 교착 상태를 피한다.
+ */
+@Service
+@ConditionalOnProperty(prefix = "trade-journal", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class OrderSettlement {
+    private final PlayerRepository playerRepository;
+    private final PlayerStockRepository playerStockRepository;
+    private final LimitOrderRepository limitOrderRepository;
+    private final StockCatalog stockCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public OrderSettlement(
+            PlayerRepository playerRepository,
+            PlayerStockRepository playerStockRepository,
+            LimitOrderRepository limitOrderRepository,
+            StockCatalog stockCatalog,
+            ApplicationEventPublisher eventPublisher
+    ) {
+        this.playerRepository = playerRepository;
+        this.playerStockRepository = playerStockRepository;
+        this.limitOrderRepository = limitOrderRepository;
+        this.stockCatalog = stockCatalog;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // 성공하면 ACCEPTED 를 반환하고 order 에 id 가 채워진다
+    @RetryOnConflict
+    @Transactional
+    public OrderResult.Status reserve(LimitOrder order) {
+        String playerId = order.getPlayerId();
+        if (order.getSide() == TradeOrder.Side.BUY) {
+            int amount = Math.multiplyExact(order.getPrice(), order.getQuantity());
+            if (playerRepository.withdrawMoney(playerId, amount) == 0) {
+                return playerRepository.existsById(playerId)
+                        ? OrderResult.Status.INSUFFICIENT_MONEY
+                        : OrderResult.Status.PLAYER_NOT_FOUND;
+            }
+        } else {
+            // 매수와 같은 순서(플레이어 -> 보유 주식)로 잠근다
+            if (playerRepository.depositMoney(playerId, 0) == 0) {
+                return OrderResult.Status.PLAYER_NOT_FOUND;
+            }
+            String stockName = order.getStockName();
+            if (playerStockRepository.subtractQuantity(playerId, stockName, order.getQuantity(),
+                    valuationPrice(stockName, order.getPrice())) == 0) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                return OrderResult.Status.INSUFFICIENT_QUANTITY;
+            }
+            playerStockRepository.deleteEmptyHolding(playerId, stockName);
+        }
+
+        limitOrderRepository.save(order);
+        eventPublisher.publishEvent(PlayerChangedEvent.resync(playerId));
+        return OrderResult.Status.ACCEPTED;
+    }
+
+    /**
+     * 한 주문이 만든 체결을 정산한다.
+     * 매수 주문이 자기 지정가보다 낮은 가격에 체결되면 미리 차감한 대금과의 차액을 돌려준다.
+     */
+    @RetryOnConflict
+    @Transactional
+    public void settle(String stockName, int takerPrice, List<OrderFill> fills) {
+        Map<String, Long> money = new TreeMap<>();
+        Map<String, Integer> shares = new TreeMap<>();
+        Map<Long, Integer> filledByOrder = new TreeMap<>();
+        for (OrderFill fill : fills) {
+            long amount = (long) fill.getPrice() * fill.getQuantity();
+            money.merge(fill.getSellerId(), amount, Long::sum);
+            if (fill.getTakerSide() == TradeOrder.Side.BUY && takerPrice > fill.getPrice()) {
+                money.merge(fill.getBuyerId(), (long) (takerPrice - fill.getPrice()) * fill.getQuantity(), Long::sum);
+            }
+            shares.merge(fill.getBuyerId(), fill.getQuantity(), Integer::sum);
+            filledByOrder.merge(fill.getMakerOrderId(), fill.getQuantity(), Integer::sum);
+            filledByOrder.merge(fill.getTakerOrderId(), fill.getQuantity(), Integer::sum);
+        }
+
+        for (Map.Entry<String, Long> entry : money.entrySet()) {
+            // 받을 플레이어가 없으면 대금이 사라지므로 정산 전체를 롤백한다
+            if (playerRepository.depositMoney(entry.getKey(), Math.toIntExact(entry.getValue())) == 0) {
+                throw new IllegalStateException("Player not found for settlement: " + entry.getKey());
+            }
+        }
+        int price = valuationPrice(stockName, fills.get(fills.size() - 1).getPrice());
+        for (Map.Entry<String, Integer> entry : shares.entrySet()) {
+            addShares(entry.getKey(), stockName, entry.getValue(), price);
+        }
+        for (Map.Entry<Long, Integer> entry : filledByOrder.entrySet()) {
+            if (limitOrderRepository.reduceQuantity(entry.getKey(), entry.getValue()) == 0) {
+                throw new IllegalStateException("Order not found for settlement: " + entry.getKey());
+            }
+            limitOrderRepository.deleteIfFilled(entry.getKey());
+        }
+
+        Set<String> players = new TreeSet<>(money.keySet());
+        players.addAll(shares.keySet());
+        players.forEach(playerId -> eventPublisher.publishEvent(PlayerChangedEvent.resync(playerId)));
+    }
+
+    // 호가창에서 내린 주문의 남은 수량만큼 돌려준다
+    @RetryOnConflict
+    @Transactional
+    public void release(LimitOrder order, int remaining) {
+        String playerId = order.getPlayerId();
+        if (order.getSide() == TradeOrder.Side.BUY) {
+            playerRepository.depositMoney(playerId, Math.multiplyExact(order.getPrice(), remaining));
+        } else {
+            playerRepository.depositMoney(playerId, 0);
+            addShares(playerId, order.getStockName(), remaining, valuationPrice(order.getStockName(), order.getPrice()));
+        }
+        limitOrderRepository.deleteOrder(order.getId());
+        eventPublisher.publishEvent(PlayerChangedEvent.resync(playerId));
+    }
+
+    private void addShares(String playerId, String stockName, int quantity, int price) {
+        if (playerStockRepository.addQuantity(playerId, stockName, quantity, price) == 0) {
+            playerStockRepository.insertHolding(playerId, stockName, quantity, price);
+        }
+    }
+
+    // 보유 내역 평가 가격은 종목 현재가 (종목이 삭제되었으면 주문 가격)
+    private int valuationPrice(String stockName, int fallback) {
+        Stock stock = stockCatalog.get(stockName);
+        return stock != null ? stock.getStockPrice() : fallback;
+    }
+}
@@ -1,34 +1,53 @@
 // PlayerService.java
 package com.sk.skala.myapp.service;
 
+import com.sk.skala.myapp.model.DeleteResult;
+import com.sk.skala.myapp.model.KeysetPage;
 import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerChangedEvent;
 import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.PlayerSummary;
 import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.model.TradeResult;
+import com.sk.skala.myapp.repository.LimitOrderRepository;
 import com.sk.skala.myapp.repository.PlayerRepository;
 import com.sk.skala.myapp.repository.PlayerStockRepository;
-import com.sk.skala.myapp.repository.StockRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
+@Timed(value = "service.method", histogram = true)
 @Service
 public class PlayerService {
     private final PlayerRepository playerRepository;
-    private final StockRepository stockRepository;
+    private final StockCatalog stockCatalog;
     private final PlayerStockRepository playerStockRepository;
+    private final LimitOrderRepository limitOrderRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public PlayerService(
             PlayerRepository playerRepository,
-            StockRepository stockRepository,
-            PlayerStockRepository playerStockRepository
+            StockCatalog stockCatalog,
+            PlayerStockRepository playerStockRepository,
+            LimitOrderRepository limitOrderRepository,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.playerRepository = playerRepository;
-        this.stockRepository = stockRepository;
+        this.stockCatalog = stockCatalog;
         this.playerStockRepository = playerStockRepository;
+        this.limitOrderRepository = limitOrderRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional(readOnly = true)
@@ -36,161 +55,232 @@ public class PlayerService {
         return playerRepository.findAll();
     }
 
+    // playerId keyset 페이지 (limit + 1 건을 조회해 다음 페이지 유무를 판단)
+    @Transactional(readOnly = true)
+    public KeysetPage<Player> getPlayers(String after, int limit) {
+        List<Player> players = playerRepository.findByPlayerIdGreaterThanOrderByPlayerIdAsc(
+                after != null ? after : "", Limit.of(limit + 1));
+        return KeysetPage.of(players, limit, Player::getPlayerId);
+    }
+
+    // fields 로 필드를 고른 목록은 엔티티 대신 DTO projection 으로 조회
+    @Transactional(readOnly = true)
+    public KeysetPage<PlayerSummary> getPlayerSummaries(String after, int limit, Set<String> fields) {
+        List<PlayerSummary> summaries = playerRepository.findSummariesAfter(
+                after != null ? after : "", Limit.of(limit + 1));
+        return KeysetPage.of(summaries, limit, PlayerSummary::getPlayerId).map(summary -> summary.select(fields));
+    }
+
     @Transactional(readOnly = true)
     public Player getPlayerById(String playerId) {
         return playerRepository.findById(playerId).orElse(null);
     }
 
+    // 이미 있는 플레이어면 잔액만 덮어쓴다 (버전 검사를 거치는 update)
+    @RetryOnConflict({ConcurrencyFailureException.class, DuplicateKeyException.class})
     @Transactional
     public Player createPlayer(Player player) {
-        return playerRepository.save(player);
+        Player saved = playerRepository.findById(player.getPlayerId())
+                .map(existingPlayer -> {
+                    existingPlayer.setPlayerMoney(player.getPlayerMoney());
+                    return existingPlayer;
+                })
+                .orElseGet(() -> playerRepository.save(player));
+        eventPublisher.publishEvent(PlayerChangedEvent.resync(saved.getPlayerId()));
+        return saved;
     }
 
+    // 읽은 뒤 변경하므로 그 사이 다른 변경이 있으면 버전 불일치로 실패하고 다시 읽어서 적용한다
+    @RetryOnConflict
     @Transactional
     public Player updatePlayer(String playerId, Player playerDetails) {
         return playerRepository.findById(playerId)
                 .map(existingPlayer -> {
                     existingPlayer.setPlayerMoney(playerDetails.getPlayerMoney());
+                    eventPublisher.publishEvent(PlayerChangedEvent.resync(playerId));
                     return playerRepository.save(existingPlayer);
                 })
                 .orElse(null);
     }
 
+    /**
+     * 플레이어 삭제.
+     * 보유 내역은 엔티티를 읽지 않고 bulk delete 한 번으로 지운다 (보유 종목 수와 관계없이 delete 2회 + 주문 확인 1회).
+     * 미체결 지정가 주문이 있으면 롤백한다. 체결 시 정산할 상대가 없어지므로 주문을 먼저 취소해야 한다.
+     * 주문 접수(OrderSettlement.reserve)도 플레이어 row 를 먼저 잠그므로, 삭제와 동시에 들어온 주문은
+     * 삭제 전에 커밋되어 여기서 보이거나 삭제 후에 PLAYER_NOT_FOUND 가 된다.
+     */
+    @RetryOnConflict
     @Transactional
-    public boolean deletePlayer(String playerId) {
-        if (playerRepository.existsById(playerId)) {
-            // 관련된 PlayerStock 먼저 삭제
-            List<PlayerStock> playerStocks = playerStockRepository.findByPlayerPlayerId(playerId);
-            playerStockRepository.deleteAll(playerStocks);
+    public DeleteResult deletePlayer(String playerId) {
+        // 관련된 PlayerStock 먼저 삭제
+        playerStockRepository.deleteByPlayerId(playerId);
 
-            // Player 삭제
-            playerRepository.deleteById(playerId);
-            return true;
+        // Player 삭제 (없으면 보유 내역도 없으므로 위 delete 는 0건)
+        if (playerRepository.deleteByPlayerId(playerId) == 0) {
+            return DeleteResult.NOT_FOUND;
         }
-        return false;
+        if (limitOrderRepository.existsByPlayerId(playerId)) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return DeleteResult.HAS_OPEN_ORDERS;
+        }
+        eventPublisher.publishEvent(PlayerChangedEvent.resync(playerId));
+        return DeleteResult.DELETED;
     }
 
     @Transactional(readOnly = true)
     public List<PlayerStock> getPlayerStocks(String playerId) {
-        return playerStockRepository.findByPlayerPlayerId(playerId);
+        return playerStockRepository.findByPlayerPlayerIdOrderByIdAsc(playerId);
     }
 
+    // 목록 전체를 읽지 않고 stockIndex 번째 한 건만 조회 (offset/limit)
     @Transactional(readOnly = true)
     public PlayerStock getPlayerStock(String playerId, int stockIndex) {
-        List<PlayerStock> playerStocks = playerStockRepository.findByPlayerPlayerId(playerId);
-        if (stockIndex >= 0 && stockIndex < playerStocks.size()) {
-            return playerStocks.get(stockIndex);
+        if (stockIndex < 0) {
+            return null;
         }
-        return null;
+        List<PlayerStock> playerStocks = playerStockRepository.findByPlayerPlayerIdOrderByIdAsc(
+                playerId, PageRequest.of(stockIndex, 1));
+        return playerStocks.isEmpty() ? null : playerStocks.get(0);
     }
 
+    /**
+     * 주식 매수.
+     * 잔액 차감과 보유 수량 증가를 조건부 UPDATE로 처리해 read-modify-write 없이 원자적으로 수행한다.
+     * 플레이어 row를 먼저 잠그므로 같은 플레이어의 동시 거래는 순서대로 적용되고 갱신 유실이 없다.
+     * (잔액 차감 1 + 보유 수량 증가 1 [+ 신규 보유 insert 1] + 결과 조회 1)
+     */
+    @RetryOnConflict
     @Transactional
-    public Player addStockToPlayer(String playerId, String stockName, int quantity) {
-        Player player = playerRepository.findById(playerId).orElse(null);
-        Stock stock = stockRepository.findById(stockName).orElse(null);
-
-        if (player != null && stock != null) {
-            Optional<PlayerStock> existingPlayerStockOpt =
-                    playerStockRepository.findByPlayerPlayerIdAndStockName(playerId, stockName);
-
-            if (existingPlayerStockOpt.isPresent()) {
-                // 이미 보유한 주식이 있는 경우
-                PlayerStock existingPlayerStock = existingPlayerStockOpt.get();
-                existingPlayerStock.setStockPrice(stock.getStockPrice());
-                existingPlayerStock.setStockQuantity(existingPlayerStock.getStockQuantity() + quantity);
-                playerStockRepository.save(existingPlayerStock);
-            } else {
-                // 새로운 주식 추가
-                PlayerStock newPlayerStock = new PlayerStock(stock, quantity);
-                newPlayerStock.setPlayer(player);
-                playerStockRepository.save(newPlayerStock);
-            }
+    public TradeResult buyStock(String playerId, String stockName, int quantity) {
+        if (quantity <= 0) {
+            return TradeResult.fail(TradeResult.Status.INVALID_QUANTITY);
+        }
+
+        Stock stock = stockCatalog.get(stockName);
+        if (stock == null) {
+            return TradeResult.fail(TradeResult.Status.STOCK_NOT_FOUND);
+        }
+
+        int cost;
+        try {
+            cost = Math.multiplyExact(stock.getStockPrice(), quantity);
+        } catch (ArithmeticException e) {
+            return TradeResult.fail(TradeResult.Status.INVALID_QUANTITY);
+        }
 
-            return player;
+        if (playerRepository.withdrawMoney(playerId, cost) == 0) {
+            // 실패한 경우에만 원인을 구분하기 위해 한 번 더 조회
+            return TradeResult.fail(playerRepository.existsById(playerId)
+                    ? TradeResult.Status.INSUFFICIENT_MONEY
+                    : TradeResult.Status.PLAYER_NOT_FOUND);
         }
-        return null;
+
+        // 플레이어 row lock을 잡은 상태이므로 update 후 insert 사이에 다른 거래가 끼어들 수 없다
+        if (playerStockRepository.addQuantity(playerId, stockName, quantity, stock.getStockPrice()) == 0) {
+            playerStockRepository.insertHolding(playerId, stockName, quantity, stock.getStockPrice());
+        }
+
+        eventPublisher.publishEvent(PlayerChangedEvent.trade(playerId, stockName, quantity, -cost));
+        return TradeResult.ok(playerRepository.findById(playerId).orElse(null));
     }
 
+    /**
+     * 주식 매도.
+     * 매수와 같은 순서(플레이어 -> 보유 주식)로 row lock을 잡아 교착 상태를 피한다.
+     * 보유 수량이 부족하면 트랜잭션을 롤백해 입금도 취소한다.
+     * (입금 1 + 보유 수량 감소 1 + 0주 보유 정리 1 + 결과 조회 1)
+     */
+    @RetryOnConflict
     @Transactional
-    public Player updatePlayerStock(String playerId, String stockName, int quantity, int price) {
-        Player player = playerRepository.findById(playerId).orElse(null);
-
-        if (player != null) {
-            Optional<PlayerStock> existingPlayerStockOpt =
-                    playerStockRepository.findByPlayerPlayerIdAndStockName(playerId, stockName);
-
-            if (existingPlayerStockOpt.isPresent()) {
-                PlayerStock existingPlayerStock = existingPlayerStockOpt.get();
-                existingPlayerStock.setStockPrice(price);
-
-                if (quantity <= 0) {
-                    // 소유 주식 개수가 0이면 삭제
-                    playerStockRepository.delete(existingPlayerStock);
-                } else {
-                    existingPlayerStock.setStockQuantity(quantity);
-                    playerStockRepository.save(existingPlayerStock);
-                }
-
-                return player;
-            }
+    public TradeResult sellStock(String playerId, String stockName, int quantity) {
+        if (quantity <= 0) {
+            return TradeResult.fail(TradeResult.Status.INVALID_QUANTITY);
         }
-        return null;
+
+        Stock stock = stockCatalog.get(stockName);
+        if (stock == null) {
+            return TradeResult.fail(TradeResult.Status.STOCK_NOT_FOUND);
+        }
+
+        int proceeds;
+        try {
+            proceeds = Math.multiplyExact(stock.getStockPrice(), quantity);
+        } catch (ArithmeticException e) {
+            return TradeResult.fail(TradeResult.Status.INVALID_QUANTITY);
+        }
+
+        if (playerRepository.depositMoney(playerId, proceeds) == 0) {
+            return TradeResult.fail(TradeResult.Status.PLAYER_NOT_FOUND);
+        }
+
+        if (playerStockRepository.subtractQuantity(playerId, stockName, quantity, stock.getStockPrice()) == 0) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return TradeResult.fail(TradeResult.Status.INSUFFICIENT_QUANTITY);
+        }
+        playerStockRepository.deleteEmptyHolding(playerId, stockName);
+
+        eventPublisher.publishEvent(PlayerChangedEvent.trade(playerId, stockName, -quantity, proceeds));
+        return TradeResult.ok(playerRepository.findById(playerId).orElse(null));
     }
 
-    // 이전 코드와의 호환성을 위한 메서드
+    /**
+     * 이전 코드와의 호환성을 위한 메서드 (잔액 변동 없이 보유 수량만 증가).
+     * 플레이어 row 를 잠그지 않고 보유 내역의 버전으로 동시 변경을 검출한다.
+     * 같은 종목을 동시에 처음 추가하면 unique key 충돌이 나고, 재시도 시 update 경로로 처리된다.
+     */
+    @RetryOnConflict({ConcurrencyFailureException.class, DuplicateKeyException.class})
     @Transactional
     public Player addStockToPlayer(String playerId, PlayerStock playerStock) {
-        Player player = playerRepository.findById(playerId).orElse(null);
-
-        if (player != null) {
-            Optional<PlayerStock> existingPlayerStockOpt =
-                    playerStockRepository.findByPlayerPlayerIdAndStockName(playerId, playerStock.getStockName());
-
-            if (existingPlayerStockOpt.isPresent()) {
-                PlayerStock existingPlayerStock = existingPlayerStockOpt.get();
-                existingPlayerStock.setStockPrice(playerStock.getStockPrice());
-                existingPlayerStock.setStockQuantity(existingPlayerStock.getStockQuantity() + playerStock.getStockQuantity());
-                playerStockRepository.save(existingPlayerStock);
-            } else {
-                playerStock.setPlayer(player);
-                playerStockRepository.save(playerStock);
+        String stockName = playerStock.getStockName();
+        PlayerStock holding = playerStockRepository.findByPlayerPlayerIdAndStockName(playerId, stockName).orElse(null);
+        if (holding != null) {
+            holding.setStockQuantity(holding.getStockQuantity() + playerStock.getStockQuantity());
+            holding.setStockPrice(playerStock.getStockPrice());
+        } else {
+            Player player = playerRepository.findById(playerId).orElse(null);
+            if (player == null) {
+                return null;
             }
-
-            return player;
+            PlayerStock created = new PlayerStock();
+            created.setStockName(stockName);
+            created.setStockPrice(playerStock.getStockPrice());
+            created.setStockQuantity(playerStock.getStockQuantity());
+            created.setPlayer(player);
+            playerStockRepository.save(created);
         }
-        return null;
+
+        eventPublisher.publishEvent(PlayerChangedEvent.resync(playerId));
+        return playerRepository.findById(playerId).orElse(null);
     }
 
-    // 이전 코드와의 호환성을 위한 메서드
+    /**
+     * 이전 코드와의 호환성을 위한 메서드 (잔액 변동 없이 보유 수량만 설정, 0 이하이면 삭제).
+     * addStockToPlayer 와 같이 잠금 없이 보유 내역 버전으로 동시 변경을 검출한다.
+     */
+    @RetryOnConflict
     @Transactional
     public Player updatePlayerStock(String playerId, PlayerStock playerStock) {
-        Player player = playerRepository.findById(playerId).orElse(null);
-
-        if (player != null) {
-            Optional<PlayerStock> existingPlayerStockOpt =
-                    playerStockRepository.findByPlayerPlayerIdAndStockName(playerId, playerStock.getStockName());
-
-            if (existingPlayerStockOpt.isPresent()) {
-                PlayerStock existingPlayerStock = existingPlayerStockOpt.get();
-                existingPlayerStock.setStockPrice(playerStock.getStockPrice());
-
-                if (playerStock.getStockQuantity() <= 0) {
-                    playerStockRepository.delete(existingPlayerStock);
-                } else {
-                    existingPlayerStock.setStockQuantity(playerStock.getStockQuantity());
-                    playerStockRepository.save(existingPlayerStock);
-                }
-
-                return player;
-            }
+        PlayerStock holding = playerStockRepository
+                .findByPlayerPlayerIdAndStockName(playerId, playerStock.getStockName()).orElse(null);
+        if (holding == null) {
+            return null;
+        }
+        if (playerStock.getStockQuantity() <= 0) {
+            playerStockRepository.delete(holding);
+        } else {
+            holding.setStockQuantity(playerStock.getStockQuantity());
+            holding.setStockPrice(playerStock.getStockPrice());
         }
-        return null;
+
+        eventPublisher.publishEvent(PlayerChangedEvent.resync(playerId));
+        return playerRepository.findById(playerId).orElse(null);
     }
 
     // Player가 가진 Stock 목록을 출력하기 위한 메서드
     @Transactional(readOnly = true)
     public String getPlayerStocksForMenu(String playerId) {
-        List<PlayerStock> playerStocks = playerStockRepository.findByPlayerPlayerId(playerId);
+        List<PlayerStock> playerStocks = playerStockRepository.findByPlayerPlayerIdOrderByIdAsc(playerId);
 
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < playerStocks.size(); i++) {
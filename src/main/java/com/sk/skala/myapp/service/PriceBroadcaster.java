@@ -0,0 +1,295 @@
+// PriceBroadcaster.java
+package com.sk.skala.myapp.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sk.skala.myapp.config.PriceStreamProperties;
+import com.sk.skala.myapp.model.Stock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 가격 변경을 SSE 구독자들에게 전달한다 (GET /api/stocks/stream).
+ *
+ * - 가격 변경은 종목별 최신 값만 모아 두었다가 interval 마다 한 번에 전송한다.
+ * - 전송할 프레임(JSON)은 주기마다 한 번만 만들어 모든 구독자가 공유한다.
+ * - 아직 이전 프레임을 보내고 있는 느린 구독자는 큐에 쌓지 않고 종목별 최신 값으로 합쳐 두었다가
+ *   전송이 끝나면 한 번에 보낸다. 따라서 구독자당 대기 데이터는 종목 수를 넘지 않는다.
+ * - 연결은 서블릿 비동기 요청으로 유지되므로 접속 수만큼 스레드가 늘지 않는다.
+ *   (스케줄러 1개 + 전송 스레드 senderThreads 개)
+ * - 한 번의 전송이 sendTimeout 을 넘기면(읽지 않는 클라이언트) 구독을 끊고 전송 스레드를 interrupt 해
+ *   다른 구독자의 전송이 밀리지 않게 한다.
+ */
+@Component
+public class PriceBroadcaster implements PriceListener {
+    private static final Logger log = LoggerFactory.getLogger(PriceBroadcaster.class);
+
+    private static final String EVENT_NAME = "prices";
+
+    private final StockCatalog stockCatalog;
+    private final ObjectMapper objectMapper;
+    private final PriceStreamProperties properties;
+
+    // 이번 주기에 바뀐 종목별 최신 가격
+    private final ConcurrentHashMap<String, Integer> changes = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+    private final Counter framesSent;
+    private final Counter framesCoalesced;
+    private final Counter subscribersDropped;
+
+    @Autowired
+    public PriceBroadcaster(
+            PriceFeed priceFeed,
+            StockCatalog stockCatalog,
+            ObjectMapper objectMapper,
+            PriceStreamProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.stockCatalog = stockCatalog;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+
+        AtomicInteger senderIndex = new AtomicInteger();
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "price-stream-dispatch"));
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(),
+                r -> daemon(r, "price-stream-send-" + senderIndex.incrementAndGet()));
+
+        this.framesSent = Counter.builder("price.stream.frames").tag("result", "sent").register(meterRegistry);
+        this.framesCoalesced = Counter.builder("price.stream.frames").tag("result", "coalesced").register(meterRegistry);
+        this.subscribersDropped = Counter.builder("price.stream.dropped")
+                .description("전송이 send-timeout 을 넘겨 끊은 구독자 수")
+                .register(meterRegistry);
+        Gauge.builder("price.stream.subscribers", subscribers, Set::size).register(meterRegistry);
+
+        long intervalNanos = properties.getInterval().toNanos();
+        dispatcher.scheduleWithFixedDelay(this::dispatchSafely, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        priceFeed.addListener(this);
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    @Override
+    public void onPrice(String stockName, int stockPrice, long timestampMillis) {
+        changes.put(stockName, stockPrice);
+    }
+
+    /**
+     * 새 구독자 등록. 첫 이벤트로 현재 전체 가격을 보낸다.
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(properties.getTimeout().toMillis()));
+    }
+
+    // 테스트에서 전송을 가로챈 emitter 를 등록할 수 있도록 분리
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        Map<String, Integer> snapshot = new LinkedHashMap<>();
+        for (Stock stock : stockCatalog.getAll()) {
+            snapshot.put(stock.getStockName(), stock.getStockPrice());
+        }
+        subscriber.offer(snapshot, null);
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void dispatchSafely() {
+        try {
+            dispatch();
+        } catch (RuntimeException e) {
+            log.warn("Price stream dispatch failed", e);
+        }
+    }
+
+    private void dispatch() {
+        dropStalled();
+        if (changes.isEmpty()) {
+            return;
+        }
+        // 종목별로 꺼낸다. 읽은 뒤 새 값이 들어온 종목은 remove 가 실패하므로 남겨 두었다가 다음 주기에 보낸다
+        Map<String, Integer> batch = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> change : changes.entrySet()) {
+            String stockName = change.getKey();
+            Integer price = change.getValue();
+            if (changes.remove(stockName, price)) {
+                batch.put(stockName, price);
+            }
+        }
+        if (batch.isEmpty() || subscribers.isEmpty()) {
+            return;
+        }
+
+        // 모든 구독자가 공유하는 프레임
+        String frame = toJson(batch);
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(batch, frame);
+        }
+    }
+
+    private void dropStalled() {
+        long timeoutNanos = properties.getSendTimeout().toNanos();
+        if (timeoutNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now, timeoutNanos)) {
+                subscriber.drop();
+            }
+        }
+    }
+
+    private String toJson(Map<String, Integer> prices) {
+        try {
+            return objectMapper.writeValueAsString(prices);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 구독자별 전송 상태. 전송 중에 들어온 변경은 pending에 종목별 최신 값으로 합쳐진다.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Map<String, Integer> pending = new HashMap<>();
+        private boolean sending;
+        // emitter.send 중인 스레드와 시작 시각 (this 로 보호, 전송 중이 아니면 null)
+        private Thread sendingThread;
+        private long sendStartedNanos;
+        private volatile boolean dropped;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @param frame 공유 프레임. 밀린 변경이 없으면 그대로 전송하고, 있으면 합쳐서 새로 만든다.
+         */
+        private void offer(Map<String, Integer> prices, String frame) {
+            synchronized (this) {
+                if (sending || !pending.isEmpty()) {
+                    pending.putAll(prices);
+                    if (sending) {
+                        framesCoalesced.increment();
+                        return;
+                    }
+                    frame = null;
+                } else if (frame == null) {
+                    pending.putAll(prices);
+                }
+                sending = true;
+            }
+            String sharedFrame = frame;
+            senders.execute(() -> send(sharedFrame));
+        }
+
+        private void send(String frame) {
+            String data = frame;
+            while (true) {
+                if (data == null) {
+                    Map<String, Integer> drained;
+                    synchronized (this) {
+                        if (pending.isEmpty()) {
+                            sending = false;
+                            return;
+                        }
+                        drained = new LinkedHashMap<>(pending);
+                        pending.clear();
+                    }
+                    data = toJson(drained);
+                }
+                try {
+                    beginSend();
+                    emitter.send(SseEmitter.event().name(EVENT_NAME).data(data, MediaType.APPLICATION_JSON));
+                    framesSent.increment();
+                } catch (IOException | IllegalStateException e) {
+                    // 연결이 끊긴 구독자 (또는 drop 으로 interrupt 된 전송)
+                    subscribers.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    endSend();
+                }
+                if (dropped) {
+                    emitter.completeWithError(new IOException("Price stream subscriber too slow"));
+                    return;
+                }
+                data = null;
+            }
+        }
+
+        private synchronized void beginSend() {
+            sendingThread = Thread.currentThread();
+            sendStartedNanos = System.nanoTime();
+        }
+
+        // drop 의 interrupt 는 이 lock 안에서만 일어나므로 여기서 지우면 다음 작업으로 새지 않는다
+        private synchronized void endSend() {
+            sendingThread = null;
+            Thread.interrupted();
+        }
+
+        private synchronized boolean isStalled(long now, long timeoutNanos) {
+            return sendingThread != null && now - sendStartedNanos > timeoutNanos;
+        }
+
+        /**
+         * 느린 구독자를 끊는다. emitter 메서드는 전송 중인 스레드와 같은 lock 을 쓰므로 여기서 complete 하지 않고,
+         * 전송 스레드를 interrupt 해 send 가 끝난 쪽에서 정리하게 한다.
+         * (interrupt 로 풀리지 않는 소켓 쓰기는 컨테이너의 쓰기 timeout 까지 스레드를 잡고 있을 수 있다)
+         */
+        private synchronized void drop() {
+            if (dropped) {
+                return;
+            }
+            dropped = true;
+            subscribers.remove(this);
+            subscribersDropped.increment();
+            if (sendingThread != null) {
+                sendingThread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+// PriceFeed.java
+package com.sk.skala.myapp.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 종목 가격 변경을 등록된 PriceListener들에게 전달한다.
+ * 가격 변경 출처: StockService(API를 통한 생성/수정), MarketEngine(시뮬레이션 틱)
+ */
+@Component
+public class PriceFeed {
+    private static final Logger log = LoggerFactory.getLogger(PriceFeed.class);
+
+    private final List<PriceListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(PriceListener listener) {
+        listeners.add(listener);
+    }
+
+    public void publish(String stockName, int stockPrice) {
+        long now = System.currentTimeMillis();
+        for (PriceListener listener : listeners) {
+            try {
+                listener.onPrice(stockName, stockPrice, now);
+            } catch (RuntimeException e) {
+                log.warn("Price listener {} failed", listener, e);
+            }
+        }
+    }
+
+    public void publishRemoved(String stockName) {
+        for (PriceListener listener : listeners) {
+            try {
+                listener.onRemoved(stockName);
+            } catch (RuntimeException e) {
+                log.warn("Price listener {} failed", listener, e);
+            }
+        }
+    }
+
+    // 트랜잭션 안이면 커밋 이후에 전달 (롤백된 가격은 전달하지 않음)
+    public void publishAfterCommit(String stockName, int stockPrice) {
+        afterCommit(() -> publish(stockName, stockPrice));
+    }
+
+    public void publishRemovedAfterCommit(String stockName) {
+        afterCommit(() -> publishRemoved(stockName));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
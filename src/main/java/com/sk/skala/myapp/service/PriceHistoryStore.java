@@ -0,0 +1,406 @@
+// PriceHistoryStore.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.PriceHistoryProperties;
+import com.sk.skala.myapp.model.PriceCandle;
+import com.sk.skala.myapp.model.PricePoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 종목별 가격 변경 이력 저장소.
+ *
+ * 종목마다 고정 크기 ring buffer 하나를 Java heap 밖(direct buffer 또는 memory-mapped 파일)에 두고
+ * (long timestamp, int price) 12 byte 단위로 기록한다. 기록/조회 시 객체를 만들지 않으므로
+ * 수천만 건을 보관해도 heap 크기와 GC에 영향을 주지 않는다.
+ *
+ * 파일 구조: [header 16 byte: magic(int) + capacity(int) + 누적 기록 건수(long)] [entry * capacity]
+ * 종목 하나의 buffer 는 int 로 주소를 지정하므로 capacity 는 MAX_CAPACITY 이하여야 한다.
+ */
+@Component
+public class PriceHistoryStore implements PriceListener {
+    private static final Logger log = LoggerFactory.getLogger(PriceHistoryStore.class);
+
+    private static final int MAGIC = 0x50485354; // "PHST"
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 12;
+    private static final String FILE_SUFFIX = ".ts";
+    // buffer 하나(header + entry * capacity)가 Integer.MAX_VALUE byte 를 넘지 않는 최대 capacity
+    static final int MAX_CAPACITY = (Integer.MAX_VALUE - HEADER_BYTES) / ENTRY_BYTES;
+
+    private final PriceHistoryProperties properties;
+    private final Path directory;
+    private final ConcurrentHashMap<String, Series> seriesByName = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PriceHistoryStore(PriceHistoryProperties properties, PriceFeed priceFeed, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        checkCapacity(properties.getCapacityPerSymbol(), "price-history.capacity-per-symbol");
+        this.directory = properties.getDirectory().isBlank() ? null : Paths.get(properties.getDirectory());
+        if (directory != null) {
+            openExisting();
+        }
+
+        Gauge.builder("price.history.symbols", seriesByName, ConcurrentHashMap::size).register(meterRegistry);
+        Gauge.builder("price.history.points", this, PriceHistoryStore::totalPoints).register(meterRegistry);
+        priceFeed.addListener(this);
+    }
+
+    @Override
+    public void onPrice(String stockName, int stockPrice, long timestampMillis) {
+        seriesByName.computeIfAbsent(stockName, this::createSeries).append(timestampMillis, stockPrice);
+    }
+
+    // 삭제된 종목의 이력 해제 (direct buffer 는 GC 때 반환되고, 파일은 바로 지운다)
+    @Override
+    public void onRemoved(String stockName) {
+        seriesByName.computeIfPresent(stockName, (name, series) -> {
+            series.delete();
+            return null;
+        });
+    }
+
+    public boolean hasHistory(String stockName) {
+        return seriesByName.containsKey(stockName);
+    }
+
+    /**
+     * [from, to) 구간의 가격 변경 원본. limit 건을 넘으면 마지막 limit 건만 반환한다.
+     */
+    public List<PricePoint> getPoints(String stockName, long from, long to, int limit) {
+        Series series = seriesByName.get(stockName);
+        if (series == null) {
+            return Collections.emptyList();
+        }
+        int max = Math.max(1, Math.min(limit, properties.getMaxRawPoints()));
+        ArrayDeque<PricePoint> points = new ArrayDeque<>();
+        series.scan(from, to, (timestamp, price) -> {
+            if (points.size() == max) {
+                points.removeFirst();
+            }
+            points.addLast(new PricePoint(timestamp, price));
+        });
+        return new ArrayList<>(points);
+    }
+
+    /**
+     * [from, to) 구간을 resolutionMillis 단위로 나눈 OHLC 캔들 (변경이 없는 구간은 생략)
+     */
+    public List<PriceCandle> getCandles(String stockName, long from, long to, long resolutionMillis) {
+        Series series = seriesByName.get(stockName);
+        if (series == null) {
+            return Collections.emptyList();
+        }
+        CandleBuilder builder = new CandleBuilder(resolutionMillis);
+        series.scan(from, to, builder);
+        return builder.finish();
+    }
+
+    @PreDestroy
+    public void close() {
+        seriesByName.values().forEach(Series::force);
+    }
+
+    private long totalPoints() {
+        long total = 0;
+        for (Series series : seriesByName.values()) {
+            total += Math.min(series.count, series.capacity);
+        }
+        return total;
+    }
+
+    private Series createSeries(String stockName) {
+        int capacity = properties.getCapacityPerSymbol();
+        if (directory == null) {
+            return new Series(ByteBuffer.allocateDirect(HEADER_BYTES + capacity * ENTRY_BYTES), capacity, 0, null);
+        }
+        return mapFile(directory.resolve(toFileName(stockName)), capacity);
+    }
+
+    private static void checkCapacity(int capacity, String source) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalStateException(source + "=" + capacity + " must be between 1 and " + MAX_CAPACITY
+                    + " (" + ENTRY_BYTES + " bytes per point, at most " + Integer.MAX_VALUE + " bytes per symbol)");
+        }
+    }
+
+    // 재기동 시 기존 이력 파일 열기
+    private void openExisting() {
+        try {
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+                for (Path file : files) {
+                    String stockName = fromFileName(file.getFileName().toString());
+                    if (stockName == null) {
+                        continue;
+                    }
+                    try {
+                        seriesByName.put(stockName, mapFile(file, properties.getCapacityPerSymbol()));
+                    } catch (RuntimeException e) {
+                        log.warn("Skipping unreadable price history file {}", file, e);
+                    }
+                }
+            }
+            log.info("Opened price history for {} symbols from {}", seriesByName.size(), directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Series mapFile(Path file, int defaultCapacity) {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean existing = channel.size() >= HEADER_BYTES;
+            int capacity = defaultCapacity;
+            if (existing) {
+                // 기존 파일은 생성 당시의 capacity를 따른다
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                channel.read(header, 0);
+                if (header.getInt(0) != MAGIC) {
+                    throw new IllegalStateException("Not a price history file: " + file);
+                }
+                capacity = header.getInt(4);
+                checkCapacity(capacity, "capacity in " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) capacity * ENTRY_BYTES);
+            long count = existing ? buffer.getLong(8) : 0;
+            return new Series(buffer, capacity, count, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 종목명을 파일명으로 안전하게 변환 (UTF-8 hex)
+    private static String toFileName(String stockName) {
+        return HexFormat.of().formatHex(stockName.getBytes(StandardCharsets.UTF_8)) + FILE_SUFFIX;
+    }
+
+    private static String fromFileName(String fileName) {
+        try {
+            String hex = fileName.substring(0, fileName.length() - FILE_SUFFIX.length());
+            return new String(HexFormat.of().parseHex(hex), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private interface PointVisitor {
+        void visit(long timestamp, int price);
+    }
+
+    /**
+     * 종목 하나의 ring buffer.
+     * 기록은 lock으로 직렬화하고, 조회는 lock 없이 읽은 뒤 claimed 로 덮어쓰기 여부를 검증한다 (seqlock).
+     */
+    private static final class Series {
+        // lock 없는 이진 탐색이 기록에 계속 따라잡힐 때 lock 을 잡기 전까지 다시 시도하는 횟수
+        private static final int MAX_OPTIMISTIC_SEARCHES = 3;
+
+        private final ByteBuffer buffer;
+        private final int capacity;
+        private final Path file;
+        private final ReentrantLock writeLock = new ReentrantLock();
+        // 누적 기록 건수 (index = count % capacity). 조회 스레드에 대한 발행 지점.
+        private volatile long count;
+        // 쓰기를 시작한 건수. 칸을 덮어쓰기 전에 올리므로 읽은 뒤 이 값으로 읽은 칸이 유효했는지 검증한다.
+        private volatile long claimed;
+        private long lastTimestamp;
+
+        private Series(ByteBuffer buffer, int capacity, long count, Path file) {
+            this.buffer = buffer;
+            this.capacity = capacity;
+            this.file = file;
+            this.count = count;
+            this.claimed = count;
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, capacity);
+            buffer.putLong(8, count);
+            if (count > 0) {
+                lastTimestamp = timestampAt(count - 1);
+            }
+        }
+
+        private void append(long timestamp, int price) {
+            writeLock.lock();
+            try {
+                // 이진 탐색을 위해 timestamp는 단조 증가로 유지
+                long ts = Math.max(timestamp, lastTimestamp);
+                long next = count;
+                // index next - capacity 칸을 덮어쓴다는 것을 먼저 알린다
+                claimed = next + 1;
+                VarHandle.storeStoreFence();
+                int offset = offset(next);
+                buffer.putLong(offset, ts);
+                buffer.putInt(offset + 8, price);
+                buffer.putLong(8, next + 1);
+                lastTimestamp = ts;
+                count = next + 1;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private void scan(long from, long to, PointVisitor visitor) {
+            long end = count;
+            long first = -1;
+            for (int attempt = 0; attempt < MAX_OPTIMISTIC_SEARCHES && first < 0; attempt++) {
+                first = lowerBound(end, from);
+                if (first < 0) {
+                    end = count;
+                }
+            }
+            if (first < 0) {
+                // 기록이 계속 따라잡으면 lock 을 잡고 탐색 (탐색 동안 덮어쓰기 없음)
+                writeLock.lock();
+                try {
+                    end = count;
+                    first = lowerBound(end, from);
+                } finally {
+                    writeLock.unlock();
+                }
+            }
+
+            // 조회 도중 덮어쓰였을 수 있으므로 먼저 읽어 두고 유효 구간만 전달한다
+            int size = (int) (end - first);
+            long[] timestamps = new long[Math.min(size, 4096)];
+            int[] prices = new int[timestamps.length];
+            long index = first;
+            while (index < end) {
+                int n = 0;
+                while (n < timestamps.length && index + n < end) {
+                    int offset = offset(index + n);
+                    timestamps[n] = buffer.getLong(offset);
+                    prices[n] = buffer.getInt(offset + 8);
+                    n++;
+                }
+                VarHandle.loadLoadFence();
+                long oldestValid = claimed - capacity;
+                for (int i = 0; i < n; i++) {
+                    if (index + i < oldestValid) {
+                        continue;
+                    }
+                    if (timestamps[i] >= to) {
+                        return;
+                    }
+                    visitor.visit(timestamps[i], prices[i]);
+                }
+                index += n;
+            }
+        }
+
+        // [end - capacity, end) 에서 timestamp >= from 인 첫 위치. 탐색 중 읽은 칸이 덮어쓰였으면 -1.
+        private long lowerBound(long end, long from) {
+            long low = Math.max(0, end - capacity);
+            long high = end;
+            long lowestRead = end;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                lowestRead = Math.min(lowestRead, mid);
+                if (timestampAt(mid) < from) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            VarHandle.loadLoadFence();
+            return claimed - capacity <= lowestRead ? low : -1;
+        }
+
+        private long timestampAt(long index) {
+            return buffer.getLong(offset(index));
+        }
+
+        private int offset(long index) {
+            return HEADER_BYTES + (int) (index % capacity) * ENTRY_BYTES;
+        }
+
+        private void force() {
+            if (buffer instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) buffer).force();
+            }
+        }
+
+        // mapping 은 GC 때 해제되고, 이미 열어 둔 조회는 지운 파일에서도 끝까지 읽는다
+        private void delete() {
+            if (file == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete price history file {}", file, e);
+            }
+        }
+    }
+
+    /**
+     * 구간별 OHLC 누적
+     */
+    private static final class CandleBuilder implements PointVisitor {
+        private final long resolution;
+        private final List<PriceCandle> candles = new ArrayList<>();
+        private long bucket = Long.MIN_VALUE;
+        private int open;
+        private int high;
+        private int low;
+        private int close;
+        private int count;
+
+        private CandleBuilder(long resolution) {
+            this.resolution = resolution;
+        }
+
+        @Override
+        public void visit(long timestamp, int price) {
+            long start = timestamp - Math.floorMod(timestamp, resolution);
+            if (start != bucket) {
+                emit();
+                bucket = start;
+                open = high = low = price;
+                count = 0;
+            }
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            close = price;
+            count++;
+        }
+
+        private void emit() {
+            if (count > 0) {
+                candles.add(new PriceCandle(bucket, open, high, low, close, count));
+            }
+        }
+
+        private List<PriceCandle> finish() {
+            emit();
+            count = 0;
+            return candles;
+        }
+    }
+}
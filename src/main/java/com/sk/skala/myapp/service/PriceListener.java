@@ -0,0 +1,14 @@
+// PriceListener.java
+package com.sk.skala.myapp.service;
+
+/**
+ * 종목 가격 변경 수신용 인터페이스 (PriceFeed에 등록)
+ * 틱 스레드에서 호출될 수 있으므로 구현체는 블로킹 없이 빠르게 반환해야 한다.
+ */
+public interface PriceListener {
+    void onPrice(String stockName, int stockPrice, long timestampMillis);
+
+    // 종목 삭제 (종목별로 들고 있는 상태를 정리할 때 구현)
+    default void onRemoved(String stockName) {
+    }
+}
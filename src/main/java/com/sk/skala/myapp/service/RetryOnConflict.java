@@ -0,0 +1,22 @@
+// RetryOnConflict.java
+package com.sk.skala.myapp.service;
+
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 동시 변경 충돌(낙관적 잠금 버전 불일치, 교착 상태 등) 시 트랜잭션 전체를 다시 실행한다.
+ * 재시도 횟수/대기 시간은 conflict-retry.* 설정을 따르고, 이미 트랜잭션 안에서 호출되면 재시도하지 않는다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    // 재시도 대상 예외 (기본: 낙관적 잠금 실패, 잠금 획득 실패, 교착 상태).
+    // DuplicateKeyException 은 JPA 가 DataIntegrityViolationException 으로 번역한 unique key 충돌도 포함한다
+    Class<? extends Throwable>[] value() default ConcurrencyFailureException.class;
+}
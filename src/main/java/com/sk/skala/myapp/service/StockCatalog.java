@@ -0,0 +1,327 @@
+// StockCatalog.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.repository.StockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 종목 목록 in-memory 캐시 (copy-on-write).
+ * 읽기는 불변 스냅샷을 그대로 반환하고, 종목 변경 시 invalidate()로 스냅샷을 폐기한 뒤
+ * 다음 읽기에서 DB를 한 번 조회해 새 스냅샷을 만든다.
+ * 적재는 한 번에 하나만 한다 (single-flight). 동시에 캐시를 놓친 요청은 진행 중인 적재를 기다리고,
+ * max-age 로 만료되었을 뿐인 스냅샷이 있으면 적재를 기다리지 않고 그 스냅샷을 쓴다.
+ *
+ * 반환되는 Stock 객체는 스냅샷이 공유하는 읽기 전용 객체이다 (setter 는 UnsupportedOperationException).
+ * 캐시가 기준 데이터가 되므로 적재는 항상 primary 에서 한다 (datasource-routing 사용 시 replica 지연 값을 캐시하지 않게).
+ */
+@Component
+public class StockCatalog {
+    private final StockRepository stockRepository;
+    private final Duration maxAge;
+    // 쓰기 트랜잭션 안이면 그 트랜잭션(primary)에서, 아니면 새 읽기-쓰기 트랜잭션에서 적재
+    private final TransactionTemplate joinWrite;
+    private final TransactionTemplate newWrite;
+
+    // invalidate() 마다, 그리고 만료 후 다시 읽은 내용이 달라졌을 때 증가.
+    // 적재 중에 무효화되면 적재 결과를 캐시에 올리지 않는다.
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+    // 진행 중인 공유 적재 (swapLock 으로 보호). 무효화되면 이후 요청은 새로 적재한다.
+    private CompletableFuture<Snapshot> loading;
+    // 스냅샷 교체 (요청 경로에서 호출되므로 synchronized 대신 사용 - 가상 스레드 pinning 방지)
+    private final ReentrantLock swapLock = new ReentrantLock();
+
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public StockCatalog(
+            StockRepository stockRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            // 다른 pod에서 변경한 종목을 반영하기 위한 최대 캐시 유지 시간
+            @Value("${stock-catalog.max-age:30s}") Duration maxAge
+    ) {
+        this.stockRepository = stockRepository;
+        this.maxAge = maxAge;
+        this.joinWrite = new TransactionTemplate(transactionManager);
+        this.newWrite = new TransactionTemplate(transactionManager);
+        this.newWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.hits = Counter.builder("stock.catalog.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("stock.catalog.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("stock.catalog.size", this, catalog -> {
+            Snapshot current = catalog.snapshot;
+            return current != null ? current.stocks.size() : 0;
+        }).register(meterRegistry);
+        Gauge.builder("stock.catalog.version", version, AtomicLong::get).register(meterRegistry);
+    }
+
+    // 종목명 오름차순 전체 목록
+    public List<Stock> getAll() {
+        return current().stocks;
+    }
+
+    // stockName 이 after 보다 큰 종목을 이름 순으로 최대 limit 건 반환 (keyset)
+    public List<Stock> getAfter(String after, int limit) {
+        return current().getAfter(after, limit);
+    }
+
+    public Stock get(String stockName) {
+        return current().byName.get(stockName);
+    }
+
+    public long getVersion() {
+        return current().version;
+    }
+
+    // 목록, 버전을 같은 시점 기준으로 함께 써야 할 때 (ETag 와 응답 본문 등)
+    public Snapshot snapshot() {
+        return current();
+    }
+
+    /**
+     * 캐시를 무효화한다.
+     * 트랜잭션 안에서 호출하면 커밋 이후에 한 번 더 무효화해서,
+     * 커밋 전에 다른 스레드가 이전 값으로 다시 적재한 스냅샷이 남지 않도록 한다.
+     */
+    public void invalidate() {
+        evict();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict();
+                }
+            });
+        }
+    }
+
+    private void evict() {
+        swapLock.lock();
+        try {
+            version.incrementAndGet();
+            snapshot = null;
+            loading = null;
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            hits.increment();
+            return current;
+        }
+        misses.increment();
+        // 쓰기 트랜잭션 안에서는 커밋 전 변경이 보여야 하므로 그 트랜잭션에서 따로 적재한다
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return load(joinWrite);
+        }
+        return loadShared();
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && System.nanoTime() - current.loadedAt < maxAge.toNanos();
+    }
+
+    private Snapshot loadShared() {
+        CompletableFuture<Snapshot> future;
+        boolean leader = false;
+        swapLock.lock();
+        try {
+            Snapshot current = snapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            if (loading == null) {
+                loading = new CompletableFuture<>();
+                leader = true;
+            } else if (current != null) {
+                // 만료되었을 뿐인 스냅샷은 다른 스레드가 적재하는 동안 그대로 쓴다 (무효화되었으면 null)
+                return current;
+            }
+            future = loading;
+        } finally {
+            swapLock.unlock();
+        }
+        if (leader) {
+            return loadAndComplete(future);
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private Snapshot loadAndComplete(CompletableFuture<Snapshot> future) {
+        try {
+            Snapshot loaded = load(newWrite);
+            future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            swapLock.lock();
+            try {
+                if (loading == future) {
+                    loading = null;
+                }
+            } finally {
+                swapLock.unlock();
+            }
+        }
+    }
+
+    private Snapshot load(TransactionTemplate transactionTemplate) {
+        long loadVersion = version.get();
+        List<Stock> stocks = new ArrayList<>();
+        Map<String, Stock> byName = new HashMap<>();
+        List<Stock> rows = transactionTemplate.execute(status -> stockRepository.findAllByOrderByStockNameAsc());
+        for (Stock stock : rows) {
+            // JPA 엔티티와 분리된 읽기 전용 복사본을 캐시에 둔다
+            Stock copy = new ReadOnlyStock(stock.getStockName(), stock.getStockPrice());
+            stocks.add(copy);
+            byName.put(copy.getStockName(), copy);
+        }
+        // DB collation 과 관계없이 keyset 비교(String.compareTo)와 같은 순서를 보장
+        stocks.sort(Comparator.comparing(Stock::getStockName));
+
+        List<Stock> sorted = Collections.unmodifiableList(stocks);
+        String digest = Snapshot.digest(sorted);
+        swapLock.lock();
+        try {
+            // 적재하는 동안 무효화되지 않았을 때만 캐시에 반영
+            if (version.get() != loadVersion) {
+                return new Snapshot(loadVersion, sorted, byName, digest);
+            }
+            // 만료 후 다시 읽었는데 내용이 바뀌었으면(다른 pod의 변경) 버전을 올린다
+            Snapshot previous = snapshot;
+            long loadedVersion = previous != null && previous.version == loadVersion
+                    && !previous.digest.equals(digest)
+                    ? version.incrementAndGet()
+                    : loadVersion;
+            snapshot = new Snapshot(loadedVersion, sorted, byName, digest);
+            return snapshot;
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    /**
+     * 스냅샷이 공유하는 종목. 한 요청에서 바꾸면 다른 요청과 캐시 내용(fingerprint)이 어긋나므로 수정을 막는다.
+     * 바꾸려면 new Stock(name, price) 로 복사해서 쓴다.
+     */
+    private static final class ReadOnlyStock extends Stock {
+        private ReadOnlyStock(String stockName, int stockPrice) {
+            super(stockName, stockPrice);
+        }
+
+        @Override
+        public void setStockName(String stockName) {
+            throw new UnsupportedOperationException("Cached stock is read-only");
+        }
+
+        @Override
+        public void setStockPrice(int stockPrice) {
+            throw new UnsupportedOperationException("Cached stock is read-only");
+        }
+    }
+
+    /**
+     * 한 시점의 종목 목록. version 은 이 pod 에서 내용이 바뀔 때마다 증가하고,
+     * fingerprint(내용의 SHA-256)가 같으면 어느 pod 에서 읽었든 목록도 같다.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final List<Stock> stocks;
+        private final Map<String, Stock> byName;
+        private final String digest;
+        private final long loadedAt = System.nanoTime();
+
+        private Snapshot(long version, List<Stock> stocks, Map<String, Stock> byName, String digest) {
+            this.version = version;
+            this.stocks = stocks;
+            this.byName = byName;
+            this.digest = digest;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<Stock> getStocks() {
+            return stocks;
+        }
+
+        public Stock get(String stockName) {
+            return byName.get(stockName);
+        }
+
+        // pod 마다 따로 증가하는 version 은 넣지 않는다 (같은 목록이면 어느 pod 에서든 같은 ETag)
+        public String getFingerprint() {
+            return digest;
+        }
+
+        // 이름 순으로 정렬되어 있으므로 이진 탐색으로 시작 위치를 찾는다
+        public List<Stock> getAfter(String after, int limit) {
+            int from = 0;
+            if (after != null) {
+                int found = Collections.binarySearch(stocks, new Stock(after, 0),
+                        Comparator.comparing(Stock::getStockName));
+                from = found >= 0 ? found + 1 : -found - 1;
+            }
+            return stocks.subList(from, Math.min(stocks.size(), from + limit));
+        }
+
+        // (종목명, 가격) 목록의 SHA-256 앞 128bit
+        private static String digest(List<Stock> stocks) {
+            MessageDigest sha256;
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            ByteBuffer price = ByteBuffer.allocate(Integer.BYTES);
+            for (Stock stock : stocks) {
+                sha256.update(stock.getStockName().getBytes(StandardCharsets.UTF_8));
+                // 이름 구분자 (이름과 가격 경계가 섞이지 않게)
+                sha256.update((byte) 0);
+                sha256.update(price.clear().putInt(stock.getStockPrice()).array());
+            }
+            return HexFormat.of().formatHex(sha256.digest(), 0, 16);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+// StockFileParser.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.StockConstants;
+
+/**
+ * stocks.txt / players.txt 한 줄을 정규식(String.split) 없이 indexOf로 파싱한다.
+ * 숫자는 Integer.parseInt(CharSequence, begin, end, radix)로 부분 문자열 생성 없이 읽는다.
+ *
+ * stocks.txt  : 종목명,가격
+ * players.txt : 플레이어ID,보유금액[,종목명:가격:수량|종목명:가격:수량|...]
+ */
+public final class StockFileParser {
+
+    private static final char DELIMITER = StockConstants.DELIMITER.charAt(0);
+    private static final char STOCK_PROPS_DELIMITER = StockConstants.STOCK_PROPS_DELIMITER.charAt(0);
+    private static final char STOCK_DELIMITER = '|';
+
+    private StockFileParser() {
+    }
+
+    public interface StockHandler {
+        void onStock(String stockName, int stockPrice);
+    }
+
+    public interface PlayerHandler {
+        void onPlayer(String playerId, int playerMoney);
+
+        void onPlayerStock(String playerId, String stockName, int stockPrice, int stockQuantity);
+    }
+
+    /**
+     * @return 유효한 줄이면 true (필드가 부족한 줄은 건너뛴다)
+     */
+    public static boolean parseStockLine(String line, StockHandler handler) {
+        int comma = line.indexOf(DELIMITER);
+        if (comma <= 0) {
+            return false;
+        }
+        int end = line.indexOf(DELIMITER, comma + 1);
+        if (end < 0) {
+            end = line.length();
+        }
+        if (end == comma + 1) {
+            return false;
+        }
+        handler.onStock(line.substring(0, comma), parseInt(line, comma + 1, end));
+        return true;
+    }
+
+    /**
+     * @return 유효한 줄이면 true (필드가 부족한 줄은 건너뛴다)
+     */
+    public static boolean parsePlayerLine(String line, PlayerHandler handler) {
+        int comma = line.indexOf(DELIMITER);
+        if (comma <= 0) {
+            return false;
+        }
+        int moneyEnd = line.indexOf(DELIMITER, comma + 1);
+        int length = line.length();
+        if (moneyEnd < 0) {
+            moneyEnd = length;
+        }
+        if (moneyEnd == comma + 1) {
+            return false;
+        }
+
+        String playerId = line.substring(0, comma);
+        handler.onPlayer(playerId, parseInt(line, comma + 1, moneyEnd));
+
+        // 종목명:가격:수량|종목명:가격:수량|...
+        int start = moneyEnd + 1;
+        while (start < length) {
+            int end = line.indexOf(STOCK_DELIMITER, start);
+            if (end < 0) {
+                end = length;
+            }
+            parseStockProps(line, start, end, playerId, handler);
+            start = end + 1;
+        }
+        return true;
+    }
+
+    private static void parseStockProps(String line, int start, int end, String playerId, PlayerHandler handler) {
+        int first = line.indexOf(STOCK_PROPS_DELIMITER, start);
+        if (first <= start || first >= end) {
+            return;
+        }
+        int second = line.indexOf(STOCK_PROPS_DELIMITER, first + 1);
+        if (second < 0 || second >= end - 1) {
+            return;
+        }
+        // 종목명:가격:수량 뒤에 추가 필드가 있으면 무시한다 (split 기반 이전 동작과 동일)
+        int third = line.indexOf(STOCK_PROPS_DELIMITER, second + 1);
+        int quantityEnd = (third < 0 || third > end) ? end : third;
+
+        handler.onPlayerStock(playerId, line.substring(start, first),
+                parseInt(line, first + 1, second), parseInt(line, second + 1, quantityEnd));
+    }
+
+    private static int parseInt(String line, int begin, int end) {
+        // 앞뒤 공백 허용
+        while (begin < end && line.charAt(begin) == ' ') {
+            begin++;
+        }
+        while (end > begin && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return Integer.parseInt(line, begin, end, 10);
+    }
+}
@@ -1,74 +1,106 @@
 // StockService.java
 package com.sk.skala.myapp.service;
 
+import com.sk.skala.myapp.model.KeysetPage;
 import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.repository.PlayerStockRepository;
 import com.sk.skala.myapp.repository.StockRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
+@Timed(value = "service.method", histogram = true)
 @Service
 public class StockService {
     private final StockRepository stockRepository;
+    private final PlayerStockRepository playerStockRepository;
+    private final StockCatalog stockCatalog;
+    private final PriceFeed priceFeed;
+    // market.enabled=true 이면 수정한 가격을 시세 시뮬레이션 가격판에도 반영
+    private final MarketEngine marketEngine;
 
+    // 기본 종목 적재는 DataLoader 가 기동 시 한 번에 처리한다 (bulk-load.stocks-file)
     @Autowired
-    public StockService(StockRepository stockRepository) {
+    public StockService(StockRepository stockRepository, PlayerStockRepository playerStockRepository,
+                        StockCatalog stockCatalog, PriceFeed priceFeed, Optional<MarketEngine> marketEngine) {
         this.stockRepository = stockRepository;
-        // Initialize default stocks if none exist
-        if (stockRepository.count() == 0) {
-            initializeDefaultStocks();
-        }
-    }
-
-    private void initializeDefaultStocks() {
-        List<Stock> defaultStocks = List.of(
-                new Stock("TechCorp", 100),
-                new Stock("GreenEnergy", 80),
-                new Stock("HealthPlus", 120),
-                new Stock("samsung", 300)
-        );
-        stockRepository.saveAll(defaultStocks);
+        this.playerStockRepository = playerStockRepository;
+        this.stockCatalog = stockCatalog;
+        this.priceFeed = priceFeed;
+        this.marketEngine = marketEngine.orElse(null);
     }
 
-    @Transactional(readOnly = true)
+    // 조회는 StockCatalog 캐시에서 처리 (캐시가 비어 있을 때만 DB 조회)
     public List<Stock> getAllStocks() {
-        return stockRepository.findAll();
+        return stockCatalog.getAll();
     }
 
-    @Transactional(readOnly = true)
     public Stock getStockByName(String name) {
-        return stockRepository.findById(name).orElse(null);
+        return stockCatalog.get(name);
     }
 
-    @Transactional(readOnly = true)
+    // 버전(ETag)과 목록을 같은 시점 기준으로 응답해야 할 때 사용
+    public StockCatalog.Snapshot getCatalog() {
+        return stockCatalog.snapshot();
+    }
+
+    // stockName keyset 페이지 (limit + 1 건을 조회해 다음 페이지 유무를 판단)
+    public KeysetPage<Stock> getStocks(String after, int limit) {
+        return getStocks(stockCatalog.snapshot(), after, limit);
+    }
+
+    public KeysetPage<Stock> getStocks(StockCatalog.Snapshot catalog, String after, int limit) {
+        return KeysetPage.of(catalog.getAfter(after, limit + 1), limit, Stock::getStockName);
+    }
+
+    // 인덱스 조회는 이름 순으로 정렬된 캐시 스냅샷에서 바로 찾는다 (목록 복사나 DB 조회 없음)
     public Stock getStockByIndex(int index) {
-        List<Stock> stocks = stockRepository.findAll();
+        List<Stock> stocks = stockCatalog.getAll();
         if (index >= 0 && index < stocks.size()) {
             return stocks.get(index);
         }
         return null;
     }
 
+    // 같은 이름의 종목이 있으면 가격 수정과 같으므로 보유 내역 평가 가격도 함께 갱신한다
     @Transactional
     public Stock createStock(Stock stock) {
-        return stockRepository.save(stock);
+        Stock saved = stockRepository.save(stock);
+        playerStockRepository.revalue(saved.getStockName(), saved.getStockPrice());
+        stockCatalog.invalidate();
+        priceFeed.publishAfterCommit(saved.getStockName(), saved.getStockPrice());
+        if (marketEngine != null) {
+            marketEngine.setPrice(saved.getStockName(), saved.getStockPrice());
+        }
+        return saved;
     }
 
+    // 보유 내역 평가 가격은 같은 트랜잭션에서 bulk UPDATE 한 번으로 갱신 (보유자 수와 무관)
     @Transactional
     public Stock updateStock(Stock stock) {
-        return stockRepository.save(stock);
+        Stock saved = stockRepository.save(stock);
+        playerStockRepository.revalue(saved.getStockName(), saved.getStockPrice());
+        stockCatalog.invalidate();
+        priceFeed.publishAfterCommit(saved.getStockName(), saved.getStockPrice());
+        if (marketEngine != null) {
+            marketEngine.setPrice(saved.getStockName(), saved.getStockPrice());
+        }
+        return saved;
     }
 
     @Transactional
     public void deleteStock(String name) {
         stockRepository.deleteById(name);
+        stockCatalog.invalidate();
+        priceFeed.publishRemovedAfterCommit(name);
     }
 
-    @Transactional(readOnly = true)
     public String getStockListForMenu() {
-        List<Stock> stocks = stockRepository.findAll();
+        List<Stock> stocks = stockCatalog.getAll();
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < stocks.size(); i++) {
             sb.append(i + 1);
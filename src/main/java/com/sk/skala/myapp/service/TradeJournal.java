@@ -0,0 +1,646 @@
+// TradeJournal.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.TradeJournalProperties;
+import com.sk.skala.myapp.model.JournalRecord;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * append-only 거래 저널 (trade-journal.enabled=true 일 때만 동작).
+ *
+ * 고정 크기 segment 파일(journal-{첫 seq}.log)을 memory-mapped 로 열어 레코드를 순서대로 덧붙인다.
+ * 기록은 mmap 영역에 쓰는 것으로 끝나고, 전용 flush 스레드가 그동안 쌓인 기록을 force(fsync) 한 번으로
+ * 디스크에 내린다(group commit). GROUP_COMMIT 모드의 호출자는 awaitDurable 로 자기 seq가 fsync 될 때까지 기다린다.
+ *
+ * 레코드 형식 (big endian)
+ *   [int 본문 길이][int CRC32C][본문: type(1) seq(8) timestamp(8) quantity(4) money(8) price(4) playerId(str) stockName(str)]
+ *   str = [short 길이, -1 이면 null][UTF-8]
+ * 본문 길이 0 은 기록의 끝, -1 은 segment 의 끝(다음 파일에서 계속)을 뜻한다.
+ * 기동 시 CRC 또는 seq 연속성이 깨진 지점을 기록의 끝으로 보고 그 뒤를 지운다(쓰다 만 레코드).
+ *
+ * 원장 스냅샷이 끝나면 markSnapshot 으로 시작 seq 를 snapshot.seq 파일에 남기고, 재생은 그 seq 부터 한다.
+ * 스냅샷 이전이면서 DB 반영도 끝난 segment 는 truncate 에서 파일을 지우고 mmap 참조를 놓는다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "trade-journal", name = "enabled", havingValue = "true")
+public class TradeJournal {
+    private static final Logger log = LoggerFactory.getLogger(TradeJournal.class);
+
+    private static final int HEADER = 8;
+    private static final int FIXED_BODY = 1 + 8 + 8 + 4 + 8 + 4;
+    private static final int END_OF_SEGMENT = -1;
+    private static final int MAX_STRING = Short.MAX_VALUE;
+    private static final String SNAPSHOT_FILE = "snapshot.seq";
+    private static final JournalRecord.Type[] TYPES = JournalRecord.Type.values();
+
+    private final TradeJournalProperties properties;
+    private final Path directory;
+
+    private final Counter appends;
+    private final Timer fsyncTimer;
+    private final DistributionSummary groupSize;
+
+    // segment 목록 (roll 할 때 추가, truncate 로 지운 자리는 null - 커서/fsync 위치의 index 를 유지한다)
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    // 기록 (writeLock 보호)
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition appended = writeLock.newCondition();
+    private final ByteBuffer scratch = ByteBuffer.allocate(FIXED_BODY + 2 * (2 + MAX_STRING));
+    private final CRC32C crc = new CRC32C();
+    private int writeOffset;
+    private volatile long lastSeq;
+
+    // 재생을 시작하는 seq (마지막으로 완료된 원장 스냅샷의 시작)
+    private volatile long snapshotSeq = 1;
+
+    // fsync 완료 위치 - 읽기(DB 반영)는 이 위치까지만 한다
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private volatile Position durable = new Position(0, 0, 0);
+
+    private Thread flusher;
+    private volatile boolean running;
+
+    @Autowired
+    public TradeJournal(TradeJournalProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory());
+
+        this.appends = Counter.builder("trade.journal.appends").register(meterRegistry);
+        this.fsyncTimer = Timer.builder("trade.journal.fsync").register(meterRegistry);
+        this.groupSize = DistributionSummary.builder("trade.journal.group.size")
+                .description("fsync 한 번에 내려간 레코드 수")
+                .register(meterRegistry);
+        Gauge.builder("trade.journal.unsynced", this, journal -> journal.lastSeq - journal.durable.seq)
+                .register(meterRegistry);
+        Gauge.builder("trade.journal.segments", segments, list -> list.stream().filter(Objects::nonNull).count())
+                .register(meterRegistry);
+    }
+
+    /**
+     * 기존 segment 를 모두 검증하고 마지막 스냅샷 이후의 레코드를 replay 로 전달한 뒤, 마지막 레코드 뒤에서 기록을 이어간다.
+     * @return 마지막 seq (저널이 비어 있으면 0)
+     */
+    public long open(Consumer<JournalRecord> replay) {
+        writeLock.lock();
+        try {
+            Files.createDirectories(directory);
+            List<Path> files;
+            try (Stream<Path> list = Files.list(directory)) {
+                files = list.filter(p -> p.getFileName().toString().matches("journal-\\d{20}\\.log"))
+                        .sorted()
+                        .toList();
+            }
+
+            Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+            if (Files.exists(snapshotFile)) {
+                snapshotSeq = Long.parseLong(Files.readString(snapshotFile).trim());
+            }
+
+            long seq = 0;
+            boolean rolled = true;
+            for (int i = 0; i < files.size(); i++) {
+                Segment segment = Segment.open(files.get(i), 0);
+                if (i == 0) {
+                    // 앞쪽 segment 는 truncate 로 지워졌을 수 있다
+                    seq = segment.firstSeq - 1;
+                }
+                if (segment.firstSeq != seq + 1) {
+                    // 중간 segment 가 없거나 앞 segment 가 깨진 경우 - 이후 기록은 신뢰할 수 없다
+                    segment.close();
+                    discard(files.subList(i, files.size()));
+                    break;
+                }
+                segments.add(segment);
+                ScanResult scan = scan(segment, seq, replay);
+                seq = scan.lastSeq;
+                writeOffset = scan.endOffset;
+                rolled = scan.rolled;
+                if (!rolled) {
+                    segment.clear(writeOffset);
+                    if (i + 1 < files.size()) {
+                        discard(files.subList(i + 1, files.size()));
+                    }
+                    break;
+                }
+            }
+            lastSeq = seq;
+
+            // 마지막 segment 가 끝 표시로 닫혀 있으면 새 파일에서 이어간다
+            if (segments.isEmpty() || rolled) {
+                roll();
+            }
+            Segment current = segments.get(segments.size() - 1);
+            durable = new Position(segments.size() - 1, writeOffset, lastSeq);
+            current.forcedOffset = writeOffset;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open trade journal: " + directory, e);
+        } finally {
+            writeLock.unlock();
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "trade-journal-flush");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        log.info("Trade journal opened: directory={}, segments={}, lastSeq={}, snapshotSeq={}, syncMode={}",
+                directory.toAbsolutePath(), segments.size(), lastSeq, snapshotSeq, properties.getSyncMode());
+        return lastSeq;
+    }
+
+    /**
+     * 레코드를 기록하고 부여된 seq를 반환한다. 반환 시점에는 mmap 영역에만 기록되어 있다.
+     */
+    public long append(JournalRecord record) {
+        byte[] playerId = encode(record.getPlayerId());
+        byte[] stockName = encode(record.getStockName());
+        int bodyLength = FIXED_BODY + 2 + length(playerId) + 2 + length(stockName);
+
+        writeLock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Trade journal is not open");
+            }
+            Segment segment = segments.get(segments.size() - 1);
+            // 뒤에 segment 끝 표시(int) 자리를 남겨 둔다
+            if (writeOffset + HEADER + bodyLength + 4 > segment.size) {
+                segment.buffer.putInt(writeOffset, END_OF_SEGMENT);
+                segment = roll();
+            }
+
+            long seq = lastSeq + 1;
+            scratch.clear();
+            scratch.put((byte) record.getType().ordinal())
+                    .putLong(seq)
+                    .putLong(System.currentTimeMillis())
+                    .putInt(record.getQuantity())
+                    .putLong(record.getMoney())
+                    .putInt(record.getPrice());
+            putString(scratch, playerId);
+            putString(scratch, stockName);
+            scratch.flip();
+
+            crc.reset();
+            crc.update(scratch.array(), 0, bodyLength);
+            segment.buffer.put(writeOffset + HEADER, scratch.array(), 0, bodyLength);
+            segment.buffer.putInt(writeOffset + 4, (int) crc.getValue());
+            // 길이는 마지막에 기록 (길이가 보이면 본문이 있다)
+            segment.buffer.putInt(writeOffset, bodyLength);
+
+            writeOffset += HEADER + bodyLength;
+            lastSeq = seq;
+            appended.signal();
+            appends.increment();
+            return seq;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * seq 까지 fsync 될 때까지 기다린다 (group commit).
+     */
+    public void awaitDurable(long seq) {
+        if (durable.seq >= seq) {
+            return;
+        }
+        durableLock.lock();
+        try {
+            while (durable.seq < seq) {
+                if (!running) {
+                    throw new IllegalStateException("Trade journal closed before seq " + seq + " was synced");
+                }
+                durableAdvanced.await(100, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for journal sync", e);
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    public boolean isSyncOnAppend() {
+        return properties.getSyncMode() == TradeJournalProperties.SyncMode.GROUP_COMMIT;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public long getDurableSeq() {
+        return durable.seq;
+    }
+
+    public long getSnapshotSeq() {
+        return snapshotSeq;
+    }
+
+    /**
+     * seq 부터 시작한 원장 스냅샷이 fsync 까지 끝났음을 기록한다. 다음 기동부터 이 seq 부터 재생한다.
+     */
+    public void markSnapshot(long seq) {
+        if (seq > durable.seq + 1) {
+            throw new IllegalArgumentException("Snapshot seq " + seq + " is not durable yet");
+        }
+        Path file = directory.resolve(SNAPSHOT_FILE);
+        Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(Long.toString(seq).getBytes(StandardCharsets.US_ASCII)));
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write journal snapshot marker: " + temp, e);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write journal snapshot marker: " + file, e);
+        }
+        snapshotSeq = seq;
+    }
+
+    /**
+     * 마지막 스냅샷 이전이면서 appliedSeq 까지 DB에 반영된 레코드만 담은 segment 파일을 지운다.
+     * 기록 중인 마지막 segment 는 지우지 않는다.
+     * @return 지운 segment 수
+     */
+    public int truncate(long appliedSeq) {
+        // 이 seq 보다 앞의 레코드만 있는 segment 가 대상
+        long keepFrom = Math.min(snapshotSeq, appliedSeq + 1);
+        int deleted = 0;
+        writeLock.lock();
+        try {
+            for (int i = 0; i + 1 < segments.size(); i++) {
+                Segment segment = segments.get(i);
+                if (segment == null) {
+                    continue;
+                }
+                Segment next = segments.get(i + 1);
+                if (next.firstSeq > keepFrom) {
+                    break;
+                }
+                // 참조를 놓으면 GC 가 mmap 을 해제한다
+                segments.set(i, null);
+                segment.close();
+                Files.deleteIfExists(segment.file);
+                deleted++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete journal segment", e);
+        } finally {
+            writeLock.unlock();
+        }
+        if (deleted > 0) {
+            log.info("Trade journal truncated: segments={}, keepFrom={}", deleted, keepFrom);
+        }
+        return deleted;
+    }
+
+    /**
+     * afterSeq 다음 레코드부터 읽는 커서. 처음부터 훑어 위치를 찾으므로 기동 시 한 번만 만든다.
+     */
+    public Cursor cursorAfter(long afterSeq) {
+        Cursor cursor = new Cursor();
+        // truncate 된 앞쪽 segment 는 건너뛴다
+        for (Segment segment : segments) {
+            if (segment != null) {
+                cursor.nextSeq = segment.firstSeq;
+                break;
+            }
+            cursor.segmentIndex++;
+        }
+        while (cursor.nextSeq <= afterSeq) {
+            if (read(cursor, (int) Math.min(Integer.MAX_VALUE, afterSeq - cursor.nextSeq + 1), record -> { }) == 0) {
+                break;
+            }
+        }
+        return cursor;
+    }
+
+    /**
+     * 커서 위치부터 fsync 된 레코드를 최대 max 건 읽는다.
+     * @return 읽은 건수
+     */
+    public int read(Cursor cursor, int max, Consumer<JournalRecord> consumer) {
+        Position limit = durable;
+        int count = 0;
+        while (count < max && cursor.segmentIndex <= limit.segmentIndex) {
+            Segment segment = segments.get(cursor.segmentIndex);
+            if (segment == null) {
+                // truncate 된 segment - 이미 반영이 끝난 레코드뿐이다
+                cursor.segmentIndex++;
+                cursor.offset = 0;
+                continue;
+            }
+            int end = cursor.segmentIndex == limit.segmentIndex ? limit.offset : segment.size;
+            int length = cursor.offset + HEADER <= end ? segment.buffer.getInt(cursor.offset) : 0;
+            if (length <= 0) {
+                if (cursor.segmentIndex == limit.segmentIndex) {
+                    break;
+                }
+                cursor.segmentIndex++;
+                cursor.offset = 0;
+                continue;
+            }
+            JournalRecord record = decode(segment.buffer, cursor.offset + HEADER);
+            cursor.offset += HEADER + length;
+            cursor.nextSeq = record.getSeq() + 1;
+            consumer.accept(record);
+            count++;
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void close() {
+        writeLock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            appended.signalAll();
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 남은 기록 fsync
+        sync();
+        for (Segment segment : segments) {
+            if (segment != null) {
+                segment.close();
+            }
+        }
+        log.info("Trade journal closed: lastSeq={}", lastSeq);
+    }
+
+    private void flushLoop() {
+        long commitIntervalNanos = properties.getCommitInterval().toNanos();
+        while (running) {
+            writeLock.lock();
+            try {
+                while (running && lastSeq == durable.seq) {
+                    appended.await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                writeLock.unlock();
+            }
+            // 잠시 기다려 그동안 들어온 기록을 같은 fsync 에 태운다
+            if (commitIntervalNanos > 0) {
+                LockSupport.parkNanos(commitIntervalNanos);
+            }
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                // 다음 주기에 다시 시도 (기다리는 거래는 계속 대기)
+                log.error("Trade journal fsync failed", e);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        }
+    }
+
+    private void sync() {
+        Position target;
+        writeLock.lock();
+        try {
+            target = new Position(segments.size() - 1, writeOffset, lastSeq);
+        } finally {
+            writeLock.unlock();
+        }
+        Position from = durable;
+        if (target.seq == from.seq) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (int i = from.segmentIndex; i <= target.segmentIndex; i++) {
+            Segment segment = segments.get(i);
+            if (segment == null) {
+                continue;
+            }
+            int end = i == target.segmentIndex ? target.offset : segment.size;
+            if (end > segment.forcedOffset) {
+                segment.buffer.force(segment.forcedOffset, end - segment.forcedOffset);
+                segment.forcedOffset = end;
+            }
+        }
+        fsyncTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        groupSize.record(target.seq - from.seq);
+
+        durableLock.lock();
+        try {
+            durable = target;
+            durableAdvanced.signalAll();
+        } finally {
+            durableLock.unlock();
+        }
+    }
+
+    private Segment roll() {
+        Path file = directory.resolve(String.format("journal-%020d.log", lastSeq + 1));
+        try {
+            Segment segment = Segment.open(file, (int) properties.getSegmentSize().toBytes());
+            segments.add(segment);
+            writeOffset = 0;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create journal segment: " + file, e);
+        }
+    }
+
+    /**
+     * segment 를 처음부터 검증하며 읽는다. CRC 또는 seq 연속성이 깨진 곳이 기록의 끝이다.
+     * 스냅샷 시작 seq 이전 레코드는 검증만 하고 replay 로 넘기지 않는다.
+     */
+    private ScanResult scan(Segment segment, long lastSeq, Consumer<JournalRecord> replay) {
+        int offset = 0;
+        CRC32C check = new CRC32C();
+        while (offset + HEADER <= segment.size) {
+            int length = segment.buffer.getInt(offset);
+            if (length == END_OF_SEGMENT) {
+                return new ScanResult(lastSeq, offset, true);
+            }
+            if (length < FIXED_BODY + 4 || offset + HEADER + length > segment.size) {
+                break;
+            }
+            byte[] body = new byte[length];
+            segment.buffer.get(offset + HEADER, body);
+            check.reset();
+            check.update(body);
+            if ((int) check.getValue() != segment.buffer.getInt(offset + 4)) {
+                break;
+            }
+            JournalRecord record = decode(ByteBuffer.wrap(body), 0);
+            if (record.getSeq() != lastSeq + 1) {
+                break;
+            }
+            if (record.getSeq() >= snapshotSeq) {
+                replay.accept(record);
+            }
+            lastSeq = record.getSeq();
+            offset += HEADER + length;
+        }
+        return new ScanResult(lastSeq, offset, false);
+    }
+
+    private void discard(List<Path> files) throws IOException {
+        for (Path file : files) {
+            Path target = file.resolveSibling(file.getFileName() + ".corrupt");
+            log.warn("Discarding trade journal segment after the last valid record: {} -> {}", file, target);
+            Files.move(file, target);
+        }
+    }
+
+    private static JournalRecord decode(ByteBuffer buffer, int offset) {
+        JournalRecord.Type type = TYPES[buffer.get(offset)];
+        long seq = buffer.getLong(offset + 1);
+        long timestamp = buffer.getLong(offset + 9);
+        int quantity = buffer.getInt(offset + 17);
+        long money = buffer.getLong(offset + 21);
+        int price = buffer.getInt(offset + 29);
+        int position = offset + FIXED_BODY;
+        short playerIdLength = buffer.getShort(position);
+        String playerId = getString(buffer, position + 2, playerIdLength);
+        position += 2 + Math.max(playerIdLength, 0);
+        String stockName = getString(buffer, position + 2, buffer.getShort(position));
+        return new JournalRecord(type, seq, timestamp, playerId, stockName, quantity, money, price);
+    }
+
+    private static String getString(ByteBuffer buffer, int offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING) {
+            throw new IllegalArgumentException("Journal string too long: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putShort((short) -1);
+        } else {
+            buffer.putShort((short) bytes.length).put(bytes);
+        }
+    }
+
+    /**
+     * 읽기 위치. 하나의 커서는 한 스레드에서만 사용한다.
+     */
+    public static final class Cursor {
+        private int segmentIndex;
+        private int offset;
+        private long nextSeq = 1;
+
+        public long getNextSeq() {
+            return nextSeq;
+        }
+    }
+
+    private record Position(int segmentIndex, int offset, long seq) {
+    }
+
+    private record ScanResult(long lastSeq, int endOffset, boolean rolled) {
+    }
+
+    private static final class Segment {
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long firstSeq;
+        private final int size;
+        // flush 스레드만 접근
+        private int forcedOffset;
+
+        private Segment(Path file, FileChannel channel, MappedByteBuffer buffer, long firstSeq, int size) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.firstSeq = firstSeq;
+            this.size = size;
+        }
+
+        // size 가 0 이면 기존 파일 크기를 사용한다
+        static Segment open(Path file, int size) throws IOException {
+            String name = file.getFileName().toString();
+            long firstSeq = Long.parseLong(name, "journal-".length(), name.length() - ".log".length(), 10);
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            int mappedSize = size > 0 ? size : (int) channel.size();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+            return new Segment(file, channel, buffer, firstSeq, mappedSize);
+        }
+
+        // offset 이후를 0으로 지운다 (쓰다 만 레코드 제거)
+        void clear(int offset) {
+            byte[] zeros = new byte[64 * 1024];
+            for (int position = offset; position < size; position += zeros.length) {
+                buffer.put(position, zeros, 0, Math.min(zeros.length, size - position));
+            }
+            buffer.force();
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close journal segment", e);
+            }
+        }
+    }
+}
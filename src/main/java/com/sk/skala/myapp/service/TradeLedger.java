@@ -0,0 +1,606 @@
+// TradeLedger.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.TradeJournalProperties;
+import com.sk.skala.myapp.model.JournalRecord;
+import com.sk.skala.myapp.model.KeysetPage;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerChangedEvent;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.model.TradeOrderResult;
+import com.sk.skala.myapp.model.TradeResult;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 저널 기반 플레이어/보유 주식 원장 (trade-journal.enabled=true 일 때만 동작).
+ *
+ * 저널 모드에서는 이 메모리 원장이 기준 데이터이고 players/player_stocks 테이블은 JournalApplier가
+ * 비동기로 따라오는 사본이다. 거래는 플레이어 단위 lock 안에서 검증 -> 저널 기록 -> 메모리 반영 순으로 처리하고,
+ * lock을 푼 뒤 group commit(fsync)을 기다려 응답한다. DB 왕복이 없으므로 응답 시간은 fsync 주기에 좌우된다.
+ *
+ * 기동 시 저널을 마지막 스냅샷부터 재생해 상태를 복원한다(DB 조회 없음).
+ * 저널이 비어 있으면 DB의 현재 상태를 스냅샷 레코드로 저널에 한 번 기록한다.
+ *
+ * snapshot-interval 마다 전체 계정을 스냅샷 레코드로 다시 기록한다. 계정마다 lock 안에서 기록하므로 스냅샷 도중의
+ * 거래는 그 계정의 스냅샷 앞이나 뒤 어느 한쪽에만 있고, 스냅샷 시작 seq 부터 재생하면 같은 상태가 된다.
+ * 스냅샷 이전이면서 DB 반영이 끝난 segment 는 지운다.
+ */
+@Timed(value = "service.method", histogram = true)
+@Service
+@ConditionalOnProperty(prefix = "trade-journal", name = "enabled", havingValue = "true")
+public class TradeLedger implements PriceListener {
+    private static final Logger log = LoggerFactory.getLogger(TradeLedger.class);
+
+    private static final String SELECT_PLAYERS = "select player_id, player_money from players";
+    private static final String SELECT_HOLDINGS =
+            "select player_id, stock_name, stock_price, stock_quantity from player_stocks order by id";
+
+    private final TradeJournal journal;
+    private final JournalApplier applier;
+    private final StockCatalog stockCatalog;
+    private final PriceFeed priceFeed;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TradeJournalProperties properties;
+    private final Timer tradeTimer;
+
+    // 삭제된 플레이어도 Account는 남겨 둔다 (exists=false) - 생성/삭제와 거래가 같은 lock을 쓰도록
+    private final ConcurrentHashMap<String, Account> accounts = new ConcurrentHashMap<>();
+    private final CountDownLatch ready = new CountDownLatch(1);
+
+    private final ScheduledExecutorService snapshotExecutor =
+            Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "trade-journal-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+    // 마지막 스냅샷이 끝난 seq (snapshot 스레드 전용)
+    private long snapshotEndSeq;
+
+    @Autowired
+    public TradeLedger(
+            TradeJournal journal,
+            JournalApplier applier,
+            StockCatalog stockCatalog,
+            PriceFeed priceFeed,
+            JdbcTemplate jdbcTemplate,
+            ApplicationEventPublisher eventPublisher,
+            TradeJournalProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.journal = journal;
+        this.applier = applier;
+        this.stockCatalog = stockCatalog;
+        this.priceFeed = priceFeed;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.tradeTimer = Timer.builder("trade.journal.trade")
+                .description("저널 기록과 fsync 대기를 포함한 거래 처리 시간")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(meterRegistry);
+    }
+
+    // 초기 데이터 적재(DataLoader)가 끝난 뒤 시작. 그 전에 들어온 요청은 awaitReady에서 기다린다.
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long started = System.nanoTime();
+        long lastSeq = journal.open(this::apply);
+        if (lastSeq == 0) {
+            // DB가 이미 스냅샷과 같은 상태이므로 반영 위치를 스냅샷 끝으로 맞춘다
+            lastSeq = bootstrap();
+            applier.resetCheckpoint(lastSeq);
+        }
+        applier.start();
+
+        long snapshotNanos = properties.getSnapshotInterval().toNanos();
+        if (snapshotNanos > 0) {
+            snapshotEndSeq = lastSeq;
+            snapshotExecutor.scheduleWithFixedDelay(this::snapshotSafely, snapshotNanos, snapshotNanos, TimeUnit.NANOSECONDS);
+        }
+        if (properties.isRecordPrices()) {
+            priceFeed.addListener(this);
+        }
+        ready.countDown();
+        log.info("Trade ledger ready: players={}, lastSeq={}, elapsed={}ms",
+                countPlayers(), lastSeq, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    @PreDestroy
+    public void stop() {
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 전체 계정을 스냅샷 레코드로 기록하고 fsync 가 끝나면 재생 시작점으로 표시한다.
+     * @return 스냅샷 시작 seq
+     */
+    public long snapshot() {
+        awaitReady();
+        long started = System.nanoTime();
+        // 이 seq 이후의 기록만 재생해도 된다 (그 사이 거래는 각 계정 스냅샷의 앞 또는 뒤에 있다)
+        long snapshotSeq = journal.getLastSeq() + 1;
+        long records = 0;
+        for (Account account : accounts.values()) {
+            account.lock.lock();
+            try {
+                if (!account.exists) {
+                    continue;
+                }
+                journal.append(JournalRecord.accountSnapshot(account.playerId, account.money));
+                records++;
+                for (Map.Entry<String, Holding> entry : account.holdings.entrySet()) {
+                    Holding holding = entry.getValue();
+                    journal.append(JournalRecord.holdingSnapshot(account.playerId, entry.getKey(), holding.quantity, holding.price));
+                    records++;
+                }
+            } finally {
+                account.lock.unlock();
+            }
+        }
+        long lastSeq = journal.getLastSeq();
+        journal.awaitDurable(lastSeq);
+        journal.markSnapshot(snapshotSeq);
+        snapshotEndSeq = lastSeq;
+        log.info("Trade ledger snapshot written: snapshotSeq={}, records={}, elapsed={}ms",
+                snapshotSeq, records, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return snapshotSeq;
+    }
+
+    private void snapshotSafely() {
+        try {
+            // 지난 스냅샷 이후 기록이 없으면 건너뛴다
+            if (journal.getLastSeq() > snapshotEndSeq) {
+                snapshot();
+            }
+            journal.truncate(applier.getAppliedSeq());
+        } catch (RuntimeException e) {
+            log.warn("Trade ledger snapshot failed", e);
+        }
+    }
+
+    public TradeResult buy(String playerId, String stockName, int quantity) {
+        return trade(playerId, stockName, quantity, TradeOrder.Side.BUY);
+    }
+
+    public TradeResult sell(String playerId, String stockName, int quantity) {
+        return trade(playerId, stockName, quantity, TradeOrder.Side.SELL);
+    }
+
+    /**
+     * 여러 주문을 순서대로 적용하고 마지막 기록의 fsync 한 번만 기다린다.
+     */
+    public List<TradeOrderResult> execute(List<? extends TradeOrder> orders) {
+        awaitReady();
+        List<TradeOrderResult> results = new ArrayList<>(orders.size());
+        List<PlayerChangedEvent> events = new ArrayList<>();
+        long lastSeq = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            TradeOrder order = orders.get(i);
+            Outcome outcome = apply(order.getPlayerId(), order.getStockName(), order.getQuantity(), order.getSide());
+            if (outcome.status == TradeResult.Status.OK) {
+                lastSeq = outcome.seq;
+                events.add(PlayerChangedEvent.trade(order.getPlayerId(), order.getStockName(),
+                        outcome.quantityDelta, outcome.moneyDelta));
+            }
+            results.add(new TradeOrderResult(i, order.getPlayerId(), order.getStockName(),
+                    outcome.status, outcome.playerMoney, outcome.stockQuantity));
+        }
+        sync(lastSeq);
+        events.forEach(eventPublisher::publishEvent);
+        return results;
+    }
+
+    public List<Player> getAllPlayers() {
+        awaitReady();
+        List<Player> players = new ArrayList<>();
+        for (Account account : accounts.values()) {
+            Player player = account.snapshot();
+            if (player != null) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * playerId keyset 페이지. 전체를 정렬하지 않고 after 이후 앞쪽 limit + 1 건만
+     * 크기가 제한된 heap 으로 골라낸다 (O(n log limit)).
+     */
+    public KeysetPage<Player> getPlayers(String after, int limit) {
+        awaitReady();
+        PriorityQueue<Player> heap = new PriorityQueue<>(
+                Comparator.comparing(Player::getPlayerId).reversed());
+        for (Account account : accounts.values()) {
+            if (after != null && account.playerId.compareTo(after) <= 0) {
+                continue;
+            }
+            if (heap.size() > limit && account.playerId.compareTo(heap.peek().getPlayerId()) >= 0) {
+                continue;
+            }
+            Player player = account.snapshot();
+            if (player == null) {
+                continue;
+            }
+            heap.add(player);
+            if (heap.size() > limit + 1) {
+                heap.poll();
+            }
+        }
+        List<Player> players = new ArrayList<>(heap);
+        players.sort(Comparator.comparing(Player::getPlayerId));
+        return KeysetPage.of(players, limit, Player::getPlayerId);
+    }
+
+    public Player getPlayer(String playerId) {
+        awaitReady();
+        Account account = accounts.get(playerId);
+        return account == null ? null : account.snapshot();
+    }
+
+    public Player createPlayer(Player player) {
+        awaitReady();
+        Account account = accounts.computeIfAbsent(player.getPlayerId(), Account::new);
+        long seq = record(account, JournalRecord.playerSet(player.getPlayerId(), player.getPlayerMoney()), false);
+        sync(seq);
+        return account.snapshot();
+    }
+
+    public Player updatePlayer(String playerId, Player playerDetails) {
+        awaitReady();
+        Account account = accounts.get(playerId);
+        if (account == null) {
+            return null;
+        }
+        long seq = record(account, JournalRecord.playerSet(playerId, playerDetails.getPlayerMoney()), true);
+        if (seq == 0) {
+            return null;
+        }
+        sync(seq);
+        return account.snapshot();
+    }
+
+    public boolean deletePlayer(String playerId) {
+        awaitReady();
+        Account account = accounts.get(playerId);
+        if (account == null) {
+            return false;
+        }
+        long seq = record(account, JournalRecord.playerDelete(playerId), true);
+        sync(seq);
+        return seq != 0;
+    }
+
+    // 평가 가격은 마지막 거래 가격이 아니라 조회 시점의 종목 가격으로 채운다 (read-time join)
+    public List<PlayerStock> getPlayerStocks(String playerId) {
+        awaitReady();
+        Account account = accounts.get(playerId);
+        if (account == null) {
+            return List.of();
+        }
+        List<PlayerStock> holdings = account.holdings();
+        for (PlayerStock holding : holdings) {
+            Stock stock = stockCatalog.get(holding.getStockName());
+            if (stock != null) {
+                holding.setStockPrice(stock.getStockPrice());
+            }
+        }
+        return holdings;
+    }
+
+    // 이전 코드와의 호환성을 위한 메서드 (잔액 변동 없이 보유 수량만 증가)
+    public Player addStockToPlayer(String playerId, PlayerStock playerStock) {
+        return setHolding(playerId, playerStock, true);
+    }
+
+    // 이전 코드와의 호환성을 위한 메서드 (잔액 변동 없이 보유 수량만 설정, 0 이하이면 삭제)
+    public Player updatePlayerStock(String playerId, PlayerStock playerStock) {
+        return setHolding(playerId, playerStock, false);
+    }
+
+    @Override
+    public void onPrice(String stockName, int stockPrice, long timestampMillis) {
+        // 감사 이력용 - fsync를 기다리지 않는다
+        journal.append(JournalRecord.price(stockName, stockPrice));
+    }
+
+    private TradeResult trade(String playerId, String stockName, int quantity, TradeOrder.Side side) {
+        awaitReady();
+        long started = System.nanoTime();
+        Outcome outcome = apply(playerId, stockName, quantity, side);
+        if (outcome.status != TradeResult.Status.OK) {
+            return TradeResult.fail(outcome.status);
+        }
+        sync(outcome.seq);
+        eventPublisher.publishEvent(PlayerChangedEvent.trade(playerId, stockName, outcome.quantityDelta, outcome.moneyDelta));
+        tradeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+
+        Player player = new Player(playerId);
+        player.setPlayerMoney(outcome.playerMoney);
+        return TradeResult.ok(player);
+    }
+
+    /**
+     * 플레이어 lock 안에서 검증 -> 저널 기록 -> 메모리 반영.
+     * 저널 기록이 실패하면 메모리 상태는 바뀌지 않는다.
+     */
+    private Outcome apply(String playerId, String stockName, int quantity, TradeOrder.Side side) {
+        if (quantity <= 0 || side == null) {
+            return Outcome.fail(TradeResult.Status.INVALID_QUANTITY);
+        }
+        Account account = playerId == null ? null : accounts.get(playerId);
+        if (account == null) {
+            return Outcome.fail(TradeResult.Status.PLAYER_NOT_FOUND);
+        }
+        Stock stock = stockCatalog.get(stockName);
+        if (stock == null) {
+            return Outcome.fail(TradeResult.Status.STOCK_NOT_FOUND);
+        }
+
+        int price = stock.getStockPrice();
+        int amount;
+        try {
+            amount = Math.multiplyExact(price, quantity);
+        } catch (ArithmeticException e) {
+            return Outcome.fail(TradeResult.Status.INVALID_QUANTITY);
+        }
+
+        account.lock.lock();
+        try {
+            if (!account.exists) {
+                return Outcome.fail(TradeResult.Status.PLAYER_NOT_FOUND);
+            }
+            Holding holding = account.holdings.get(stockName);
+            int quantityDelta;
+            int moneyDelta;
+            if (side == TradeOrder.Side.BUY) {
+                if (account.money < amount) {
+                    return Outcome.fail(TradeResult.Status.INSUFFICIENT_MONEY);
+                }
+                quantityDelta = quantity;
+                moneyDelta = -amount;
+            } else {
+                if (holding == null || holding.quantity < quantity) {
+                    return Outcome.fail(TradeResult.Status.INSUFFICIENT_QUANTITY);
+                }
+                quantityDelta = -quantity;
+                moneyDelta = amount;
+            }
+
+            JournalRecord record = JournalRecord.trade(playerId, stockName, quantityDelta, moneyDelta, price);
+            long seq = journal.append(record);
+            account.apply(record);
+
+            Holding after = account.holdings.get(stockName);
+            return new Outcome(TradeResult.Status.OK, seq, account.money,
+                    after == null ? 0 : after.quantity, quantityDelta, moneyDelta);
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    private Player setHolding(String playerId, PlayerStock playerStock, boolean add) {
+        awaitReady();
+        Account account = accounts.get(playerId);
+        if (account == null) {
+            return null;
+        }
+        String stockName = playerStock.getStockName();
+        long seq;
+        account.lock.lock();
+        try {
+            if (!account.exists) {
+                return null;
+            }
+            Holding holding = account.holdings.get(stockName);
+            int quantity = playerStock.getStockQuantity();
+            if (add) {
+                quantity += holding == null ? 0 : holding.quantity;
+            } else if (holding == null) {
+                return null;
+            }
+            JournalRecord record = JournalRecord.holdingSet(playerId, stockName, quantity, playerStock.getStockPrice());
+            seq = journal.append(record);
+            account.apply(record);
+        } finally {
+            account.lock.unlock();
+        }
+        sync(seq);
+        return account.snapshot();
+    }
+
+    // 플레이어 생성/수정/삭제 기록. requireExisting 이면 존재하지 않는 플레이어는 0을 반환한다.
+    private long record(Account account, JournalRecord record, boolean requireExisting) {
+        account.lock.lock();
+        try {
+            if (requireExisting && !account.exists) {
+                return 0;
+            }
+            long seq = journal.append(record);
+            account.apply(record);
+            return seq;
+        } finally {
+            account.lock.unlock();
+        }
+    }
+
+    private void sync(long seq) {
+        if (seq > 0 && journal.isSyncOnAppend()) {
+            journal.awaitDurable(seq);
+        }
+    }
+
+    // 저널 재생 (기동 시, 단일 스레드)
+    private void apply(JournalRecord record) {
+        if (record.getPlayerId() != null) {
+            accounts.computeIfAbsent(record.getPlayerId(), Account::new).apply(record);
+        }
+    }
+
+    /**
+     * 저널이 비어 있을 때 DB의 현재 상태를 스냅샷 레코드로 기록한다 (최초 1회).
+     * @return 마지막 seq
+     */
+    private long bootstrap() {
+        long started = System.nanoTime();
+        jdbcTemplate.query(SELECT_PLAYERS, rs -> {
+            JournalRecord record = JournalRecord.playerSet(rs.getString(1), rs.getInt(2));
+            journal.append(record);
+            apply(record);
+        });
+        jdbcTemplate.query(SELECT_HOLDINGS, rs -> {
+            JournalRecord record = JournalRecord.holdingSet(rs.getString(1), rs.getString(2), rs.getInt(4), rs.getInt(3));
+            journal.append(record);
+            apply(record);
+        });
+        long lastSeq = journal.getLastSeq();
+        journal.awaitDurable(lastSeq);
+        log.info("Trade journal bootstrapped from database: records={}, elapsed={}ms",
+                lastSeq, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        return lastSeq;
+    }
+
+    private void awaitReady() {
+        try {
+            if (!ready.await(30, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Trade ledger is not ready");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for trade ledger", e);
+        }
+    }
+
+    private long countPlayers() {
+        return accounts.values().stream().filter(account -> account.exists).count();
+    }
+
+    private record Outcome(TradeResult.Status status, long seq, int playerMoney, int stockQuantity,
+                           int quantityDelta, int moneyDelta) {
+        static Outcome fail(TradeResult.Status status) {
+            return new Outcome(status, 0, 0, 0, 0, 0);
+        }
+    }
+
+    private static final class Holding {
+        private int price;
+        private int quantity;
+    }
+
+    /**
+     * 플레이어 한 명의 잔액과 보유 주식. 모든 접근은 lock 안에서 한다.
+     */
+    private static final class Account {
+        private final String playerId;
+        private final ReentrantLock lock = new ReentrantLock();
+        // 보유 순서 = 최초 매수 순서 (DB의 id 순서와 같음)
+        private final Map<String, Holding> holdings = new LinkedHashMap<>();
+        private boolean exists;
+        private int money;
+
+        Account(String playerId) {
+            this.playerId = playerId;
+        }
+
+        // 저널 레코드 하나를 상태에 반영 (재생과 실시간 처리에서 공통으로 사용)
+        void apply(JournalRecord record) {
+            switch (record.getType()) {
+                case TRADE -> {
+                    money += (int) record.getMoney();
+                    adjustHolding(record.getStockName(), record.getQuantity(), record.getPrice(), true);
+                }
+                case PLAYER_SET -> {
+                    exists = true;
+                    money = (int) record.getMoney();
+                }
+                case HOLDING_SET, HOLDING_SNAPSHOT ->
+                        adjustHolding(record.getStockName(), record.getQuantity(), record.getPrice(), false);
+                case ACCOUNT_SNAPSHOT -> {
+                    // 스냅샷 이전에 재생된 기록은 스냅샷에 이미 포함되어 있다
+                    exists = true;
+                    money = (int) record.getMoney();
+                    holdings.clear();
+                }
+                case PLAYER_DELETE -> {
+                    exists = false;
+                    money = 0;
+                    holdings.clear();
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void adjustHolding(String stockName, int quantity, int price, boolean delta) {
+            Holding holding = holdings.computeIfAbsent(stockName, name -> new Holding());
+            holding.quantity = delta ? holding.quantity + quantity : quantity;
+            holding.price = price;
+            if (holding.quantity <= 0) {
+                holdings.remove(stockName);
+            }
+        }
+
+        Player snapshot() {
+            lock.lock();
+            try {
+                if (!exists) {
+                    return null;
+                }
+                Player player = new Player(playerId);
+                player.setPlayerMoney(money);
+                return player;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<PlayerStock> holdings() {
+            lock.lock();
+            try {
+                List<PlayerStock> result = new ArrayList<>(holdings.size());
+                for (Map.Entry<String, Holding> entry : holdings.entrySet()) {
+                    PlayerStock playerStock = new PlayerStock();
+                    playerStock.setStockName(entry.getKey());
+                    playerStock.setStockPrice(entry.getValue().price);
+                    playerStock.setStockQuantity(entry.getValue().quantity);
+                    result.add(playerStock);
+                }
+                return result;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+// TradePipeline.java
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.TradePipelineProperties;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.model.TradeOrderResult;
+import com.sk.skala.myapp.model.TradeResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 매수/매도를 비동기로 모아서 반영하는 group commit 파이프라인 (trade-pipeline.enabled=true 일 때만 동작).
+ *
+ * 요청 스레드는 거래를 playerId 해시로 정한 partition 의 bounded queue 에 넣고 CompletableFuture 를 받는다.
+ * partition 마다 writer 스레드 하나가 commit-interval 동안(최대 max-batch-size 건) 거래를 모아
+ * BatchTradeService 로 한 트랜잭션에 반영하고, 커밋된 뒤에 각 거래의 future 를 완료한다.
+ * 요청이 커넥션을 잡고 기다리지 않으므로 처리량이 "풀 크기 / DB 왕복 시간" 이 아니라 배치 크기에 비례한다.
+ *
+ * - 한 플레이어의 거래는 항상 같은 writer 가 접수 순서대로 반영한다 (writer 끼리는 같은 플레이어 row 를 다투지 않음)
+ * - 큐가 가득 차면 기다리지 않고 RejectedExecutionException 으로 완료한다 (컨트롤러에서 429)
+ * - 배치 트랜잭션이 실패하면(다른 pod/단건 API 와의 충돌 등) 그 배치의 거래를 한 건씩 PlayerService 로 다시 처리한다
+ */
+@Service
+@ConditionalOnProperty(prefix = "trade-pipeline", name = "enabled", havingValue = "true")
+public class TradePipeline implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TradePipeline.class);
+
+    private final TradePipelineProperties properties;
+    private final BatchTradeService batchTradeService;
+    private final PlayerService playerService;
+
+    private final Partition[] partitions;
+
+    private final Counter rejected;
+    private final Counter fallbacks;
+    private final DistributionSummary batchSize;
+    private final Timer commitTimer;
+    private final Timer latency;
+
+    private volatile boolean running;
+
+    @Autowired
+    public TradePipeline(
+            TradePipelineProperties properties,
+            BatchTradeService batchTradeService,
+            PlayerService playerService,
+            MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.batchTradeService = batchTradeService;
+        this.playerService = playerService;
+
+        this.partitions = new Partition[Math.max(1, properties.getPartitions())];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition(i, new ArrayBlockingQueue<>(properties.getQueueCapacity()));
+        }
+
+        this.rejected = Counter.builder("trade.pipeline.rejected")
+                .description("큐가 가득 차서 거절된 거래 수")
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("trade.pipeline.fallbacks")
+                .description("배치 트랜잭션 실패로 한 건씩 다시 처리한 배치 수")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("trade.pipeline.batch.size")
+                .description("트랜잭션 하나로 커밋한 거래 수")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("trade.pipeline.commit").publishPercentileHistogram().register(meterRegistry);
+        // 큐에 넣은 시점부터 커밋되어 future 가 완료될 때까지
+        this.latency = Timer.builder("trade.pipeline.latency").publishPercentileHistogram().register(meterRegistry);
+        Gauge.builder("trade.pipeline.queue.depth", this, TradePipeline::queueDepth).register(meterRegistry);
+        Gauge.builder("trade.pipeline.queue.capacity", this,
+                pipeline -> (double) pipeline.partitions.length * properties.getQueueCapacity())
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<TradeResult> buy(String playerId, String stockName, int quantity) {
+        return submit(playerId, stockName, quantity, TradeOrder.Side.BUY);
+    }
+
+    public CompletableFuture<TradeResult> sell(String playerId, String stockName, int quantity) {
+        return submit(playerId, stockName, quantity, TradeOrder.Side.SELL);
+    }
+
+    private CompletableFuture<TradeResult> submit(String playerId, String stockName, int quantity, TradeOrder.Side side) {
+        if (quantity <= 0) {
+            return CompletableFuture.completedFuture(TradeResult.fail(TradeResult.Status.INVALID_QUANTITY));
+        }
+        TradeOrder order = new TradeOrder();
+        order.setPlayerId(playerId);
+        order.setStockName(stockName);
+        order.setQuantity(quantity);
+        order.setSide(side);
+
+        Pending pending = new Pending(order, new CompletableFuture<>(), System.nanoTime());
+        if (!running || !partitions[Math.floorMod(playerId.hashCode(), partitions.length)].queue.offer(pending)) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Trade pipeline queue is full"));
+        }
+        return pending.future;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (Partition partition : partitions) {
+            partition.thread = new Thread(partition, "trade-pipeline-" + partition.index);
+            partition.thread.start();
+        }
+        log.info("Trade pipeline started: partitions={}, queueCapacity={}, commitInterval={}, maxBatchSize={}",
+                partitions.length, properties.getQueueCapacity(), properties.getCommitInterval(),
+                properties.getMaxBatchSize());
+    }
+
+    // 새 거래는 거절하고, 이미 받은 거래는 모두 커밋한 뒤 종료
+    @Override
+    public void stop() {
+        running = false;
+        for (Partition partition : partitions) {
+            try {
+                partition.thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // 웹 서버보다 먼저 시작하고, graceful shutdown 이 진행 중인 요청을 다 응답하고 웹 서버가 멈춘 뒤에 멈춘다
+    // (phase 가 작을수록 먼저 시작하고 늦게 멈춤. 웹 서버 시작/정지는 SMART_LIFECYCLE_PHASE - 1024)
+    @Override
+    public int getPhase() {
+        return WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 2048;
+    }
+
+    public int queueDepth() {
+        int depth = 0;
+        for (Partition partition : partitions) {
+            depth += partition.queue.size();
+        }
+        return depth;
+    }
+
+    private void commit(List<Pending> batch) {
+        List<TradeOrder> orders = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            orders.add(pending.order);
+        }
+
+        List<TradeOrderResult> results;
+        long started = System.nanoTime();
+        try {
+            results = batchTradeService.execute(orders);
+        } catch (RuntimeException e) {
+            // 롤백되었으므로 한 건씩 다시 처리 (단건 거래는 충돌 시 재시도한다)
+            log.warn("Trade pipeline batch of {} failed, applying one by one: {}", batch.size(), e.toString());
+            fallbacks.increment();
+            for (Pending pending : batch) {
+                applyAlone(pending);
+            }
+            return;
+        }
+        commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), toTradeResult(results.get(i)));
+        }
+    }
+
+    private void applyAlone(Pending pending) {
+        TradeOrder order = pending.order;
+        try {
+            complete(pending, order.getSide() == TradeOrder.Side.BUY
+                    ? playerService.buyStock(order.getPlayerId(), order.getStockName(), order.getQuantity())
+                    : playerService.sellStock(order.getPlayerId(), order.getStockName(), order.getQuantity()));
+        } catch (RuntimeException e) {
+            pending.future.completeExceptionally(e);
+        }
+    }
+
+    private void complete(Pending pending, TradeResult result) {
+        latency.record(System.nanoTime() - pending.enqueuedNanos, TimeUnit.NANOSECONDS);
+        pending.future.complete(result);
+    }
+
+    // 배치 결과에는 거래 직후 잔액만 있으므로 응답용 Player 를 만든다 (version 은 없음)
+    private static TradeResult toTradeResult(TradeOrderResult result) {
+        if (result.getStatus() != TradeResult.Status.OK) {
+            return TradeResult.fail(result.getStatus());
+        }
+        Player player = new Player();
+        player.setPlayerId(result.getPlayerId());
+        player.setPlayerMoney(result.getPlayerMoney());
+        return TradeResult.ok(player);
+    }
+
+    private record Pending(TradeOrder order, CompletableFuture<TradeResult> future, long enqueuedNanos) {
+    }
+
+    private final class Partition implements Runnable {
+        private final int index;
+        private final BlockingQueue<Pending> queue;
+        private Thread thread;
+
+        private Partition(int index, BlockingQueue<Pending> queue) {
+            this.index = index;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            int maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+            long commitNanos = properties.getCommitInterval().toNanos();
+            List<Pending> batch = new ArrayList<>(maxBatchSize);
+
+            while (running || !queue.isEmpty()) {
+                try {
+                    Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+
+                    // 첫 거래 이후 commit-interval 동안 또는 배치가 찰 때까지 모은다
+                    long deadline = System.nanoTime() + commitNanos;
+                    while (batch.size() < maxBatchSize) {
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                        long wait = deadline - System.nanoTime();
+                        if (batch.size() >= maxBatchSize || wait <= 0) {
+                            break;
+                        }
+                        Pending next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                } catch (InterruptedException e) {
+                    // 종료 중 - 모은 거래는 커밋하고 나간다
+                    running = false;
+                }
+
+                if (!batch.isEmpty()) {
+                    try {
+                        commit(batch);
+                    } catch (RuntimeException e) {
+                        log.error("Trade pipeline commit failed", e);
+                        batch.forEach(pending -> pending.future.completeExceptionally(e));
+                    }
+                    batch.clear();
+                }
+            }
+
+            // 종료 직전에 들어온 거래
+            for (Pending pending; (pending = queue.poll()) != null; ) {
+                pending.future.completeExceptionally(new RejectedExecutionException("Trade pipeline stopped"));
+            }
+        }
+    }
+}
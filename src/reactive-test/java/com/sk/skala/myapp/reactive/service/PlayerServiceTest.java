@@ -0,0 +1,171 @@
+package com.sk.skala.myapp.reactive.service;
+
+import com.sk.skala.myapp.reactive.model.Player;
+import com.sk.skala.myapp.reactive.model.PlayerStock;
+import com.sk.skala.myapp.reactive.model.Stock;
+import com.sk.skala.myapp.reactive.model.TradeResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive-test;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000",
+        "spring.sql.init.mode=always"
+})
+@ActiveProfiles("reactive")
+class PlayerServiceTest {
+    private static final String STOCK_NAME = "ReactiveCorp";
+    private static final int PRICE = 100;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private ConflictRetry conflictRetry;
+
+    @BeforeEach
+    void createStock() {
+        stockService.createStock(new Stock(STOCK_NAME, PRICE)).block();
+    }
+
+    @Test
+    void buyAndSellUpdateBalanceAndHolding() {
+        String playerId = newPlayer(10000);
+
+        assertThat(playerService.buyStock(playerId, STOCK_NAME, 30).block().isOk()).isTrue();
+        TradeResult bought = playerService.buyStock(playerId, STOCK_NAME, 20).block();
+        assertThat(bought.getPlayer().getPlayerMoney()).isEqualTo(10000 - 50 * PRICE);
+        assertThat(quantity(playerId)).isEqualTo(50);
+
+        TradeResult sold = playerService.sellStock(playerId, STOCK_NAME, 50).block();
+        assertThat(sold.isOk()).isTrue();
+        assertThat(sold.getPlayer().getPlayerMoney()).isEqualTo(10000);
+        // 0주가 된 보유 내역은 정리된다
+        assertThat(playerService.getPlayerStocks(playerId).collectList().block()).isEmpty();
+    }
+
+    @Test
+    void insufficientMoneyOrQuantityChangesNothing() {
+        String playerId = newPlayer(500);
+
+        TradeResult buy = playerService.buyStock(playerId, STOCK_NAME, 6).block();
+        assertThat(buy.getStatus()).isEqualTo(TradeResult.Status.INSUFFICIENT_MONEY);
+        assertThat(quantity(playerId)).isZero();
+
+        playerService.buyStock(playerId, STOCK_NAME, 2).block();
+        TradeResult sell = playerService.sellStock(playerId, STOCK_NAME, 3).block();
+        assertThat(sell.getStatus()).isEqualTo(TradeResult.Status.INSUFFICIENT_QUANTITY);
+        // 입금도 롤백된다
+        assertThat(money(playerId)).isEqualTo(500 - 2 * PRICE);
+        assertThat(quantity(playerId)).isEqualTo(2);
+
+        assertThat(playerService.buyStock("no-such-player", STOCK_NAME, 1).block().getStatus())
+                .isEqualTo(TradeResult.Status.PLAYER_NOT_FOUND);
+        assertThat(playerService.buyStock(playerId, "NoSuchStock", 1).block().getStatus())
+                .isEqualTo(TradeResult.Status.STOCK_NOT_FOUND);
+    }
+
+    @Test
+    void concurrentBuysAreAllApplied() {
+        String playerId = newPlayer(100000);
+        int buyers = 20;
+
+        List<TradeResult> results = Flux.range(0, buyers)
+                .flatMap(i -> playerService.buyStock(playerId, STOCK_NAME, 1).subscribeOn(Schedulers.parallel()))
+                .collectList()
+                .block();
+
+        assertThat(results).allMatch(TradeResult::isOk);
+        assertThat(money(playerId)).isEqualTo(100000 - buyers * PRICE);
+        assertThat(quantity(playerId)).isEqualTo(buyers);
+    }
+
+    @Test
+    void concurrentCreateOfSameIdIsRetried() {
+        String playerId = "reactive-create-" + System.nanoTime();
+
+        List<Player> created = Flux.range(0, 8)
+                .flatMap(i -> playerService.createPlayer(player(playerId, 1000 + i)).subscribeOn(Schedulers.parallel()))
+                .collectList()
+                .block();
+
+        // unique key 충돌로 실패한 생성은 다시 읽어서 잔액만 덮어쓴다
+        assertThat(created).hasSize(8);
+        assertThat(money(playerId)).isBetween(1000, 1007);
+    }
+
+    @Test
+    void onlyConflictsAreRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        String result = Mono.defer(() -> attempts.incrementAndGet() < 3
+                        ? Mono.<String>error(new OptimisticLockingFailureException("version mismatch"))
+                        : Mono.just("ok"))
+                .retryWhen(conflictRetry.onConflict())
+                .block();
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+
+        // 최대 횟수를 넘으면 마지막 예외를 그대로 전달
+        attempts.set(0);
+        assertThatThrownBy(() -> Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.error(new OptimisticLockingFailureException("version mismatch"));
+                })
+                .retryWhen(conflictRetry.onConflict())
+                .block())
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(attempts).hasValue(3);
+
+        // unique key 가 아닌 제약 조건 위반은 onConflictOrDuplicate 에서도 재시도하지 않는다
+        attempts.set(0);
+        assertThatThrownBy(() -> Mono.defer(() -> {
+                    attempts.incrementAndGet();
+                    return Mono.error(new DataIntegrityViolationException("not null"));
+                })
+                .retryWhen(conflictRetry.onConflictOrDuplicate())
+                .block())
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    private String newPlayer(int money) {
+        String playerId = "reactive-" + System.nanoTime();
+        playerService.createPlayer(player(playerId, money)).block();
+        return playerId;
+    }
+
+    private static Player player(String playerId, int money) {
+        Player player = new Player();
+        player.setPlayerId(playerId);
+        player.setPlayerMoney(money);
+        return player;
+    }
+
+    private int money(String playerId) {
+        return playerService.getPlayerById(playerId).block().getPlayerMoney();
+    }
+
+    private int quantity(String playerId) {
+        return playerService.getPlayerStocks(playerId)
+                .filter(holding -> holding.getStockName().equals(STOCK_NAME))
+                .map(PlayerStock::getStockQuantity)
+                .reduce(0, Integer::sum)
+                .block();
+    }
+}
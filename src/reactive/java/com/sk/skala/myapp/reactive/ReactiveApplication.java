@@ -0,0 +1,36 @@
+// ReactiveApplication.java
+package com.sk.skala.myapp.reactive;
+
+import com.sk.skala.myapp.config.ConflictRetryProperties;
+import com.sk.skala.myapp.config.PaginationProperties;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * WebFlux + R2DBC 로 동작하는 /api/stocks, /api/players 변형 (mvn -Preactive 빌드에서만 포함).
+ * 서블릿 앱(MyappApplication)의 JPA/JDBC 구성은 쓰지 않고 이 패키지만 스캔한다.
+ * 설정은 application.yaml + reactive 프로파일(application-reactive.yaml).
+ */
+@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+@EnableConfigurationProperties({PaginationProperties.class, ConflictRetryProperties.class})
+public class ReactiveApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.profiles("reactive")
+				.run(args);
+	}
+
+	// 서블릿 빌드의 Tomcat 도 classpath 에 있으므로 Reactor Netty 를 명시한다 (이벤트 루프 스레드만으로 연결 처리)
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+}
@@ -0,0 +1,43 @@
+// KeysetPaging.java
+package com.sk.skala.myapp.reactive.controller;
+
+import com.sk.skala.myapp.config.PaginationProperties;
+import com.sk.skala.myapp.model.KeysetPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * 서블릿 앱 KeysetPaging 과 같은 응답 헤더 (Link rel="next", X-Next-Cursor)
+ */
+final class KeysetPaging {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private KeysetPaging() {
+    }
+
+    // 1 ~ max-limit 범위가 아니면 -1
+    static int limit(Integer requested, PaginationProperties properties) {
+        if (requested == null) {
+            return properties.getDefaultLimit();
+        }
+        return requested > 0 && requested <= properties.getMaxLimit() ? requested : -1;
+    }
+
+    static <T> ResponseEntity<List<T>> ok(KeysetPage<T> page, int limit, ServerHttpRequest request) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            String next = UriComponentsBuilder.fromUri(request.getURI())
+                    .replaceQueryParam("after", page.getNextCursor())
+                    .replaceQueryParam("limit", limit)
+                    .encode()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
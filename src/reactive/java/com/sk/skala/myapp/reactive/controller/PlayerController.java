@@ -0,0 +1,118 @@
+// PlayerController.java
+package com.sk.skala.myapp.reactive.controller;
+
+import com.sk.skala.myapp.config.PaginationProperties;
+import com.sk.skala.myapp.model.KeysetPage;
+import com.sk.skala.myapp.model.StockRequest;
+import com.sk.skala.myapp.reactive.model.Player;
+import com.sk.skala.myapp.reactive.model.PlayerStock;
+import com.sk.skala.myapp.reactive.model.TradeResult;
+import com.sk.skala.myapp.reactive.service.PlayerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/players")
+public class PlayerController {
+    private final PlayerService playerService;
+    private final PaginationProperties paginationProperties;
+
+    @Autowired
+    public PlayerController(PlayerService playerService, PaginationProperties paginationProperties) {
+        this.playerService = playerService;
+        this.paginationProperties = paginationProperties;
+    }
+
+    // 플레이어 목록 (playerId 순 keyset 페이지). after: 이전 페이지의 마지막 playerId
+    @GetMapping
+    public Mono<ResponseEntity<List<Player>>> getAllPlayers(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request
+    ) {
+        int pageLimit = KeysetPaging.limit(limit, paginationProperties);
+        if (pageLimit < 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return playerService.getPlayers(after, pageLimit)
+                .collectList()
+                .map(players -> KeysetPaging.ok(KeysetPage.of(players, pageLimit, Player::getPlayerId),
+                        pageLimit, request));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Player>> getPlayerById(@PathVariable String id) {
+        return playerService.getPlayerById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Player>> createPlayer(@RequestBody Player player) {
+        return playerService.createPlayer(player)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Player>> updatePlayer(@PathVariable String id, @RequestBody Player player) {
+        return playerService.updatePlayer(id, player)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletePlayer(@PathVariable String id) {
+        return playerService.deletePlayer(id)
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    @GetMapping("/{id}/stocks")
+    public Flux<PlayerStock> getPlayerStocks(@PathVariable String id) {
+        return playerService.getPlayerStocks(id);
+    }
+
+    // 주식 매수: 잔액 차감 + 보유 수량 증가
+    @PostMapping("/{id}/stocks")
+    public Mono<ResponseEntity<Player>> addStockToPlayer(@PathVariable String id, @RequestBody StockRequest stockRequest) {
+        return playerService.buyStock(id, stockRequest.getStockName(), stockRequest.getQuantity())
+                .map(this::toResponse);
+    }
+
+    // 주식 매도: 보유 수량 감소 + 잔액 증가 (0주가 되면 보유 내역 삭제)
+    @PutMapping("/{id}/stocks")
+    public Mono<ResponseEntity<Player>> updatePlayerStock(@PathVariable String id, @RequestBody StockRequest stockRequest) {
+        return playerService.sellStock(id, stockRequest.getStockName(), stockRequest.getQuantity())
+                .map(this::toResponse);
+    }
+
+    private ResponseEntity<Player> toResponse(TradeResult result) {
+        switch (result.getStatus()) {
+            case OK:
+                return ResponseEntity.ok(result.getPlayer());
+            case PLAYER_NOT_FOUND:
+            case STOCK_NOT_FOUND:
+                return ResponseEntity.notFound().build();
+            case INVALID_QUANTITY:
+                return ResponseEntity.badRequest().build();
+            default:
+                // 잔액 또는 보유 수량 부족
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // 동시 변경 충돌이 재시도(conflict-retry.max-attempts) 후에도 해소되지 않은 경우
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<Void> handleConflict() {
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
@@ -0,0 +1,77 @@
+// StockController.java
+package com.sk.skala.myapp.reactive.controller;
+
+import com.sk.skala.myapp.config.PaginationProperties;
+import com.sk.skala.myapp.model.KeysetPage;
+import com.sk.skala.myapp.reactive.model.Stock;
+import com.sk.skala.myapp.reactive.service.StockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stocks")
+public class StockController {
+    private final StockService stockService;
+    private final PaginationProperties paginationProperties;
+
+    @Autowired
+    public StockController(StockService stockService, PaginationProperties paginationProperties) {
+        this.stockService = stockService;
+        this.paginationProperties = paginationProperties;
+    }
+
+    // 종목 목록 (stockName 순 keyset 페이지, 메모리 카탈로그에서 자른다)
+    @GetMapping
+    public Mono<ResponseEntity<List<Stock>>> getAllStocks(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            ServerHttpRequest request
+    ) {
+        int pageLimit = KeysetPaging.limit(limit, paginationProperties);
+        if (pageLimit < 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return stockService.getCatalog().map(stocks -> {
+            List<Stock> fetched = stocks.values().stream()
+                    .filter(stock -> after == null || stock.getStockName().compareTo(after) > 0)
+                    .limit(pageLimit + 1L)
+                    .toList();
+            return KeysetPaging.ok(KeysetPage.of(fetched, pageLimit, Stock::getStockName), pageLimit, request);
+        });
+    }
+
+    @GetMapping("/{name}")
+    public Mono<ResponseEntity<Stock>> getStockByName(@PathVariable String name) {
+        return stockService.getStockByName(name)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Stock>> createStock(@RequestBody Stock stock) {
+        return stockService.createStock(stock)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping("/{name}")
+    public Mono<ResponseEntity<Stock>> updateStock(@PathVariable String name, @RequestBody Stock stock) {
+        stock.setStockName(name);
+        return stockService.updateStock(stock)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{name}")
+    public Mono<ResponseEntity<Void>> deleteStock(@PathVariable String name) {
+        return stockService.deleteStock(name)
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+}
@@ -0,0 +1,26 @@
+// Player.java
+package com.sk.skala.myapp.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * players 테이블 (서블릿 앱의 Player 엔티티와 같은 컬럼, 같은 JSON)
+ */
+@Table("players")
+@Data
+@NoArgsConstructor
+public class Player {
+    @Id
+    private String playerId;
+    private int playerMoney;
+
+    // null 이면 save() 가 insert 한다. 조건부 UPDATE 쿼리는 직접 1 증가시킨다.
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+}
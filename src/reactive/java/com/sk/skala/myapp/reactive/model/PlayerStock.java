@@ -0,0 +1,39 @@
+// PlayerStock.java
+package com.sk.skala.myapp.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * player_stocks 테이블. 연관 관계 대신 player_id 컬럼을 그대로 둔다 (JSON 에는 포함하지 않음).
+ */
+@Table("player_stocks")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PlayerStock {
+    @Id
+    private Long id;
+
+    @JsonIgnore
+    private String playerId;
+
+    private String stockName;
+    private int stockPrice;
+    private int stockQuantity;
+
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    @Override
+    public String toString() {
+        return stockName + ":" + stockPrice + ":" + this.stockQuantity;
+    }
+}
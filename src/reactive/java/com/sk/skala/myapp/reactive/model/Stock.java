@@ -0,0 +1,25 @@
+// Stock.java
+package com.sk.skala.myapp.reactive.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("stocks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Stock {
+    @Id
+    private String stockName;
+    private int stockPrice;
+
+    @Override
+    public String toString() {
+        return stockName + ":" + stockPrice;
+    }
+}
@@ -0,0 +1,42 @@
+// PlayerRepository.java
+package com.sk.skala.myapp.reactive.repository;
+
+import com.sk.skala.myapp.reactive.model.Player;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 서블릿 앱 PlayerRepository 의 R2DBC 버전. 조건부 UPDATE 는 JPA 의 'update versioned' 처럼 version 도 올린다.
+ */
+@Repository
+public interface PlayerRepository extends R2dbcRepository<Player, String> {
+
+    // playerId keyset 페이지 (첫 페이지는 after = "")
+    @Query("select * from players where player_id > :after order by player_id limit :limit")
+    Flux<Player> findPage(@Param("after") String after, @Param("limit") int limit);
+
+    // 잔액이 충분할 때만 차감한다 (1 = 성공 / 0 = 플레이어 없음 또는 잔액 부족)
+    @Modifying
+    @Query("update players set player_money = player_money - :amount, version = version + 1 " +
+            "where player_id = :playerId and player_money >= :amount")
+    Mono<Integer> withdrawMoney(@Param("playerId") String playerId, @Param("amount") int amount);
+
+    // 잔액을 증가시킨다 (1 = 성공 / 0 = 플레이어 없음). amount 0 이면 row lock + 존재 확인
+    @Modifying
+    @Query("update players set player_money = player_money + :amount, version = version + 1 " +
+            "where player_id = :playerId")
+    Mono<Integer> depositMoney(@Param("playerId") String playerId, @Param("amount") int amount);
+
+    @Modifying
+    @Query("update players set player_money = :money, version = version + 1 where player_id = :playerId")
+    Mono<Integer> setMoney(@Param("playerId") String playerId, @Param("money") int money);
+
+    @Modifying
+    @Query("delete from players where player_id = :playerId")
+    Mono<Integer> deleteByPlayerId(@Param("playerId") String playerId);
+}
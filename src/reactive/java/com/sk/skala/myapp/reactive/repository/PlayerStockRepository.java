@@ -0,0 +1,57 @@
+// PlayerStockRepository.java
+package com.sk.skala.myapp.reactive.repository;
+
+import com.sk.skala.myapp.reactive.model.PlayerStock;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 서블릿 앱 PlayerStockRepository 의 R2DBC 버전 (거래에 쓰는 조건부 UPDATE 와 조회만)
+ */
+@Repository
+public interface PlayerStockRepository extends R2dbcRepository<PlayerStock, Long> {
+
+    Flux<PlayerStock> findByPlayerIdOrderByIdAsc(String playerId);
+
+    @Modifying
+    @Query("delete from player_stocks where player_id = :playerId")
+    Mono<Integer> deleteByPlayerId(@Param("playerId") String playerId);
+
+    // 보유 수량 증가 (1 = 성공 / 0 = 보유 내역 없음)
+    @Modifying
+    @Query("update player_stocks set stock_quantity = stock_quantity + :quantity, stock_price = :price, " +
+            "version = version + 1 where player_id = :playerId and stock_name = :stockName")
+    Mono<Integer> addQuantity(@Param("playerId") String playerId, @Param("stockName") String stockName,
+                              @Param("quantity") int quantity, @Param("price") int price);
+
+    // 보유 수량이 충분할 때만 감소 (1 = 성공 / 0 = 보유 내역 없음 또는 수량 부족)
+    @Modifying
+    @Query("update player_stocks set stock_quantity = stock_quantity - :quantity, stock_price = :price, " +
+            "version = version + 1 " +
+            "where player_id = :playerId and stock_name = :stockName and stock_quantity >= :quantity")
+    Mono<Integer> subtractQuantity(@Param("playerId") String playerId, @Param("stockName") String stockName,
+                                   @Param("quantity") int quantity, @Param("price") int price);
+
+    // 신규 보유 내역 추가. (player_id, stock_name) unique key 때문에 중복 row는 생기지 않는다.
+    @Modifying
+    @Query("insert into player_stocks (player_id, stock_name, stock_price, stock_quantity, version) " +
+            "values (:playerId, :stockName, :price, :quantity, 0)")
+    Mono<Integer> insertHolding(@Param("playerId") String playerId, @Param("stockName") String stockName,
+                                @Param("quantity") int quantity, @Param("price") int price);
+
+    // 종목 가격 변경 시 보유 내역 평가 가격 갱신 (version 은 올리지 않음)
+    @Modifying
+    @Query("update player_stocks set stock_price = :price where stock_name = :stockName and stock_price <> :price")
+    Mono<Integer> revalue(@Param("stockName") String stockName, @Param("price") int price);
+
+    // 수량이 0 이하가 된 보유 내역 정리
+    @Modifying
+    @Query("delete from player_stocks " +
+            "where player_id = :playerId and stock_name = :stockName and stock_quantity <= 0")
+    Mono<Integer> deleteEmptyHolding(@Param("playerId") String playerId, @Param("stockName") String stockName);
+}
@@ -0,0 +1,26 @@
+// StockRepository.java
+package com.sk.skala.myapp.reactive.repository;
+
+import com.sk.skala.myapp.reactive.model.Stock;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface StockRepository extends R2dbcRepository<Stock, String> {
+
+    Flux<Stock> findAllByOrderByStockNameAsc();
+
+    // id 를 직접 정하는 엔티티라 save() 는 항상 insert 로 본다. 가격 변경은 update 로 한다 (1 = 성공 / 0 = 종목 없음)
+    @Modifying
+    @Query("update stocks set stock_price = :price where stock_name = :stockName")
+    Mono<Integer> updatePrice(@Param("stockName") String stockName, @Param("price") int price);
+
+    @Modifying
+    @Query("insert into stocks (stock_name, stock_price) values (:stockName, :price)")
+    Mono<Integer> insert(@Param("stockName") String stockName, @Param("price") int price);
+}
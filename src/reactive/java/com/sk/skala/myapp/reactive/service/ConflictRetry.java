@@ -0,0 +1,49 @@
+// ConflictRetry.java
+package com.sk.skala.myapp.reactive.service;
+
+import com.sk.skala.myapp.config.ConflictRetryProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+import reactor.util.retry.Retry;
+
+/**
+ * @RetryOnConflict 의 reactive 버전. 트랜잭션 Mono 전체를 다시 구독해 처음부터 다시 실행한다.
+ * 횟수와 대기 시간은 서블릿 앱과 같은 conflict-retry.* 설정을 쓴다 (대기 중 스레드를 점유하지 않음).
+ */
+@Component
+public class ConflictRetry {
+    private final ConflictRetryProperties properties;
+
+    @Autowired
+    public ConflictRetry(ConflictRetryProperties properties) {
+        this.properties = properties;
+    }
+
+    // 버전 불일치 / row lock 충돌만 재시도
+    public Retry onConflict() {
+        return retry(ConcurrencyFailureException.class);
+    }
+
+    // 동시에 같은 키로 insert 하는 경우(unique key 충돌)도 재시도 (다른 제약 조건 위반은 재시도하지 않음)
+    public Retry onConflictOrDuplicate() {
+        return retry(ConcurrencyFailureException.class, DuplicateKeyException.class);
+    }
+
+    @SafeVarargs
+    private Retry retry(Class<? extends Throwable>... retryOn) {
+        return Retry.backoff(Math.max(0, properties.getMaxAttempts() - 1), properties.getBackoff())
+                .jitter(1.0)
+                .filter(e -> {
+                    for (Class<? extends Throwable> type : retryOn) {
+                        if (type.isInstance(e)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                })
+                // 재시도가 모두 실패하면 마지막 예외를 그대로 전달 (컨트롤러에서 409)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+}
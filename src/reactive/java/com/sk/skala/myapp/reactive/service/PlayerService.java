@@ -0,0 +1,176 @@
+// PlayerService.java
+package com.sk.skala.myapp.reactive.service;
+
+import com.sk.skala.myapp.reactive.model.Player;
+import com.sk.skala.myapp.reactive.model.PlayerStock;
+import com.sk.skala.myapp.reactive.model.Stock;
+import com.sk.skala.myapp.reactive.model.TradeResult;
+import com.sk.skala.myapp.reactive.repository.PlayerRepository;
+import com.sk.skala.myapp.reactive.repository.PlayerStockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 서블릿 앱 PlayerService 의 reactive 버전 (목록/조회/생성/수정/삭제와 매수/매도).
+ * 거래는 같은 조건부 UPDATE 를 같은 순서(플레이어 -> 보유 주식)로 실행하고,
+ * 트랜잭션은 TransactionalOperator 로, 충돌 재시도는 ConflictRetry 로 처리한다.
+ */
+@Service
+public class PlayerService {
+    private final PlayerRepository playerRepository;
+    private final PlayerStockRepository playerStockRepository;
+    private final StockService stockService;
+    private final TransactionalOperator transactionalOperator;
+    private final ConflictRetry conflictRetry;
+
+    @Autowired
+    public PlayerService(
+            PlayerRepository playerRepository,
+            PlayerStockRepository playerStockRepository,
+            StockService stockService,
+            TransactionalOperator transactionalOperator,
+            ConflictRetry conflictRetry
+    ) {
+        this.playerRepository = playerRepository;
+        this.playerStockRepository = playerStockRepository;
+        this.stockService = stockService;
+        this.transactionalOperator = transactionalOperator;
+        this.conflictRetry = conflictRetry;
+    }
+
+    // limit + 1 건을 조회한다 (KeysetPage.of 로 다음 커서 계산)
+    public Flux<Player> getPlayers(String after, int limit) {
+        return playerRepository.findPage(after != null ? after : "", limit + 1);
+    }
+
+    public Mono<Player> getPlayerById(String playerId) {
+        return playerRepository.findById(playerId);
+    }
+
+    // 이미 있는 플레이어면 잔액만 덮어쓴다
+    public Mono<Player> createPlayer(Player player) {
+        return playerRepository.findById(player.getPlayerId())
+                .flatMap(existingPlayer -> {
+                    existingPlayer.setPlayerMoney(player.getPlayerMoney());
+                    return playerRepository.save(existingPlayer);
+                })
+                .switchIfEmpty(Mono.defer(() -> {
+                    player.setVersion(null);
+                    return playerRepository.save(player);
+                }))
+                .as(transactionalOperator::transactional)
+                .retryWhen(conflictRetry.onConflictOrDuplicate());
+    }
+
+    // 읽은 뒤 버전 검사 update (충돌하면 다시 읽어서 적용)
+    public Mono<Player> updatePlayer(String playerId, Player playerDetails) {
+        return playerRepository.findById(playerId)
+                .flatMap(existingPlayer -> {
+                    existingPlayer.setPlayerMoney(playerDetails.getPlayerMoney());
+                    return playerRepository.save(existingPlayer);
+                })
+                .as(transactionalOperator::transactional)
+                .retryWhen(conflictRetry.onConflict());
+    }
+
+    public Mono<Boolean> deletePlayer(String playerId) {
+        return playerStockRepository.deleteByPlayerId(playerId)
+                .then(playerRepository.deleteByPlayerId(playerId))
+                .map(deleted -> deleted > 0)
+                .as(transactionalOperator::transactional)
+                .retryWhen(conflictRetry.onConflict());
+    }
+
+    public Flux<PlayerStock> getPlayerStocks(String playerId) {
+        return playerStockRepository.findByPlayerIdOrderByIdAsc(playerId);
+    }
+
+    /**
+     * 주식 매수 (잔액 차감 1 + 보유 수량 증가 1 [+ 신규 보유 insert 1] + 결과 조회 1)
+     */
+    public Mono<TradeResult> buyStock(String playerId, String stockName, int quantity) {
+        if (quantity <= 0) {
+            return Mono.just(TradeResult.fail(TradeResult.Status.INVALID_QUANTITY));
+        }
+        return stockService.getStockByName(stockName)
+                .flatMap(stock -> buy(playerId, stock, quantity))
+                .defaultIfEmpty(TradeResult.fail(TradeResult.Status.STOCK_NOT_FOUND));
+    }
+
+    private Mono<TradeResult> buy(String playerId, Stock stock, int quantity) {
+        int cost;
+        try {
+            cost = Math.multiplyExact(stock.getStockPrice(), quantity);
+        } catch (ArithmeticException e) {
+            return Mono.just(TradeResult.fail(TradeResult.Status.INVALID_QUANTITY));
+        }
+
+        String stockName = stock.getStockName();
+        int price = stock.getStockPrice();
+        return playerRepository.withdrawMoney(playerId, cost)
+                .flatMap(withdrawn -> {
+                    if (withdrawn == 0) {
+                        // 실패한 경우에만 원인을 구분하기 위해 한 번 더 조회
+                        return playerRepository.existsById(playerId)
+                                .map(exists -> TradeResult.fail(exists
+                                        ? TradeResult.Status.INSUFFICIENT_MONEY
+                                        : TradeResult.Status.PLAYER_NOT_FOUND));
+                    }
+                    // 플레이어 row lock 을 잡은 상태이므로 update 후 insert 사이에 다른 거래가 끼어들 수 없다
+                    return playerStockRepository.addQuantity(playerId, stockName, quantity, price)
+                            .flatMap(added -> added > 0
+                                    ? Mono.just(added)
+                                    : playerStockRepository.insertHolding(playerId, stockName, quantity, price))
+                            .then(playerRepository.findById(playerId))
+                            .map(TradeResult::ok);
+                })
+                .as(transactionalOperator::transactional)
+                .retryWhen(conflictRetry.onConflict());
+    }
+
+    /**
+     * 주식 매도 (입금 1 + 보유 수량 감소 1 + 0주 보유 정리 1 + 결과 조회 1).
+     * 보유 수량이 부족하면 트랜잭션을 롤백해 입금도 취소한다.
+     */
+    public Mono<TradeResult> sellStock(String playerId, String stockName, int quantity) {
+        if (quantity <= 0) {
+            return Mono.just(TradeResult.fail(TradeResult.Status.INVALID_QUANTITY));
+        }
+        return stockService.getStockByName(stockName)
+                .flatMap(stock -> sell(playerId, stock, quantity))
+                .defaultIfEmpty(TradeResult.fail(TradeResult.Status.STOCK_NOT_FOUND));
+    }
+
+    private Mono<TradeResult> sell(String playerId, Stock stock, int quantity) {
+        int proceeds;
+        try {
+            proceeds = Math.multiplyExact(stock.getStockPrice(), quantity);
+        } catch (ArithmeticException e) {
+            return Mono.just(TradeResult.fail(TradeResult.Status.INVALID_QUANTITY));
+        }
+
+        String stockName = stock.getStockName();
+        int price = stock.getStockPrice();
+        return transactionalOperator.execute(status -> playerRepository.depositMoney(playerId, proceeds)
+                        .flatMap(deposited -> {
+                            if (deposited == 0) {
+                                return Mono.just(TradeResult.fail(TradeResult.Status.PLAYER_NOT_FOUND));
+                            }
+                            return playerStockRepository.subtractQuantity(playerId, stockName, quantity, price)
+                                    .flatMap(subtracted -> {
+                                        if (subtracted == 0) {
+                                            status.setRollbackOnly();
+                                            return Mono.just(TradeResult.fail(TradeResult.Status.INSUFFICIENT_QUANTITY));
+                                        }
+                                        return playerStockRepository.deleteEmptyHolding(playerId, stockName)
+                                                .then(playerRepository.findById(playerId))
+                                                .map(TradeResult::ok);
+                                    });
+                        }))
+                .single()
+                .retryWhen(conflictRetry.onConflict());
+    }
+}
@@ -0,0 +1,89 @@
+// StockService.java
+package com.sk.skala.myapp.reactive.service;
+
+import com.sk.skala.myapp.reactive.model.Stock;
+import com.sk.skala.myapp.reactive.repository.PlayerStockRepository;
+import com.sk.skala.myapp.reactive.repository.StockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 종목 조회/변경. 서블릿 앱의 StockCatalog 처럼 전체 목록을 메모리에 두고 (stock-catalog.max-age 마다 다시 읽음)
+ * 이 인스턴스에서 종목을 변경하면 바로 버린다. 여러 요청이 동시에 만료된 캐시를 보면 DB 조회는 한 번만 한다.
+ */
+@Service
+public class StockService {
+    private final StockRepository stockRepository;
+    private final PlayerStockRepository playerStockRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final Duration maxAge;
+
+    // stockName 순 (LinkedHashMap)
+    private final AtomicReference<Mono<Map<String, Stock>>> catalog = new AtomicReference<>();
+
+    @Autowired
+    public StockService(
+            StockRepository stockRepository,
+            PlayerStockRepository playerStockRepository,
+            TransactionalOperator transactionalOperator,
+            @Value("${stock-catalog.max-age:30s}") Duration maxAge
+    ) {
+        this.stockRepository = stockRepository;
+        this.playerStockRepository = playerStockRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.maxAge = maxAge;
+        evict();
+    }
+
+    public Mono<Map<String, Stock>> getCatalog() {
+        return catalog.get();
+    }
+
+    public Mono<Stock> getStockByName(String stockName) {
+        return getCatalog().mapNotNull(stocks -> stocks.get(stockName));
+    }
+
+    // 있으면 가격만 바꾸고 없으면 추가
+    public Mono<Stock> createStock(Stock stock) {
+        return stockRepository.updatePrice(stock.getStockName(), stock.getStockPrice())
+                .flatMap(updated -> updated > 0
+                        ? playerStockRepository.revalue(stock.getStockName(), stock.getStockPrice())
+                        : stockRepository.insert(stock.getStockName(), stock.getStockPrice()))
+                .as(transactionalOperator::transactional)
+                .doFinally(signal -> evict())
+                .thenReturn(stock);
+    }
+
+    // 보유 내역의 평가 가격도 같은 트랜잭션에서 갱신한다
+    public Mono<Stock> updateStock(Stock stock) {
+        return stockRepository.updatePrice(stock.getStockName(), stock.getStockPrice())
+                .filter(updated -> updated > 0)
+                .flatMap(updated -> playerStockRepository.revalue(stock.getStockName(), stock.getStockPrice()))
+                .as(transactionalOperator::transactional)
+                .doFinally(signal -> evict())
+                .map(revalued -> stock);
+    }
+
+    public Mono<Boolean> deleteStock(String stockName) {
+        return stockRepository.existsById(stockName)
+                .filter(Boolean::booleanValue)
+                .flatMap(exists -> stockRepository.deleteById(stockName).thenReturn(true))
+                .defaultIfEmpty(false)
+                .doFinally(signal -> evict());
+    }
+
+    private void evict() {
+        catalog.set(stockRepository.findAllByOrderByStockNameAsc()
+                .collectMap(Stock::getStockName, stock -> stock, LinkedHashMap::new)
+                // 실패한 조회는 캐시하지 않는다
+                .cache(stocks -> maxAge, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+}
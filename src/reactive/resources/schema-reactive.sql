@@ -0,0 +1,24 @@
+create table if not exists players (
+    player_id varchar(255) not null primary key,
+    player_money integer not null,
+    version bigint default 0 not null
+);
+
+create table if not exists stocks (
+    stock_name varchar(255) not null primary key,
+    stock_price integer not null
+);
+
+create table if not exists player_stocks (
+    id bigint auto_increment primary key,
+    player_id varchar(255),
+    stock_name varchar(255),
+    stock_price integer not null,
+    stock_quantity integer not null,
+    version bigint default 0 not null,
+    unique (player_id, stock_name)
+);
+
+-- 버전 컬럼이 생기기 전의 DB 파일 (서블릿 앱은 ddl-auto: update 로 추가한다)
+alter table players add column if not exists version bigint default 0 not null;
+alter table player_stocks add column if not exists version bigint default 0 not null;
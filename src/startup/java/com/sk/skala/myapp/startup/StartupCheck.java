@@ -0,0 +1,196 @@
+package com.sk.skala.myapp.startup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * time-to-first-request 측정 (fast-startup 프로파일의 integration-test 단계에서 실행).
+ *
+ * 추출한 jar 를 별도 JVM 으로 기동하고, 프로세스 시작부터 GET /api/stocks 가 처음 200 을 응답할 때까지의 시간을 잰다.
+ * 같은 jar 를 기본 실행(baseline)과 AOT + CDS 실행(fast)으로 번갈아 기동해 비교하고 target/startup-result.json 에 저장한다.
+ * DB 는 in-memory H2 (빈 DB 이므로 초기 데이터 적재 시간도 포함된다).
+ *
+ * --jar=target/fast-startup/myapp.jar
+ * --archive=target/fast-startup/application.jsa   CDS 아카이브 (없으면 fast 모드는 AOT 만 사용)
+ * --runs=3                 모드별 기동 횟수 (중앙값으로 비교)
+ * --target=1000ms          fast 모드 중앙값 목표
+ * --enforce=false          true 이면 목표를 넘을 때 빌드 실패
+ * --timeout=60s            기동 1회 최대 대기 시간
+ * --output=target/startup-result.json
+ */
+public class StartupCheck {
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Paths.get("target/fast-startup/myapp.jar");
+        Path archive = Paths.get("target/fast-startup/application.jsa");
+        int runs = 3;
+        Duration target = Duration.ofSeconds(1);
+        boolean enforce = false;
+        Duration timeout = Duration.ofSeconds(60);
+        Path output = Paths.get("target/startup-result.json");
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1).trim();
+            switch (key) {
+                case "jar" -> jar = Paths.get(value);
+                case "archive" -> archive = Paths.get(value);
+                case "runs" -> runs = Integer.parseInt(value);
+                case "target" -> target = parseDuration(value);
+                case "enforce" -> enforce = Boolean.parseBoolean(value);
+                case "timeout" -> timeout = parseDuration(value);
+                case "output" -> output = Paths.get(value);
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        if (!Files.exists(jar)) {
+            throw new IllegalStateException("Extracted jar not found: " + jar + " (run mvn -Pfast-startup verify)");
+        }
+
+        List<String> fastOptions = new ArrayList<>(List.of("-Dspring.aot.enabled=true"));
+        if (Files.exists(archive)) {
+            fastOptions.add("-XX:SharedArchiveFile=" + archive);
+        } else {
+            System.out.printf("CDS archive %s not found, measuring AOT only%n", archive);
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        Path logs = output.toAbsolutePath().getParent().resolve("startup-logs");
+        Files.createDirectories(logs);
+
+        long[] baseline = new long[runs];
+        long[] fast = new long[runs];
+        // 디스크 캐시 영향을 나누기 위해 두 모드를 번갈아 실행
+        for (int run = 0; run < runs; run++) {
+            baseline[run] = measure(client, jar, List.of(), logs.resolve("baseline-" + run + ".log"), timeout);
+            fast[run] = measure(client, jar, fastOptions, logs.resolve("fast-" + run + ".log"), timeout);
+            System.out.printf("Run %d: baseline %d ms, fast %d ms%n", run + 1, baseline[run], fast[run]);
+        }
+
+        ObjectNode result = JSON.createObjectNode();
+        result.put("timestamp", Instant.now().toString());
+        result.put("javaVersion", Runtime.version().toString());
+        result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        result.put("targetMillis", target.toMillis());
+        result.set("baseline", summary(baseline, List.of()));
+        result.set("fast", summary(fast, fastOptions));
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        JSON.writeValue(output.toFile(), result);
+
+        long median = median(fast);
+        System.out.printf("%nTime to first request (median of %d): baseline %d ms, fast %d ms (target %d ms)%n",
+                runs, median(baseline), median, target.toMillis());
+        System.out.printf("Result written to %s, application logs in %s%n", output, logs);
+        if (median > target.toMillis()) {
+            String message = String.format("Time to first request %d ms exceeds target %d ms", median, target.toMillis());
+            if (enforce) {
+                throw new IllegalStateException(message);
+            }
+            System.out.println("WARNING: " + message);
+        }
+    }
+
+    // 프로세스 시작부터 첫 200 응답까지 (ms)
+    private static long measure(HttpClient client, Path jar, List<String> jvmOptions, Path log, Duration timeout)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        int managementPort = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", jar.getFileName().toString(),
+                "--server.port=" + port,
+                "--management.server.port=" + managementPort,
+                "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stocks"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = startedAt + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                    }
+                } catch (IOException e) {
+                    // 아직 포트가 열리지 않음
+                }
+                Thread.sleep(POLL_INTERVAL.toMillis());
+            }
+            throw new IllegalStateException("No successful response within " + timeout + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static ObjectNode summary(long[] millis, List<String> jvmOptions) {
+        ObjectNode node = JSON.createObjectNode();
+        node.put("jvmOptions", String.join(" ", jvmOptions));
+        node.put("medianMillis", median(millis));
+        node.put("minMillis", Arrays.stream(millis).min().orElse(0));
+        node.put("maxMillis", Arrays.stream(millis).max().orElse(0));
+        ArrayNode runs = node.putArray("runsMillis");
+        Arrays.stream(millis).forEach(runs::add);
+        return node;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,116 @@
+package com.sk.skala.myapp.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "admission-control.enabled=true")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class AdmissionControlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdmissionControlProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void floodingPlayerIsShedWithRetryAfterWhileOthersAreAdmitted() throws Exception {
+        String flooder = "admission-bot-" + System.nanoTime();
+        MockHttpServletResponse shed = null;
+        for (int i = 0; i < properties.getPlayerBurst() * 2 && shed == null; i++) {
+            MockHttpServletResponse response = mockMvc.perform(get("/api/players/" + flooder + "/stocks"))
+                    .andReturn().getResponse();
+            if (response.getStatus() == 429) {
+                shed = response;
+            }
+        }
+
+        assertThat(shed).isNotNull();
+        assertThat(Long.parseLong(shed.getHeader(HttpHeaders.RETRY_AFTER))).isPositive();
+        mockMvc.perform(get("/api/players/admission-other-" + System.nanoTime() + "/stocks"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void concurrencyLimitRejectsInsteadOfQueueing() {
+        AdmissionControlProperties limited = new AdmissionControlProperties();
+        limited.setMaxWait(Duration.ZERO);
+        AdmissionControl control = new AdmissionControl(limited, 1, new SimpleMeterRegistry());
+
+        assertThat(control.tryAdmit(null)).isZero();
+        assertThat(control.tryAdmit(null)).isEqualTo(1);
+        control.release();
+        assertThat(control.tryAdmit("player")).isZero();
+        control.release();
+
+        // 0 = 동시 처리 한도 없음 (저널 모드)
+        AdmissionControl unlimited = new AdmissionControl(limited, 0, new SimpleMeterRegistry());
+        assertThat(unlimited.tryAdmit(null)).isZero();
+        assertThat(unlimited.tryAdmit(null)).isZero();
+        unlimited.release();
+    }
+
+    @Test
+    void idleBucketsArePurgedGraduallyButLimitedPlayersKeepTheirBucket() {
+        AdmissionControlProperties fastRefill = new AdmissionControlProperties();
+        fastRefill.setPlayerRate(1e9);
+        fastRefill.setPlayerBurst(1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionControl control = new AdmissionControl(fastRefill, 0, registry);
+
+        // 곧바로 다시 가득 차는 bucket 은 한계를 넘은 뒤 요청마다 조금씩 정리되어 한계 근처에 머문다
+        for (int i = 0; i < 30_000; i++) {
+            assertThat(control.tryAdmit("idle-" + i)).isZero();
+        }
+        assertThat(registry.get("admission.buckets").gauge().value()).isLessThan(11_000);
+
+        AdmissionControlProperties slowRefill = new AdmissionControlProperties();
+        slowRefill.setPlayerRate(0.001);
+        slowRefill.setPlayerBurst(2);
+        AdmissionControl limited = new AdmissionControl(slowRefill, 0, new SimpleMeterRegistry());
+        assertThat(limited.tryAdmit("bot")).isZero();
+        assertThat(limited.tryAdmit("bot")).isZero();
+        assertThat(limited.tryAdmit("bot")).isPositive();
+        // 토큰을 쓴 bucket 은 가득 차 있지 않으므로 정리 대상이 아니다 (속도 제한이 풀리지 않음)
+        for (int i = 0; i < 30_000; i++) {
+            limited.tryAdmit("other-" + i);
+        }
+        assertThat(limited.tryAdmit("bot")).isPositive();
+    }
+
+    @Test
+    void stockReadsDoNotTakeAdmission() throws Exception {
+        double before = admitted().count();
+        // 종목 조회는 메모리에서 응답하므로 동시 처리 자리를 쓰지 않는다
+        mockMvc.perform(get("/api/stocks/TechCorp")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/stocks")).andExpect(status().isOk());
+        assertThat(admitted().count()).isEqualTo(before);
+
+        mockMvc.perform(get("/api/players/admission-reader-" + System.nanoTime() + "/stocks"))
+                .andExpect(status().isOk());
+        assertThat(admitted().count()).isEqualTo(before + 1);
+    }
+
+    private Counter admitted() {
+        return meterRegistry.get("admission.requests").tag("result", "admitted").counter();
+    }
+}
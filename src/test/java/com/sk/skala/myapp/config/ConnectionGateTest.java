@@ -0,0 +1,69 @@
+package com.sk.skala.myapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConnectionGateTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void limitsConnectionsAndReleasesOnClose() throws Exception {
+        ConnectionGateDataSource gate = new ConnectionGateDataSource(dataSource, 2, TimeUnit.MILLISECONDS.toNanos(50));
+
+        Connection first = gate.getConnection();
+        Connection second = gate.getConnection();
+        assertThat(gate.getAvailable()).isZero();
+        assertThatThrownBy(gate::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        // 두 번 닫아도 자리는 한 번만 반환
+        first.close();
+        first.close();
+        assertThat(gate.getAvailable()).isEqualTo(1);
+        try (Connection third = gate.getConnection()) {
+            assertThat(third.isValid(1)).isTrue();
+        }
+        second.close();
+        assertThat(gate.getAvailable()).isEqualTo(2);
+    }
+
+    @Test
+    void waitersAreServedAsConnectionsAreReturned() throws Exception {
+        ConnectionGateDataSource gate = new ConnectionGateDataSource(dataSource, 1, TimeUnit.SECONDS.toNanos(5));
+        Connection held = gate.getConnection();
+
+        List<CompletableFuture<Boolean>> waiters = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            waiters.add(CompletableFuture.supplyAsync(() -> {
+                try (Connection connection = gate.getConnection()) {
+                    return connection.isValid(1);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        while (gate.getWaiting() == 0) {
+            Thread.onSpinWait();
+        }
+        held.close();
+
+        assertThat(waiters).allSatisfy(waiter -> assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue());
+        assertThat(gate.getAvailable()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,60 @@
+package com.sk.skala.myapp.config;
+
+import com.sk.skala.myapp.repository.PlayerRepository;
+import com.sk.skala.myapp.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DataLoaderTest {
+
+    @Autowired
+    private CommandLineRunner loadData;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private BulkLoadProperties properties;
+
+    @Test
+    void seedsDefaultStocksFromFileOnce() throws Exception {
+        assertThat(stockRepository.findById("samsung")).isPresent();
+        assertThat(stockRepository.findById("TechCorp").orElseThrow().getStockPrice()).isEqualTo(100);
+
+        long stocks = stockRepository.count();
+        long players = playerRepository.count();
+
+        // 데이터가 있으면 다시 실행해도 적재하지 않는다
+        loadData.run();
+        assertThat(stockRepository.count()).isEqualTo(stocks);
+        assertThat(playerRepository.count()).isEqualTo(players);
+    }
+
+    @Test
+    void alwaysModeRestartWithTheSameFileSkipsExistingPlayers() throws Exception {
+        // ALWAYS: 이미 적재된 players.txt 로 다시 기동해도 실패하지 않고 건너뛴다
+        BulkLoadProperties.StartupMode mode = properties.getStartupMode();
+        properties.setStartupMode(BulkLoadProperties.StartupMode.ALWAYS);
+        try {
+            long stocks = stockRepository.count();
+            long players = playerRepository.count();
+
+            loadData.run();
+
+            assertThat(stockRepository.count()).isEqualTo(stocks);
+            assertThat(playerRepository.count()).isEqualTo(players);
+        } finally {
+            properties.setStartupMode(mode);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.sk.skala.myapp.config;
+
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import com.sk.skala.myapp.service.PlayerService;
+import com.sk.skala.myapp.service.StockCatalog;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * in-memory H2 두 개를 primary / replica 로 두고 라우팅을 확인한다.
+ * replica 는 복제를 하지 않으므로, 같은 플레이어를 두 DB에 다른 잔액으로 넣어 어느 쪽에서 읽었는지 구분한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "datasource-routing.enabled=true",
+        "datasource-routing.max-replica-lag=500ms",
+        "datasource-routing.replicas[0].url=" + DataSourceRoutingTest.REPLICA_URL
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class DataSourceRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final int PRIMARY_MONEY = 1_000;
+    private static final int REPLICA_MONEY = 42;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockCatalog stockCatalog;
+
+    private static JdbcTemplate replica;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("create table if not exists players " +
+                "(player_id varchar(255) primary key, player_money integer not null, version bigint default 0 not null)");
+        replica.execute("create table if not exists stocks " +
+                "(stock_name varchar(255) primary key, stock_price integer not null)");
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplicaAndWritesUsePrimary() {
+        givenPlayer("routing-a");
+
+        assertThat(playerService.getPlayerById("routing-a").getPlayerMoney()).isEqualTo(REPLICA_MONEY);
+        assertThat(playerService.getAllPlayers())
+                .filteredOn(player -> player.getPlayerId().equals("routing-a"))
+                .extracting(Player::getPlayerMoney)
+                .containsExactly(REPLICA_MONEY);
+
+        // 쓰기 트랜잭션 안의 조회는 primary
+        assertThat(playerService.buyStock("routing-a", "TechCorp", 1).getPlayer().getPlayerMoney())
+                .isLessThan(PRIMARY_MONEY)
+                .isGreaterThan(REPLICA_MONEY);
+    }
+
+    @Test
+    void playerReadsOwnWritesWithinLagTolerance() throws Exception {
+        givenPlayer("routing-b");
+        givenPlayer("routing-c");
+
+        mockMvc.perform(put("/api/players/routing-b")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"playerId\":\"routing-b\",\"playerMoney\":777}"))
+                .andExpect(status().isOk());
+
+        // 방금 변경한 플레이어는 primary, 다른 플레이어는 replica
+        mockMvc.perform(get("/api/players/routing-b")).andExpect(jsonPath("$.playerMoney").value(777));
+        mockMvc.perform(get("/api/players/routing-c")).andExpect(jsonPath("$.playerMoney").value(REPLICA_MONEY));
+
+        // 지연 허용치가 지나면 다시 replica
+        Thread.sleep(700);
+        mockMvc.perform(get("/api/players/routing-b")).andExpect(jsonPath("$.playerMoney").value(REPLICA_MONEY));
+    }
+
+    @Test
+    void stockCatalogIsLoadedFromPrimary() {
+        int primaryPrice = stockCatalog.get("TechCorp").getStockPrice();
+        replica.update("merge into stocks (stock_name, stock_price) key (stock_name) values (?, ?)",
+                "TechCorp", primaryPrice + 1);
+
+        // 트랜잭션 밖에서 다시 적재해도 replica 값이 캐시되지 않는다
+        stockCatalog.invalidate();
+        assertThat(stockCatalog.get("TechCorp").getStockPrice()).isEqualTo(primaryPrice);
+    }
+
+    private void givenPlayer(String playerId) {
+        Player player = new Player(playerId);
+        player.setPlayerMoney(PRIMARY_MONEY);
+        playerRepository.save(player);
+        replica.update("merge into players (player_id, player_money) key (player_id) values (?, ?)",
+                playerId, REPLICA_MONEY);
+    }
+}
@@ -0,0 +1,88 @@
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class KeysetPaginationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (String playerId : new String[]{"kp-a", "kp-b", "kp-c"}) {
+            if (playerRepository.existsById(playerId)) {
+                continue;
+            }
+            Player player = new Player(playerId);
+            player.setPlayerMoney(100);
+            playerRepository.save(player);
+        }
+    }
+
+    @Test
+    void playersArePagedByCursor() throws Exception {
+        mockMvc.perform(get("/api/players").param("after", "kp-").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].playerId").value("kp-a"))
+                .andExpect(jsonPath("$[1].playerId").value("kp-b"))
+                .andExpect(header().string(KeysetPaging.NEXT_CURSOR_HEADER, "kp-b"))
+                .andExpect(header().string("Link", containsString("after=kp-b&limit=2>; rel=\"next\"")));
+
+        mockMvc.perform(get("/api/players").param("after", "kp-b").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].playerId").value("kp-c"));
+    }
+
+    @Test
+    void fieldsSelectSparseProjection() throws Exception {
+        mockMvc.perform(get("/api/players").param("after", "kp-").param("limit", "1").param("fields", "playerId"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].playerId").value("kp-a"))
+                .andExpect(jsonPath("$[0].playerMoney").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist());
+
+        mockMvc.perform(get("/api/stocks").param("fields", "stockPrice").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].stockName").doesNotExist())
+                .andExpect(jsonPath("$[0].stockPrice").exists());
+    }
+
+    @Test
+    void stocksAreOrderedByNameFromCursor() throws Exception {
+        mockMvc.perform(get("/api/stocks").param("after", "GreenEnergy").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].stockName").value("HealthPlus"))
+                .andExpect(header().string(KeysetPaging.NEXT_CURSOR_HEADER, "HealthPlus"));
+    }
+
+    @Test
+    void rejectsInvalidParameters() throws Exception {
+        mockMvc.perform(get("/api/players").param("fields", "password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/stocks").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
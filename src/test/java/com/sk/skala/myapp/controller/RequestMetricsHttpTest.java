@@ -0,0 +1,104 @@
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * RequestMetricsFilter / MetricsConfig 가 요청 메트릭을 uri 템플릿과 status 태그로 기록하는지 확인한다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class RequestMetricsHttpTest {
+    private static final String STOCKS_URI = "/api/players/{id}/stocks";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void requestsAreTaggedByUriTemplateAndStatus() throws Exception {
+        String playerId = "metrics-http-" + System.nanoTime();
+        playerRepository.save(new Player(playerId));
+        DistributionSummary statements = sqlStatements(STOCKS_URI, "200");
+        Timer dbWait = dbWait(STOCKS_URI, "200");
+        long recorded = statements.count();
+        double statementTotal = statements.totalAmount();
+
+        mockMvc.perform(get(STOCKS_URI, playerId)).andExpect(status().isOk());
+
+        // 요청 하나당 한 번, 보유 주식 조회 SQL 과 커넥션 획득이 함께 기록된다
+        assertThat(statements.count()).isEqualTo(recorded + 1);
+        assertThat(statements.totalAmount()).isGreaterThan(statementTotal);
+        assertThat(dbWait.count()).isEqualTo(recorded + 1);
+        // Spring 기본 요청 타이머와 @Timed 서비스 타이머
+        assertThat(meterRegistry.find("http.server.requests")
+                .tags("method", "GET", "uri", STOCKS_URI, "status", "200").timer()).isNotNull();
+        Timer service = meterRegistry.find("service.method").tag("method", "getPlayerStocks").timer();
+        assertThat(service).isNotNull();
+        assertThat(service.getId().getTag("class")).endsWith("PlayerService");
+        assertThat(service.count()).isPositive();
+
+        // 실제 id 는 태그에 들어가지 않는다 (카디널리티 폭증 방지)
+        assertThat(meterRegistry.getMeters()).noneMatch(meter -> meter.getId().getTags().stream()
+                .anyMatch(tag -> tag.getValue().contains(playerId)));
+    }
+
+    @Test
+    void errorStatusIsRecordedSeparately() throws Exception {
+        long notFound = sqlStatements("/api/players/{id}", "404").count();
+        long found = sqlStatements("/api/players/{id}", "200").count();
+
+        mockMvc.perform(get("/api/players/{id}", "metrics-missing-" + System.nanoTime()))
+                .andExpect(status().isNotFound());
+
+        assertThat(sqlStatements("/api/players/{id}", "404").count()).isEqualTo(notFound + 1);
+        assertThat(sqlStatements("/api/players/{id}", "200").count()).isEqualTo(found);
+        assertThat(dbWait("/api/players/{id}", "404").count()).isEqualTo(notFound + 1);
+    }
+
+    @Test
+    void requestsOutsideTheApiAreNotMeasured() throws Exception {
+        long before = sqlStatementCounts();
+
+        mockMvc.perform(get("/swagger/not-here"));
+
+        assertThat(sqlStatementCounts()).isEqualTo(before);
+    }
+
+    private long sqlStatementCounts() {
+        return meterRegistry.find("http.server.requests.sql.statements").summaries().stream()
+                .mapToLong(DistributionSummary::count)
+                .sum();
+    }
+
+    private DistributionSummary sqlStatements(String uri, String status) {
+        return DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags("method", "GET", "uri", uri, "status", status)
+                .register(meterRegistry);
+    }
+
+    private Timer dbWait(String uri, String status) {
+        return Timer.builder("http.server.requests.db.wait")
+                .tags("method", "GET", "uri", uri, "status", status)
+                .register(meterRegistry);
+    }
+}
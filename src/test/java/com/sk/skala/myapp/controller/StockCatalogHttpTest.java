@@ -0,0 +1,101 @@
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.service.StockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class StockCatalogHttpTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        // 전체 목록이 catalog-http.gzip-min-size(1KB)를 넘도록 종목을 채운다
+        for (int i = 0; i < 40; i++) {
+            String stockName = String.format("Etag-%02d", i);
+            if (stockService.getStockByName(stockName) == null) {
+                stockService.createStock(new Stock(stockName, 10 + i));
+            }
+        }
+    }
+
+    @Test
+    void matchingETagReturnsNotModifiedUntilCatalogChanges() throws Exception {
+        String eTag = mockMvc.perform(get("/api/stocks"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).startsWith("\"");
+        int originalPrice = stockService.getStockByName("Etag-00").getStockPrice();
+
+        mockMvc.perform(get("/api/stocks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        stockService.updateStock(new Stock("Etag-00", 999));
+
+        String changed = mockMvc.perform(get("/api/stocks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(eTag);
+
+        // ETag 는 내용으로만 정해지므로 (버전이 올라가도) 같은 목록으로 돌아가면 같은 ETag
+        stockService.updateStock(new Stock("Etag-00", originalPrice));
+        mockMvc.perform(get("/api/stocks").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        String stockETag = mockMvc.perform(get("/api/stocks/Etag-01"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/stocks/Etag-01").header(HttpHeaders.IF_NONE_MATCH, stockETag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void gzipBodyIsTheSameListWithItsOwnETag() throws Exception {
+        MvcResult plain = mockMvc.perform(get("/api/stocks"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn();
+        MvcResult gzip = mockMvc.perform(get("/api/stocks").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+
+        byte[] unzipped;
+        try (GZIPInputStream in = new GZIPInputStream(
+                new ByteArrayInputStream(gzip.getResponse().getContentAsByteArray()))) {
+            unzipped = in.readAllBytes();
+        }
+        assertThat(unzipped).isEqualTo(plain.getResponse().getContentAsByteArray());
+        assertThat(gzip.getResponse().getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(plain.getResponse().getHeader(HttpHeaders.ETAG));
+
+        mockMvc.perform(get("/api/stocks").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+}
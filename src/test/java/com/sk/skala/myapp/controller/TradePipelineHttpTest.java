@@ -0,0 +1,69 @@
+package com.sk.skala.myapp.controller;
+
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * trade-pipeline.enabled=true 에서 매수 요청이 비동기로 응답되고, 요청 메트릭이 ASYNC dispatch 에서 한 번 기록되는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pipeline-http;DB_CLOSE_DELAY=-1",
+        "trade-pipeline.enabled=true"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class TradePipelineHttpTest {
+    private static final String TRADE_URI = "/api/players/{id}/stocks";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void asyncTradeIsRecordedOnFinalDispatch() throws Exception {
+        String playerId = "pipeline-http-" + System.nanoTime();
+        playerRepository.save(new Player(playerId));
+        long recorded = sqlStatements().count();
+
+        MvcResult started = mockMvc.perform(post(TRADE_URI, playerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockName\":\"TechCorp\",\"quantity\":1}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // 처음 dispatch 가 끝난 시점에는 아직 기록하지 않는다
+        assertThat(sqlStatements().count()).isEqualTo(recorded);
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.playerId").value(playerId));
+        assertThat(sqlStatements().count()).isEqualTo(recorded + 1);
+    }
+
+    private DistributionSummary sqlStatements() {
+        return DistributionSummary.builder("http.server.requests.sql.statements")
+                .tags("method", "POST", "uri", TRADE_URI, "status", "200")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,117 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.model.TradeOrderResult;
+import com.sk.skala.myapp.model.TradeResult;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import com.sk.skala.myapp.repository.PlayerStockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchTradeServiceTest {
+
+    @Autowired
+    private BatchTradeService batchTradeService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private PlayerStockRepository playerStockRepository;
+
+    @Test
+    void appliesOrdersInSequenceWithPerOrderResults() {
+        createPlayer("batch-a", 1_000);
+        createPlayer("batch-b", 100);
+
+        List<TradeOrderResult> results = batchTradeService.execute(List.of(
+                order("batch-a", "TechCorp", 5, TradeOrder.Side.BUY),
+                order("batch-b", "TechCorp", 5, TradeOrder.Side.BUY),
+                order("batch-a", "TechCorp", 5, TradeOrder.Side.SELL),
+                order("batch-a", "TechCorp", 2, TradeOrder.Side.BUY),
+                order("batch-a", "Unknown", 1, TradeOrder.Side.BUY),
+                order("nobody", "TechCorp", 1, TradeOrder.Side.BUY)
+        ));
+
+        assertThat(results).extracting(TradeOrderResult::getStatus).containsExactly(
+                TradeResult.Status.OK,
+                TradeResult.Status.INSUFFICIENT_MONEY,
+                TradeResult.Status.OK,
+                TradeResult.Status.OK,
+                TradeResult.Status.STOCK_NOT_FOUND,
+                TradeResult.Status.PLAYER_NOT_FOUND);
+        assertThat(playerRepository.findById("batch-a").orElseThrow().getPlayerMoney()).isEqualTo(800);
+        assertThat(playerRepository.findById("batch-b").orElseThrow().getPlayerMoney()).isEqualTo(100);
+        assertThat(playerStockRepository.findByPlayerPlayerIdAndStockName("batch-a", "TechCorp").orElseThrow()
+                .getStockQuantity()).isEqualTo(2);
+    }
+
+    @Test
+    void comparesBatchWithSingleOrderPath() {
+        int players = 10;
+        int orders = 500;
+        for (int p = 0; p < players; p++) {
+            createPlayer("bench-single-" + p, 100_000_000);
+            createPlayer("bench-batch-" + p, 100_000_000);
+        }
+
+        List<TradeOrder> single = new ArrayList<>();
+        List<TradeOrder> batch = new ArrayList<>();
+        for (int i = 0; i < orders; i++) {
+            // 플레이어별로 매수, 매수, 매도 반복
+            TradeOrder.Side side = (i / players) % 3 == 2 ? TradeOrder.Side.SELL : TradeOrder.Side.BUY;
+            single.add(order("bench-single-" + (i % players), "GreenEnergy", 1, side));
+            batch.add(order("bench-batch-" + (i % players), "GreenEnergy", 1, side));
+        }
+
+        long singleStarted = System.nanoTime();
+        for (TradeOrder order : single) {
+            TradeResult result = order.getSide() == TradeOrder.Side.BUY
+                    ? playerService.buyStock(order.getPlayerId(), order.getStockName(), order.getQuantity())
+                    : playerService.sellStock(order.getPlayerId(), order.getStockName(), order.getQuantity());
+            assertThat(result.isOk()).isTrue();
+        }
+        long singleNanos = System.nanoTime() - singleStarted;
+
+        long batchStarted = System.nanoTime();
+        List<TradeOrderResult> results = batchTradeService.execute(batch);
+        long batchNanos = System.nanoTime() - batchStarted;
+
+        assertThat(results).allMatch(result -> result.getStatus() == TradeResult.Status.OK);
+        for (int p = 0; p < players; p++) {
+            assertThat(playerRepository.findById("bench-batch-" + p).orElseThrow().getPlayerMoney())
+                    .isEqualTo(playerRepository.findById("bench-single-" + p).orElseThrow().getPlayerMoney());
+        }
+
+        // 트랜잭션 하나 + JDBC batch 이므로 단건 경로보다 빨라야 한다
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+
+    private void createPlayer(String playerId, int money) {
+        Player player = new Player(playerId);
+        player.setPlayerMoney(money);
+        playerRepository.save(player);
+    }
+
+    private static TradeOrder order(String playerId, String stockName, int quantity, TradeOrder.Side side) {
+        TradeOrder order = new TradeOrder();
+        order.setPlayerId(playerId);
+        order.setStockName(stockName);
+        order.setQuantity(quantity);
+        order.setSide(side);
+        return order;
+    }
+}
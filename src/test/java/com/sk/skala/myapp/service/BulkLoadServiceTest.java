@@ -0,0 +1,101 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import com.sk.skala.myapp.repository.PlayerStockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class BulkLoadServiceTest {
+
+    @Autowired
+    private BulkLoadService bulkLoadService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private PlayerStockRepository playerStockRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void malformedLineIsRejectedBeforeAnythingIsWritten() {
+        Resource file = file("bulk-ok-1,100\nbulk-ok-2,1x0\n");
+
+        assertThatThrownBy(() -> bulkLoadService.loadPlayers(file, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("line 2");
+        assertThat(playerRepository.existsById("bulk-ok-1")).isFalse();
+
+        assertThatThrownBy(() -> bulkLoadService.loadPlayers(file("bulk-dup,100\nbulk-dup,200\n"), 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("duplicate player id bulk-dup");
+        assertThat(playerRepository.existsById("bulk-dup")).isFalse();
+    }
+
+    @Test
+    void existingIdsAreSkippedWithTheirHoldings() {
+        playerRepository.save(new Player("bulk-existing"));
+        Resource file = file("bulk-new,100,TechCorp:100:1\nbulk-existing,100,TechCorp:100:5\n");
+
+        long[] loaded = bulkLoadService.loadPlayers(file, 1);
+
+        assertThat(loaded).containsExactly(1, 1, 1);
+        assertThat(playerStockRepository.findByPlayerPlayerIdOrderByIdAsc("bulk-new")).hasSize(1);
+        // 이미 있는 플레이어는 잔액도 보유 주식도 바뀌지 않는다
+        assertThat(playerRepository.findById("bulk-existing").orElseThrow().getPlayerMoney())
+                .isEqualTo(new Player("bulk-existing").getPlayerMoney());
+        assertThat(playerStockRepository.findByPlayerPlayerIdOrderByIdAsc("bulk-existing")).isEmpty();
+    }
+
+    @Test
+    void restartAfterInterruptedLoadResumesWhereItStopped() {
+        String lines = "bulk-resume-1,100,TechCorp:100:1\nbulk-resume-2,200\n"
+                + "bulk-resume-3,300,TechCorp:100:2\nbulk-resume-4,400\n";
+        // 앞쪽 chunk 두 개만 커밋된 채 끊긴 적재
+        bulkLoadService.loadPlayers(file(lines.substring(0, lines.indexOf("bulk-resume-3"))), 1);
+
+        long[] resumed = bulkLoadService.loadPlayers(file(lines), 1);
+
+        assertThat(resumed).containsExactly(2, 1, 2);
+        for (int i = 1; i <= 4; i++) {
+            assertThat(playerRepository.findById("bulk-resume-" + i).orElseThrow().getPlayerMoney()).isEqualTo(i * 100);
+        }
+        assertThat(playerStockRepository.findByPlayerPlayerIdOrderByIdAsc("bulk-resume-1")).hasSize(1);
+        assertThat(playerStockRepository.findByPlayerPlayerIdOrderByIdAsc("bulk-resume-3")).hasSize(1);
+    }
+
+    @Test
+    void reloadingTheSameFileSkipsEveryPlayer() throws Exception {
+        // 기동 시 이미 적재된 players.txt 를 다시 적재
+        mockMvc.perform(post("/api/admin/bulk-load").param("players", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.players").value(0))
+                .andExpect(jsonPath("$.holdings").value(0))
+                .andExpect(jsonPath("$.skipped").value(greaterThan(0)));
+    }
+
+    private static Resource file(String content) {
+        return new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,190 @@
+package com.sk.skala.myapp.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sk.skala.myapp.config.ExportProperties;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HoldingsExportServiceTest {
+
+    @Autowired
+    private HoldingsExportService holdingsExportService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ExportProperties exportProperties;
+
+    @Test
+    void csvUsesPlayersFileLayoutAndParsesBack() {
+        playerRepository.save(new Player("export-a"));
+        playerService.addStockToPlayer("export-a", new PlayerStock("TechCorp", "100", "3"));
+        playerService.addStockToPlayer("export-a", new PlayerStock("samsung", "300", "2"));
+        playerRepository.save(new Player("export-b"));
+
+        String csv = export(HoldingsExportService.Format.CSV);
+
+        assertThat(csv.lines()).contains("export-a,10000,TechCorp:100:3|samsung:300:2", "export-b,10000");
+        // 내보낸 내용이 DB 와 같은지 bulk-load 파서로 다시 읽어 비교
+        Map<String, Integer> holdings = new HashMap<>();
+        csv.lines().forEach(line -> StockFileParser.parsePlayerLine(line, new StockFileParser.PlayerHandler() {
+            @Override
+            public void onPlayer(String playerId, int money) {
+                assertThat(playerRepository.findById(playerId).orElseThrow().getPlayerMoney()).isEqualTo(money);
+            }
+
+            @Override
+            public void onPlayerStock(String playerId, String stockName, int stockPrice, int stockQuantity) {
+                holdings.merge(playerId, stockQuantity, Integer::sum);
+            }
+        }));
+        assertThat(csv.lines().count()).isEqualTo(playerRepository.count());
+        assertThat(holdings.get("export-a")).isEqualTo(5);
+    }
+
+    @Test
+    void ndjsonWritesOnePlayerPerLine() throws Exception {
+        playerRepository.save(new Player("export-c"));
+        playerService.addStockToPlayer("export-c", new PlayerStock("GreenEnergy", "80", "7"));
+
+        List<String> lines = export(HoldingsExportService.Format.NDJSON).lines().toList();
+
+        assertThat(lines).hasSize((int) playerRepository.count());
+        JsonNode player = lines.stream()
+                .map(this::readTree)
+                .filter(node -> node.get("playerId").asText().equals("export-c"))
+                .findFirst().orElseThrow();
+        assertThat(player.get("playerMoney").asInt()).isEqualTo(10_000);
+        assertThat(player.get("stocks")).hasSize(1);
+        assertThat(player.get("stocks").get(0).get("stockQuantity").asInt()).isEqualTo(7);
+    }
+
+    @Test
+    void failureAfterResponseStartedEndsNdjsonWithErrorLine() {
+        // 5 개 행을 읽은 뒤 DB 오류가 나는 DataSource (응답은 이미 시작됨)
+        HoldingsExportService failing = new HoldingsExportService(failingAfter(dataSource, 5), transactionManager,
+                objectMapper, exportProperties, new SimpleMeterRegistry());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> failing.export(HoldingsExportService.Format.NDJSON, out))
+                .isInstanceOf(DataAccessException.class);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.size()).isGreaterThan(1);
+        assertThat(readTree(lines.get(0)).has("playerId")).isTrue();
+        assertThat(lines.get(lines.size() - 1)).isEqualTo("{\"error\":\"export failed\"}");
+    }
+
+    @Test
+    void failureBeforeResponseStartedWritesNothing() {
+        HoldingsExportService failing = new HoldingsExportService(failingAfter(dataSource, 0), transactionManager,
+                objectMapper, exportProperties, new SimpleMeterRegistry());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThatThrownBy(() -> failing.export(HoldingsExportService.Format.NDJSON, out))
+                .isInstanceOf(DataAccessException.class);
+        assertThat(out.size()).isZero();
+    }
+
+    // rows 개의 행을 읽은 뒤 ResultSet.next() 가 실패하는 DataSource
+    private static DataSource failingAfter(DataSource target, int rows) {
+        return proxy(DataSource.class, target, (method, result) -> method.getName().equals("getConnection")
+                ? proxy(Connection.class, result, (connectionMethod, statement) ->
+                        connectionMethod.getName().equals("createStatement")
+                                ? proxy(Statement.class, statement, (statementMethod, resultSet) ->
+                                        statementMethod.getName().equals("executeQuery")
+                                                ? failingResultSet((ResultSet) resultSet, rows)
+                                                : resultSet)
+                                : statement)
+                : result);
+    }
+
+    private static ResultSet failingResultSet(ResultSet target, int rows) {
+        int[] read = new int[1];
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("next") && read[0]++ >= rows) {
+                        throw new SQLException("connection lost");
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, BiFunction<Method, Object, Object> wrap) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            // 트랜잭션 리소스 조회에서 원본 DataSource 와 같은 키로 보이지 않도록 식별자로 비교한다
+            if (method.getName().equals("equals")) {
+                return proxy == args[0];
+            }
+            if (method.getName().equals("hashCode")) {
+                return System.identityHashCode(proxy);
+            }
+            return wrap.apply(method, invoke(target, method, args));
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private String export(HoldingsExportService.Format format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        holdingsExportService.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
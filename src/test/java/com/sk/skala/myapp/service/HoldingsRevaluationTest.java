@@ -0,0 +1,83 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.RevaluationProperties;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HoldingsRevaluationTest {
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private HoldingsRevaluationJob revaluationJob;
+
+    @Autowired
+    private RevaluationProperties properties;
+
+    @Test
+    void stockPriceUpdateRevaluesAllHoldings() {
+        stockService.createStock(new Stock("Reval-A", 100));
+        List<String> holders = createHolders("reval-a", "Reval-A", 100, 5);
+
+        stockService.updateStock(new Stock("Reval-A", 150));
+
+        for (String playerId : holders) {
+            assertThat(playerService.getPlayerStocks(playerId))
+                    .singleElement()
+                    .satisfies(holding -> assertThat(holding.getStockPrice()).isEqualTo(150));
+        }
+    }
+
+    @Test
+    void backgroundRevaluationUpdatesInChunks() {
+        // PriceFeed 를 거치지 않는 종목명이라 백그라운드 실행과 겹치지 않는다
+        List<String> holders = createHolders("reval-b", "Reval-B", 10, 7);
+
+        int chunkSize = properties.getChunkSize();
+        properties.setChunkSize(2);
+        try {
+            assertThat(revaluationJob.revalue(Map.of("Reval-B", 77))).isEqualTo(holders.size());
+            // 이미 같은 가격이면 변경하지 않는다
+            assertThat(revaluationJob.revalue(Map.of("Reval-B", 77))).isZero();
+        } finally {
+            properties.setChunkSize(chunkSize);
+        }
+
+        for (String playerId : holders) {
+            assertThat(playerService.getPlayerStocks(playerId))
+                    .allSatisfy(holding -> assertThat(holding.getStockPrice()).isEqualTo(77));
+        }
+    }
+
+    private List<String> createHolders(String prefix, String stockName, int price, int count) {
+        List<String> playerIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            String playerId = prefix + "-" + i + "-" + System.nanoTime();
+            playerRepository.save(new Player(playerId));
+            playerService.addStockToPlayer(playerId, new PlayerStock(stockName, String.valueOf(price), "1"));
+            playerIds.add(playerId);
+        }
+        return playerIds;
+    }
+}
@@ -0,0 +1,117 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.TradeJournalProperties;
+import com.sk.skala.myapp.model.JournalRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 저널 모드는 꺼 둔 채 JournalApplier 만 직접 만들어 DB 반영을 확인한다
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:journal;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000")
+@ActiveProfiles("test")
+class JournalApplierTest {
+    private static final String PLAYER_ID = "applier-player";
+
+    @TempDir
+    Path directory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void resumesFromCheckpointAfterRestartAndTruncation() throws Exception {
+        TradeJournal journal = journal();
+        journal.open(record -> { });
+        journal.append(JournalRecord.playerSet(PLAYER_ID, 100_000));
+        for (int i = 0; i < 200; i++) {
+            journal.append(JournalRecord.trade(PLAYER_ID, "TechCorp", 1, -100, 100));
+        }
+        journal.awaitDurable(journal.getLastSeq());
+
+        JournalApplier first = applier(journal);
+        first.start();
+        awaitApplied(first, 201);
+        first.stop();
+        assertThat(money()).isEqualTo(100_000 - 200 * 100);
+        assertThat(quantity()).isEqualTo(200);
+
+        // 스냅샷 이후, 반영이 끝난 앞쪽 segment 를 지운 뒤 재기동
+        journal.markSnapshot(202);
+        assertThat(journal.truncate(first.getAppliedSeq())).isPositive();
+        for (int i = 0; i < 50; i++) {
+            journal.append(JournalRecord.trade(PLAYER_ID, "TechCorp", -1, 100, 100));
+        }
+        journal.awaitDurable(journal.getLastSeq());
+        journal.close();
+
+        TradeJournal reopened = journal();
+        assertThat(reopened.open(record -> { })).isEqualTo(251);
+        JournalApplier resumed = applier(reopened);
+        resumed.start();
+        awaitApplied(resumed, 251);
+        resumed.stop();
+        reopened.close();
+
+        // 체크포인트 이후 레코드만 반영된다 (앞쪽 거래가 두 번 반영되지 않음)
+        assertThat(money()).isEqualTo(100_000 - 150 * 100);
+        assertThat(quantity()).isEqualTo(150);
+        assertThat(jdbcTemplate.queryForObject("select applied_seq from trade_journal_checkpoint", Long.class))
+                .isEqualTo(251);
+    }
+
+    private TradeJournal journal() {
+        TradeJournalProperties properties = properties();
+        return new TradeJournal(properties, new SimpleMeterRegistry());
+    }
+
+    private JournalApplier applier(TradeJournal journal) {
+        return new JournalApplier(journal, jdbcTemplate, transactionTemplate, eventPublisher,
+                properties(), new SimpleMeterRegistry());
+    }
+
+    private TradeJournalProperties properties() {
+        TradeJournalProperties properties = new TradeJournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(8));
+        properties.setApplyInterval(Duration.ofMillis(10));
+        properties.setApplyBatchSize(64);
+        return properties;
+    }
+
+    private static void awaitApplied(JournalApplier applier, long seq) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (applier.getAppliedSeq() < seq && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(applier.getAppliedSeq()).isEqualTo(seq);
+    }
+
+    private int money() {
+        return jdbcTemplate.queryForObject("select player_money from players where player_id = ?", Integer.class, PLAYER_ID);
+    }
+
+    private int quantity() {
+        return jdbcTemplate.queryForObject(
+                "select stock_quantity from player_stocks where player_id = ? and stock_name = 'TechCorp'",
+                Integer.class, PLAYER_ID);
+    }
+}
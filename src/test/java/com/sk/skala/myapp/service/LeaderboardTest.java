@@ -0,0 +1,142 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.DeleteResult;
+import com.sk.skala.myapp.model.LeaderboardEntry;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.Stock;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LeaderboardTest {
+    // 다른 테스트가 만든 플레이어보다 항상 위에 오도록 큰 잔액을 쓴다
+    private static final int BASE_MONEY = 2_000_000_000;
+
+    @Autowired
+    private Leaderboard leaderboard;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Test
+    void ranksFollowTradesPriceChangesAndDeletes() {
+        stockService.createStock(new Stock("Lb-A", 1000));
+        createPlayer("lb-1", BASE_MONEY);
+        createPlayer("lb-2", BASE_MONEY + 200_000);
+        createPlayer("lb-3", BASE_MONEY + 300_000);
+        await(() -> topIds(3).equals(List.of("lb-3", "lb-2", "lb-1")));
+        assertThat(leaderboard.getEntry("lb-1").getRank()).isEqualTo(3);
+
+        // 현재가 매수는 잔액만 주식으로 바뀌고 순자산/순위는 그대로
+        assertThat(playerService.buyStock("lb-1", "Lb-A", 100).isOk()).isTrue();
+        await(() -> leaderboard.getEntry("lb-1").getPlayerMoney() == BASE_MONEY - 100_000L);
+        LeaderboardEntry bought = leaderboard.getEntry("lb-1");
+        assertThat(bought.getNetWorth()).isEqualTo(BASE_MONEY);
+        assertThat(bought.getRank()).isEqualTo(3);
+
+        // 가격 상승분(100주 x 4000)만큼 다시 평가되어 1위로 올라간다
+        stockService.updateStock(new Stock("Lb-A", 5000));
+        await(() -> leaderboard.getEntry("lb-1").getRank() == 1);
+        assertThat(leaderboard.getEntry("lb-1").getNetWorth()).isEqualTo(BASE_MONEY + 400_000L);
+        assertThat(topIds(3)).containsExactly("lb-1", "lb-3", "lb-2");
+
+        // 매도 후 가격이 내려가도 더는 영향을 받지 않는다
+        assertThat(playerService.sellStock("lb-1", "Lb-A", 100).isOk()).isTrue();
+        stockService.updateStock(new Stock("Lb-A", 1));
+        await(() -> leaderboard.getEntry("lb-1").getPlayerMoney() == BASE_MONEY + 400_000L);
+        assertThat(leaderboard.getEntry("lb-1").getNetWorth()).isEqualTo(BASE_MONEY + 400_000L);
+
+        // 삭제된 플레이어는 빠지고 아래 순위가 올라온다
+        assertThat(playerService.deletePlayer("lb-1")).isEqualTo(DeleteResult.DELETED);
+        await(() -> leaderboard.getEntry("lb-1") == null);
+        assertThat(topIds(2)).containsExactly("lb-3", "lb-2");
+        assertThat(leaderboard.getEntry("lb-2").getRank()).isEqualTo(2);
+    }
+
+    @Test
+    void rebuildsRacingTradesDoNotDoubleCount() throws Exception {
+        stockService.createStock(new Stock("Lb-Race", 100));
+        List<String> playerIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            playerIds.add("lb-race-" + i);
+            createPlayer("lb-race-" + i, 1_000_000);
+        }
+        await(() -> playerIds.stream().allMatch(playerId -> leaderboard.getEntry(playerId) != null));
+
+        ExecutorService executor = Executors.newFixedThreadPool(playerIds.size());
+        try {
+            List<Future<?>> traders = new ArrayList<>();
+            for (String playerId : playerIds) {
+                traders.add(executor.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        playerService.buyStock(playerId, "Lb-Race", 3);
+                        playerService.sellStock(playerId, "Lb-Race", 1);
+                    }
+                }));
+            }
+            // 거래 이벤트가 재구성 쿼리 전/도중/후에 섞여 들어오도록 계속 재구성을 요청한다
+            while (traders.stream().anyMatch(trader -> !trader.isDone())) {
+                leaderboard.requestRebuild();
+                Thread.sleep(20);
+            }
+            for (Future<?> trader : traders) {
+                trader.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 재구성 요청 없이 DB와 같아져야 한다 (두 번 더해진 변화량은 다음 재구성 전까지 남는다)
+        for (String playerId : playerIds) {
+            Player player = playerService.getPlayerById(playerId);
+            int quantity = playerService.getPlayerStocks(playerId).stream()
+                    .mapToInt(PlayerStock::getStockQuantity)
+                    .sum();
+            assertThat(player.getPlayerMoney()).isEqualTo(1_000_000 - 100 * 200);
+            assertThat(quantity).isEqualTo(200);
+            await(() -> leaderboard.getEntry(playerId).getPlayerMoney() == player.getPlayerMoney());
+            assertThat(leaderboard.getEntry(playerId).getNetWorth()).isEqualTo(1_000_000);
+        }
+    }
+
+    private void createPlayer(String playerId, int money) {
+        Player player = new Player(playerId);
+        player.setPlayerMoney(money);
+        playerService.createPlayer(player);
+    }
+
+    private List<String> topIds(int n) {
+        return leaderboard.getTop(n).stream().map(LeaderboardEntry::getPlayerId).toList();
+    }
+
+    // 순위표는 refresh-interval 마다 비동기로 반영된다
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("leaderboard did not converge").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 틱과 저장이 계속 도는 중에 종목 가격을 수정하거나 종목을 추가해도
+ * 시뮬레이션이 이전 가격으로 되돌리거나 틱 변경분을 잃지 않는지 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:market;DB_CLOSE_DELAY=-1",
+        "market.enabled=true",
+        "market.tick-interval=1ms",
+        "market.flush-interval=20ms",
+        "market.volatility=0.05"
+})
+@ActiveProfiles("test")
+class MarketEngineTest {
+    private static final String STOCK_NAME = "TechCorp";
+
+    @Autowired
+    private MarketEngine marketEngine;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PriceFeed priceFeed;
+
+    @Test
+    void externalPriceUpdateIsNotOverwrittenByFlush() throws Exception {
+        int before = marketEngine.getPrices().get(STOCK_NAME);
+        int updated = before * 100;
+
+        stockService.updateStock(new Stock(STOCK_NAME, updated));
+        // 저장 주기가 여러 번 지나도록 기다린다
+        Thread.sleep(300);
+
+        // 변동성이 작으므로 수정한 가격 근처에 있어야 한다 (이전 가격으로 돌아가지 않음)
+        assertThat(marketEngine.getPrices().get(STOCK_NAME)).isBetween(updated / 2, updated * 2);
+        assertThat(stockRepository.findById(STOCK_NAME).orElseThrow().getStockPrice())
+                .isBetween(updated / 2, updated * 2);
+    }
+
+    @Test
+    void boardSwapsContinueFromTheLatestTicks() throws Exception {
+        Map<String, Integer> lastPublished = new ConcurrentHashMap<>();
+        priceFeed.addListener((stockName, stockPrice, timestampMillis) -> lastPublished.put(stockName, stockPrice));
+        try {
+            // 종목을 추가할 때마다 다음 저장 주기에 가격판이 교체된다
+            for (int i = 0; i < 200; i++) {
+                stockService.createStock(new Stock(String.format("Swap-%03d", i), 1000));
+                Thread.sleep(2);
+            }
+        } finally {
+            // 틱을 멈춘 뒤 비교 (stop 은 남은 변경분을 저장하고 마지막으로 가격판을 맞춘다)
+            marketEngine.stop();
+        }
+        try {
+            Map<String, Integer> prices = marketEngine.getPrices();
+            assertThat(prices).containsKey("Swap-199");
+            // 교체 중에 틱이 바꾼 가격이 사라졌다면 마지막으로 전달된 가격과 가격판이 다르다
+            prices.forEach((stockName, price) -> {
+                if (lastPublished.containsKey(stockName)) {
+                    assertThat(price).as(stockName).isEqualTo(lastPublished.get(stockName));
+                }
+                assertThat(stockRepository.findById(stockName).orElseThrow().getStockPrice())
+                        .as(stockName).isEqualTo(price);
+            });
+        } finally {
+            marketEngine.start();
+        }
+    }
+}
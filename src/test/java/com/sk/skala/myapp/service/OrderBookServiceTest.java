@@ -0,0 +1,146 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.BookDepth;
+import com.sk.skala.myapp.model.DeleteResult;
+import com.sk.skala.myapp.model.OrderRequest;
+import com.sk.skala.myapp.model.OrderResult;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderBookServiceTest {
+    private static final String STOCK_NAME = "HealthPlus";
+
+    @Autowired
+    private OrderBookService orderBookService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void fillsSettleMoneyAndSharesBetweenPlayers() {
+        String seller = createPlayer("order-seller", 10);
+        String buyer = createPlayer("order-buyer", 0);
+
+        OrderResult ask = orderBookService.submit(seller, order(TradeOrder.Side.SELL, 90, 6));
+        assertThat(ask.getStatus()).isEqualTo(OrderResult.Status.ACCEPTED);
+        assertThat(holding(seller)).isEqualTo(4);
+
+        // 95 에 8주 매수 -> 90 에 6주 체결, 남은 2주는 매수 호가로
+        OrderResult bid = orderBookService.submit(buyer, order(TradeOrder.Side.BUY, 95, 8));
+        assertThat(bid.getStatus()).isEqualTo(OrderResult.Status.PARTIALLY_FILLED);
+        assertThat(bid.getFilledQuantity()).isEqualTo(6);
+        assertThat(bid.getFilledAmount()).isEqualTo(540);
+        assertThat(bid.getRemainingQuantity()).isEqualTo(2);
+
+        // 판매 대금 540 / 매수자는 8 x 95 를 차감한 뒤 체결 차액 6 x 5 를 돌려받음
+        assertThat(money(seller)).isEqualTo(10_000 + 540);
+        assertThat(money(buyer)).isEqualTo(10_000 - 760 + 30);
+        assertThat(holding(buyer)).isEqualTo(6);
+        assertThat(orderBookService.getOpenOrders(seller)).isEmpty();
+        assertThat(orderBookService.getOpenOrders(buyer)).singleElement()
+                .satisfies(open -> assertThat(open.getQuantity()).isEqualTo(2));
+
+        // 취소하면 남은 2주분(2 x 95) 환불
+        assertThat(orderBookService.cancel(seller, bid.getOrderId())).isFalse();
+        assertThat(orderBookService.cancel(buyer, bid.getOrderId())).isTrue();
+        assertThat(money(buyer)).isEqualTo(10_000 - 540);
+        assertThat(orderBookService.getOpenOrders(buyer)).isEmpty();
+    }
+
+    @Test
+    void rejectsOrdersThatCannotBeReserved() {
+        String poor = createPlayer("order-poor", 0);
+
+        assertThat(orderBookService.submit(poor, order(TradeOrder.Side.BUY, 1_000, 11)).getStatus())
+                .isEqualTo(OrderResult.Status.INSUFFICIENT_MONEY);
+        assertThat(orderBookService.submit(poor, order(TradeOrder.Side.SELL, 1, 1)).getStatus())
+                .isEqualTo(OrderResult.Status.INSUFFICIENT_QUANTITY);
+        assertThat(orderBookService.submit("order-nobody", order(TradeOrder.Side.BUY, 1, 1)).getStatus())
+                .isEqualTo(OrderResult.Status.PLAYER_NOT_FOUND);
+        assertThat(orderBookService.submit(poor, order(TradeOrder.Side.BUY, 0, 1)).getStatus())
+                .isEqualTo(OrderResult.Status.INVALID_ORDER);
+        assertThat(money(poor)).isEqualTo(10_000);
+    }
+
+    @Test
+    void deleteIsRejectedWhileOrdersAreOpen() {
+        String seller = createPlayer("order-leaving", 5);
+        OrderResult ask = orderBookService.submit(seller, order(TradeOrder.Side.SELL, 500, 5));
+
+        assertThat(playerService.deletePlayer(seller)).isEqualTo(DeleteResult.HAS_OPEN_ORDERS);
+        assertThat(playerRepository.existsById(seller)).isTrue();
+        assertThat(orderBookService.getOpenOrders(seller)).hasSize(1);
+
+        assertThat(orderBookService.cancel(seller, ask.getOrderId())).isTrue();
+        assertThat(playerService.deletePlayer(seller)).isEqualTo(DeleteResult.DELETED);
+    }
+
+    @Test
+    void failedSettlementCancelsTakerAndKeepsBook() {
+        // 주문이 남은 채로 플레이어 row 만 지워진 경우 (체결해도 주식을 넘길 상대가 없음)
+        String buyer = createPlayer("order-orphan", 0);
+        OrderResult bid = orderBookService.submit(buyer, order(TradeOrder.Side.BUY, 7, 3));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                playerRepository.deleteByPlayerId(buyer));
+        String seller = createPlayer("order-taker", 3);
+
+        OrderResult ask = orderBookService.submit(seller, order(TradeOrder.Side.SELL, 7, 3));
+        assertThat(ask.getStatus()).isEqualTo(OrderResult.Status.SETTLEMENT_FAILED);
+        assertThat(money(seller)).isEqualTo(10_000);
+        assertThat(holding(seller)).isEqualTo(3);
+        assertThat(orderBookService.getOpenOrders(seller)).isEmpty();
+
+        // 매수 호가는 그대로 남아 있고 취소할 수 있다
+        BookDepth depth = orderBookService.getDepth(STOCK_NAME, 1000);
+        assertThat(depth.getBids()).anySatisfy(level -> assertThat(level.getPrice()).isEqualTo(7));
+        assertThat(depth.getAsks()).noneSatisfy(level -> assertThat(level.getPrice()).isEqualTo(7));
+        assertThat(orderBookService.cancel(buyer, bid.getOrderId())).isTrue();
+    }
+
+    private String createPlayer(String prefix, int shares) {
+        String playerId = prefix + "-" + System.nanoTime();
+        playerRepository.save(new Player(playerId));
+        if (shares > 0) {
+            playerService.addStockToPlayer(playerId, new PlayerStock(STOCK_NAME, "120", String.valueOf(shares)));
+        }
+        return playerId;
+    }
+
+    private static OrderRequest order(TradeOrder.Side side, int price, int quantity) {
+        OrderRequest request = new OrderRequest();
+        request.setStockName(STOCK_NAME);
+        request.setSide(side);
+        request.setPrice(price);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private int money(String playerId) {
+        return playerService.getPlayerById(playerId).getPlayerMoney();
+    }
+
+    private int holding(String playerId) {
+        return playerService.getPlayerStocks(playerId).stream()
+                .filter(holding -> holding.getStockName().equals(STOCK_NAME))
+                .mapToInt(PlayerStock::getStockQuantity)
+                .sum();
+    }
+}
@@ -0,0 +1,95 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.BookDepth;
+import com.sk.skala.myapp.model.OrderFill;
+import com.sk.skala.myapp.model.TradeOrder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sk.skala.myapp.model.TradeOrder.Side.BUY;
+import static com.sk.skala.myapp.model.TradeOrder.Side.SELL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookTest {
+
+    private final OrderBook book = new OrderBook("TechCorp");
+    private final List<OrderFill> fills = new ArrayList<>();
+    private long nextId = 1;
+
+    @Test
+    void matchesByPriceThenTime() {
+        submit("s1", SELL, 101, 5);
+        submit("s2", SELL, 100, 5);
+        submit("s3", SELL, 100, 5);
+
+        // 100 두 건(먼저 들어온 s2 부터) -> 101
+        assertThat(submit("b1", BUY, 101, 12)).isZero();
+        assertThat(fills).extracting(OrderFill::getMakerPlayerId).containsExactly("s2", "s3", "s1");
+        assertThat(fills).extracting(OrderFill::getPrice).containsExactly(100, 100, 101);
+        assertThat(fills).extracting(OrderFill::getQuantity).containsExactly(5, 5, 2);
+
+        BookDepth depth = book.depth(10);
+        assertThat(depth.getAsks()).singleElement().satisfies(level -> {
+            assertThat(level.getPrice()).isEqualTo(101);
+            assertThat(level.getQuantity()).isEqualTo(3);
+        });
+        assertThat(depth.getLastPrice()).isEqualTo(101);
+    }
+
+    @Test
+    void nonCrossingOrdersRestAndRemainderIsPosted() {
+        submit("s1", SELL, 105, 5);
+        assertThat(submit("b1", BUY, 104, 3)).isEqualTo(3);
+        assertThat(fills).isEmpty();
+
+        // 105 에 5주 체결 후 남은 2주는 매수 호가로
+        assertThat(submit("b2", BUY, 106, 7)).isEqualTo(2);
+        BookDepth depth = book.depth(10);
+        assertThat(depth.getAsks()).isEmpty();
+        assertThat(depth.getBids()).extracting(BookDepth.Level::getPrice).containsExactly(106, 104);
+    }
+
+    @Test
+    void cancelRemovesOrderAndEmptyLevel() {
+        long first = nextId;
+        submit("s1", SELL, 100, 5);
+        submit("s2", SELL, 100, 4);
+        submit("s3", SELL, 99, 1);
+
+        assertThat(book.cancel(first)).isEqualTo(5);
+        assertThat(book.cancel(first)).isZero();
+        assertThat(book.cancel(nextId - 1)).isEqualTo(1);
+
+        submit("b1", BUY, 100, 10);
+        assertThat(fills).singleElement().satisfies(fill -> {
+            assertThat(fill.getMakerPlayerId()).isEqualTo("s2");
+            assertThat(fill.getQuantity()).isEqualTo(4);
+        });
+        assertThat(book.depth(10).getBids()).singleElement()
+                .satisfies(level -> assertThat(level.getQuantity()).isEqualTo(6));
+        assertThat(book.getOpenOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void manyPriceLevelsStaySorted() {
+        for (int price = 200; price > 100; price -= 3) {
+            submit("s", SELL, price, 1);
+        }
+        for (int price = 1; price < 100; price += 7) {
+            submit("b", BUY, price, 1);
+        }
+        BookDepth depth = book.depth(1000);
+        assertThat(depth.getAsks()).extracting(BookDepth.Level::getPrice).isSorted();
+        assertThat(depth.getBids()).extracting(BookDepth.Level::getPrice)
+                .isSortedAccordingTo((a, b) -> Integer.compare(b, a));
+        assertThat(depth.getAsks().get(0).getPrice()).isEqualTo(101);
+    }
+
+    private int submit(String playerId, TradeOrder.Side side, int price, int quantity) {
+        return book.submit(nextId++, playerId, side, price, quantity,
+                (makerId, makerPlayer, takerId, takerPlayer, takerSide, fillPrice, filled) ->
+                        fills.add(new OrderFill(makerId, makerPlayer, takerId, takerPlayer, takerSide, fillPrice, filled)));
+    }
+}
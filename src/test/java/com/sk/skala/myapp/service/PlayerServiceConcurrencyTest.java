@@ -0,0 +1,183 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.TradeResult;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import com.sk.skala.myapp.repository.PlayerStockRepository;
+import com.sk.skala.myapp.repository.StockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 플레이어에 대한 동시 매수/매도에서 갱신 유실이 없는지 확인한다.
+ * 동시 거래자 수(1, 8, 64)별 처리량은 debug 로그로 남긴다.
+ * 보유 내역을 잠금 없이 수정하는 경로는 버전 충돌 + 재시도로 갱신 유실이 없는지 확인한다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class PlayerServiceConcurrencyTest {
+    private static final Logger log = LoggerFactory.getLogger(PlayerServiceConcurrencyTest.class);
+
+    private static final String STOCK_NAME = "TechCorp";
+    private static final int TRADES_PER_TRADER = 50;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private PlayerStockRepository playerStockRepository;
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 8, 64})
+    void concurrentTradesDoNotLoseUpdates(int traders) throws Exception {
+        String playerId = "concurrent-" + traders;
+        Player player = new Player(playerId);
+        player.setPlayerMoney(100_000_000);
+        playerRepository.save(player);
+
+        int price = stockRepository.findById(STOCK_NAME).orElseThrow().getStockPrice();
+        assertThat(playerService.buyStock(playerId, STOCK_NAME, 1).isOk()).isTrue();
+
+        // 각 거래자는 2주 매수 후 1주 매도를 반복한다
+        ExecutorService executor = Executors.newFixedThreadPool(traders);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < traders; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int failed = 0;
+                for (int i = 0; i < TRADES_PER_TRADER; i++) {
+                    TradeResult result = (i % 2 == 0)
+                            ? playerService.buyStock(playerId, STOCK_NAME, 2)
+                            : playerService.sellStock(playerId, STOCK_NAME, 1);
+                    if (!result.isOk()) {
+                        failed++;
+                    }
+                }
+                return failed;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        int failed = 0;
+        for (Future<Integer> future : futures) {
+            failed += future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        int totalTrades = traders * TRADES_PER_TRADER;
+        int buys = traders * ((TRADES_PER_TRADER + 1) / 2);
+        int sells = traders * (TRADES_PER_TRADER / 2);
+        int expectedQuantity = 1 + buys * 2 - sells;
+        int expectedMoney = 100_000_000 - price - (buys * 2 - sells) * price;
+
+        PlayerStock holding = playerStockRepository.findByPlayerPlayerIdAndStockName(playerId, STOCK_NAME).orElseThrow();
+        assertThat(failed).isZero();
+        assertThat(holding.getStockQuantity()).isEqualTo(expectedQuantity);
+        assertThat(playerRepository.findById(playerId).orElseThrow().getPlayerMoney()).isEqualTo(expectedMoney);
+
+        log.debug("traders={} trades={} elapsed={}ms throughput={} trades/s",
+                traders, totalTrades, elapsedNanos / 1_000_000, Math.round(totalTrades * 1e9 / elapsedNanos));
+    }
+
+    @Test
+    void concurrentHoldingUpdatesAreRetriedWithoutLostUpdates() throws Exception {
+        String playerId = "optimistic";
+        playerRepository.save(new Player(playerId));
+        PlayerStock added = new PlayerStock(STOCK_NAME, "100", "1");
+        playerService.addStockToPlayer(playerId, added);
+
+        // 잠금 없이 읽고-수정하는 경로를 동시에 실행한다. 충돌은 재시도되고, 재시도 한도를 넘긴 호출만 실패한다.
+        int traders = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(traders);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int t = 0; t < traders; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int succeeded = 0;
+                for (int i = 0; i < TRADES_PER_TRADER; i++) {
+                    try {
+                        playerService.addStockToPlayer(playerId, added);
+                        succeeded++;
+                    } catch (ConcurrencyFailureException e) {
+                        // 재시도 한도 초과
+                    }
+                }
+                return succeeded;
+            }));
+        }
+        start.countDown();
+        int succeeded = 0;
+        for (Future<Integer> future : futures) {
+            succeeded += future.get();
+        }
+        executor.shutdown();
+
+        PlayerStock holding = playerStockRepository.findByPlayerPlayerIdAndStockName(playerId, STOCK_NAME).orElseThrow();
+        assertThat(holding.getStockQuantity()).isEqualTo(1 + succeeded);
+        assertThat(holding.getVersion()).isEqualTo(succeeded);
+        assertThat(succeeded).isPositive();
+
+        // 8 개 스레드가 같은 row 를 읽고-수정하므로 충돌이 나고 재시도되어야 한다
+        assertThat(count("service.conflicts", "addStockToPlayer")).isPositive();
+        assertThat(count("service.retries", "addStockToPlayer")).isPositive();
+    }
+
+    @Test
+    void concurrentCreateOfSamePlayerIsRetriedOnDuplicateKey() throws Exception {
+        String playerId = "duplicate-" + System.nanoTime();
+        int creators = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(creators);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Player>> futures = new ArrayList<>();
+        for (int t = 0; t < creators; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return playerService.createPlayer(new Player(playerId));
+            }));
+        }
+        start.countDown();
+        // unique key 충돌로 실패한 생성은 재시도되어 기존 플레이어를 수정한다 (예외 없음)
+        for (Future<Player> future : futures) {
+            assertThat(future.get().getPlayerId()).isEqualTo(playerId);
+        }
+        executor.shutdown();
+        assertThat(playerRepository.existsById(playerId)).isTrue();
+    }
+
+    private double count(String name, String method) {
+        return meterRegistry.find(name).tag("method", method).counters()
+                .stream().mapToDouble(Counter::count).sum();
+    }
+}
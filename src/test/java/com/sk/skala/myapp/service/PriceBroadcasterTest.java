@@ -0,0 +1,200 @@
+package com.sk.skala.myapp.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sk.skala.myapp.config.PriceStreamProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PriceBroadcasterTest {
+
+    @Autowired
+    private PriceBroadcaster broadcaster;
+
+    @Autowired
+    private PriceStreamProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void changesWithinAnIntervalAreCoalescedPerSymbol() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+        // 첫 프레임은 현재 전체 가격
+        await(() -> emitter.frames.size() == 1);
+
+        for (int price = 1; price <= 1000; price++) {
+            broadcaster.onPrice("Coalesce-A", price, 0);
+        }
+        broadcaster.onPrice("Coalesce-B", 3, 0);
+        await(() -> latest(emitter).containsKey("Coalesce-B"));
+
+        // 1000번의 변경이 주기 경계에 걸쳐도 프레임 몇 개로 합쳐지고 마지막 값이 전달된다
+        List<Map<String, Integer>> frames = frames(emitter, "Coalesce-");
+        assertThat(frames).hasSizeLessThanOrEqualTo(2);
+        assertThat(frames.get(frames.size() - 1)).isEqualTo(Map.of("Coalesce-A", 1000, "Coalesce-B", 3));
+    }
+
+    @Test
+    void updatesRacingTheDispatchAreNotLost() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(emitter);
+
+        int writers = 4;
+        int updates = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            String stockName = "Race-" + w;
+            Thread thread = new Thread(() -> {
+                for (int price = 1; price <= updates; price++) {
+                    broadcaster.onPrice(stockName, price, 0);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 각 종목의 마지막 값이 반드시 전달된다
+        await(() -> {
+            Map<String, Integer> latest = latest(emitter);
+            for (int w = 0; w < writers; w++) {
+                if (!Integer.valueOf(updates).equals(latest.get("Race-" + w))) {
+                    return false;
+                }
+            }
+            return true;
+        });
+    }
+
+    @Test
+    void slowSubscriberIsDroppedWithoutDelayingOthers() {
+        Duration sendTimeout = properties.getSendTimeout();
+        properties.setSendTimeout(Duration.ofMillis(300));
+        try {
+            BlockingEmitter slow = new BlockingEmitter();
+            RecordingEmitter fast = new RecordingEmitter();
+            broadcaster.subscribe(slow);
+            broadcaster.subscribe(fast);
+
+            broadcaster.onPrice("Slow-A", 10, 0);
+            await(() -> latest(fast).containsKey("Slow-A"));
+
+            // 읽지 않는 구독자는 send-timeout 이후 끊기고 전송 스레드가 풀려난다
+            await(() -> slow.error != null);
+            assertThat(slow.error).isInstanceOf(IOException.class);
+
+            broadcaster.onPrice("Slow-B", 20, 0);
+            await(() -> latest(fast).containsKey("Slow-B"));
+            assertThat(slow.sends).isEqualTo(1);
+        } finally {
+            properties.setSendTimeout(sendTimeout);
+        }
+    }
+
+    private Map<String, Integer> latest(RecordingEmitter emitter) {
+        Map<String, Integer> latest = new HashMap<>();
+        frames(emitter, "").forEach(latest::putAll);
+        return latest;
+    }
+
+    // prefix 로 시작하는 종목만 남긴 프레임 (다른 테스트의 가격 변경 제외)
+    private List<Map<String, Integer>> frames(RecordingEmitter emitter, String prefix) {
+        List<Map<String, Integer>> frames = new ArrayList<>();
+        for (String frame : emitter.frames) {
+            Map<String, Integer> prices = new HashMap<>();
+            parse(frame).forEach((stockName, price) -> {
+                if (stockName.startsWith(prefix)) {
+                    prices.put(stockName, price);
+                }
+            });
+            if (!prices.isEmpty()) {
+                frames.add(prices);
+            }
+        }
+        return frames;
+    }
+
+    private Map<String, Integer> parse(String frame) {
+        try {
+            return objectMapper.readValue(frame, new TypeReference<Map<String, Integer>>() { });
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 보낸 이벤트의 data 를 기록하는 emitter (서블릿 응답 없이 동작)
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType part : builder.build()) {
+                String text = part.getData().toString();
+                if (text.startsWith("{")) {
+                    frames.add(text);
+                }
+            }
+        }
+    }
+
+    /**
+     * 클라이언트가 읽지 않아 소켓 쓰기가 멈춘 상태를 흉내 낸다. interrupt 되면 쓰기 실패로 끝난다.
+     */
+    private static class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch never = new CountDownLatch(1);
+        private volatile int sends;
+        private volatile Throwable error;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sends++;
+            try {
+                never.await();
+            } catch (InterruptedException e) {
+                throw new IOException("write interrupted", e);
+            }
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            error = ex;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.PriceHistoryProperties;
+import com.sk.skala.myapp.model.PriceCandle;
+import com.sk.skala.myapp.model.PricePoint;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceHistoryStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void ringKeepsOnlyTheLatestPointsAfterWrappingAround() {
+        PriceHistoryStore store = store(8, "");
+        for (int i = 0; i < 20; i++) {
+            store.onPrice("Ring", i, 1000 + i);
+        }
+
+        assertThat(prices(store.getPoints("Ring", 0, Long.MAX_VALUE, 100)))
+                .containsExactly(12, 13, 14, 15, 16, 17, 18, 19);
+        // 덮어쓴 구간을 가리키는 from 은 남아 있는 가장 오래된 점부터
+        assertThat(prices(store.getPoints("Ring", 1005, 1015, 100))).containsExactly(12, 13, 14);
+        assertThat(prices(store.getPoints("Ring", 1017, Long.MAX_VALUE, 100))).containsExactly(17, 18, 19);
+        // limit 을 넘으면 마지막 limit 건
+        assertThat(prices(store.getPoints("Ring", 0, Long.MAX_VALUE, 2))).containsExactly(18, 19);
+    }
+
+    @Test
+    void candlesSplitAtResolutionBoundaries() {
+        PriceHistoryStore store = store(16, "");
+        store.onPrice("Candle", 5, 999);
+        store.onPrice("Candle", 7, 1000);
+        store.onPrice("Candle", 3, 1500);
+        store.onPrice("Candle", 9, 1999);
+        store.onPrice("Candle", 4, 2000);
+        store.onPrice("Candle", 6, 3500);
+
+        List<PriceCandle> candles = store.getCandles("Candle", 0, 3000, 1000);
+
+        // to 는 포함하지 않으므로 2000 구간까지만, 변경이 없는 구간은 생략
+        assertThat(candles).extracting(PriceCandle::getTimestamp).containsExactly(0L, 1000L, 2000L);
+        assertThat(candles.get(0)).extracting("open", "high", "low", "close", "count").containsExactly(5, 5, 5, 5, 1);
+        assertThat(candles.get(1)).extracting("open", "high", "low", "close", "count").containsExactly(7, 9, 3, 9, 3);
+        assertThat(candles.get(2)).extracting("open", "high", "low", "close", "count").containsExactly(4, 4, 4, 4, 1);
+    }
+
+    @Test
+    void reopenedFileKeepsItsCapacityAndContinuesTheRing() {
+        PriceHistoryStore store = store(8, directory.toString());
+        for (int i = 0; i < 10; i++) {
+            store.onPrice("Mapped", i, 1000 + i);
+        }
+        store.close();
+
+        // 설정이 바뀌어도 기존 파일은 만들 때의 capacity 로 연다
+        PriceHistoryStore reopened = store(4, directory.toString());
+        assertThat(reopened.hasHistory("Mapped")).isTrue();
+        assertThat(prices(reopened.getPoints("Mapped", 0, Long.MAX_VALUE, 100)))
+                .containsExactly(2, 3, 4, 5, 6, 7, 8, 9);
+
+        // timestamp 는 단조 증가로 유지된다
+        reopened.onPrice("Mapped", 10, 0);
+        List<PricePoint> points = reopened.getPoints("Mapped", 0, Long.MAX_VALUE, 100);
+        assertThat(prices(points)).containsExactly(3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(points.get(points.size() - 1).getTimestamp()).isEqualTo(1009);
+    }
+
+    @Test
+    void removedSymbolReleasesItsHistoryFile() throws Exception {
+        PriceHistoryStore store = store(8, directory.toString());
+        store.onPrice("Removed", 1, 1000);
+        store.onPrice("Kept", 1, 1000);
+
+        store.onRemoved("Removed");
+
+        assertThat(store.hasHistory("Removed")).isFalse();
+        assertThat(store.getPoints("Removed", 0, Long.MAX_VALUE, 100)).isEmpty();
+        assertThat(store.hasHistory("Kept")).isTrue();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files).hasSize(1);
+        }
+    }
+
+    @Test
+    void capacityThatDoesNotFitOneBufferFailsAtStartup() {
+        assertThatThrownBy(() -> store(PriceHistoryStore.MAX_CAPACITY + 1, ""))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("price-history.capacity-per-symbol");
+        assertThatThrownBy(() -> store(0, ""))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void readersNeverSeeOverwrittenPointsWhileTheRingWraps() throws Exception {
+        PriceHistoryStore store = store(64, "");
+        store.onPrice("Wrap", 0, 0);
+        AtomicBoolean running = new AtomicBoolean(true);
+        long[] written = new long[1];
+        Thread writer = new Thread(() -> {
+            for (int i = 1; running.get(); i++) {
+                store.onPrice("Wrap", i, i);
+                written[0] = i;
+            }
+        });
+        writer.start();
+        try {
+            for (int round = 0; round < 20_000; round++) {
+                long from = Math.max(0, written[0] - 32);
+                List<PricePoint> points = store.getPoints("Wrap", from, Long.MAX_VALUE, 1000);
+                // 이진 탐색/복사 도중 덮어쓴 칸은 건너뛰므로 from 이전 점이나 순서가 어긋난 점이 없다
+                long previous = -1;
+                for (PricePoint point : points) {
+                    assertThat(point.getTimestamp()).isGreaterThanOrEqualTo(from).isGreaterThan(previous);
+                    assertThat(point.getPrice()).isEqualTo((int) point.getTimestamp());
+                    previous = point.getTimestamp();
+                }
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+    }
+
+    private static PriceHistoryStore store(int capacity, String directory) {
+        PriceHistoryProperties properties = new PriceHistoryProperties();
+        properties.setCapacityPerSymbol(capacity);
+        properties.setDirectory(directory);
+        return new PriceHistoryStore(properties, new PriceFeed(), new SimpleMeterRegistry());
+    }
+
+    private static List<Integer> prices(List<PricePoint> points) {
+        return points.stream().map(PricePoint::getPrice).toList();
+    }
+}
@@ -0,0 +1,181 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.DeleteResult;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.PlayerStock;
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * PlayerService / StockService (와 BatchTradeService) public 메서드별 SQL 문장 수 상한.
+ * 왕복이 늘어나는 변경(N+1, 전체 조회 후 선택, 건별 삭제 등)은 여기서 실패한다.
+ * 상한을 올려야 한다면 이유를 주석으로 남긴다.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(StatementCounter.Config.class)
+class QueryBudgetTest {
+
+    private static final String STOCK_NAME = "TechCorp";
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private StockService stockService;
+
+    @Autowired
+    private BatchTradeService batchTradeService;
+
+    @Autowired
+    private StockCatalog stockCatalog;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private String playerId;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        playerId = "budget-" + (++sequence) + "-" + System.nanoTime();
+        Player player = new Player(playerId);
+        player.setPlayerMoney(1_000_000);
+        playerRepository.save(player);
+        for (String stockName : new String[]{"TechCorp", "GreenEnergy", "HealthPlus"}) {
+            playerService.buyStock(playerId, stockName, 3);
+        }
+        // 종목 캐시를 채워 둔다 (캐시 미스 1회는 예산에 포함하지 않음)
+        stockCatalog.getAll();
+    }
+
+    @Test
+    void playerReads() {
+        assertBudget(1, () -> playerService.getAllPlayers());
+        assertBudget(1, () -> playerService.getPlayers(null, 10));
+        assertBudget(1, () -> playerService.getPlayerSummaries(playerId, 10, Set.of("playerId")));
+        assertBudget(1, () -> playerService.getPlayerById(playerId));
+        assertBudget(1, () -> playerService.getPlayerStocks(playerId));
+        assertBudget(1, () -> playerService.getPlayerStocksForMenu(playerId));
+    }
+
+    @Test
+    void getPlayerStockReadsOneRow() {
+        PlayerStock[] second = new PlayerStock[1];
+        assertBudget(1, () -> second[0] = playerService.getPlayerStock(playerId, 1));
+        assertThat(second[0].getStockName()).isEqualTo(playerService.getPlayerStocks(playerId).get(1).getStockName());
+
+        assertBudget(1, () -> assertThat(playerService.getPlayerStock(playerId, 3)).isNull());
+        assertBudget(0, () -> assertThat(playerService.getPlayerStock(playerId, -1)).isNull());
+    }
+
+    @Test
+    void playerWrites() {
+        // 존재 확인 + insert (version 이 null 이면 merge 없이 persist)
+        assertBudget(2, () -> playerService.createPlayer(new Player(playerId + "-new")));
+        // 존재 확인 + update
+        assertBudget(2, () -> playerService.createPlayer(new Player(playerId + "-new")));
+        // select + update
+        assertBudget(2, () -> playerService.updatePlayer(playerId, new Player(playerId)));
+    }
+
+    @Test
+    void deletePlayerDoesNotScaleWithHoldings() {
+        // 보유 내역 bulk delete + 플레이어 delete + 미체결 주문 확인 (없는 플레이어면 확인 생략)
+        assertBudget(3, () -> assertThat(playerService.deletePlayer(playerId)).isEqualTo(DeleteResult.DELETED));
+        assertBudget(2, () -> assertThat(playerService.deletePlayer(playerId)).isEqualTo(DeleteResult.NOT_FOUND));
+        assertThat(playerRepository.existsById(playerId)).isFalse();
+    }
+
+    @Test
+    void trades() {
+        // 잔액 차감 + 보유 증가 + 결과 조회 (신규 보유면 insert 1 추가)
+        assertBudget(3, () -> playerService.buyStock(playerId, STOCK_NAME, 1));
+        assertBudget(4, () -> playerService.buyStock(playerId, "samsung", 1));
+        // 입금 + 보유 감소 + 0주 정리 + 결과 조회
+        assertBudget(4, () -> playerService.sellStock(playerId, STOCK_NAME, 1));
+        // 실패 시 원인 구분 조회 1회
+        assertBudget(2, () -> playerService.buyStock(playerId, STOCK_NAME, 1_000_000));
+    }
+
+    @Test
+    void holdingUpdates() {
+        PlayerStock holding = new PlayerStock(STOCK_NAME, "100", "2");
+        // 보유 조회 + 버전 검사 update + 결과 조회
+        assertBudget(3, () -> playerService.addStockToPlayer(playerId, holding));
+        // 보유 조회 + 플레이어 조회 + insert (결과는 영속성 컨텍스트에서)
+        assertBudget(3, () -> playerService.addStockToPlayer(playerId, new PlayerStock("samsung", "300", "1")));
+        // 보유 조회 + 버전 검사 update(또는 delete) + 결과 조회
+        assertBudget(3, () -> playerService.updatePlayerStock(playerId, holding));
+        assertBudget(3, () -> playerService.updatePlayerStock(playerId, new PlayerStock(STOCK_NAME, "100", "0")));
+    }
+
+    @Test
+    void batchTradesDoNotScaleWithNewHoldings() {
+        List<TradeOrder> orders = new ArrayList<>();
+        for (int p = 0; p < 10; p++) {
+            String batchPlayerId = playerId + "-batch-" + p;
+            Player player = new Player(batchPlayerId);
+            player.setPlayerMoney(1_000_000);
+            playerRepository.save(player);
+            orders.add(order(batchPlayerId, STOCK_NAME, 2, TradeOrder.Side.BUY));
+            orders.add(order(batchPlayerId, "samsung", 1, TradeOrder.Side.BUY));
+            // 배치 안에서 0주가 된 새 보유 내역은 insert 하지 않는다
+            orders.add(order(batchPlayerId, "samsung", 1, TradeOrder.Side.SELL));
+        }
+        // 플레이어 잠금 조회 + 보유 조회 + 새 보유 batch insert + 플레이어 batch update
+        assertBudget(4, () -> batchTradeService.execute(orders));
+        assertThat(playerService.getPlayerStocks(playerId + "-batch-0"))
+                .extracting(PlayerStock::getStockName, PlayerStock::getStockQuantity)
+                .containsExactly(tuple(STOCK_NAME, 2));
+    }
+
+    @Test
+    void stockReadsAreServedFromCatalog() {
+        assertBudget(0, () -> stockService.getAllStocks());
+        assertBudget(0, () -> stockService.getStocks("GreenEnergy", 2));
+        assertBudget(0, () -> stockService.getStockByName(STOCK_NAME));
+        assertBudget(0, () -> stockService.getStockByIndex(1));
+        assertBudget(0, () -> stockService.getStockListForMenu());
+    }
+
+    @Test
+    void stockWrites() {
+        String stockName = "Budget" + sequence;
+        // merge(assigned id): select + insert / select + update / select + delete
+        // 생성/수정은 보유 내역 평가 가격 bulk update 1회 추가
+        assertBudget(3, () -> stockService.createStock(new Stock(stockName, 50)));
+        assertBudget(3, () -> stockService.updateStock(new Stock(stockName, 60)));
+        assertBudget(2, () -> stockService.deleteStock(stockName));
+        // 변경 후 첫 조회만 캐시를 다시 채운다
+        assertBudget(1, () -> stockService.getAllStocks());
+        assertBudget(0, () -> stockService.getAllStocks());
+    }
+
+    private static TradeOrder order(String playerId, String stockName, int quantity, TradeOrder.Side side) {
+        TradeOrder order = new TradeOrder();
+        order.setPlayerId(playerId);
+        order.setStockName(stockName);
+        order.setQuantity(quantity);
+        order.setSide(side);
+        return order;
+    }
+
+    private static void assertBudget(int maxStatements, Runnable call) {
+        assertThat(StatementCounter.count(call)).isLessThanOrEqualTo(maxStatements);
+    }
+}
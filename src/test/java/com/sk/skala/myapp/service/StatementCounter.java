@@ -0,0 +1,84 @@
+package com.sk.skala.myapp.service;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+
+/**
+ * 테스트용 SQL 문장 카운터.
+ * DataSource 를 JDBC 프록시로 감싸 Statement 실행(execute*, executeBatch 는 1회)을 호출 스레드 기준으로 센다.
+ * Hibernate, JdbcTemplate 경로를 모두 포함하고, 다른 스레드(시세 엔진, 리더보드 등)의 쿼리는 세지 않는다.
+ *
+ * <pre>
+ * &#64;Import(StatementCounter.Config.class)
+ * ...
+ * int statements = StatementCounter.count(() -> playerService.deletePlayer("skala"));
+ * </pre>
+ */
+final class StatementCounter {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private StatementCounter() {
+    }
+
+    static int count(Runnable call) {
+        int[] count = COUNT.get();
+        int before = count[0];
+        call.run();
+        return count[0] - before;
+    }
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+                        return proxy(DataSource.class, dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    // DataSource -> Connection -> Statement 순으로 반환값을 감싼다
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                COUNT.get()[0]++;
+            }
+            Object result = invoke(method, target, args);
+            if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                return proxy(Connection.class, connection);
+            }
+            if (result instanceof java.sql.Statement statement && method.getDeclaringClass() == Connection.class) {
+                return proxy((Class<java.sql.Statement>) method.getReturnType(), statement);
+            }
+            return result;
+        };
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.model.Stock;
+import com.sk.skala.myapp.repository.StockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// 캐시 동작만 보기 위해 StockCatalog 를 직접 만들고, 목록 조회 횟수를 세는 repository 프록시를 넘긴다
+@SpringBootTest
+@ActiveProfiles("test")
+class StockCatalogTest {
+
+    @Autowired
+    private StockRepository stockRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger loads = new AtomicInteger();
+    // 설정하면 목록 조회가 열릴 때까지 멈춘다
+    private volatile CountDownLatch gate;
+
+    @Test
+    void hitsUntilInvalidatedThenReloadsOnce() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StockCatalog catalog = catalog(meterRegistry, Duration.ofMinutes(1));
+
+        long version = catalog.getVersion();
+        assertThat(catalog.get("TechCorp").getStockPrice()).isEqualTo(100);
+        assertThat(catalog.getAll()).isNotEmpty();
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("stock.catalog.requests").tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("stock.catalog.requests").tag("result", "hit").counter().count()).isEqualTo(2);
+
+        catalog.invalidate();
+        assertThat(catalog.getVersion()).isGreaterThan(version);
+        catalog.getAll();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void fingerprintChangesOnlyWhenTheContentChanges() throws Exception {
+        jdbcTemplate.update("insert into stocks (stock_name, stock_price) values ('Catalog-Fp', 10)");
+        StockCatalog catalog = catalog(new SimpleMeterRegistry(), Duration.ofMillis(50));
+        StockCatalog.Snapshot first = catalog.snapshot();
+
+        // 만료 후 다시 읽어도 내용이 같으면 fingerprint, version 모두 그대로
+        Thread.sleep(100);
+        StockCatalog.Snapshot same = catalog.snapshot();
+        assertThat(loads).hasValue(2);
+        assertThat(same.getFingerprint()).isEqualTo(first.getFingerprint());
+        assertThat(same.getVersion()).isEqualTo(first.getVersion());
+
+        // 다른 pod 의 변경(invalidate 없이 DB 만 바뀜)은 만료 후 fingerprint 와 version 으로 드러난다
+        jdbcTemplate.update("update stocks set stock_price = 11 where stock_name = 'Catalog-Fp'");
+        Thread.sleep(100);
+        StockCatalog.Snapshot changed = catalog.snapshot();
+        assertThat(changed.getFingerprint()).isNotEqualTo(first.getFingerprint());
+        assertThat(changed.getVersion()).isGreaterThan(first.getVersion());
+        assertThat(changed.get("Catalog-Fp").getStockPrice()).isEqualTo(11);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        StockCatalog catalog = catalog(new SimpleMeterRegistry(), Duration.ofMinutes(1));
+        gate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<StockCatalog.Snapshot>> readers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                readers.add(executor.submit(catalog::snapshot));
+            }
+            Thread.sleep(200);
+            gate.countDown();
+
+            StockCatalog.Snapshot loaded = readers.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<StockCatalog.Snapshot> reader : readers) {
+                assertThat(reader.get(5, TimeUnit.SECONDS)).isSameAs(loaded);
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void expiredSnapshotIsServedWhileAnotherThreadReloads() throws Exception {
+        StockCatalog catalog = catalog(new SimpleMeterRegistry(), Duration.ofMillis(50));
+        StockCatalog.Snapshot expired = catalog.snapshot();
+        Thread.sleep(100);
+
+        gate = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<StockCatalog.Snapshot> reloading = executor.submit(catalog::snapshot);
+            while (loads.get() < 2) {
+                Thread.sleep(10);
+            }
+            // 적재가 멈춰 있어도 기다리지 않고 만료된 스냅샷을 받는다
+            assertThat(executor.submit(catalog::snapshot).get(1, TimeUnit.SECONDS)).isSameAs(expired);
+
+            gate.countDown();
+            assertThat(reloading.get(5, TimeUnit.SECONDS)).isNotSameAs(expired);
+        } finally {
+            gate.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void cachedStocksAreReadOnly() {
+        StockCatalog catalog = catalog(new SimpleMeterRegistry(), Duration.ofMinutes(1));
+        Stock stock = catalog.get("TechCorp");
+
+        assertThatThrownBy(() -> stock.setStockPrice(1)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> catalog.getAll().add(new Stock("x", 1)))
+                .isInstanceOf(UnsupportedOperationException.class);
+        assertThat(catalog.get("TechCorp").getStockPrice()).isEqualTo(100);
+    }
+
+    private StockCatalog catalog(SimpleMeterRegistry meterRegistry, Duration maxAge) {
+        StockRepository counting = (StockRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{StockRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("findAllByOrderByStockNameAsc")) {
+                        loads.incrementAndGet();
+                        CountDownLatch current = gate;
+                        if (current != null) {
+                            current.await();
+                        }
+                    }
+                    try {
+                        return method.invoke(stockRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        return new StockCatalog(counting, transactionManager, meterRegistry, maxAge);
+    }
+}
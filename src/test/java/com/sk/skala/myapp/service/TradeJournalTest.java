@@ -0,0 +1,178 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.TradeJournalProperties;
+import com.sk.skala.myapp.model.JournalRecord;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradeJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysRecordsInOrderAcrossSegments() {
+        TradeJournal journal = open();
+        journal.open(record -> { });
+        for (int i = 0; i < 500; i++) {
+            journal.append(JournalRecord.trade("player-" + (i % 7), "TechCorp", 1, -100, 100));
+        }
+        journal.append(JournalRecord.playerDelete("player-0"));
+        journal.awaitDurable(journal.getLastSeq());
+        journal.close();
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        TradeJournal reopened = open();
+        assertThat(reopened.open(replayed::add)).isEqualTo(501);
+        reopened.close();
+
+        assertThat(replayed).hasSize(501);
+        for (int i = 0; i < replayed.size(); i++) {
+            assertThat(replayed.get(i).getSeq()).isEqualTo(i + 1);
+        }
+        assertThat(replayed.get(3).getPlayerId()).isEqualTo("player-3");
+        assertThat(replayed.get(3).getMoney()).isEqualTo(-100);
+        assertThat(replayed.get(500).getType()).isEqualTo(JournalRecord.Type.PLAYER_DELETE);
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void dropsTornTailAndContinuesAfterLastValidRecord() throws Exception {
+        TradeJournal journal = open();
+        journal.open(record -> { });
+        for (int i = 0; i < 10; i++) {
+            journal.append(JournalRecord.trade("skala", "TechCorp", 1, -100, 100));
+        }
+        journal.awaitDurable(journal.getLastSeq());
+        journal.close();
+
+        // 마지막 레코드 본문 일부를 덮어써 쓰다 만 기록을 흉내 낸다
+        Path segment = segmentFiles().get(0);
+        int recordSize = 8 + 33 + 2 + "skala".length() + 2 + "TechCorp".length();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(9L * recordSize + 20);
+            file.write(new byte[]{1, 2, 3, 4});
+        }
+
+        TradeJournal reopened = open();
+        assertThat(reopened.open(record -> { })).isEqualTo(9);
+        reopened.append(JournalRecord.playerSet("skala", 5_000));
+        reopened.awaitDurable(reopened.getLastSeq());
+
+        List<JournalRecord> read = new ArrayList<>();
+        reopened.read(reopened.cursorAfter(8), 10, read::add);
+        reopened.close();
+
+        assertThat(read).extracting(JournalRecord::getSeq).containsExactly(9L, 10L);
+        assertThat(read.get(1).getType()).isEqualTo(JournalRecord.Type.PLAYER_SET);
+        assertThat(read.get(1).getMoney()).isEqualTo(5_000);
+    }
+
+    @Test
+    void replaysFromSnapshotAndDeletesOnlySegmentsBeforeSnapshotAndAppliedSeq() {
+        TradeJournal journal = open();
+        journal.open(record -> { });
+        for (int i = 0; i < 500; i++) {
+            journal.append(JournalRecord.trade("skala", "TechCorp", 1, -100, 100));
+        }
+        journal.awaitDurable(journal.getLastSeq());
+        int segmentsBefore = segmentFiles().size();
+        assertThat(segmentsBefore).isGreaterThan(3);
+
+        journal.markSnapshot(400);
+        // DB 반영이 200 까지면 201 이후가 든 segment 는 남긴다
+        journal.truncate(200);
+        assertThat(segmentFiles()).hasSizeLessThan(segmentsBefore);
+        assertThat(firstSeqs().get(0)).isLessThanOrEqualTo(201);
+        assertThat(firstSeqs().get(1)).isGreaterThan(201);
+        List<JournalRecord> pending = new ArrayList<>();
+        journal.read(journal.cursorAfter(200), 1000, pending::add);
+        assertThat(pending).extracting(JournalRecord::getSeq).startsWith(201L).endsWith(500L).hasSize(300);
+
+        // 모두 반영되면 스냅샷이 든 segment 부터 남는다
+        journal.truncate(500);
+        List<Long> firstSeqs = firstSeqs();
+        assertThat(firstSeqs.get(0)).isLessThanOrEqualTo(400);
+        assertThat(firstSeqs).filteredOn(seq -> seq <= 400).hasSize(1);
+        journal.close();
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        TradeJournal reopened = open();
+        assertThat(reopened.open(replayed::add)).isEqualTo(500);
+        assertThat(reopened.getSnapshotSeq()).isEqualTo(400);
+        assertThat(replayed).extracting(JournalRecord::getSeq).startsWith(400L).endsWith(500L).hasSize(101);
+
+        // 지워진 segment 뒤에서 seq 가 이어진다
+        assertThat(reopened.append(JournalRecord.playerSet("skala", 1_000))).isEqualTo(501);
+        reopened.awaitDurable(501);
+        List<JournalRecord> read = new ArrayList<>();
+        reopened.read(reopened.cursorAfter(499), 10, read::add);
+        reopened.close();
+        assertThat(read).extracting(JournalRecord::getSeq).containsExactly(500L, 501L);
+    }
+
+    @Test
+    void keepsWritingSegmentAndUnappliedRecords() {
+        TradeJournal journal = open();
+        journal.open(record -> { });
+        for (int i = 0; i < 300; i++) {
+            journal.append(JournalRecord.trade("skala", "TechCorp", 1, -100, 100));
+        }
+        journal.awaitDurable(journal.getLastSeq());
+        int segments = segmentFiles().size();
+
+        // 스냅샷이 없으면 반영이 끝나도 지우지 않는다
+        assertThat(journal.truncate(300)).isZero();
+
+        // 스냅샷 이후라도 DB에 반영되지 않은 레코드는 남긴다
+        journal.markSnapshot(301);
+        assertThat(journal.truncate(0)).isZero();
+        assertThat(segmentFiles()).hasSize(segments);
+
+        // 기록 중인 마지막 segment 는 남는다
+        journal.truncate(300);
+        assertThat(segmentFiles()).hasSize(1);
+        assertThat(journal.append(JournalRecord.playerDelete("skala"))).isEqualTo(301);
+        journal.awaitDurable(301);
+        journal.close();
+
+        List<JournalRecord> replayed = new ArrayList<>();
+        TradeJournal reopened = open();
+        assertThat(reopened.open(replayed::add)).isEqualTo(301);
+        reopened.close();
+        assertThat(replayed).extracting(JournalRecord::getType).containsExactly(JournalRecord.Type.PLAYER_DELETE);
+    }
+
+    private TradeJournal open() {
+        TradeJournalProperties properties = new TradeJournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofKilobytes(8));
+        return new TradeJournal(properties, new SimpleMeterRegistry());
+    }
+
+    private List<Long> firstSeqs() {
+        return segmentFiles().stream()
+                .map(path -> path.getFileName().toString())
+                .map(name -> Long.parseLong(name.substring("journal-".length(), name.length() - ".log".length())))
+                .toList();
+    }
+
+    private List<Path> segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(".log")).sorted().toList();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.sk.skala.myapp.service;
+
+import com.sk.skala.myapp.config.TradePipelineProperties;
+import com.sk.skala.myapp.model.Player;
+import com.sk.skala.myapp.model.TradeOrder;
+import com.sk.skala.myapp.model.TradeOrderResult;
+import com.sk.skala.myapp.model.TradeResult;
+import com.sk.skala.myapp.repository.PlayerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class TradePipelineTest {
+    private static final String STOCK_NAME = "TechCorp";
+
+    @Autowired
+    private BatchTradeService batchTradeService;
+
+    @Autowired
+    private PlayerService playerService;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    @Autowired
+    private StockCatalog stockCatalog;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void groupsTradesIntoOneCommitAndCompletesEachFuture() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TradePipeline pipeline = new TradePipeline(
+                properties(2, 1_000, Duration.ofMillis(50), 500), batchTradeService, playerService, meterRegistry);
+        int price = stockCatalog.get(STOCK_NAME).getStockPrice();
+        List<String> players = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            players.add(createPlayer("pipeline-" + i));
+        }
+
+        pipeline.start();
+        try {
+            List<CompletableFuture<TradeResult>> futures = new ArrayList<>();
+            for (int round = 0; round < 4; round++) {
+                for (String playerId : players) {
+                    futures.add(pipeline.buy(playerId, STOCK_NAME, 2));
+                }
+            }
+            futures.add(pipeline.sell(players.get(0), STOCK_NAME, 3));
+            futures.add(pipeline.sell(players.get(1), STOCK_NAME, 100));
+
+            List<TradeResult> results = futures.stream().map(CompletableFuture::join).toList();
+            assertThat(results.subList(0, 21)).allMatch(TradeResult::isOk);
+            assertThat(results.get(21).getStatus()).isEqualTo(TradeResult.Status.INSUFFICIENT_QUANTITY);
+            // 같은 플레이어의 거래는 접수 순서대로 반영된다
+            assertThat(results.get(20).getPlayer().getPlayerMoney()).isEqualTo(10_000 - 8 * price + 3 * price);
+        } finally {
+            pipeline.stop();
+        }
+
+        assertThat(playerService.getPlayerById(players.get(2)).getPlayerMoney()).isEqualTo(10_000 - 8 * price);
+        assertThat(playerService.getPlayerStocks(players.get(0)))
+                .singleElement().satisfies(holding -> assertThat(holding.getStockQuantity()).isEqualTo(5));
+        // 22건이 partition 2개에서 여러 건씩 묶여 커밋됨
+        assertThat(meterRegistry.get("trade.pipeline.batch.size").summary().count()).isLessThan(22);
+        assertThat(meterRegistry.get("trade.pipeline.batch.size").summary().max()).isGreaterThan(1);
+    }
+
+    @Test
+    void rejectsWhenQueueIsFull() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // 첫 배치 커밋을 붙잡아 두고 큐를 채운다
+        BatchTradeService blocking = new BatchTradeService(null, null, null, null, null) {
+            @Override
+            public List<TradeOrderResult> execute(List<? extends TradeOrder> orders) {
+                committing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return batchTradeService.execute(orders);
+            }
+        };
+        TradePipeline pipeline = new TradePipeline(
+                properties(1, 2, Duration.ZERO, 1), blocking, playerService, new SimpleMeterRegistry());
+        String playerId = createPlayer("pipeline-full");
+
+        pipeline.start();
+        try {
+            CompletableFuture<TradeResult> first = pipeline.buy(playerId, STOCK_NAME, 1);
+            assertThat(committing.await(5, TimeUnit.SECONDS)).isTrue();
+            CompletableFuture<TradeResult> second = pipeline.buy(playerId, STOCK_NAME, 1);
+            CompletableFuture<TradeResult> third = pipeline.buy(playerId, STOCK_NAME, 1);
+            CompletableFuture<TradeResult> rejected = pipeline.buy(playerId, STOCK_NAME, 1);
+
+            assertThat(pipeline.queueDepth()).isEqualTo(2);
+            assertThat(rejected).isCompletedExceptionally();
+            assertThat(rejected.handle((result, e) -> e).join()).isInstanceOf(RejectedExecutionException.class);
+
+            release.countDown();
+            assertThat(List.of(first.join(), second.join(), third.join())).allMatch(TradeResult::isOk);
+        } finally {
+            release.countDown();
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void tradeIsAnsweredSynchronouslyWhenPipelineIsDisabled() throws Exception {
+        String playerId = createPlayer("pipeline-off");
+
+        mockMvc.perform(post("/api/players/{id}/stocks", playerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stockName\":\"" + STOCK_NAME + "\",\"quantity\":1}"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk());
+    }
+
+    private static TradePipelineProperties properties(int partitions, int queueCapacity,
+                                                      Duration commitInterval, int maxBatchSize) {
+        TradePipelineProperties properties = new TradePipelineProperties();
+        properties.setEnabled(true);
+        properties.setPartitions(partitions);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setCommitInterval(commitInterval);
+        properties.setMaxBatchSize(maxBatchSize);
+        return properties;
+    }
+
+    private String createPlayer(String prefix) {
+        String playerId = prefix + "-" + System.nanoTime();
+        playerRepository.save(new Player(playerId));
+        return playerId;
+    }
+}